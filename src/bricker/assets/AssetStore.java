@@ -0,0 +1,96 @@
+package bricker.assets;
+
+import danogl.gui.ImageReader;
+import danogl.gui.Sound;
+import danogl.gui.SoundReader;
+import danogl.gui.rendering.Renderable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The images and sounds of the game, each decoded once and then shared by every game reading it. Decoded
+ * assets are only ever read, never changed, so any number of games (e.g. the boards of a BoardWall),
+ * updated on any number of threads, can draw and play the same instances.
+ * A store without an image reader or a sound reader (a headless game) returns null for every image or
+ * every sound, and a disabled store returns null for everything.
+ *
+ * @author Aron Isaacs
+ * @see bricker.main.BoardWall
+ */
+public class AssetStore {
+	private final ImageReader imageReader;
+	private final SoundReader soundReader;
+	private final Map<String, Renderable> images = new ConcurrentHashMap<>();
+	private final Map<String, Sound> sounds = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs an empty AssetStore decoding assets with the given readers.
+	 *
+	 * @param imageReader decodes images, or null for no images
+	 * @param soundReader decodes sounds, or null for no sounds
+	 */
+	public AssetStore(ImageReader imageReader, SoundReader soundReader) {
+		this.imageReader = imageReader;
+		this.soundReader = soundReader;
+	}
+
+	/**
+	 * Creates a store without images or sounds.
+	 *
+	 * @return a disabled store
+	 */
+	public static AssetStore disabled() {
+		return new AssetStore(null, null);
+	}
+
+	/**
+	 * Checks whether the store decodes anything.
+	 *
+	 * @return true if the store has an image reader or a sound reader
+	 */
+	public boolean isEnabled() {
+		return imageReader != null || soundReader != null;
+	}
+
+	/**
+	 * Gets an image, decoding it the first time it is asked for.
+	 *
+	 * @param path                      the path of the image file
+	 * @param isTopLeftPixelTransparent whether the color of the top-left pixel is drawn transparent
+	 * @return the shared image, or null without an image reader
+	 */
+	public Renderable readImage(String path, boolean isTopLeftPixelTransparent) {
+		if (imageReader == null) {
+			return null;
+		}
+		String key = path + (isTopLeftPixelTransparent ? "#transparent" : "#opaque");
+		Renderable image = images.get(key);
+		if (image != null) {
+			return image;
+		}
+		synchronized (this) { // the readers are not meant to be called from several threads
+			return images.computeIfAbsent(key, ignored -> imageReader.readImage(path,
+					isTopLeftPixelTransparent));
+		}
+	}
+
+	/**
+	 * Gets a sound, decoding it the first time it is asked for.
+	 *
+	 * @param path the path of the sound file
+	 * @return the shared sound, or null without a sound reader
+	 */
+	public Sound readSound(String path) {
+		if (soundReader == null) {
+			return null;
+		}
+		Sound sound = sounds.get(path);
+		if (sound != null) {
+			return sound;
+		}
+		synchronized (this) {
+			return sounds.computeIfAbsent(path, ignored -> soundReader.readSound(path));
+		}
+	}
+}
@@ -0,0 +1,438 @@
+package bricker.ball_collisions;
+
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.Brick;
+import bricker.gameobjects.Paddle;
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Finds the collisions of the balls (the main ball and the pucks) with the bricks and the paddles,
+ * instead of the engine. With hundreds of pucks on screen these checks dominate the frame, so the balls
+ * are split by region (vertical strips of the window) and the strips are checked in parallel on the
+ * fork/join pool. Bricks are looked up in a grid, so a ball only checks the cells it overlaps.
+ * The checks only read positions; the contacts they find are sorted (by ball, then by brick or paddle)
+ * and applied afterwards on the game thread, so a frame plays out exactly as it would on one thread.
+ * Like the engine, only contacts that were not there in the previous frame are reported.
+ * A pass allocates nothing once its buffers have grown to the number of balls and contacts: contacts are
+ * packed into longs, and the contacts of the previous frame are kept in one of two open addressing sets
+ * that swap roles every frame.
+ *
+ * @author Ron Stein
+ * @see bricker.gameobjects.Ball
+ * @see bricker.gameobjects.Brick
+ * @see bricker.gameobjects.Paddle
+ */
+public class BallCollisionPass {
+	private static final int PARALLEL_THRESHOLD = 64; // fewer balls are not worth handing out
+	private static final int REGIONS_PER_THREAD = 2;
+	private static final int INITIAL_CAPACITY = 64;
+	// a contact is packed as ball order (high int), then target order and normal (low int, 2 bits)
+	private static final int ORDER_BITS = Integer.SIZE;
+	private static final int NORMAL_BITS = 2;
+	private static final int NORMAL_MASK = (1 << NORMAL_BITS) - 1;
+	private static final Vector2[] NORMALS = {new Vector2(1, 0), new Vector2(-1, 0), new Vector2(0, 1),
+			new Vector2(0, -1)};
+	private final int numRows;
+	private final int numCols;
+	private final Vector2 gridTopLeft;
+	private final Vector2 cellPitch;
+	private final Brick[] cells;
+	private final float windowWidth;
+	private final int numRegions;
+	private final List<Ball> balls = new ArrayList<>();
+	private final List<Paddle> paddles = new ArrayList<>();
+	// the balls of region r are regionBalls[regionStarts[r]] to regionBalls[regionStarts[r + 1] - 1]
+	private final int[] regionStarts;
+	private final int[] regionEnds;
+	private final long[][] regionContacts;
+	private final int[] numRegionContacts;
+	private final IntConsumer regionTask = this::findRegionContacts;
+	private int[] regionBalls = new int[INITIAL_CAPACITY];
+	private int[] ballRegions = new int[INITIAL_CAPACITY];
+	private long[] contacts = new long[INITIAL_CAPACITY];
+	private GameObject[] contactTargets = new GameObject[INITIAL_CAPACITY];
+	private ContactSet previousContacts = new ContactSet();
+	private ContactSet currentContacts = new ContactSet();
+
+	/**
+	 * Constructs a BallCollisionPass for a grid of bricks.
+	 *
+	 * @param numRows          the number of rows of bricks
+	 * @param numCols          the number of bricks per row
+	 * @param gridTopLeft      the top-left corner of the brick in row 0 and column 0
+	 * @param cellPitch        the distance between the top-left corners of neighboring bricks
+	 * @param windowDimensions the dimensions of the window, which is split into regions
+	 */
+	public BallCollisionPass(int numRows, int numCols, Vector2 gridTopLeft, Vector2 cellPitch,
+							 Vector2 windowDimensions) {
+		this.numRows = numRows;
+		this.numCols = numCols;
+		this.gridTopLeft = gridTopLeft;
+		this.cellPitch = cellPitch;
+		this.cells = new Brick[numRows * numCols];
+		this.windowWidth = windowDimensions.x();
+		this.numRegions = Runtime.getRuntime().availableProcessors() * REGIONS_PER_THREAD;
+		this.regionStarts = new int[numRegions + 1];
+		this.regionEnds = new int[numRegions];
+		this.regionContacts = new long[numRegions][INITIAL_CAPACITY];
+		this.numRegionContacts = new int[numRegions];
+	}
+
+	/**
+	 * Adds a brick to the grid, in the cell of its row and column.
+	 *
+	 * @param brick the brick to add
+	 */
+	public void addBrick(Brick brick) {
+		cells[brick.getRow() * numCols + brick.getCol()] = brick;
+	}
+
+	/**
+	 * Removes a brick from the grid, after it was removed from the game.
+	 *
+	 * @param brick the brick to remove
+	 */
+	public void removeBrick(Brick brick) {
+		int cell = brick.getRow() * numCols + brick.getCol();
+		if (cells[cell] == brick) {
+			cells[cell] = null;
+		}
+	}
+
+	/**
+	 * Gets the brick in a cell of the grid.
+	 *
+	 * @param row the row of the cell
+	 * @param col the column of the cell
+	 * @return the brick, or null if the cell is empty
+	 */
+	public Brick getBrick(int row, int col) {
+		return cells[row * numCols + col];
+	}
+
+	/**
+	 * Goes over the contacts found in the last pass, which will not be reported again while they last.
+	 *
+	 * @param action called with the ball and the brick or paddle of every contact
+	 */
+	public void forEachContact(BiConsumer<GameObject, GameObject> action) {
+		previousContacts.forEach(action);
+	}
+
+	/**
+	 * Forgets the contacts found in the last pass, before the contacts of a restored game are restored.
+	 */
+	public void clearContacts() {
+		previousContacts.clear();
+	}
+
+	/**
+	 * Remembers a contact as found in the last pass, so it is not reported again. Used when a game is
+	 * restored in the middle.
+	 *
+	 * @param ball   the ball
+	 * @param target the brick or paddle it touches
+	 */
+	public void restoreContact(GameObject ball, GameObject target) {
+		previousContacts.add(ball, target);
+	}
+
+	/**
+	 * Checks every ball against the bricks and paddles, and applies the new contacts in order: the ball
+	 * bounces off the brick or paddle, then the brick or paddle reacts to the hit.
+	 *
+	 * @param movingObjects the objects of the default layer, where the balls and paddles are
+	 */
+	public void run(Iterable<GameObject> movingObjects) {
+		collectBallsAndPaddles(movingObjects);
+		int numContacts = findSortedContacts(balls.size() >= PARALLEL_THRESHOLD);
+		// the targets are resolved before any contact is applied, since a hit may remove bricks
+		if (contactTargets.length < numContacts) {
+			contactTargets = new GameObject[contacts.length];
+		}
+		for (int i = 0; i < numContacts; i++) {
+			contactTargets[i] = targetOf(contacts[i]);
+		}
+		currentContacts.clear();
+		for (int i = 0; i < numContacts; i++) {
+			Ball ball = balls.get((int) (contacts[i] >>> ORDER_BITS));
+			GameObject target = contactTargets[i];
+			currentContacts.add(ball, target);
+			if (!previousContacts.contains(ball, target)) {
+				ball.bounce(NORMALS[(int) contacts[i] & NORMAL_MASK]);
+				target.onCollisionEnter(ball, null);
+			}
+		}
+		Arrays.fill(contactTargets, 0, numContacts, null);
+		ContactSet swapped = previousContacts;
+		previousContacts = currentContacts;
+		currentContacts = swapped;
+		balls.clear();
+		paddles.clear();
+	}
+
+	/*
+	 * Finds the contacts of the balls among the moving objects, on the calling thread or in parallel,
+	 * without applying them, and returns them sorted, packed as in run. Used to check that both ways
+	 * find the same contacts.
+	 */
+	long[] findContacts(Iterable<GameObject> movingObjects, boolean inParallel) {
+		collectBallsAndPaddles(movingObjects);
+		int numContacts = findSortedContacts(inParallel);
+		balls.clear();
+		paddles.clear();
+		return Arrays.copyOf(contacts, numContacts);
+	}
+
+	/*
+	 * Sorts the balls and paddles out of the moving objects, keeping their order.
+	 */
+	private void collectBallsAndPaddles(Iterable<GameObject> movingObjects) {
+		balls.clear();
+		paddles.clear();
+		for (GameObject gameObject : movingObjects) {
+			if (gameObject instanceof Ball ball) {
+				balls.add(ball);
+			} else if (gameObject instanceof Paddle paddle) {
+				paddles.add(paddle);
+			}
+		}
+	}
+
+	/*
+	 * Finds the contacts of the collected balls, all in region 0 or bucketed by the vertical strip their
+	 * center is in and checked in parallel, and gathers them into contacts sorted by ball then target.
+	 * Returns the number of contacts.
+	 */
+	private int findSortedContacts(boolean inParallel) {
+		int numBalls = balls.size();
+		if (regionBalls.length < numBalls) {
+			regionBalls = new int[Math.max(numBalls, regionBalls.length * 2)];
+			ballRegions = new int[regionBalls.length];
+		}
+		if (inParallel) {
+			bucketBalls();
+			IntStream.range(0, numRegions).parallel().forEach(regionTask);
+		} else {
+			for (int i = 0; i < numBalls; i++) {
+				regionBalls[i] = i;
+			}
+			Arrays.fill(numRegionContacts, 0);
+			findContacts(0, numBalls, 0);
+		}
+		int numContacts = 0;
+		for (int region = 0; region < numRegions; region++) {
+			numContacts += numRegionContacts[region];
+		}
+		if (contacts.length < numContacts) {
+			contacts = new long[Math.max(numContacts, contacts.length * 2)];
+		}
+		int end = 0;
+		for (int region = 0; region < numRegions; region++) {
+			System.arraycopy(regionContacts[region], 0, contacts, end, numRegionContacts[region]);
+			end += numRegionContacts[region];
+		}
+		Arrays.sort(contacts, 0, numContacts);
+		return numContacts;
+	}
+
+	/*
+	 * Sorts the ball indices by region, keeping their order within a region (a counting sort).
+	 */
+	private void bucketBalls() {
+		int numBalls = balls.size();
+		float regionWidth = windowWidth / numRegions;
+		Arrays.fill(regionStarts, 0);
+		for (int i = 0; i < numBalls; i++) {
+			int region = (int) (balls.get(i).getCenter().x() / regionWidth);
+			ballRegions[i] = Math.max(0, Math.min(numRegions - 1, region));
+			regionStarts[ballRegions[i] + 1]++;
+		}
+		for (int region = 0; region < numRegions; region++) {
+			regionStarts[region + 1] += regionStarts[region];
+			regionEnds[region] = regionStarts[region];
+		}
+		for (int i = 0; i < numBalls; i++) {
+			regionBalls[regionEnds[ballRegions[i]]++] = i;
+		}
+	}
+
+	/*
+	 * Checks the balls of one region, as a task of the parallel pass.
+	 */
+	private void findRegionContacts(int region) {
+		numRegionContacts[region] = 0;
+		findContacts(regionStarts[region], regionStarts[region + 1], region);
+	}
+
+	/*
+	 * Checks the balls regionBalls[from..to] against the bricks in the cells they overlap and against
+	 * every paddle, adding the contacts to the buffer of the region. Reads positions only, so it is safe
+	 * to run for several regions at once.
+	 */
+	private void findContacts(int from, int to, int region) {
+		for (int i = from; i < to; i++) {
+			int ballOrder = regionBalls[i];
+			Ball ball = balls.get(ballOrder);
+			Vector2 topLeft = ball.getTopLeftCorner();
+			Vector2 dimensions = ball.getDimensions();
+			float right = topLeft.x() + dimensions.x();
+			float bottom = topLeft.y() + dimensions.y();
+			int firstCol = Math.max(0, (int) Math.floor((topLeft.x() - gridTopLeft.x()) / cellPitch.x()));
+			int lastCol = Math.min(numCols - 1, (int) Math.floor((right - gridTopLeft.x()) / cellPitch.x()));
+			int firstRow = Math.max(0, (int) Math.floor((topLeft.y() - gridTopLeft.y()) / cellPitch.y()));
+			int lastRow = Math.min(numRows - 1, (int) Math.floor((bottom - gridTopLeft.y()) / cellPitch.y()));
+			for (int row = firstRow; row <= lastRow; row++) {
+				for (int col = firstCol; col <= lastCol; col++) {
+					int cell = row * numCols + col;
+					if (cells[cell] != null) {
+						addContact(region, ball, ballOrder, cells[cell], cell);
+					}
+				}
+			}
+			for (int j = 0; j < paddles.size(); j++) {
+				addContact(region, ball, ballOrder, paddles.get(j), cells.length + j);
+			}
+		}
+	}
+
+	/*
+	 * Adds a contact if the boxes of the ball and the target overlap. The normal is along the axis of
+	 * least penetration, pointing from the target towards the ball.
+	 */
+	private void addContact(int region, Ball ball, int ballOrder, GameObject target, int targetOrder) {
+		Vector2 ballTopLeft = ball.getTopLeftCorner();
+		Vector2 ballDimensions = ball.getDimensions();
+		Vector2 targetTopLeft = target.getTopLeftCorner();
+		Vector2 targetDimensions = target.getDimensions();
+		float overlapX = Math.min(ballTopLeft.x() + ballDimensions.x(),
+				targetTopLeft.x() + targetDimensions.x()) - Math.max(ballTopLeft.x(), targetTopLeft.x());
+		float overlapY = Math.min(ballTopLeft.y() + ballDimensions.y(),
+				targetTopLeft.y() + targetDimensions.y()) - Math.max(ballTopLeft.y(), targetTopLeft.y());
+		if (overlapX <= 0 || overlapY <= 0) {
+			return;
+		}
+		float offsetX = ballTopLeft.x() + ballDimensions.x() / 2
+				- (targetTopLeft.x() + targetDimensions.x() / 2);
+		float offsetY = ballTopLeft.y() + ballDimensions.y() / 2
+				- (targetTopLeft.y() + targetDimensions.y() / 2);
+		int normal;
+		if (overlapX < overlapY) {
+			normal = Math.signum(offsetX) >= 0 ? 0 : 1;
+		} else {
+			normal = Math.signum(offsetY) >= 0 ? 2 : 3;
+		}
+		long[] found = regionContacts[region];
+		int count = numRegionContacts[region];
+		if (count == found.length) {
+			found = Arrays.copyOf(found, count * 2);
+			regionContacts[region] = found;
+		}
+		found[count] = (long) ballOrder << ORDER_BITS | (long) targetOrder << NORMAL_BITS | normal;
+		numRegionContacts[region] = count + 1;
+	}
+
+	/*
+	 * The brick or paddle of a packed contact.
+	 */
+	private GameObject targetOf(long contact) {
+		int targetOrder = (int) contact >>> NORMAL_BITS;
+		return targetOrder < cells.length ? cells[targetOrder] : paddles.get(targetOrder - cells.length);
+	}
+
+	/*
+	 * A set of pairs of touching objects, compared by identity, kept in open addressing arrays so that
+	 * adding and clearing allocate nothing once the arrays are large enough.
+	 */
+	private static final class ContactSet {
+		private GameObject[] balls = new GameObject[INITIAL_CAPACITY];
+		private GameObject[] targets = new GameObject[INITIAL_CAPACITY];
+		private int size;
+
+		/*
+		 * Checks whether the set holds a pair.
+		 */
+		private boolean contains(GameObject ball, GameObject target) {
+			int mask = balls.length - 1;
+			for (int slot = slotOf(ball, target, mask); balls[slot] != null; slot = (slot + 1) & mask) {
+				if (balls[slot] == ball && targets[slot] == target) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/*
+		 * Adds a pair, unless the set holds it already. Keeps the arrays at most half full.
+		 */
+		private void add(GameObject ball, GameObject target) {
+			if (2 * (size + 1) > balls.length) {
+				grow();
+			}
+			int mask = balls.length - 1;
+			int slot = slotOf(ball, target, mask);
+			for (; balls[slot] != null; slot = (slot + 1) & mask) {
+				if (balls[slot] == ball && targets[slot] == target) {
+					return;
+				}
+			}
+			balls[slot] = ball;
+			targets[slot] = target;
+			size++;
+		}
+
+		/*
+		 * Removes every pair.
+		 */
+		private void clear() {
+			if (size > 0) {
+				Arrays.fill(balls, null);
+				Arrays.fill(targets, null);
+				size = 0;
+			}
+		}
+
+		/*
+		 * Calls the action with every pair.
+		 */
+		private void forEach(BiConsumer<GameObject, GameObject> action) {
+			for (int slot = 0; slot < balls.length; slot++) {
+				if (balls[slot] != null) {
+					action.accept(balls[slot], targets[slot]);
+				}
+			}
+		}
+
+		/*
+		 * Doubles the arrays and adds the pairs again.
+		 */
+		private void grow() {
+			GameObject[] oldBalls = balls;
+			GameObject[] oldTargets = targets;
+			balls = new GameObject[oldBalls.length * 2];
+			targets = new GameObject[oldBalls.length * 2];
+			size = 0;
+			for (int slot = 0; slot < oldBalls.length; slot++) {
+				if (oldBalls[slot] != null) {
+					add(oldBalls[slot], oldTargets[slot]);
+				}
+			}
+		}
+
+		/*
+		 * The slot a pair is looked for from.
+		 */
+		private static int slotOf(GameObject ball, GameObject target, int mask) {
+			int hash = System.identityHashCode(ball) * 31 + System.identityHashCode(target);
+			return (hash * 0x9E3779B9) >>> 16 & mask;
+		}
+	}
+}
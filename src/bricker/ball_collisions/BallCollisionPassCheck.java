@@ -0,0 +1,94 @@
+package bricker.ball_collisions;
+
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.Brick;
+import bricker.gameobjects.Paddle;
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A self-check of the BallCollisionPass, runnable without a window: a crowd of balls spread over a board
+ * of bricks, across the strips the window is split into and onto the paddles, must give the same sorted
+ * contacts when checked on one thread and when checked strip by strip in parallel.
+ *
+ * @author Ron Stein
+ * @see BallCollisionPass
+ */
+public class BallCollisionPassCheck {
+	private static final Vector2 WINDOW_DIMENSIONS = new Vector2(800, 600);
+	private static final int NUM_ROWS = 8;
+	private static final int NUM_COLS = 16;
+	private static final Vector2 GRID_TOP_LEFT = new Vector2(5, 5);
+	private static final Vector2 CELL_PITCH = new Vector2(49, 16);
+	private static final Vector2 BRICK_DIMENSIONS = new Vector2(48, 15);
+	private static final Vector2 PADDLE_DIMENSIONS = new Vector2(100, 15);
+	private static final Vector2 BALL_DIMENSIONS = new Vector2(12, 12);
+	private static final int NUM_PADDLES = 2;
+	private static final int NUM_BALLS = 256;
+	private static final int NUM_ROUNDS = 3;
+	private static final long SEED = 42;
+
+	/**
+	 * Constructor for the BallCollisionPassCheck.
+	 */
+	public BallCollisionPassCheck() {
+	}
+
+	/**
+	 * Runs the check, and prints its result.
+	 *
+	 * @param args ignored
+	 * @throws IllegalStateException if the pass does not behave as documented
+	 */
+	public static void main(String[] args) {
+		SplittableRandom random = new SplittableRandom(SEED);
+		BallCollisionPass pass = new BallCollisionPass(NUM_ROWS, NUM_COLS, GRID_TOP_LEFT, CELL_PITCH,
+				WINDOW_DIMENSIONS);
+		for (int row = 0; row < NUM_ROWS; row++) {
+			for (int col = 0; col < NUM_COLS; col++) {
+				if (random.nextInt(4) != 0) { // leave some cells empty
+					pass.addBrick(new Brick(row, col, GRID_TOP_LEFT.add(new Vector2(col * CELL_PITCH.x(),
+							row * CELL_PITCH.y())), BRICK_DIMENSIONS, null, null, () -> 0));
+				}
+			}
+		}
+		List<GameObject> movingObjects = new ArrayList<>();
+		for (int i = 0; i < NUM_PADDLES; i++) {
+			movingObjects.add(new Paddle(new Vector2(i * WINDOW_DIMENSIONS.x() / NUM_PADDLES,
+					WINDOW_DIMENSIONS.y() - 2 * PADDLE_DIMENSIONS.y()), PADDLE_DIMENSIONS, WINDOW_DIMENSIONS,
+					null, null, null));
+		}
+		float boardBottom = GRID_TOP_LEFT.y() + NUM_ROWS * CELL_PITCH.y();
+		for (int i = 0; i < NUM_BALLS; i++) {
+			float y = i % 4 == 0 ? WINDOW_DIMENSIONS.y() - 2 * PADDLE_DIMENSIONS.y() - BALL_DIMENSIONS.y() / 2
+					: (float) random.nextDouble(boardBottom + BALL_DIMENSIONS.y());
+			movingObjects.add(new Ball(new Vector2((float) random.nextDouble(WINDOW_DIMENSIONS.x()), y),
+					BALL_DIMENSIONS, null, null));
+		}
+
+		for (int round = 0; round < NUM_ROUNDS; round++) {
+			long[] serial = pass.findContacts(movingObjects, false);
+			long[] parallel = pass.findContacts(movingObjects, true);
+			check(serial.length > NUM_BALLS / 2,
+					"a crowd of balls over the board touches bricks and paddles");
+			check(Arrays.equals(serial, parallel),
+					"the parallel pass finds the contacts of the serial pass, in the same order (round "
+							+ round + ")");
+		}
+		System.out.println("BallCollisionPass: ok");
+	}
+
+	/*
+	 * Throws if a property of the pass does not hold.
+	 */
+	private static void check(boolean holds, String property) {
+		if (!holds) {
+			throw new IllegalStateException("BallCollisionPass: " + property + " does not hold");
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package bricker.brick_strategies;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A sampling table for drawing an outcome with given integer weights in constant time, regardless of
+ * the number of outcomes (Vose's alias method). Building the table is linear in the number of outcomes.
+ *
+ * @author Ron Stein
+ * @see CollisionStrategyFactory
+ */
+public class AliasTable {
+	private final double[] probability;
+	private final int[] alias;
+
+	/**
+	 * Builds an alias table for the given weights.
+	 *
+	 * @param weights the weight of each outcome, none negative and at least one positive
+	 */
+	public AliasTable(int[] weights) {
+		int n = weights.length;
+		long total = 0;
+		for (int weight : weights) {
+			if (weight < 0) {
+				throw new IllegalArgumentException("negative weight: " + weight);
+			}
+			total += weight;
+		}
+		if (total == 0) {
+			throw new IllegalArgumentException("at least one weight must be positive");
+		}
+		probability = new double[n];
+		alias = new int[n];
+		// scale so the average weight is 1, then pair every small column with a large one
+		double[] scaled = new double[n];
+		int[] small = new int[n];
+		int[] large = new int[n];
+		int smallCount = 0;
+		int largeCount = 0;
+		for (int i = 0; i < n; i++) {
+			scaled[i] = (double) weights[i] * n / total;
+			if (scaled[i] < 1) {
+				small[smallCount++] = i;
+			} else {
+				large[largeCount++] = i;
+			}
+		}
+		while (smallCount > 0 && largeCount > 0) {
+			int less = small[--smallCount];
+			int more = large[--largeCount];
+			probability[less] = scaled[less];
+			alias[less] = more;
+			scaled[more] = scaled[more] + scaled[less] - 1;
+			if (scaled[more] < 1) {
+				small[smallCount++] = more;
+			} else {
+				large[largeCount++] = more;
+			}
+		}
+		// whatever is left is 1 up to rounding errors
+		while (largeCount > 0) {
+			probability[large[--largeCount]] = 1;
+		}
+		while (smallCount > 0) {
+			probability[small[--smallCount]] = 1;
+		}
+	}
+
+	/**
+	 * Draws an outcome.
+	 *
+	 * @param random the source of randomness
+	 * @return the index of the drawn outcome
+	 */
+	public int sample(RandomGenerator random) {
+		int column = random.nextInt(probability.length);
+		return random.nextDouble() < probability[column] ? column : alias[column];
+	}
+}
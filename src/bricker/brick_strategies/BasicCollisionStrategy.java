@@ -1,6 +1,7 @@
 package bricker.brick_strategies;
 
 import danogl.GameObject;
+import bricker.gameplay_events.GameplayEventType;
 import bricker.main.BrickerGameManager;
 
 /**
@@ -25,13 +26,16 @@ public class BasicCollisionStrategy implements CollisionStrategy {
 	}
 
 	/**
-	 * Handles the collision event by removing the brick from the game.
+	 * Handles the collision event by removing the brick from the game, and publishes the destroyed brick
+	 * to the gameplay event bus.
 	 *
 	 * @param thisObj  the brick that was collided with
 	 * @param otherObj the other game object involved in the collision
 	 */
 	@Override
 	public void onCollision(GameObject thisObj, GameObject otherObj) {
-		brickerGameManager.removeBrick(thisObj);
+		if (brickerGameManager.removeBrick(thisObj)) {
+			brickerGameManager.getEventBus().publish(GameplayEventType.BRICK_DESTROYED, thisObj, otherObj);
+		}
 	}
 }
@@ -17,4 +17,13 @@ public interface CollisionStrategy {
 	 * @param otherObj the other game object involved in the collision
 	 */
 	void onCollision(GameObject thisObj, GameObject otherObj);
+
+	/**
+	 * Describes the strategy, for profiling and logging. Decorators list the whole chain.
+	 *
+	 * @return a short name of the strategy, e.g. "Basic"
+	 */
+	default String describe() {
+		return getClass().getSimpleName().replace("CollisionStrategy", "");
+	}
 }
@@ -32,4 +32,14 @@ public abstract class CollisionStrategyDecorator implements CollisionStrategy {
 	public void onCollision(danogl.GameObject thisObj, danogl.GameObject otherObj) {
 		decoratedStrategy.onCollision(thisObj, otherObj);
 	}
+
+	/**
+	 * Describes this strategy followed by the chain it decorates.
+	 *
+	 * @return the names of the strategies in the chain, e.g. "ExtraPuck > Basic"
+	 */
+	@Override
+	public String describe() {
+		return CollisionStrategy.super.describe() + " > " + decoratedStrategy.describe();
+	}
 }
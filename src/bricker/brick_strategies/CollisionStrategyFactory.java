@@ -1,6 +1,9 @@
 package bricker.brick_strategies;
 
-import java.util.Random;
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+import java.util.stream.IntStream;
 
 import bricker.main.BrickerGameManager;
 
@@ -8,26 +11,81 @@ import bricker.main.BrickerGameManager;
  * A factory class for creating collision strategies.
  * Handles the random selection and composition of different collision strategies. Including the double
  * strategy which can combine two or more other strategies.
+ * The strategies and their weights come from a CollisionStrategyRegistry and are turned into alias
+ * tables once, so every draw takes constant time no matter how many strategies are registered.
+ * Outcomes with weight 0 are left out of the tables, so registering a strategy that is never drawn does
+ * not change the draws of a seed.
+ * The factory holds no random state of its own: every draw uses the generator passed in by the caller,
+ * so one factory can be shared by several threads, each with its own stream.
+ * A draw can also be kept as a strategy id, which names the registered strategies of the draw in the
+ * order they decorate the basic strategy, one byte each (0 for the basic strategy alone), and built into
+ * a strategy later, e.g. when a saved board is resumed.
  *
  * @author Ron Stein
+ * @see CollisionStrategyRegistry
+ * @see AliasTable
  */
 public class CollisionStrategyFactory {
 	private static final int DOUBLE_STRAT_COUNT = 2;
-	private static final Random RANDOM = new Random();
-	private static final int NUM_STRATEGIES = 5;
-	private static final int EXTRA_PUCK = 0;
-	private static final int EXTRA_PADDLE = 1;
-	private static final int EXPLODING_BRICKS = 2;
-	private static final int EXTRA_LIFE = 3;
-	private static final int DOUBLE_STRATEGY = 4;
 	private static final int MAX_STRATEGIES = 3; // maximum number of strategies that can be decorated,
 	// can be adjusted in the future to allow more strategies per brick
 	private static final int MAX_DEPTH = MAX_STRATEGIES; // to prevent infinite recursion
+	private static final int ID_SLOT_BITS = Byte.SIZE;
+	private static final int ID_SLOT_MASK = (1 << ID_SLOT_BITS) - 1;
+	/**
+	 * The id of the basic strategy, decorated by nothing.
+	 */
+	public static final int BASIC_ID = 0;
+	private final CollisionStrategyProvider[] strategies;
+	// outcomes 0 to strategies.length - 1 are the registered strategies, followed by double and basic
+	private final int doubleOutcome;
+	private final int basicOutcome;
+	private final int[] outcomes; // the outcomes with a positive weight, by their index in the tables
+	private final AliasTable anyOutcome;
+	private final AliasTable outcomeInDouble; // no basic: every draw of a double adds a strategy
+	private final AliasTable singleStrategy; // no basic and no double, null if all weights are 0
 
 	/**
-	 * Constructs a CollisionStrategyFactory.
+	 * Constructs a CollisionStrategyFactory with the configured strategies and weights.
+	 *
+	 * @see CollisionStrategyRegistry#fromConfiguration()
 	 */
 	public CollisionStrategyFactory() {
+		this(CollisionStrategyRegistry.fromConfiguration());
+	}
+
+	/**
+	 * Constructs a CollisionStrategyFactory drawing from the given registry.
+	 *
+	 * @param registry the strategies and their weights
+	 */
+	public CollisionStrategyFactory(CollisionStrategyRegistry registry) {
+		List<CollisionStrategyProvider> providers = registry.getProviders();
+		strategies = providers.toArray(new CollisionStrategyProvider[0]);
+		if (strategies.length >= ID_SLOT_MASK) {
+			throw new IllegalArgumentException("too many strategies: " + strategies.length);
+		}
+		doubleOutcome = strategies.length;
+		basicOutcome = strategies.length + 1;
+		int[] weights = new int[strategies.length + 2];
+		for (int i = 0; i < strategies.length; i++) {
+			weights[i] = registry.getWeight(strategies[i].getName());
+		}
+		weights[doubleOutcome] = registry.getWeight(CollisionStrategyRegistry.DOUBLE);
+		weights[basicOutcome] = registry.getWeight(CollisionStrategyRegistry.BASIC);
+		outcomes = IntStream.range(0, weights.length).filter(outcome -> weights[outcome] > 0).toArray();
+		int[] drawnWeights = Arrays.stream(outcomes).map(outcome -> weights[outcome]).toArray();
+		// the strategies come first, then double, so the tables without basic or double are prefixes
+		int numStrategies = (int) Arrays.stream(outcomes).filter(outcome -> outcome < doubleOutcome).count();
+		int numInDouble = (int) Arrays.stream(outcomes).filter(outcome -> outcome <= doubleOutcome).count();
+		anyOutcome = new AliasTable(drawnWeights);
+		if (numStrategies > 0) {
+			outcomeInDouble = new AliasTable(Arrays.copyOf(drawnWeights, numInDouble));
+			singleStrategy = new AliasTable(Arrays.copyOf(drawnWeights, numStrategies));
+		} else {
+			outcomeInDouble = null;
+			singleStrategy = null;
+		}
 	}
 
 	/**
@@ -35,64 +93,93 @@ public class CollisionStrategyFactory {
 	 *
 	 * @param basic              the basic collision strategy to decorate
 	 * @param brickerGameManager the game manager to handle brick removal
+	 * @param random             the source of randomness for the draw
 	 * @return a CollisionStrategy instance.
 	 */
 	public CollisionStrategy buildCollisionStrategy(CollisionStrategy basic,
-													BrickerGameManager brickerGameManager) {
-		int r = RANDOM.nextInt(2 * NUM_STRATEGIES);
-		//1/2 chance to return basic strategy. r belongs to [5-9]
-		if (r >= NUM_STRATEGIES) {
-			return basic;
-			//1/10 change to return double strategy. r = 4
-		} else if (r == DOUBLE_STRATEGY) {
-			return buildDouble(basic, brickerGameManager, new int[]{0}, 0);
-			//4/10 change to return single special strategy r belongs to [0-3]
+													BrickerGameManager brickerGameManager,
+													RandomGenerator random) {
+		return buildCollisionStrategy(drawStrategyId(random), basic, brickerGameManager);
+	}
+
+	/**
+	 * Draws a strategy, as its id. Draws the same random numbers as buildCollisionStrategy.
+	 *
+	 * @param random the source of randomness for the draw
+	 * @return the id of the drawn strategy
+	 */
+	public int drawStrategyId(RandomGenerator random) {
+		int r = outcomes[anyOutcome.sample(random)];
+		if (r == basicOutcome) {
+			return BASIC_ID;
+		} else if (r == doubleOutcome) {
+			return drawDouble(BASIC_ID, random, new int[]{0}, 0);
 		} else {
-			return buildSingle(r, basic, brickerGameManager);
+			return withStrategy(BASIC_ID, 0, r);
 		}
 	}
 
-	/*  builds a double strategy by randomly selecting two strategies to decorate the basic strategy.
+	/**
+	 * Builds the strategy with the given id.
+	 *
+	 * @param strategyId         an id drawn by drawStrategyId, from a factory with the same strategies
+	 * @param basic              the basic collision strategy to decorate
+	 * @param brickerGameManager the game manager to handle brick removal
+	 * @return a CollisionStrategy instance.
+	 */
+	public CollisionStrategy buildCollisionStrategy(int strategyId, CollisionStrategy basic,
+													BrickerGameManager brickerGameManager) {
+		for (int id = strategyId; id != BASIC_ID; id >>>= ID_SLOT_BITS) {
+			basic = strategies[(id & ID_SLOT_MASK) - 1].decorate(basic, brickerGameManager);
+		}
+		return basic;
+	}
+
+	/**
+	 * Gets the names of the strategies the ids of this factory refer to, in the order of their indices.
+	 *
+	 * @return the names of the registered strategies
+	 */
+	public List<String> getStrategyNames() {
+		return Arrays.stream(strategies).map(CollisionStrategyProvider::getName).toList();
+	}
+
+	/*  draws a double strategy by randomly selecting two strategies to decorate the basic strategy.
 	 *  If one of the selected strategies is a double strategy, it selects another strategy instead.
 	 *  maximum of three strategies can be decorated.
 	 */
-	private CollisionStrategy buildDouble(CollisionStrategy basic, BrickerGameManager brickerGameManager,
-										  int[] strategyCount, int depth) {
+	private int drawDouble(int strategyId, RandomGenerator random, int[] strategyCount, int depth) {
+		if (outcomeInDouble == null) {
+			return strategyId; // nothing to combine
+		}
 		//Will attempt to add two single strategies, or recurse if double strategy is chosen
 		for (int i = 0; i < DOUBLE_STRAT_COUNT; i++) {
 			if (strategyCount[0] >= MAX_STRATEGIES) {
 				break;
 			}
-			int r = RANDOM.nextInt(NUM_STRATEGIES);
-			if (r == DOUBLE_STRATEGY) {
+			int r = outcomes[outcomeInDouble.sample(random)];
+			if (r == doubleOutcome) {
 				//is there room for two more strategies
 				if (strategyCount[0] <= MAX_STRATEGIES - DOUBLE_STRAT_COUNT && depth < MAX_DEPTH) {
-					basic = buildDouble(basic, brickerGameManager, strategyCount, depth + 1);
+					strategyId = drawDouble(strategyId, random, strategyCount, depth + 1);
 				} else {
 					//choose another non double strategy
-					r = RANDOM.nextInt(NUM_STRATEGIES - 1);
-					basic = buildSingle(r, basic, brickerGameManager);
+					r = outcomes[singleStrategy.sample(random)];
+					strategyId = withStrategy(strategyId, strategyCount[0], r);
 					strategyCount[0]++;
 				}
 			} else {
-				basic = buildSingle(r, basic, brickerGameManager);
+				strategyId = withStrategy(strategyId, strategyCount[0], r);
 				strategyCount[0]++;
 			}
 		}
-		return basic;
+		return strategyId;
 	}
 
-	/* builds a single strategy based on the random number provided */
-	private CollisionStrategy buildSingle(int r, CollisionStrategy currentStrategy,
-										  BrickerGameManager brickerGameManager) {
-		return switch (r) {
-			case EXTRA_PUCK -> new ExtraPuckCollisionStrategy(currentStrategy, brickerGameManager);
-			case EXTRA_PADDLE -> new ExtraPaddleCollisionStrategy(currentStrategy, brickerGameManager);
-			case EXPLODING_BRICKS ->
-					new ExplodingBricksCollisionStrategy(currentStrategy, brickerGameManager);
-			case EXTRA_LIFE -> new ExtraLifeCollisionStrategy(currentStrategy, brickerGameManager);
-			//should never reach here because the random bounds between puck and life
-			default -> currentStrategy;
-		};
+	/*
+	 * Adds a registered strategy to an id, as its count-th decoration.
+	 */
+	private static int withStrategy(int strategyId, int count, int strategy) {
+		return strategyId | (strategy + 1) << (count * ID_SLOT_BITS);
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package bricker.brick_strategies;
+
+import bricker.main.BrickerGameManager;
+
+/**
+ * A service provider interface for collision strategies that can be assigned to bricks. Built-in
+ * strategies are registered by the CollisionStrategyRegistry itself; third-party strategies are found
+ * with java.util.ServiceLoader, by listing their provider class in
+ * META-INF/services/bricker.brick_strategies.CollisionStrategyProvider.
+ *
+ * @author Ron Stein
+ * @see CollisionStrategyRegistry
+ */
+public interface CollisionStrategyProvider {
+
+	/**
+	 * Gets the unique name of the strategy, used to configure its weight.
+	 *
+	 * @return the name of the strategy
+	 */
+	String getName();
+
+	/**
+	 * Gets the weight of the strategy when none is configured. Built-in strategies weigh 1, the same as
+	 * the double strategy, against 5 for the basic strategy.
+	 *
+	 * @return the default weight of the strategy
+	 */
+	int getDefaultWeight();
+
+	/**
+	 * Decorates a collision strategy with this strategy.
+	 *
+	 * @param decorated          the CollisionStrategy to be decorated
+	 * @param brickerGameManager the game manager of the brick
+	 * @return the decorated strategy
+	 */
+	CollisionStrategy decorate(CollisionStrategy decorated, BrickerGameManager brickerGameManager);
+}
@@ -0,0 +1,157 @@
+package bricker.brick_strategies;
+
+import bricker.power_ups.PowerUp;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * A registry of the collision strategies that can be assigned to bricks, together with their weights.
+ * Besides the registered strategies there are two reserved outcomes: "basic" (the brick only breaks)
+ * and "double" (the brick gets two or more strategies). The default weights are 10 for basic, and 1 for
+ * double and for each built-in strategy, power-ups included: half the bricks only break, as originally,
+ * and the other half is shared evenly by the ten other outcomes.
+ * Weights can be changed without code edits through the WEIGHTS_PROPERTY system property, e.g.
+ * {@code -Dbricker.strategyWeights=basic=8,extraPuck=3,double=0} or, for the original odds without
+ * power-ups, {@code -Dbricker.strategyWeights=basic=5,buffWiden=0,buffNarrow=0,slow=0,quicken=0,gravity=0}.
+ *
+ * @author Ron Stein
+ * @see CollisionStrategyProvider
+ * @see CollisionStrategyFactory
+ */
+public class CollisionStrategyRegistry {
+	/**
+	 * The name of the outcome in which the brick only breaks.
+	 */
+	public static final String BASIC = "basic";
+	/**
+	 * The name of the outcome in which the brick gets several strategies.
+	 */
+	public static final String DOUBLE = "double";
+	/**
+	 * The system property configuring the weights, as comma separated name=weight pairs.
+	 */
+	public static final String WEIGHTS_PROPERTY = "bricker.strategyWeights";
+	private static final int DEFAULT_BASIC_WEIGHT = 10;
+	private static final int DEFAULT_DOUBLE_WEIGHT = 1;
+	private static final int BUILT_IN_WEIGHT = 1;
+	private final Map<String, CollisionStrategyProvider> providers = new LinkedHashMap<>();
+	private final Map<String, Integer> weights = new LinkedHashMap<>();
+
+	/**
+	 * Constructs an empty registry. Only the basic and double outcomes are known.
+	 */
+	public CollisionStrategyRegistry() {
+		weights.put(BASIC, DEFAULT_BASIC_WEIGHT);
+		weights.put(DOUBLE, DEFAULT_DOUBLE_WEIGHT);
+	}
+
+	/**
+	 * Creates a registry with the built-in strategies, the strategies found by ServiceLoader, and the
+	 * weights configured through the WEIGHTS_PROPERTY system property.
+	 *
+	 * @return the configured registry
+	 */
+	public static CollisionStrategyRegistry fromConfiguration() {
+		CollisionStrategyRegistry registry = new CollisionStrategyRegistry();
+		registry.registerBuiltInStrategies();
+		for (CollisionStrategyProvider provider : ServiceLoader.load(CollisionStrategyProvider.class)) {
+			registry.register(provider);
+		}
+		String configuredWeights = System.getProperty(WEIGHTS_PROPERTY);
+		if (configuredWeights != null) {
+			registry.setWeights(configuredWeights);
+		}
+		return registry;
+	}
+
+	/**
+	 * Registers the extra puck, extra paddle, exploding bricks and extra life strategies, and a power-up
+	 * strategy for every power-up.
+	 */
+	public void registerBuiltInStrategies() {
+		register(new DecoratorStrategyProvider("extraPuck", BUILT_IN_WEIGHT,
+				ExtraPuckCollisionStrategy::new));
+		register(new DecoratorStrategyProvider("extraPaddle", BUILT_IN_WEIGHT,
+				ExtraPaddleCollisionStrategy::new));
+		register(new DecoratorStrategyProvider("explodingBricks", BUILT_IN_WEIGHT,
+				ExplodingBricksCollisionStrategy::new));
+		register(new DecoratorStrategyProvider("extraLife", BUILT_IN_WEIGHT,
+				ExtraLifeCollisionStrategy::new));
+		for (PowerUp powerUp : PowerUp.values()) {
+			register(new DecoratorStrategyProvider(powerUp.getStrategyName(), BUILT_IN_WEIGHT,
+					(decorated, game) -> new PowerUpCollisionStrategy(decorated, game, powerUp)));
+		}
+	}
+
+	/**
+	 * Registers a strategy with its default weight.
+	 *
+	 * @param provider the provider of the strategy
+	 */
+	public void register(CollisionStrategyProvider provider) {
+		String name = provider.getName();
+		if (weights.containsKey(name)) {
+			throw new IllegalArgumentException("strategy already registered: " + name);
+		}
+		providers.put(name, provider);
+		weights.put(name, provider.getDefaultWeight());
+	}
+
+	/**
+	 * Sets the weight of a registered strategy, or of the basic or double outcome.
+	 *
+	 * @param name   the name of the strategy
+	 * @param weight the new weight, 0 to never draw it
+	 */
+	public void setWeight(String name, int weight) {
+		if (!weights.containsKey(name)) {
+			throw new IllegalArgumentException("unknown strategy: " + name);
+		}
+		if (weight < 0) {
+			throw new IllegalArgumentException("negative weight for " + name + ": " + weight);
+		}
+		weights.put(name, weight);
+	}
+
+	/**
+	 * Sets several weights at once.
+	 *
+	 * @param spec comma separated name=weight pairs, e.g. "basic=8,extraPuck=3"
+	 */
+	public void setWeights(String spec) {
+		for (String pair : spec.split(",")) {
+			String[] parts = pair.trim().split("=");
+			if (parts.length != 2) {
+				throw new IllegalArgumentException("expected name=weight but got: " + pair);
+			}
+			setWeight(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+		}
+	}
+
+	/**
+	 * Gets the weight of a strategy or outcome.
+	 *
+	 * @param name the name of the strategy
+	 * @return its current weight
+	 */
+	public int getWeight(String name) {
+		Integer weight = weights.get(name);
+		if (weight == null) {
+			throw new IllegalArgumentException("unknown strategy: " + name);
+		}
+		return weight;
+	}
+
+	/**
+	 * Gets the registered strategies, in registration order.
+	 *
+	 * @return the providers of the registered strategies
+	 */
+	public List<CollisionStrategyProvider> getProviders() {
+		return new ArrayList<>(providers.values());
+	}
+}
@@ -0,0 +1,65 @@
+package bricker.brick_strategies;
+
+import bricker.main.BrickerGameManager;
+
+import java.util.function.BiFunction;
+
+/**
+ * A provider for a decorator whose constructor takes the decorated strategy and the game manager,
+ * which is the case for all built-in strategies.
+ *
+ * @author Ron Stein
+ * @see CollisionStrategyProvider
+ */
+public class DecoratorStrategyProvider implements CollisionStrategyProvider {
+	private final String name;
+	private final int defaultWeight;
+	private final BiFunction<CollisionStrategy, BrickerGameManager, CollisionStrategy> constructor;
+
+	/**
+	 * Constructor for the DecoratorStrategyProvider.
+	 *
+	 * @param name          the unique name of the strategy
+	 * @param defaultWeight the weight of the strategy when none is configured
+	 * @param constructor   the constructor of the decorator, e.g. ExtraPuckCollisionStrategy::new
+	 */
+	public DecoratorStrategyProvider(String name, int defaultWeight,
+									 BiFunction<CollisionStrategy, BrickerGameManager,
+											 CollisionStrategy> constructor) {
+		this.name = name;
+		this.defaultWeight = defaultWeight;
+		this.constructor = constructor;
+	}
+
+	/**
+	 * Gets the unique name of the strategy, used to configure its weight.
+	 *
+	 * @return the name given to the constructor
+	 */
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the weight of the strategy when none is configured.
+	 *
+	 * @return the default weight given to the constructor
+	 */
+	@Override
+	public int getDefaultWeight() {
+		return defaultWeight;
+	}
+
+	/**
+	 * Decorates a collision strategy by calling the constructor of the decorator.
+	 *
+	 * @param decorated          the CollisionStrategy to be decorated
+	 * @param brickerGameManager the game manager of the brick
+	 * @return the new decorator, wrapping the decorated strategy
+	 */
+	@Override
+	public CollisionStrategy decorate(CollisionStrategy decorated, BrickerGameManager brickerGameManager) {
+		return constructor.apply(decorated, brickerGameManager);
+	}
+}
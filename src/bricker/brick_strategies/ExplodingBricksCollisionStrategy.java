@@ -1,5 +1,6 @@
 package bricker.brick_strategies;
 
+import bricker.gameplay_events.GameplayEventType;
 import bricker.main.BrickerGameManager;
 import danogl.GameObject;
 
@@ -29,7 +30,8 @@ public class ExplodingBricksCollisionStrategy extends CollisionStrategyDecorator
 
 	/**
 	 * Handles the collision event by exploding the brick and its neighbors. The BrickerGameManager
-	 * can find the neighboring bricks and remove them from the game. This class cannot.
+	 * can find the neighboring bricks and remove them from the game. This class cannot, it only publishes
+	 * the explosion to the gameplay event bus.
 	 *
 	 * @param thisObj  the brick that was collided with
 	 * @param otherObj the other game object involved in the collision
@@ -37,6 +39,6 @@ public class ExplodingBricksCollisionStrategy extends CollisionStrategyDecorator
 	@Override
 	public void onCollision(GameObject thisObj, GameObject otherObj) {
 		super.onCollision(thisObj, otherObj);
-		brickerGameManager.explodeBricks(thisObj, otherObj);
+		brickerGameManager.getEventBus().publish(GameplayEventType.EXPLOSION_TRIGGERED, thisObj, otherObj);
 	}
 }
@@ -1,5 +1,6 @@
 package bricker.brick_strategies;
 
+import bricker.gameplay_events.GameplayEventType;
 import bricker.main.BrickerGameManager;
 
 /**
@@ -24,7 +25,8 @@ public class ExtraLifeCollisionStrategy extends CollisionStrategyDecorator {
 
 	/**
 	 * Handles the collision event by spawning a heart at the brick's location. The GameManager is
-	 * responsible for the actual spawning of the heart, this class knows when and which brick was hit.
+	 * responsible for the actual spawning of the heart when it dispatches the gameplay event bus, this class
+	 * knows when and which brick was hit.
 	 *
 	 * @param thisObj  the brick that was collided with
 	 * @param otherObj the other game object involved in the collision
@@ -32,6 +34,6 @@ public class ExtraLifeCollisionStrategy extends CollisionStrategyDecorator {
 	@Override
 	public void onCollision(danogl.GameObject thisObj, danogl.GameObject otherObj) {
 		super.onCollision(thisObj, otherObj);
-		brickerGameManager.spawnHeart(thisObj.getCenter());
+		brickerGameManager.getEventBus().publish(GameplayEventType.HEART_SPAWNED, thisObj, otherObj);
 	}
 }
@@ -1,5 +1,6 @@
 package bricker.brick_strategies;
 
+import bricker.gameplay_events.GameplayEventType;
 import bricker.main.BrickerGameManager;
 
 /**
@@ -24,7 +25,8 @@ public class ExtraPaddleCollisionStrategy extends CollisionStrategyDecorator {
 
 	/**
 	 * Handles the collision event by spawning a subPaddle at the center of the screen. The GameManager is
-	 * responsible for the actual spawning of the subPaddle, this class knows when and which brick was hit.
+	 * responsible for the actual spawning of the subPaddle when it dispatches the gameplay event bus, this
+	 * class knows when and which brick was hit.
 	 *
 	 * @param thisObj  the brick that was collided with
 	 * @param otherObj the other game object involved in the collision
@@ -32,6 +34,6 @@ public class ExtraPaddleCollisionStrategy extends CollisionStrategyDecorator {
 	@Override
 	public void onCollision(danogl.GameObject thisObj, danogl.GameObject otherObj) {
 		super.onCollision(thisObj, otherObj);
-		brickerGameManager.makePaddle(brickerGameManager.getWindowDimensions().y() / 2f);
+		brickerGameManager.getEventBus().publish(GameplayEventType.SUB_PADDLE_SPAWNED, thisObj, otherObj);
 	}
 }
@@ -1,5 +1,6 @@
 package bricker.brick_strategies;
 
+import bricker.gameplay_events.GameplayEventType;
 import bricker.main.BrickerGameManager;
 
 /**
@@ -24,6 +25,7 @@ public class ExtraPuckCollisionStrategy extends CollisionStrategyDecorator {
 
 	/**
 	 * Handles the collision event by creating two new pucks at the location of the hit brick.
+	 * The pucks are created by the GameManager when it dispatches the gameplay event bus.
 	 *
 	 * @param thisObj  the brick that was collided with
 	 * @param otherObj the other game object involved in the collision
@@ -31,6 +33,6 @@ public class ExtraPuckCollisionStrategy extends CollisionStrategyDecorator {
 	@Override
 	public void onCollision(danogl.GameObject thisObj, danogl.GameObject otherObj) {
 		super.onCollision(thisObj, otherObj);
-		brickerGameManager.makePucks(thisObj);
+		brickerGameManager.getEventBus().publish(GameplayEventType.PUCKS_SPAWNED, thisObj, otherObj);
 	}
 }
@@ -1,7 +1,7 @@
 package bricker.brick_strategies;
 
+import bricker.gameplay_events.GameplayEventType;
 import bricker.main.BrickerGameManager;
-import danogl.collisions.Layer;
 
 /**
  * HeartCollisionStrategy is a collision strategy that handles the event when a heart object collides
@@ -23,14 +23,14 @@ public class HeartCollisionStrategy implements CollisionStrategy {
 	}
 
 	/**
-	 * Handles the collision event by removing the heart from the game
+	 * Handles the collision event by publishing the caught heart to the gameplay event bus. The
+	 * GameManager removes the heart and increases the lives when it dispatches the bus.
 	 *
 	 * @param thisObj  the brick that was collided with
 	 * @param otherObj the other game object involved in the collision
 	 */
 	@Override
 	public void onCollision(danogl.GameObject thisObj, danogl.GameObject otherObj) {
-		brickerGameManager.removeGameObject(thisObj, Layer.DEFAULT);
-		brickerGameManager.increaseLives();
+		brickerGameManager.getEventBus().publish(GameplayEventType.HEART_CAUGHT, thisObj, otherObj);
 	}
 }
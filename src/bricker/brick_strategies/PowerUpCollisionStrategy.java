@@ -0,0 +1,57 @@
+package bricker.brick_strategies;
+
+import bricker.gameplay_events.GameplayEventType;
+import bricker.main.BrickerGameManager;
+import bricker.power_ups.PowerUp;
+
+/**
+ * A collision strategy decorator that gives a timed power-up when a brick is hit: the paddles get wider
+ * or narrower, or the ball that hit the brick gets slower, faster or heavier, for a while.
+ * One strategy is registered for every power-up (see CollisionStrategyRegistry).
+ *
+ * @author Ron Stein
+ * @see PowerUp
+ * @see bricker.power_ups.PowerUpEffects
+ */
+public class PowerUpCollisionStrategy extends CollisionStrategyDecorator {
+	private final BrickerGameManager brickerGameManager;
+	private final PowerUp powerUp;
+
+	/**
+	 * Constructor for the PowerUp strategy.
+	 *
+	 * @param decorated          The CollisionStrategy to be decorated.
+	 * @param brickerGameManager The game manager applying the power-up.
+	 * @param powerUp            The power-up given by the brick.
+	 */
+	public PowerUpCollisionStrategy(CollisionStrategy decorated, BrickerGameManager brickerGameManager,
+									PowerUp powerUp) {
+		super(decorated);
+		this.brickerGameManager = brickerGameManager;
+		this.powerUp = powerUp;
+	}
+
+	/**
+	 * Handles the collision event by publishing the power-up, with the ball that hit the brick. The
+	 * GameManager applies its effect when it dispatches the gameplay event bus.
+	 *
+	 * @param thisObj  the brick that was collided with
+	 * @param otherObj the other game object involved in the collision
+	 */
+	@Override
+	public void onCollision(danogl.GameObject thisObj, danogl.GameObject otherObj) {
+		super.onCollision(thisObj, otherObj);
+		brickerGameManager.getEventBus().publish(GameplayEventType.POWER_UP_TRIGGERED, thisObj, otherObj,
+				powerUp.ordinal());
+	}
+
+	/**
+	 * Describes this strategy, named after its power-up, followed by the chain it decorates.
+	 *
+	 * @return the names of the strategies in the chain, e.g. "PowerUp(slow) > Basic"
+	 */
+	@Override
+	public String describe() {
+		return "PowerUp(" + powerUp.getStrategyName() + ") > " + decoratedStrategy.describe();
+	}
+}
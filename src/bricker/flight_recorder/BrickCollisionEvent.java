@@ -0,0 +1,55 @@
+package bricker.flight_recorder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A Java Flight Recorder event covering a brick's reaction to a hit, i.e. the run of its collision
+ * strategy chain. The chain is only described when the event is actually committed.
+ *
+ * @author Ron Stein
+ * @see bricker.gameobjects.Brick
+ */
+@Name("bricker.BrickCollision")
+@Label("Brick Collision")
+@Category({"Bricker", "Gameplay"})
+@Description("A brick ran its collision strategy chain")
+@StackTrace(false)
+@Threshold("0 ms")
+public class BrickCollisionEvent extends Event {
+	@Label("Frame")
+	private final int frame;
+	@Label("Row")
+	private final int row;
+	@Label("Column")
+	private final int col;
+	@Label("Strategy Chain")
+	private String strategyChain;
+
+	/**
+	 * Constructs a BrickCollisionEvent.
+	 *
+	 * @param frame the frame the brick was hit in
+	 * @param row   the row of the brick
+	 * @param col   the column of the brick
+	 */
+	public BrickCollisionEvent(int frame, int row, int col) {
+		this.frame = frame;
+		this.row = row;
+		this.col = col;
+	}
+
+	/**
+	 * Sets the description of the strategy chain that ran.
+	 *
+	 * @param strategyChain the description, see CollisionStrategy#describe()
+	 */
+	public void setStrategyChain(String strategyChain) {
+		this.strategyChain = strategyChain;
+	}
+}
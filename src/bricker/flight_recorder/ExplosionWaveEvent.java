@@ -0,0 +1,55 @@
+package bricker.flight_recorder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A Java Flight Recorder event covering one explosion: finding the neighbors of an exploding brick and
+ * running their strategies. Explosions set off by the neighbors are recorded as waves of their own.
+ *
+ * @author Ron Stein
+ * @see bricker.main.BrickerGameManager#explodeBricks(danogl.GameObject, danogl.GameObject)
+ */
+@Name("bricker.ExplosionWave")
+@Label("Explosion Wave")
+@Category({"Bricker", "Gameplay"})
+@Description("An exploding brick hit its neighbors")
+@StackTrace(true)
+@Threshold("0 ms")
+public class ExplosionWaveEvent extends Event {
+	@Label("Frame")
+	private final int frame;
+	@Label("Row")
+	private final int row;
+	@Label("Column")
+	private final int col;
+	@Label("Neighbors Hit")
+	private int neighborsHit;
+
+	/**
+	 * Constructs an ExplosionWaveEvent.
+	 *
+	 * @param frame the frame of the explosion
+	 * @param row   the row of the exploding brick
+	 * @param col   the column of the exploding brick
+	 */
+	public ExplosionWaveEvent(int frame, int row, int col) {
+		this.frame = frame;
+		this.row = row;
+		this.col = col;
+	}
+
+	/**
+	 * Sets the number of neighbors the explosion reached.
+	 *
+	 * @param neighborsHit the number of neighboring bricks that were hit
+	 */
+	public void setNeighborsHit(int neighborsHit) {
+		this.neighborsHit = neighborsHit;
+	}
+}
@@ -0,0 +1,61 @@
+package bricker.flight_recorder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A Java Flight Recorder event covering one phase of a frame update. Only phases slower than the
+ * threshold (1 ms by default) are recorded, so a recording points straight at the slow frames, and the
+ * gameplay events recorded during them tell what made them slow.
+ *
+ * @author Aron Isaacs
+ * @see bricker.main.BrickerGameManager#update(float)
+ */
+@Name("bricker.FramePhase")
+@Label("Frame Phase")
+@Category({"Bricker", "Frame"})
+@Description("A phase of a frame update")
+@StackTrace(false)
+@Threshold("1 ms")
+public class FramePhaseEvent extends Event {
+	/**
+	 * The engine's update of the game objects and its collision checks.
+	 */
+	public static final String ENGINE = "engine";
+	/**
+	 * The collisions of the balls with the bricks and paddles.
+	 */
+	public static final String BALL_COLLISIONS = "ball collisions";
+	/**
+	 * The game rules: victory, lost balls and fallen objects.
+	 */
+	public static final String RULES = "rules";
+	/**
+	 * The dispatch of the gameplay events of the frame.
+	 */
+	public static final String EVENT_DISPATCH = "event dispatch";
+	/**
+	 * The update of the debris particles.
+	 */
+	public static final String PARTICLES = "particles";
+	@Label("Frame")
+	private final int frame;
+	@Label("Phase")
+	private final String phase;
+
+	/**
+	 * Constructs a FramePhaseEvent.
+	 *
+	 * @param frame the frame being updated
+	 * @param phase the phase, one of the constants of this class
+	 */
+	public FramePhaseEvent(int frame, String phase) {
+		this.frame = frame;
+		this.phase = phase;
+	}
+}
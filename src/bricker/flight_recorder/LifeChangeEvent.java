@@ -0,0 +1,37 @@
+package bricker.flight_recorder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for a life lost or gained.
+ *
+ * @author Aron Isaacs
+ * @see bricker.main.GameState
+ */
+@Name("bricker.LifeChange")
+@Label("Life Change")
+@Category({"Bricker", "Gameplay"})
+@Description("A life was lost or gained")
+@StackTrace(true)
+public class LifeChangeEvent extends Event {
+	@Label("Change")
+	private final int change;
+	@Label("Lives")
+	private final int lives;
+
+	/**
+	 * Constructs a LifeChangeEvent.
+	 *
+	 * @param change -1 for a life lost, 1 for a life gained
+	 * @param lives  the number of lives after the change
+	 */
+	public LifeChangeEvent(int change, int lives) {
+		this.change = change;
+		this.lives = lives;
+	}
+}
@@ -0,0 +1,50 @@
+package bricker.flight_recorder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A Java Flight Recorder event for a step of the quality governor, with the average frame time of the
+ * window before the step and of the window after it. It is committed once the window after the step is
+ * measured.
+ *
+ * @author Ron Stein
+ * @see bricker.quality.QualityGovernor
+ */
+@Name("bricker.QualityChange")
+@Label("Quality Change")
+@Category({"Bricker", "Frame"})
+@Description("A step of the adaptive quality governor and its measured effect")
+@StackTrace(false)
+public class QualityChangeEvent extends Event {
+	@Label("From")
+	private final String from;
+	@Label("To")
+	private final String to;
+	@Label("Frame Time Before")
+	@Timespan(Timespan.NANOSECONDS)
+	private final long frameNanosBefore;
+	@Label("Frame Time After")
+	@Timespan(Timespan.NANOSECONDS)
+	private final long frameNanosAfter;
+
+	/**
+	 * Constructs a QualityChangeEvent.
+	 *
+	 * @param from             the level stepped from
+	 * @param to               the level stepped to
+	 * @param frameNanosBefore the average frame time before the step
+	 * @param frameNanosAfter  the average frame time after the step
+	 */
+	public QualityChangeEvent(String from, String to, long frameNanosBefore, long frameNanosAfter) {
+		this.from = from;
+		this.to = to;
+		this.frameNanosBefore = frameNanosBefore;
+		this.frameNanosAfter = frameNanosAfter;
+	}
+}
@@ -0,0 +1,49 @@
+package bricker.flight_recorder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for objects spawned by brick strategies: pucks and hearts.
+ *
+ * @author Ron Stein
+ * @see bricker.main.BrickerGameManager
+ */
+@Name("bricker.Spawn")
+@Label("Spawn")
+@Category({"Bricker", "Gameplay"})
+@Description("Pucks or a heart were added to the game")
+@StackTrace(true)
+public class SpawnEvent extends Event {
+	/**
+	 * The kind of a spawned puck.
+	 */
+	public static final String PUCK = "puck";
+	/**
+	 * The kind of a spawned heart.
+	 */
+	public static final String HEART = "heart";
+	@Label("Frame")
+	private final int frame;
+	@Label("Kind")
+	private final String kind;
+	@Label("Count")
+	private final int count;
+
+	/**
+	 * Constructs a SpawnEvent.
+	 *
+	 * @param frame the frame of the spawn
+	 * @param kind  what was spawned, PUCK or HEART
+	 * @param count how many were spawned
+	 */
+	public SpawnEvent(int frame, String kind, int count) {
+		this.frame = frame;
+		this.kind = kind;
+		this.count = count;
+	}
+}
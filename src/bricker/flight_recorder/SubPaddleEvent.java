@@ -0,0 +1,53 @@
+package bricker.flight_recorder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for the life of a sub-paddle: its creation, every hit, and its removal.
+ *
+ * @author Ron Stein
+ * @see bricker.gameobjects.SubPaddle
+ */
+@Name("bricker.SubPaddle")
+@Label("Sub-Paddle")
+@Category({"Bricker", "Gameplay"})
+@Description("A sub-paddle was created, hit or removed")
+@StackTrace(false)
+public class SubPaddleEvent extends Event {
+	/**
+	 * The sub-paddle was created.
+	 */
+	public static final String CREATED = "created";
+	/**
+	 * The sub-paddle was hit and stays.
+	 */
+	public static final String HIT = "hit";
+	/**
+	 * The sub-paddle was hit for the last time and removed.
+	 */
+	public static final String REMOVED = "removed";
+	@Label("Frame")
+	private final int frame;
+	@Label("Action")
+	private final String action;
+	@Label("Hits")
+	private final int hits;
+
+	/**
+	 * Constructs a SubPaddleEvent.
+	 *
+	 * @param frame  the frame of the action
+	 * @param action what happened, CREATED, HIT or REMOVED
+	 * @param hits   the number of hits the sub-paddle has taken
+	 */
+	public SubPaddleEvent(int frame, String action, int hits) {
+		this.frame = frame;
+		this.action = action;
+		this.hits = hits;
+	}
+}
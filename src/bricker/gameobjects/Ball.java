@@ -6,17 +6,27 @@ import danogl.gui.Sound;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
+import java.util.function.BooleanSupplier;
+
 /**
  * Represents a ball in the game that can collide with other game objects.
  * The ball bounces off surfaces and plays a sound upon collision.
  * It also keeps track of the number of collisions it has had.
+ * A sound gate can hold back collision sounds, when many balls bounce at once and sounds are rationed.
+ * Power-ups can slow the ball down or speed it up, by changing how fast time passes for it, and pull it
+ * down with gravity.
  *
  * @author Aron Isaacs
  * @see danogl.GameObject
  * @see danogl.collisions.Collision
  */
 public class Ball extends GameObject {
+	private static final float MIN_TIME_SCALE = 0.25f;
+	private static final float MAX_TIME_SCALE = 4f;
 	private final Sound collisionSound;
+	private BooleanSupplier soundGate = () -> true;
+	private float timeScale = 1;
+	private float gravity;
 
 	/**
 	 * Constructs a Ball object with specified position, size, renderable, and collision sound.
@@ -24,13 +34,55 @@ public class Ball extends GameObject {
 	 * @param topLeftCorner  the top-left corner position of the ball.
 	 * @param dimensions     the dimensions (width and height) of the ball.
 	 * @param renderable     the visual representation of the ball.
-	 * @param collisionSound the sound to play upon collision.
+	 * @param collisionSound the sound to play upon collision, or null for a silent (headless) ball.
 	 */
 	public Ball(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable, Sound collisionSound) {
 		super(topLeftCorner, dimensions, renderable);
 		this.collisionSound = collisionSound;
 	}
 
+	/**
+	 * Sets the gate asked before every collision sound. The sound is skipped when the gate returns false.
+	 *
+	 * @param soundGate the gate
+	 */
+	public void setSoundGate(BooleanSupplier soundGate) {
+		this.soundGate = soundGate;
+	}
+
+	/**
+	 * Moves the ball, as far as the time passing for it allows, and lets gravity pull it down.
+	 *
+	 * @param deltaTime the time elapsed since the last update
+	 */
+	@Override
+	public void update(float deltaTime) {
+		float ballTime = deltaTime * Math.max(MIN_TIME_SCALE, Math.min(MAX_TIME_SCALE, timeScale));
+		if (gravity != 0) {
+			setVelocity(getVelocity().add(Vector2.DOWN.mult(gravity * ballTime)));
+		}
+		super.update(ballTime);
+	}
+
+	/**
+	 * Scales how fast time passes for the ball, e.g. by 0.5 to move it at half its speed. Scales
+	 * multiply, and scaling by the inverse undoes a scale. The speed itself is left as it is.
+	 *
+	 * @param factor the factor to scale the time of the ball by
+	 */
+	public void scaleTime(float factor) {
+		timeScale *= factor;
+	}
+
+	/**
+	 * Adds to the gravity pulling the ball down. Adding the opposite removes it.
+	 *
+	 * @param acceleration the downward acceleration to add, in pixels per second squared
+	 */
+	public void addGravity(float acceleration) {
+		gravity += acceleration;
+	}
+
 	/**
 	 * Handles collision events by bouncing the ball off the surface it collides with,
 	 * playing a collision sound, and incrementing the collision counter.
@@ -41,8 +93,30 @@ public class Ball extends GameObject {
 	@Override
 	public void onCollisionEnter(GameObject other, Collision collision) {
 		super.onCollisionEnter(other, collision);
-		Vector2 newVelocity = getVelocity().flipped(collision.getNormal());
-		setVelocity(newVelocity);
-		collisionSound.play();
+		bounce(collision.getNormal());
+	}
+
+	/**
+	 * Bricks and paddles are not collided with by the engine, but by the ball collision pass.
+	 *
+	 * @param other the other game object
+	 * @return false for bricks and paddles, true otherwise
+	 * @see bricker.ball_collisions.BallCollisionPass
+	 */
+	@Override
+	public boolean shouldCollideWith(GameObject other) {
+		return !(other instanceof Brick) && !(other instanceof Paddle);
+	}
+
+	/**
+	 * Bounces the ball off a surface and plays the collision sound.
+	 *
+	 * @param normal the normal of the surface the ball hit
+	 */
+	public void bounce(Vector2 normal) {
+		setVelocity(getVelocity().flipped(normal));
+		if (collisionSound != null && soundGate.getAsBoolean()) {
+			collisionSound.play();
+		}
 	}
 }
@@ -6,20 +6,29 @@ import danogl.collisions.Collision;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 import bricker.brick_strategies.CollisionStrategy;
+import bricker.flight_recorder.BrickCollisionEvent;
+
+import java.util.function.IntSupplier;
 
 /**
  * A brick in the Bricker game. When hit by a ball, it uses its collision strategy to determine what happens.
  * It also notifies the game manager to decrement the brick counter.
+ * Bricks stand still, so they sleep through the per-frame update unless something wakes them.
+ * A brick can be hit several times in one frame (by the ball, by pucks, and by explosions of its
+ * neighbors), but its collision strategy runs only for the first hit: the brick is stamped with the
+ * number of the frame it reacted in, and later hits in the same frame are ignored.
  *
  * @author Aron Isaacs
- * @see danogl.GameObject
+ * @see bricker.gameobjects.StaticGameObject
  * @see bricker.brick_strategies.CollisionStrategy
  * @see bricker.main.BrickerGameManager
  */
-public class Brick extends GameObject {
+public class Brick extends StaticGameObject {
 	private final int row;
 	private final int col;
 	private final CollisionStrategy collisionStrategy;
+	private final IntSupplier frameClock;
+	private int reactedFrame = -1; // no frame yet
 
 	/**
 	 * Constructs a Brick object with specified position, size, renderable,
@@ -31,18 +40,21 @@ public class Brick extends GameObject {
 	 * @param collisionStrategy the strategy to execute upon collision.
 	 * @param row               the row of the brick in the grid
 	 * @param col               the column of the brick in the grid
+	 * @param frameClock        gives the number of the current frame
 	 */
 	public Brick(int row, int col, Vector2 topLeftCorner, Vector2 dimensions,
-				 Renderable renderable, CollisionStrategy collisionStrategy) {
+				 Renderable renderable, CollisionStrategy collisionStrategy, IntSupplier frameClock) {
 		super(topLeftCorner, dimensions, renderable);
 		this.row = row;
 		this.col = col;
 		this.collisionStrategy = collisionStrategy;
+		this.frameClock = frameClock;
 	}
 
 	/**
 	 * Handles collision events by executing the brick's collision strategy
 	 * and notifying the game manager to decrement the brick counter.
+	 * Does nothing if the strategy already ran in this frame.
 	 *
 	 * @param other     the other game object involved in the collision.
 	 * @param collision the collision details.
@@ -50,7 +62,27 @@ public class Brick extends GameObject {
 	@Override
 	public void onCollisionEnter(GameObject other, Collision collision) {
 		super.onCollisionEnter(other, collision);
+		int frame = frameClock.getAsInt();
+		if (reactedFrame == frame) {
+			return;
+		}
+		reactedFrame = frame;
+		BrickCollisionEvent event = new BrickCollisionEvent(frame, row, col);
+		event.begin();
 		collisionStrategy.onCollision(this, other);
+		event.end();
+		if (event.shouldCommit()) {
+			event.setStrategyChain(collisionStrategy.describe());
+			event.commit();
+		}
+	}
+
+	/**
+	 * Forgets the frame the brick reacted in, when it is put back by rewinding the game to a frame
+	 * before it was hit.
+	 */
+	public void resetReaction() {
+		reactedFrame = -1;
 	}
 
 	/**
@@ -1,9 +1,10 @@
 package bricker.gameobjects;
 
+import bricker.gameplay_events.GameplayEvent;
+import bricker.gameplay_events.GameplayEventListener;
 import bricker.main.BrickerGameManager;
 import danogl.GameObject;
 import danogl.collisions.Layer;
-import danogl.gui.ImageReader;
 import danogl.gui.rendering.TextRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
@@ -15,11 +16,12 @@ import java.awt.Color;
  * Hearts are shown or hidden based on the current number of lives.
  * The numeric display changes color based on the number of lives:
  * green for 3 or more, yellow for 2, and red for 1 or fewer.
+ * It listens to lives lost and gained on the gameplay event bus and redraws at most once per batch.
  *
  * @author Aron Isaacs
  * @see danogl.GameObject
  */
-public class LivesDisplay  {
+public class LivesDisplay implements GameplayEventListener {
 	private static final Vector2 HEART_START_POS = new Vector2(20, 20);
 	private static final float HEART_SPACING = 35f;
 	private static final Vector2 NUMBER_DISPLAY_SIZE = new Vector2(50, 30);
@@ -29,27 +31,29 @@ public class LivesDisplay  {
 	private final Renderable heartImage;
 	private final TextRenderable textRenderable;
 	private final GameObject[] hearts;
+	private final GameObject numberDisplay;
+	private int pendingLives;
+	private boolean dirty;
 
 	/**
-	 * Constructs a LivesDisplay with the specified initial lives, image reader, and game manager.
+	 * Constructs a LivesDisplay with the specified initial lives, heart image, and game manager.
 	 *
-	 * @param imageReader        the ImageReader to load the heart image
+	 * @param heartImage         the image of a single heart (null when running headless)
 	 * @param brickerGameManager the game manager to interact with
 	 * @param initialLives       the initial number of lives to display
 	 * @param maxLives           the maximum number of lives (hearts) to display
-	 * @param HEART_IMAGE_PATH   the file path to the heart image
 	 * @param HEART_SIZE         the size of each heart icon
 	 */
-	public LivesDisplay(ImageReader imageReader, BrickerGameManager brickerGameManager,
-						int initialLives, int maxLives, String HEART_IMAGE_PATH, Vector2 HEART_SIZE) {
+	public LivesDisplay(Renderable heartImage, BrickerGameManager brickerGameManager,
+						int initialLives, int maxLives, Vector2 HEART_SIZE) {
 
 		// Load assets
-		heartImage = imageReader.readImage(HEART_IMAGE_PATH, true);
+		this.heartImage = heartImage;
 		textRenderable = new TextRenderable(String.valueOf(initialLives));
 		textRenderable.setColor(getColorForLives(initialLives));
 		this.hearts = new GameObject[maxLives];
 
-		GameObject numberDisplay = new GameObject(
+		numberDisplay = new GameObject(
 				new Vector2(HEART_START_POS.x(),
 						HEART_START_POS.y() + HEART_SIZE.y() + NUMBER_Y_POSITION_OFFSET),
 				NUMBER_DISPLAY_SIZE, textRenderable
@@ -84,6 +88,38 @@ public class LivesDisplay  {
 		textRenderable.setColor(getColorForLives(newLives));
 	}
 
+	/**
+	 * Shows or hides the numeric display. Hidden, it costs nothing to draw, and the hearts alone show
+	 * the lives.
+	 *
+	 * @param shown true to show the number of lives
+	 */
+	public void setNumberShown(boolean shown) {
+		numberDisplay.renderer().setRenderable(shown ? textRenderable : null);
+	}
+
+	/**
+	 * Remembers the number of lives carried by a life lost or gained event.
+	 *
+	 * @param event the life event
+	 */
+	@Override
+	public void onEvent(GameplayEvent event) {
+		pendingLives = event.getValue();
+		dirty = true;
+	}
+
+	/**
+	 * Updates the display once with the latest number of lives of the batch.
+	 */
+	@Override
+	public void onBatchEnd() {
+		if (dirty) {
+			dirty = false;
+			updateLives(pendingLives);
+		}
+	}
+
 	/*
 	 * Determines the color for the numeric display based on the number of lives.
 	 */
@@ -1,23 +1,31 @@
 package bricker.gameobjects;
 
+import bricker.gameplay_events.GameplayEventBus;
+import bricker.gameplay_events.GameplayEventType;
+import bricker.paddle_controllers.PaddleController;
 import danogl.GameObject;
-import danogl.gui.UserInputListener;
+import danogl.collisions.Collision;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 
-import java.awt.event.KeyEvent;
-
 /**
- * A class representing a paddle controlled by the user.
+ * A class representing a paddle controlled by the user or by a bot.
  * The paddle can move left and right within the window boundaries.
- * It responds to user input for movement.
+ * It asks its paddle controller in which direction to move.
+ * Power-ups can make the paddle wider or narrower around its center.
  *
  * @author Aron Isaacs
+ * @see bricker.paddle_controllers.PaddleController
  */
 public class Paddle extends GameObject {
 	private static final Float MOVEMENT_SPEED = 400.0f;
+	private static final float MIN_WIDTH_SCALE = 0.25f;
+	private static final float MAX_WIDTH_SCALE = 3f;
 	private final Vector2 windowDimensions;
-	private final UserInputListener inputListener;
+	private final PaddleController paddleController;
+	private final GameplayEventBus eventBus;
+	private final float baseWidth;
+	private float widthScale = 1;
 
 	/**
 	 * Constructor for the Paddle class.
@@ -26,18 +34,60 @@ public class Paddle extends GameObject {
 	 * @param paddleDimensions The dimensions of the paddle.
 	 * @param windowDimensions The dimensions of the game window.
 	 * @param renderable       The renderable object for the paddle's appearance.
-	 * @param inputListener    The user input listener for handling keyboard input.
+	 * @param paddleController The controller deciding where the paddle moves (keyboard or bot).
+	 * @param eventBus         The bus paddle hits are published to.
 	 */
 	public Paddle(Vector2 topLeftCorner, Vector2 paddleDimensions,
 				  Vector2 windowDimensions, Renderable renderable,
-				  UserInputListener inputListener) {
+				  PaddleController paddleController, GameplayEventBus eventBus) {
 		super(topLeftCorner, paddleDimensions, renderable);
 		this.windowDimensions = windowDimensions;
-		this.inputListener = inputListener;
+		this.paddleController = paddleController;
+		this.eventBus = eventBus;
+		baseWidth = paddleDimensions.x();
+	}
+
+	/**
+	 * Scales the width of the paddle, keeping its center. Scales multiply, and scaling by the inverse
+	 * undoes a scale; the width is kept between a quarter and three times the width the paddle was
+	 * made with.
+	 *
+	 * @param factor the factor to scale the width by
+	 */
+	public void scaleWidth(float factor) {
+		widthScale *= factor;
+		Vector2 center = getCenter();
+		float width = baseWidth * Math.max(MIN_WIDTH_SCALE, Math.min(MAX_WIDTH_SCALE, widthScale));
+		setDimensions(new Vector2(width, getDimensions().y()));
+		setCenter(center);
+	}
+
+	/**
+	 * Publishes a paddle hit to the gameplay event bus.
+	 *
+	 * @param other     the game object that hit the paddle.
+	 * @param collision the collision details.
+	 */
+	@Override
+	public void onCollisionEnter(GameObject other, Collision collision) {
+		super.onCollisionEnter(other, collision);
+		eventBus.publish(GameplayEventType.PADDLE_HIT, this, other);
+	}
+
+	/**
+	 * Balls are not collided with by the engine, but by the ball collision pass.
+	 *
+	 * @param other the other game object
+	 * @return false for balls, true otherwise
+	 * @see bricker.ball_collisions.BallCollisionPass
+	 */
+	@Override
+	public boolean shouldCollideWith(GameObject other) {
+		return !(other instanceof Ball);
 	}
 
 	/**
-	 * Updates the paddle's position based on user input and ensures it stays within window boundaries.
+	 * Updates the paddle's position based on its controller and ensures it stays within window boundaries.
 	 *
 	 * @param deltaTime The time elapsed since the last update.
 	 */
@@ -59,14 +109,8 @@ public class Paddle extends GameObject {
 
 		} else {
 			// Handle right/left movement
-			Vector2 movementDirection = Vector2.ZERO;
-			if (inputListener.isKeyPressed(KeyEvent.VK_RIGHT)) {
-				movementDirection = movementDirection.add(Vector2.RIGHT);
-			}
-			if (inputListener.isKeyPressed(KeyEvent.VK_LEFT)) {
-				movementDirection = movementDirection.add(Vector2.LEFT);
-			}
-			setVelocity(movementDirection.mult(MOVEMENT_SPEED));
+			float direction = paddleController.getMovementDirection(this, deltaTime);
+			setVelocity(Vector2.RIGHT.mult(direction * MOVEMENT_SPEED));
 		}
 	}
 
@@ -0,0 +1,100 @@
+package bricker.gameobjects;
+
+import danogl.GameObject;
+import danogl.components.Component;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+/**
+ * A game object that usually stands still, such as a brick, a border or the background.
+ * While it has no velocity and no components it is asleep, and its per-frame update returns at once
+ * instead of going through the engine's movement and component machinery. Giving it a velocity or a
+ * component wakes it up, and it falls asleep again after the first update in which it has neither.
+ * Sleeping does not affect collisions, which the engine checks separately from updates.
+ *
+ * @author Aron Isaacs
+ * @see danogl.GameObject
+ */
+public class StaticGameObject extends GameObject {
+	private int numComponents;
+	private boolean asleep = true;
+
+	/**
+	 * Constructs a StaticGameObject, which starts asleep.
+	 *
+	 * @param topLeftCorner the top-left corner position of the object.
+	 * @param dimensions    the dimensions (width and height) of the object.
+	 * @param renderable    the visual representation of the object, may be null.
+	 */
+	public StaticGameObject(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
+		super(topLeftCorner, dimensions, renderable);
+	}
+
+	/**
+	 * Updates the object, unless it is asleep. An awake object with no velocity and no components falls
+	 * asleep after this update.
+	 *
+	 * @param deltaTime the time elapsed since the last update
+	 */
+	@Override
+	public void update(float deltaTime) {
+		if (asleep) {
+			return;
+		}
+		super.update(deltaTime);
+		asleep = numComponents == 0 && getVelocity().equals(Vector2.ZERO);
+	}
+
+	/**
+	 * Sets the velocity of the object, waking it up if the velocity is not zero.
+	 *
+	 * @param velocity the new velocity
+	 */
+	@Override
+	public void setVelocity(Vector2 velocity) {
+		super.setVelocity(velocity);
+		if (!velocity.equals(Vector2.ZERO)) {
+			wake();
+		}
+	}
+
+	/**
+	 * Adds a component to the object and wakes it up, so the component is updated every frame.
+	 *
+	 * @param component the component to add
+	 */
+	@Override
+	public void addComponent(Component component) {
+		super.addComponent(component);
+		numComponents++;
+		wake();
+	}
+
+	/**
+	 * Removes a component from the object. The object falls asleep on its next update if nothing else
+	 * keeps it awake.
+	 *
+	 * @param component the component to remove
+	 */
+	@Override
+	public void removeComponent(Component component) {
+		super.removeComponent(component);
+		numComponents = Math.max(0, numComponents - 1);
+	}
+
+	/**
+	 * Wakes the object up, so it is updated on the next frame.
+	 */
+	public void wake() {
+		asleep = false;
+	}
+
+	/**
+	 * Checks whether the object is asleep.
+	 *
+	 * @return true if the object skips its per-frame update
+	 */
+	public boolean isAsleep() {
+		return asleep;
+	}
+}
@@ -1,6 +1,8 @@
 package bricker.gameobjects;
 
+import bricker.gameplay_events.GameplayEventBus;
 import bricker.main.BrickerGameManager;
+import bricker.paddle_controllers.PaddleController;
 
 /**
  * SubPaddle is a specialized paddle that notifies the game manager when it is hit.
@@ -20,7 +22,8 @@ public class SubPaddle extends Paddle {
 	 * @param paddleDimensions   The dimensions of the paddle.
 	 * @param windowDimensions   The dimensions of the game window.
 	 * @param renderable         The renderable object for the paddle's appearance.
-	 * @param inputListener      The user input listener for handling keyboard input.
+	 * @param paddleController   The controller deciding where the paddle moves (keyboard or bot).
+	 * @param eventBus           The bus paddle hits are published to.
 	 * @param brickerGameManager composition root for the game manager, this is different from the main
 	 *                              paddle only the sub paddle needs to notify the
 	 * 	                            game manager when hit.
@@ -28,9 +31,10 @@ public class SubPaddle extends Paddle {
 	 */
 	public SubPaddle(danogl.util.Vector2 topLeftCorner, danogl.util.Vector2 paddleDimensions,
 					 danogl.util.Vector2 windowDimensions, danogl.gui.rendering.Renderable renderable,
-					 danogl.gui.UserInputListener inputListener, BrickerGameManager brickerGameManager,
+					 PaddleController paddleController, GameplayEventBus eventBus,
+					 BrickerGameManager brickerGameManager,
 					 String borderTag) {
-		super(topLeftCorner, paddleDimensions, windowDimensions, renderable, inputListener);
+		super(topLeftCorner, paddleDimensions, windowDimensions, renderable, paddleController, eventBus);
 		this.brickerGameManager = brickerGameManager;
 		this.borderTag = borderTag;
 	}
@@ -40,11 +44,11 @@ public class SubPaddle extends Paddle {
 	 * This is important to ensure that the SubPaddle does not interact with border objects.
 	 *
 	 * @param other The other GameObject.
-	 * @return true if the other GameObject is not a border, false otherwise.
+	 * @return true if the other GameObject is not a border (or a ball, see Paddle), false otherwise.
 	 */
 	@Override
 	public boolean shouldCollideWith(danogl.GameObject other) {
-		return !other.getTag().equals(borderTag);
+		return super.shouldCollideWith(other) && !other.getTag().equals(borderTag);
 	}
 
 	/**
@@ -0,0 +1,70 @@
+package bricker.gameplay_events;
+
+import danogl.GameObject;
+
+/**
+ * A single gameplay event, as seen by the listeners of the gameplay event bus. Events live in slots
+ * that are preallocated and reused by the bus, so a listener must not keep a reference to an event
+ * after it has handled it.
+ *
+ * @author Ron Stein
+ * @see GameplayEventBus
+ */
+public class GameplayEvent {
+	private GameplayEventType type;
+	private GameObject source;
+	private GameObject other;
+	private int value;
+
+	/*
+	 * Constructs an empty event slot. Only the bus creates events.
+	 */
+	GameplayEvent() {
+	}
+
+	/*
+	 * Fills the slot with a newly published event.
+	 */
+	void set(GameplayEventType type, GameObject source, GameObject other, int value) {
+		this.type = type;
+		this.source = source;
+		this.other = other;
+		this.value = value;
+	}
+
+	/**
+	 * Gets the kind of event.
+	 *
+	 * @return the type of the event
+	 */
+	public GameplayEventType getType() {
+		return type;
+	}
+
+	/**
+	 * Gets the game object the event happened at, e.g. the brick that was hit.
+	 *
+	 * @return the source of the event, or null for events without one (lives)
+	 */
+	public GameObject getSource() {
+		return source;
+	}
+
+	/**
+	 * Gets the other game object involved in the event, e.g. the ball that hit the brick.
+	 *
+	 * @return the other object, or null if there is none
+	 */
+	public GameObject getOther() {
+		return other;
+	}
+
+	/**
+	 * Gets the event specific value, e.g. the number of lives after a life was lost or gained.
+	 *
+	 * @return the value of the event
+	 */
+	public int getValue() {
+		return value;
+	}
+}
@@ -0,0 +1,155 @@
+package bricker.gameplay_events;
+
+import danogl.GameObject;
+
+import java.util.Arrays;
+
+/**
+ * A typed event bus between the collision strategies (and the game state) and the subsystems reacting
+ * to them. Publishing only fills a preallocated event slot, which is safe to do from inside a physics
+ * callback; the events are handed to their listeners later, when the game manager dispatches the bus at
+ * a defined point in the frame. Events published while dispatching (e.g. by chained explosions) are
+ * delivered in the same dispatch.
+ * The bus belongs to the game thread and is not thread safe.
+ *
+ * @author Ron Stein
+ * @see GameplayEvent
+ * @see GameplayEventListener
+ */
+public class GameplayEventBus {
+	private static final int INITIAL_CAPACITY = 256;
+	private static final GameplayEventType[] TYPES = GameplayEventType.values();
+	private final GameplayEventListener[][] listenersByType = new GameplayEventListener[TYPES.length][0];
+	private GameplayEventListener[] allListeners = new GameplayEventListener[0];
+	private GameplayEvent[] slots = new GameplayEvent[0];
+	private int count;
+	private boolean dispatching;
+
+	/**
+	 * Constructs a GameplayEventBus with preallocated event slots.
+	 */
+	public GameplayEventBus() {
+		grow(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Subscribes a listener to one kind of event.
+	 *
+	 * @param type     the kind of event to listen to
+	 * @param listener the listener
+	 */
+	public void subscribe(GameplayEventType type, GameplayEventListener listener) {
+		GameplayEventListener[] listeners = listenersByType[type.ordinal()];
+		listeners = Arrays.copyOf(listeners, listeners.length + 1);
+		listeners[listeners.length - 1] = listener;
+		listenersByType[type.ordinal()] = listeners;
+		addToAllListeners(listener);
+	}
+
+	/**
+	 * Subscribes a listener to every kind of event.
+	 *
+	 * @param listener the listener
+	 */
+	public void subscribeToAll(GameplayEventListener listener) {
+		for (GameplayEventType type : TYPES) {
+			subscribe(type, listener);
+		}
+	}
+
+	/**
+	 * Publishes an event between two game objects, e.g. a brick and the ball that hit it.
+	 *
+	 * @param type   the kind of event
+	 * @param source the game object the event happened at
+	 * @param other  the other game object involved, or null
+	 */
+	public void publish(GameplayEventType type, GameObject source, GameObject other) {
+		nextSlot().set(type, source, other, 0);
+	}
+
+	/**
+	 * Publishes an event between two game objects that also carries a value, e.g. the power-up given by
+	 * a brick to the ball that hit it.
+	 *
+	 * @param type   the kind of event
+	 * @param source the game object the event happened at
+	 * @param other  the other game object involved, or null
+	 * @param value  the event specific value
+	 */
+	public void publish(GameplayEventType type, GameObject source, GameObject other, int value) {
+		nextSlot().set(type, source, other, value);
+	}
+
+	/**
+	 * Publishes an event carrying only a value, e.g. the number of lives left.
+	 *
+	 * @param type  the kind of event
+	 * @param value the event specific value
+	 */
+	public void publish(GameplayEventType type, int value) {
+		nextSlot().set(type, null, null, value);
+	}
+
+	/**
+	 * Hands all pending events to their listeners in publish order, then ends the batch of every
+	 * listener. Does nothing if called again from within a listener.
+	 */
+	public void dispatch() {
+		if (dispatching || count == 0) {
+			return;
+		}
+		dispatching = true;
+		try {
+			for (int i = 0; i < count; i++) {
+				GameplayEvent event = slots[i];
+				for (GameplayEventListener listener : listenersByType[event.getType().ordinal()]) {
+					listener.onEvent(event);
+				}
+			}
+			for (int i = 0; i < count; i++) {
+				slots[i].set(null, null, null, 0); // do not keep removed game objects alive
+			}
+			count = 0;
+			for (GameplayEventListener listener : allListeners) {
+				listener.onBatchEnd();
+			}
+		} finally {
+			dispatching = false;
+		}
+	}
+
+	/*
+	 * Returns the next free slot, doubling the slots if all of them are pending.
+	 */
+	private GameplayEvent nextSlot() {
+		if (count == slots.length) {
+			grow(slots.length * 2);
+		}
+		return slots[count++];
+	}
+
+	/*
+	 * Grows the slots to the given capacity, preallocating the new events.
+	 */
+	private void grow(int capacity) {
+		int oldLength = slots.length;
+		slots = Arrays.copyOf(slots, capacity);
+		for (int i = oldLength; i < capacity; i++) {
+			slots[i] = new GameplayEvent();
+		}
+	}
+
+	/*
+	 * Remembers a listener once, so its batch is ended once per dispatch.
+	 */
+	private void addToAllListeners(GameplayEventListener listener) {
+		for (GameplayEventListener known : allListeners) {
+			if (known == listener) {
+				return;
+			}
+		}
+		allListeners = Arrays.copyOf(allListeners, allListeners.length + 1);
+		allListeners[allListeners.length - 1] = listener;
+	}
+}
@@ -0,0 +1,26 @@
+package bricker.gameplay_events;
+
+/**
+ * An interface for the subsystems reacting to gameplay events, such as spawning, audio, the HUD and
+ * logging. The bus hands a listener all of its events in publish order, then tells it the batch is over,
+ * so expensive reactions can be done once per batch instead of once per event.
+ *
+ * @author Ron Stein
+ * @see GameplayEventBus
+ */
+@FunctionalInterface
+public interface GameplayEventListener {
+
+	/**
+	 * Handles a single event. The event must not be kept after this method returns.
+	 *
+	 * @param event the event to handle
+	 */
+	void onEvent(GameplayEvent event);
+
+	/**
+	 * Called once after a dispatch that delivered at least one event, to any listener of the bus.
+	 */
+	default void onBatchEnd() {
+	}
+}
@@ -0,0 +1,67 @@
+package bricker.gameplay_events;
+
+/**
+ * The kinds of gameplay events published on the gameplay event bus. Each kind has a fixed code that
+ * is written to the binary records of the gameplay log, so the codes must never be reused or renumbered.
+ *
+ * @author Aron Isaacs
+ * @see GameplayEventBus
+ * @see bricker.gameplay_log.GameplayEventLog
+ */
+public enum GameplayEventType {
+	/**
+	 * A brick was removed from the board.
+	 */
+	BRICK_DESTROYED(1),
+	/**
+	 * An exploding brick strategy was triggered.
+	 */
+	EXPLOSION_TRIGGERED(2),
+	/**
+	 * An extra puck strategy was triggered.
+	 */
+	PUCKS_SPAWNED(3),
+	/**
+	 * An extra life strategy was triggered and a heart started falling.
+	 */
+	HEART_SPAWNED(4),
+	/**
+	 * An extra paddle strategy was triggered.
+	 */
+	SUB_PADDLE_SPAWNED(5),
+	/**
+	 * The player lost a life.
+	 */
+	LIFE_LOST(6),
+	/**
+	 * The player gained a life.
+	 */
+	LIFE_GAINED(7),
+	/**
+	 * A ball, puck or heart hit a paddle.
+	 */
+	PADDLE_HIT(8),
+	/**
+	 * A falling heart was caught by the main paddle.
+	 */
+	HEART_CAUGHT(9),
+	/**
+	 * A power-up strategy was triggered. The value of the event is the ordinal of the power-up.
+	 */
+	POWER_UP_TRIGGERED(10);
+
+	private final int code;
+
+	GameplayEventType(int code) {
+		this.code = code;
+	}
+
+	/**
+	 * Gets the code written to the binary records for this kind of event.
+	 *
+	 * @return the code of the event type
+	 */
+	public int getCode() {
+		return code;
+	}
+}
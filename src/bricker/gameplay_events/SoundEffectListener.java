@@ -0,0 +1,45 @@
+package bricker.gameplay_events;
+
+import danogl.gui.Sound;
+
+/**
+ * Plays a sound effect when the events it is subscribed to happen. However many of them happen in one
+ * batch (e.g. a chain of explosions), the sound is played only once, at the end of the batch.
+ *
+ * @author Ron Stein
+ * @see GameplayEventBus
+ */
+public class SoundEffectListener implements GameplayEventListener {
+	private final Sound sound;
+	private boolean triggered;
+
+	/**
+	 * Constructor for the SoundEffectListener.
+	 *
+	 * @param sound the sound to play, or null to stay silent (headless)
+	 */
+	public SoundEffectListener(Sound sound) {
+		this.sound = sound;
+	}
+
+	/**
+	 * Remembers that the sound has to be played at the end of the batch.
+	 *
+	 * @param event the event that happened
+	 */
+	@Override
+	public void onEvent(GameplayEvent event) {
+		triggered = true;
+	}
+
+	/**
+	 * Plays the sound once if any event happened during the batch.
+	 */
+	@Override
+	public void onBatchEnd() {
+		if (triggered && sound != null) {
+			sound.play();
+		}
+		triggered = false;
+	}
+}
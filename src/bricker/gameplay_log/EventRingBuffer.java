@@ -0,0 +1,103 @@
+package bricker.gameplay_log;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A preallocated, lock-free ring buffer of fixed-size binary event records, with a single producer (the
+ * game thread) and a single consumer (the log writer). Publishing never blocks and never allocates:
+ * when the ring is full the record is counted as dropped instead.
+ *
+ * <pre>
+ * record: long nanoTime, int frame, int type, int arg0, int arg1, float x, float y  (32 bytes)
+ * </pre>
+ *
+ * @author Aron Isaacs
+ * @see GameplayEventLog
+ */
+public class EventRingBuffer {
+	/**
+	 * The size of a single record in bytes.
+	 */
+	public static final int RECORD_SIZE = 32;
+	private final ByteBuffer records;
+	private final int mask;
+	private final AtomicLong head = new AtomicLong(); // next record to be read, owned by the consumer
+	private final AtomicLong tail = new AtomicLong(); // next record to be written, owned by the producer
+	private final AtomicLong droppedRecords = new AtomicLong();
+
+	/**
+	 * Constructs an EventRingBuffer.
+	 *
+	 * @param capacity the number of records the ring can hold, must be a power of two
+	 */
+	public EventRingBuffer(int capacity) {
+		if (Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+		}
+		records = ByteBuffer.allocateDirect(capacity * RECORD_SIZE);
+		mask = capacity - 1;
+	}
+
+	/**
+	 * Writes a record to the ring. Must only be called by the producer thread.
+	 *
+	 * @param nanoTime the time of the event
+	 * @param frame    the frame the event happened in
+	 * @param type     the code of the event type
+	 * @param arg0     the first event specific argument
+	 * @param arg1     the second event specific argument
+	 * @param x        the x coordinate of the event
+	 * @param y        the y coordinate of the event
+	 * @return true if the record was written, false if it was dropped because the ring is full
+	 */
+	public boolean offer(long nanoTime, int frame, int type, int arg0, int arg1, float x, float y) {
+		long position = tail.get();
+		if (position - head.getAcquire() > mask) {
+			droppedRecords.incrementAndGet();
+			return false;
+		}
+		int offset = (int) (position & mask) * RECORD_SIZE;
+		records.putLong(offset, nanoTime);
+		records.putInt(offset + 8, frame);
+		records.putInt(offset + 12, type);
+		records.putInt(offset + 16, arg0);
+		records.putInt(offset + 20, arg1);
+		records.putFloat(offset + 24, x);
+		records.putFloat(offset + 28, y);
+		tail.setRelease(position + 1);
+		return true;
+	}
+
+	/**
+	 * Copies as many published records as fit into the batch buffer and frees their slots.
+	 * Must only be called by the consumer thread.
+	 *
+	 * @param batch the buffer to copy the records into
+	 * @return the number of records copied
+	 */
+	public int drainTo(ByteBuffer batch) {
+		long start = head.get();
+		long available = tail.getAcquire() - start;
+		int count = (int) Math.min(available, batch.remaining() / RECORD_SIZE);
+		// copy in at most two contiguous runs: up to the end of the ring, then from its start
+		int first = (int) (start & mask);
+		int firstRun = Math.min(count, mask + 1 - first);
+		batch.put(batch.position(), records, first * RECORD_SIZE, firstRun * RECORD_SIZE);
+		batch.position(batch.position() + firstRun * RECORD_SIZE);
+		int secondRun = count - firstRun;
+		batch.put(batch.position(), records, 0, secondRun * RECORD_SIZE);
+		batch.position(batch.position() + secondRun * RECORD_SIZE);
+		head.setRelease(start + count);
+		return count;
+	}
+
+	/**
+	 * Gets the number of records dropped because the consumer fell behind.
+	 *
+	 * @return the number of dropped records
+	 */
+	public long getDroppedRecords() {
+		return droppedRecords.get();
+	}
+}
@@ -0,0 +1,210 @@
+package bricker.gameplay_log;
+
+import bricker.gameobjects.Brick;
+import bricker.gameplay_events.GameplayEvent;
+import bricker.gameplay_events.GameplayEventListener;
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records gameplay events (bricks destroyed, strategies triggered, lives lost and gained, paddle hits)
+ * to a binary file without slowing down the frame. The log listens to the gameplay event bus; for each
+ * event the game thread only copies a fixed-size record into a preallocated ring buffer, and a
+ * background writer drains the ring to the file in batches. If the writer falls behind, events are
+ * counted as dropped rather than blocking the game.
+ * A disabled log ignores everything, so callers never need to check whether logging is on.
+ *
+ * <pre>
+ * file: magic "BRKL", int version, int recordSize, then records (see EventRingBuffer)
+ * </pre>
+ *
+ * @author Aron Isaacs
+ * @see EventRingBuffer
+ * @see bricker.gameplay_events.GameplayEventBus
+ */
+public class GameplayEventLog implements GameplayEventListener {
+	/**
+	 * The system property naming the file to log to. Logging is disabled when it is not set.
+	 */
+	public static final String LOG_FILE_PROPERTY = "bricker.eventLog";
+	private static final int MAGIC = 0x42524B4C; // "BRKL"
+	private static final int VERSION = 1;
+	private static final int RING_CAPACITY = 1 << 16;
+	private static final int BATCH_RECORDS = 1 << 12;
+	private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final int NO_CELL = -1;
+	private final EventRingBuffer ring;
+	private final FileChannel file;
+	private final Thread writer;
+	private volatile boolean running;
+	private int frame;
+
+	/*
+	 * Constructs a log writing to the given file, or a disabled log when the file is null.
+	 */
+	private GameplayEventLog(FileChannel file) {
+		this.file = file;
+		if (file == null) {
+			ring = null;
+			writer = null;
+			return;
+		}
+		ring = new EventRingBuffer(RING_CAPACITY);
+		running = true;
+		writer = new Thread(this::drainLoop, "gameplay-event-log");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Opens a log writing to the given file, replacing it if it exists.
+	 *
+	 * @param path the file to write to
+	 * @return an enabled log
+	 * @throws IOException if the file cannot be created
+	 */
+	public static GameplayEventLog open(Path path) throws IOException {
+		FileChannel file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		ByteBuffer header = ByteBuffer.allocate(3 * Integer.BYTES);
+		header.putInt(MAGIC).putInt(VERSION).putInt(EventRingBuffer.RECORD_SIZE).flip();
+		while (header.hasRemaining()) {
+			file.write(header);
+		}
+		return new GameplayEventLog(file);
+	}
+
+	/**
+	 * Opens the log named by the LOG_FILE_PROPERTY system property, or returns a disabled log if the
+	 * property is not set. The log is closed (and flushed) when the JVM shuts down.
+	 *
+	 * @return the configured log
+	 */
+	public static GameplayEventLog fromSystemProperty() {
+		String path = System.getProperty(LOG_FILE_PROPERTY);
+		if (path == null) {
+			return disabled();
+		}
+		try {
+			GameplayEventLog log = open(Path.of(path));
+			Runtime.getRuntime().addShutdownHook(new Thread(log::close));
+			return log;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Creates a log that ignores all events.
+	 *
+	 * @return a disabled log
+	 */
+	public static GameplayEventLog disabled() {
+		return new GameplayEventLog(null);
+	}
+
+	/**
+	 * Sets the frame stamped on the events published from now on. Called by the game thread once per
+	 * frame.
+	 *
+	 * @param frame the current frame number
+	 */
+	public void setFrame(int frame) {
+		this.frame = frame;
+	}
+
+	/**
+	 * Records an event. For bricks the row and column are recorded as the event arguments, otherwise the
+	 * event value. Never blocks; the event is dropped if the writer has fallen behind.
+	 *
+	 * @param event the event to record
+	 */
+	@Override
+	public void onEvent(GameplayEvent event) {
+		if (ring == null) {
+			return;
+		}
+		int arg0 = event.getValue();
+		int arg1 = NO_CELL;
+		float x = 0;
+		float y = 0;
+		GameObject source = event.getSource();
+		if (source instanceof Brick brick) {
+			arg0 = brick.getRow();
+			arg1 = brick.getCol();
+		}
+		if (source != null) {
+			Vector2 center = source.getCenter();
+			x = center.x();
+			y = center.y();
+		}
+		ring.offer(System.nanoTime(), frame, event.getType().getCode(), arg0, arg1, x, y);
+	}
+
+	/**
+	 * Gets the number of events dropped because the writer fell behind.
+	 *
+	 * @return the number of dropped events
+	 */
+	public long getDroppedEvents() {
+		return ring == null ? 0 : ring.getDroppedRecords();
+	}
+
+	/**
+	 * Stops the writer after it has written all published events, and closes the file.
+	 */
+	public void close() {
+		if (writer == null || !running) {
+			return;
+		}
+		running = false;
+		LockSupport.unpark(writer);
+		try {
+			writer.join();
+			file.close();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/*
+	 * The writer thread: drains the ring in batches and parks briefly whenever it is empty.
+	 * Runs one last drain after being stopped so nothing published before close is lost.
+	 */
+	private void drainLoop() {
+		ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_RECORDS * EventRingBuffer.RECORD_SIZE);
+		try {
+			boolean stopping = false;
+			while (true) {
+				batch.clear();
+				int drained = ring.drainTo(batch);
+				batch.flip();
+				while (batch.hasRemaining()) {
+					file.write(batch);
+				}
+				if (drained == 0) {
+					if (stopping) {
+						return;
+					}
+					stopping = !running;
+					if (!stopping) {
+						LockSupport.parkNanos(IDLE_PARK_NANOS);
+					}
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package bricker.input;
+
+import java.awt.KeyboardFocusManager;
+import java.awt.event.KeyEvent;
+import java.util.Arrays;
+
+/**
+ * Measures input latency: the time from the key event that starts the paddle moving (an arrow pressed
+ * while no arrow is held) to the end of the first frame in which the paddle has moved. Key events are
+ * seen on the AWT event thread, as the keyboard delivers them, and the frames report on the game thread.
+ * A key press is matched in two steps: first a tick samples the arrow, and the paddle takes its new
+ * velocity; then a later frame moves the paddle. A press the paddle never follows (against a wall, for
+ * example) is dropped after MAX_WAIT_FRAMES.
+ * The latest SAMPLES latencies are kept, and reported as percentiles.
+ *
+ * @author Aron Isaacs
+ * @see InputSnapshot
+ */
+public class InputLatencyMeter {
+	/**
+	 * The system property turning the meter on. The percentiles are printed when the JVM shuts down.
+	 */
+	public static final String INPUT_LATENCY_PROPERTY = "bricker.inputLatency";
+	private static final int SAMPLES = 4096;
+	private static final int MAX_WAIT_FRAMES = 30;
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+	private static final double[] PERCENTILES = {50, 90, 99};
+	private final boolean enabled;
+	private final long[] latencies = new long[SAMPLES];
+	private int numLatencies; // counts all the latencies ever measured
+	private boolean leftHeld;
+	private boolean rightHeld;
+	private long pressNanos = -1; // no press waiting
+	private boolean sampled;
+	private float sampledPaddleX;
+	private int waitedFrames;
+
+	/*
+	 * Constructs an enabled or a disabled meter.
+	 */
+	private InputLatencyMeter(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	/**
+	 * Creates a meter listening to the keyboard if the INPUT_LATENCY_PROPERTY system property is true,
+	 * or a disabled meter otherwise.
+	 *
+	 * @return the configured meter
+	 */
+	public static InputLatencyMeter fromSystemProperty() {
+		if (!Boolean.getBoolean(INPUT_LATENCY_PROPERTY)) {
+			return disabled();
+		}
+		InputLatencyMeter meter = new InputLatencyMeter(true);
+		KeyboardFocusManager.getCurrentKeyboardFocusManager().addKeyEventDispatcher(event -> {
+			meter.onKeyEvent(event);
+			return false; // the game still gets the event
+		});
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println(meter.report())));
+		return meter;
+	}
+
+	/**
+	 * Creates a meter that measures nothing.
+	 *
+	 * @return a disabled meter
+	 */
+	public static InputLatencyMeter disabled() {
+		return new InputLatencyMeter(false);
+	}
+
+	/**
+	 * Notes a key event. Called on the AWT event thread.
+	 *
+	 * @param event the key event
+	 */
+	public synchronized void onKeyEvent(KeyEvent event) {
+		int keyCode = event.getKeyCode();
+		if (keyCode != KeyEvent.VK_LEFT && keyCode != KeyEvent.VK_RIGHT) {
+			return;
+		}
+		boolean pressed = event.getID() == KeyEvent.KEY_PRESSED;
+		if (!pressed && event.getID() != KeyEvent.KEY_RELEASED) {
+			return;
+		}
+		if (pressed && !leftHeld && !rightHeld && pressNanos < 0) {
+			pressNanos = System.nanoTime();
+			sampled = false;
+			waitedFrames = 0;
+		}
+		if (keyCode == KeyEvent.VK_LEFT) {
+			leftHeld = pressed;
+		} else {
+			rightHeld = pressed;
+		}
+	}
+
+	/**
+	 * Reports the end of a frame. Called on the game thread after every update.
+	 *
+	 * @param input   the input the frame was updated with
+	 * @param paddleX the x coordinate of the main paddle at the end of the frame
+	 */
+	public synchronized void onFrameEnd(InputSnapshot input, float paddleX) {
+		if (!enabled || pressNanos < 0) {
+			return;
+		}
+		if (!sampled && input.getSampledNanos() >= pressNanos && input.getHorizontalDirection() != 0) {
+			sampled = true;
+			sampledPaddleX = paddleX;
+			waitedFrames = 0;
+		} else if (sampled && paddleX != sampledPaddleX) {
+			latencies[numLatencies % SAMPLES] = System.nanoTime() - pressNanos;
+			numLatencies++;
+			pressNanos = -1;
+		} else if (++waitedFrames > MAX_WAIT_FRAMES) {
+			pressNanos = -1;
+		}
+	}
+
+	/**
+	 * Checks whether the meter measures anything.
+	 *
+	 * @return true if the meter listens to the keyboard
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Builds a one line summary of the latest latencies: their number, percentiles and maximum.
+	 *
+	 * @return a human readable report
+	 */
+	public synchronized String report() {
+		long[] sorted = Arrays.copyOf(latencies, Math.min(numLatencies, SAMPLES));
+		if (sorted.length == 0) {
+			return "inputLatency n=0";
+		}
+		Arrays.sort(sorted);
+		StringBuilder report = new StringBuilder("inputLatency n=" + numLatencies);
+		for (double percentile : PERCENTILES) {
+			int rank = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+			report.append(String.format(" p%.0f=%.1fms", percentile, sorted[rank] / NANOS_PER_MILLI));
+		}
+		report.append(String.format(" max=%.1fms", sorted[sorted.length - 1] / NANOS_PER_MILLI));
+		return report.toString();
+	}
+}
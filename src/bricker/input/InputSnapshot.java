@@ -0,0 +1,89 @@
+package bricker.input;
+
+import danogl.gui.UserInputListener;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * The keys the game reacts to, sampled once at the start of a tick. Every paddle and every rule of the
+ * tick reads the same snapshot, so they all see the same input, however the keyboard changes while the
+ * tick runs. Snapshots are immutable.
+ *
+ * @author Aron Isaacs
+ * @see bricker.paddle_controllers.KeyboardPaddleController
+ */
+public final class InputSnapshot {
+	/**
+	 * A snapshot with no key pressed, for games without a keyboard.
+	 */
+	public static final InputSnapshot NONE = new InputSnapshot(0, 0);
+	private static final int[] SAMPLED_KEYS = {KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_W,
+			KeyEvent.VK_BACK_SPACE};
+	private final int pressedKeys; // one bit per sampled key
+	private final long sampledNanos;
+
+	/*
+	 * Constructs a snapshot of the given pressed keys.
+	 */
+	private InputSnapshot(int pressedKeys, long sampledNanos) {
+		this.pressedKeys = pressedKeys;
+		this.sampledNanos = sampledNanos;
+	}
+
+	/**
+	 * Samples the keys the game reacts to.
+	 *
+	 * @param inputListener the keyboard
+	 * @return the keys pressed right now
+	 */
+	public static InputSnapshot sample(UserInputListener inputListener) {
+		int pressedKeys = 0;
+		for (int i = 0; i < SAMPLED_KEYS.length; i++) {
+			if (inputListener.isKeyPressed(SAMPLED_KEYS[i])) {
+				pressedKeys |= 1 << i;
+			}
+		}
+		return new InputSnapshot(pressedKeys, System.nanoTime());
+	}
+
+	/**
+	 * Checks whether a key was pressed when the snapshot was sampled.
+	 *
+	 * @param keyCode the key, one of the left and right arrows, W and backspace
+	 * @return true if the key was pressed
+	 * @throws IllegalArgumentException if the key is not sampled
+	 */
+	public boolean isKeyPressed(int keyCode) {
+		for (int i = 0; i < SAMPLED_KEYS.length; i++) {
+			if (SAMPLED_KEYS[i] == keyCode) {
+				return (pressedKeys & (1 << i)) != 0;
+			}
+		}
+		throw new IllegalArgumentException("key " + KeyEvent.getKeyText(keyCode) + " is not sampled");
+	}
+
+	/**
+	 * Gets the direction the arrow keys point to. Holding both arrows cancels the movement.
+	 *
+	 * @return 1 for right, -1 for left, 0 for none or both
+	 */
+	public float getHorizontalDirection() {
+		float direction = 0;
+		if (isKeyPressed(KeyEvent.VK_RIGHT)) {
+			direction++;
+		}
+		if (isKeyPressed(KeyEvent.VK_LEFT)) {
+			direction--;
+		}
+		return direction;
+	}
+
+	/**
+	 * Gets when the snapshot was sampled.
+	 *
+	 * @return the System.nanoTime of the sampling, 0 for NONE
+	 */
+	public long getSampledNanos() {
+		return sampledNanos;
+	}
+}
@@ -0,0 +1,57 @@
+package bricker.main;
+
+import bricker.brick_strategies.CollisionStrategy;
+import bricker.brick_strategies.CollisionStrategyFactory;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Assigns collision strategies to all cells of a board in parallel, yet reproducibly.
+ * The board is cut into chunks of a fixed size, and every chunk draws from its own SplittableRandom
+ * stream split off a single root seeded with the board seed. Since neither the chunks nor their streams
+ * depend on the number of threads, the same seed gives the same board on any core count.
+ *
+ * @author Ron Stein
+ * @see CollisionStrategyFactory
+ */
+public class BoardGenerator {
+	private static final int CHUNK_SIZE = 4096; // cells per chunk, must never depend on the core count
+	private final CollisionStrategyFactory collisionStrategyFactory;
+
+	/**
+	 * Constructor for the BoardGenerator.
+	 *
+	 * @param collisionStrategyFactory the factory drawing the strategy of each cell
+	 */
+	public BoardGenerator(CollisionStrategyFactory collisionStrategyFactory) {
+		this.collisionStrategyFactory = collisionStrategyFactory;
+	}
+
+	/**
+	 * Draws the collision strategies of all cells of a board, as strategy ids.
+	 *
+	 * @param numCells the number of cells (rows * bricks per row)
+	 * @param seed     the seed of the board
+	 * @return the strategy id of every cell, indexed by row * bricksPerRow + col
+	 * @see CollisionStrategyFactory#buildCollisionStrategy(int, CollisionStrategy, BrickerGameManager)
+	 */
+	public int[] assignStrategyIds(int numCells, long seed) {
+		int[] strategyIds = new int[numCells];
+		int numChunks = (numCells + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		// split sequentially so that chunk i always gets the i-th stream
+		SplittableRandom root = new SplittableRandom(seed);
+		SplittableRandom[] chunkRandoms = new SplittableRandom[numChunks];
+		for (int chunk = 0; chunk < numChunks; chunk++) {
+			chunkRandoms[chunk] = root.split();
+		}
+		IntStream.range(0, numChunks).parallel().forEach(chunk -> {
+			SplittableRandom random = chunkRandoms[chunk];
+			int end = Math.min(numCells, (chunk + 1) * CHUNK_SIZE);
+			for (int cell = chunk * CHUNK_SIZE; cell < end; cell++) {
+				strategyIds[cell] = collisionStrategyFactory.drawStrategyId(random);
+			}
+		});
+		return strategyIds;
+	}
+}
@@ -0,0 +1,199 @@
+package bricker.main;
+
+import bricker.assets.AssetStore;
+import bricker.gameplay_log.GameplayEventLog;
+import bricker.paddle_controllers.PaddleControllerType;
+import bricker.rendering.RenderSnapshot;
+import danogl.GameManager;
+import danogl.gui.ImageReader;
+import danogl.gui.SoundReader;
+import danogl.gui.UserInputListener;
+import danogl.gui.WindowController;
+import danogl.util.Vector2;
+
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A wall of Bricker boards played by bots in one window, as an attract mode. Every board is a game of its
+ * own (its own game state, bricks and balls) driven like a headless game, and a board whose game ends is
+ * replaced by a new one. The images of all the boards are decoded once, into an AssetStore they share,
+ * so a board costs only its own game objects and static layer.
+ * Boards share no mutable state, so every frame they are updated at the same time, one per worker of a
+ * fixed thread pool, and each worker captures the RenderSnapshot of its board once the update is done.
+ * The window then draws every snapshot, scaled down into the tile of its board. The boards are silent.
+ *
+ * @author Aron Isaacs
+ * @see BrickerGameManager#initializeBoard(AssetStore)
+ */
+public class BoardWall extends GameManager {
+	private static final String WINDOW_TITLE = "Bricker wall";
+	private static final Vector2 WINDOW_DIMENSIONS = new Vector2(1280, 960);
+	private static final Vector2 BOARD_DIMENSIONS = new Vector2(800, 600);
+	private static final String BOARD_TITLE = "Bricker board";
+	private static final int DEFAULT_NUM_BOARDS = 4;
+	private static final int DEFAULT_NUM_BRICKS_PER_ROW = 8;
+	private static final int DEFAULT_NUM_ROWS = 7;
+	private static final int MAX_FRAMES_PER_GAME = 60 * 60 * 5; // five minutes, in case a bot gets stuck
+	private final int numBoards;
+	private final PaddleControllerType controllerType;
+	private final int numBricksPerRow;
+	private final int numRows;
+	private final int columns;
+	private final float scale;
+	private final BrickerGameManager[] boards;
+	private final RenderSnapshot[] snapshots;
+	private final List<Callable<Void>> steps = new ArrayList<>();
+	private AssetStore assets;
+	private ExecutorService workers;
+	private float deltaTime;
+
+	/**
+	 * Starts a wall of boards.
+	 *
+	 * @param args command-line arguments: [numBoards [controllerType [numBricksPerRow numRows]]]
+	 */
+	public static void main(String[] args) {
+		int numBoards = DEFAULT_NUM_BOARDS;
+		PaddleControllerType controllerType = PaddleControllerType.GOOD_BOT;
+		int numBricksPerRow = DEFAULT_NUM_BRICKS_PER_ROW;
+		int numRows = DEFAULT_NUM_ROWS;
+		if (args.length >= 1) {
+			numBoards = Integer.parseInt(args[0]);
+		}
+		if (args.length >= 2) {
+			controllerType = PaddleControllerType.valueOf(args[1].toUpperCase());
+		}
+		if (args.length == 4) {
+			numBricksPerRow = Integer.parseInt(args[2]);
+			numRows = Integer.parseInt(args[3]);
+		}
+		new BoardWall(numBoards, controllerType, numBricksPerRow, numRows).run();
+	}
+
+	/**
+	 * Constructor for BoardWall.
+	 *
+	 * @param numBoards       the number of boards on the wall
+	 * @param controllerType  the bot holding the paddles of every board
+	 * @param numBricksPerRow the number of bricks per row of every board
+	 * @param numRows         the number of rows of bricks of every board
+	 */
+	public BoardWall(int numBoards, PaddleControllerType controllerType, int numBricksPerRow, int numRows) {
+		super(WINDOW_TITLE, WINDOW_DIMENSIONS);
+		if (controllerType == PaddleControllerType.KEYBOARD) {
+			throw new IllegalArgumentException("the boards of a wall are played by bots");
+		}
+		this.numBoards = numBoards;
+		this.controllerType = controllerType;
+		this.numBricksPerRow = numBricksPerRow;
+		this.numRows = numRows;
+		columns = (int) Math.ceil(Math.sqrt(numBoards));
+		int rows = (numBoards + columns - 1) / columns;
+		scale = Math.min(WINDOW_DIMENSIONS.x() / columns / BOARD_DIMENSIONS.x(),
+				WINDOW_DIMENSIONS.y() / rows / BOARD_DIMENSIONS.y());
+		boards = new BrickerGameManager[numBoards];
+		snapshots = new RenderSnapshot[numBoards];
+		for (int i = 0; i < numBoards; i++) {
+			int board = i;
+			snapshots[board] = new RenderSnapshot();
+			steps.add(() -> {
+				boards[board].update(deltaTime);
+				snapshots[board].capture(boards[board].gameObjects());
+				return null;
+			});
+		}
+	}
+
+	/**
+	 * Loads the shared assets, starts the workers and starts a game on every board.
+	 *
+	 * @param imageReader      used to read the images of the boards
+	 * @param soundReader      not used, the boards are silent
+	 * @param inputListener    not used, the boards are played by bots
+	 * @param windowController controls the window of the wall
+	 */
+	@Override
+	public void initializeGame(ImageReader imageReader, SoundReader soundReader,
+							   UserInputListener inputListener, WindowController windowController) {
+		super.initializeGame(imageReader, soundReader, inputListener, windowController);
+		assets = new AssetStore(imageReader, null);
+		if (workers == null) {
+			AtomicInteger workerCount = new AtomicInteger();
+			int numWorkers = Math.min(numBoards, Runtime.getRuntime().availableProcessors());
+			workers = Executors.newFixedThreadPool(numWorkers, runnable -> {
+				Thread worker = new Thread(runnable, "bricker-board-" + workerCount.incrementAndGet());
+				worker.setDaemon(true);
+				return worker;
+			});
+		}
+		for (int i = 0; i < numBoards; i++) {
+			startBoard(i);
+		}
+	}
+
+	/**
+	 * Replaces the boards whose game ended, then updates every board on the workers and waits for them.
+	 *
+	 * @param deltaTime the time elapsed since the last update
+	 */
+	@Override
+	public void update(float deltaTime) {
+		super.update(deltaTime);
+		for (int i = 0; i < numBoards; i++) {
+			if (boards[i].isSessionOver() || boards[i].getFramesPlayed() >= MAX_FRAMES_PER_GAME) {
+				startBoard(i);
+			}
+		}
+		this.deltaTime = deltaTime;
+		try {
+			for (Future<Void> step : workers.invokeAll(steps)) {
+				step.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while updating the boards", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("a board failed", e.getCause());
+		}
+	}
+
+	/**
+	 * Draws every board in its tile, as captured at the end of its last update.
+	 *
+	 * @param g the graphics of the window
+	 */
+	@Override
+	public void render(Graphics2D g) {
+		AffineTransform transform = g.getTransform();
+		Shape clip = g.getClip();
+		for (int i = 0; i < numBoards; i++) {
+			g.translate((i % columns) * BOARD_DIMENSIONS.x() * scale,
+					(i / columns) * BOARD_DIMENSIONS.y() * scale);
+			g.scale(scale, scale);
+			g.clipRect(0, 0, (int) BOARD_DIMENSIONS.x(), (int) BOARD_DIMENSIONS.y());
+			snapshots[i].draw(g);
+			g.setTransform(transform);
+			g.setClip(clip);
+		}
+	}
+
+	/*
+	 * Starts a new game on a board, and captures its first frame.
+	 */
+	private void startBoard(int board) {
+		boards[board] = new BrickerGameManager(BOARD_TITLE, BOARD_DIMENSIONS, numBricksPerRow, numRows,
+				controllerType, new SoakStatistics(), GameplayEventLog.disabled());
+		boards[board].initializeBoard(assets);
+		snapshots[board].capture(boards[board].gameObjects());
+	}
+}
@@ -8,12 +8,61 @@ import danogl.gui.*;
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import bricker.assets.AssetStore;
+import bricker.ball_collisions.BallCollisionPass;
+import bricker.flight_recorder.ExplosionWaveEvent;
+import bricker.flight_recorder.FramePhaseEvent;
+import bricker.flight_recorder.SpawnEvent;
+import bricker.flight_recorder.SubPaddleEvent;
 import bricker.gameobjects.*;
 import bricker.brick_strategies.*;
+import bricker.gameplay_events.GameplayEvent;
+import bricker.gameplay_events.GameplayEventBus;
+import bricker.gameplay_events.GameplayEventType;
+import bricker.gameplay_events.SoundEffectListener;
+import bricker.gameplay_log.GameplayEventLog;
+import bricker.input.InputLatencyMeter;
+import bricker.input.InputSnapshot;
+import bricker.power_ups.PowerUp;
+import bricker.power_ups.PowerUpEffects;
+import bricker.quality.QualityGovernor;
+import bricker.quality.QualityLevel;
+import bricker.paddle_controllers.PaddleController;
+import bricker.paddle_controllers.PaddleControllerFactory;
+import bricker.paddle_controllers.PaddleControllerType;
+import bricker.rendering.ParticleSystem;
+import bricker.rendering.RenderPipeline;
+import bricker.rendering.StaticLayerCache;
+import bricker.replay.InputRecorder;
+import bricker.replay.RecordingPaddleController;
+import bricker.rewind.GameSnapshot;
+import bricker.rewind.RewindBuffer;
+import bricker.rewind.RewindableRandom;
+import bricker.save.SaveFile;
+import bricker.save.SavedGame;
+import bricker.scores.HighScoreStore;
+import bricker.scores.ScoreKeeper;
+import bricker.scores.SessionRecord;
 
 import java.awt.Color;
+import java.awt.Graphics2D;
 import java.awt.event.KeyEvent;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.SplittableRandom;
 
 
 /**
@@ -22,6 +71,26 @@ import java.util.Random;
  * The game features a paddle, ball, bricks, and borders, with collision detection and game state management.
  * Players can win by destroying all bricks or lose by running out of lives.
  * The game can be restarted or exited based on player input.
+ * Collision strategies do not change the game directly: they publish gameplay events, which are handled
+ * once per frame when the gameplay event bus is dispatched.
+ * The paddles can also be handed to a bot, in which case finished games restart on their own, and the
+ * game can run headless (without a window) for unattended soak testing.
+ * The background, borders and bricks never move, so they are drawn once into a cached static layer, which
+ * is repainted only where a brick was removed. They also sleep through the per-frame update, so updating
+ * costs as much as the moving objects do.
+ * Collisions of the balls with the bricks and paddles are found by a ball collision pass, in parallel
+ * when there are many pucks, rather than by the engine.
+ * The phases of a frame and the main gameplay events are reported to Java Flight Recorder.
+ * In endless mode there is no victory: every row the player clears is replaced by a new one, generated
+ * ahead of time on a background thread.
+ * A session can be recorded for exact replay: the paddle inputs of every tick, and periodic keyframes of
+ * the full state, from which a game can be restored.
+ * In a window, a quality governor steps the presentation (sounds, HUD, static layer resolution) down
+ * when frames take longer than their budget, and back up when they fit again.
+ * The keyboard is sampled once at the start of every tick into an input snapshot that the paddles and
+ * the rules of the tick all read.
+ * In practice mode the last seconds of a game are kept as delta-encoded snapshots in a rewind buffer of
+ * bounded size, and the game can be played backwards through them.
  *
  * @author Aron Isaacs
  * @author Ron Stein
@@ -44,7 +113,6 @@ public class BrickerGameManager extends GameManager {
 	private static final String HEART_TAG = "heart";
 	private static final String BORDER_TAG = "border";
 	private static final String MAIN_PADDLE_TAG = "main paddle";
-	private static final String EXPLODED_TAG = "exploded";
 	private static final String BRICK_TAG = "brick";
 	/*Paths to relevant files */
 	private static final String PADDLE_IMAGE_PATH = "assets/paddle.png";
@@ -55,10 +123,42 @@ public class BrickerGameManager extends GameManager {
 	private static final String BALL_IMAGE_PATH = "assets/ball.png";
 	private static final String BRICK_IMAGE_PATH = "assets/brick.png";
 	private static final String PUCK_IMAGE_PATH = "assets/mockBall.png";
+	private static final String GOOD_BOT_IMAGE_PATH = "assets/botGood.png";
+	private static final String BAD_BOT_IMAGE_PATH = "assets/botBad.png";
 	/*Messages for UI dialogs*/
-	private static final String WIN_MESSAGE = "You win! Play again?";
+	private static final String WIN_MESSAGE = "You win!";
 	private static final String WINDOW_TITLE = "Bricker";
-	private static final String LOSE_MESSAGE = "You lose! Play again?";
+	private static final String SEED_PROPERTY = "bricker.seed";
+	private static final String ENDLESS_PROPERTY = "bricker.endless";
+	private static final String PRACTICE_PROPERTY = "bricker.practice";
+	private static final String REPLAY_WINDOW_TITLE = "Bricker (replay)";
+	/*Keyframe constants*/
+	private static final int KEYFRAME_INTERVAL = 600; // ten seconds at 60 frames per second
+	private static final int KEYFRAME_SEED_OFFSET = 2 * Float.BYTES + 2 * Integer.BYTES;
+	private static final int AUTOSAVE_INTERVAL = 300; // five seconds at 60 frames per second
+	/*Snapshot constants*/
+	private static final byte SNAPSHOT_NOT_SAVED = -1;
+	private static final byte SNAPSHOT_BALL = 0;
+	private static final byte SNAPSHOT_MAIN_PADDLE = 1;
+	private static final byte SNAPSHOT_SUB_PADDLE = 2;
+	private static final byte SNAPSHOT_PUCK = 3;
+	private static final byte SNAPSHOT_HEART = 4;
+	private static final int REWIND_FRAMES = 60 * 10; // ten seconds at 60 frames per second
+	private static final int REWIND_MAX_BYTES = 4 << 20;
+	private static final int REWIND_FRAMES_PER_UPDATE = 2;
+	private static final int REWIND_KEY = KeyEvent.VK_BACK_SPACE;
+	private static final float LOW_RES_BACKGROUND_RESOLUTION = 0.5f;
+	/*Particle constants*/
+	private static final int PARTICLE_CAPACITY = 1 << 15;
+	private static final int DEBRIS_PER_BRICK = 60;
+	private static final float DEBRIS_SPEED = 150f;
+	private static final Color DEBRIS_COLOR = new Color(178, 102, 61);
+	private static final int SPARKS_PER_EXPLOSION = 300;
+	private static final float SPARKS_SPEED = 400f;
+	private static final Color SPARKS_COLOR = new Color(255, 170, 40);
+	private static final float FEWER_PARTICLES_SCALE = 0.25f;
+	private static final String LOSE_MESSAGE = "You lose!";
+	private static final String SCORE_MESSAGE = "%s Score: %d (best %d). Play again?";
 	/*Paddle constants*/
 	private static final float PADDLE_HEIGHT = 15f;
 	private static final float PADDLE_WIDTH = 100f;
@@ -84,31 +184,112 @@ public class BrickerGameManager extends GameManager {
 	private static final Vector2 WINDOW_DIMENSIONS = new Vector2(800, 600);
 	private static final int MAX_LIVES = 4;
 	private static final int INITIAL_LIVES = 3;
+	private static final Vector2 BOT_ICON_SIZE = new Vector2(40, 40);
 	private final Vector2 windowDimensions;
-	private final Random random = new Random();
-	private SoundReader soundReader;
+	private RewindableRandom random;
+	private long seed = new SplittableRandom().nextLong();
+	private final PaddleControllerType paddleControllerType;
+	private final SoakStatistics soakStatistics;
+	private final GameplayEventLog eventLog;
+	private int frame;
+	private PaddleController paddleController;
+	private GameplayEventBus eventBus;
+	private boolean sessionOver;
+	private AssetStore assets = AssetStore.disabled();
 	private UserInputListener inputListener;
-	private ImageReader imageReader;
 	private WindowController windowController;
 	private Ball ball;
 	private GameState gameState;
 	private LivesDisplay livesDisplay;
+	private StaticLayerCache staticLayer;
+	private BallCollisionPass ballCollisionPass;
+	private boolean endless;
+	private EndlessRowGenerator rowGenerator;
+	private int[] bricksInRow;
+	private final ArrayDeque<Integer> clearedRows = new ArrayDeque<>();
+	private Renderable brickImage;
+	private InputRecorder inputRecorder = InputRecorder.disabled();
+	private PaddleController paddleInput; // the paddle controller, recorded when recording
+	private PaddleController subPaddleInput; // the same as paddleInput unless every paddle has a bot
+	private boolean updating;
+	private boolean keyframeDue;
+	private final GameSnapshot snapshot = new GameSnapshot();
+	private boolean practice;
+	private RewindBuffer rewindBuffer;
+	private Brick[] bricksByCell;
+	private InputSnapshot input = InputSnapshot.NONE;
+	private InputLatencyMeter inputLatencyMeter = InputLatencyMeter.disabled();
+	private GameObject mainPaddle;
+	private QualityGovernor qualityGovernor;
+	private QualityLevel quality = QualityLevel.FULL;
+	private long lastUpdateStart;
+	private int lastCollisionSoundFrame = -1;
+	private ParticleSystem particles;
+	private PowerUpEffects powerUps;
+	private HighScoreStore highScores = HighScoreStore.disabled();
+	private int gameStartFrame;
+	private final int[] eventCounts = new int[GameplayEventType.values().length];
+	private RenderPipeline renderPipeline = RenderPipeline.disabled();
+	private SaveFile saveFile = SaveFile.disabled();
+	private SavedGame resumed; // resumed by the next game instead of a new board
+	// built once: it loads the registered strategies and builds their alias tables
+	private final CollisionStrategyFactory collisionStrategyFactory = new CollisionStrategyFactory();
+	private int[] strategyIds;
+	private List<String> strategyNames;
 
 	/**
 	 * The main method to start the Bricker game.
-	 * Accepts optional command-line arguments for the number of bricks per row and the number of rows.
+	 * Accepts optional command-line arguments for the number of bricks per row and the number of rows,
+	 * optionally followed by who controls the paddles (keyboard, good_bot or bad_bot).
 	 * If no arguments are provided, default values are used.
 	 *
-	 * @param args command-line arguments: [numBricksPerRow, numRows]
+	 * The seed of the first game can be fixed with the SEED_PROPERTY system property, and endless mode is
+	 * turned on with the ENDLESS_PROPERTY system property, and practice mode with the PRACTICE_PROPERTY
+	 * system property. The session is recorded when the InputRecorder.REPLAY_FILE_PROPERTY system
+	 * property names a file, and the input latency is measured when the
+	 * InputLatencyMeter.INPUT_LATENCY_PROPERTY system property is true. The game is drawn on a render
+	 * thread of its own when the RenderPipeline.PIPELINED_RENDERING_PROPERTY system property is true.
+	 * Keyboard games are saved to the file named by the SaveFile.SAVE_FILE_PROPERTY system property as
+	 * they are played, and the game saved there is resumed on start, if it was played on the same board.
+	 *
+	 * @param args command-line arguments: [numBricksPerRow, numRows [, controllerType]]
 	 */
 	public static void main(String[] args) {
 		int numBricksPerRow = DEFAULT_NUM_BRICKS_PER_ROW;
 		int numRows = DEFAULT_NUM_ROWS;
-		if (args.length == 2) {
+		PaddleControllerType controllerType = PaddleControllerType.KEYBOARD;
+		if (args.length >= 2) {
 			numBricksPerRow = Integer.parseInt(args[0]);
 			numRows = Integer.parseInt(args[1]);
 		}
-		new BrickerGameManager(WINDOW_TITLE, WINDOW_DIMENSIONS, numBricksPerRow, numRows).run();
+		if (args.length == 3) {
+			controllerType = PaddleControllerType.valueOf(args[2].toUpperCase());
+		}
+		BrickerGameManager game = new BrickerGameManager(WINDOW_TITLE, WINDOW_DIMENSIONS, numBricksPerRow,
+				numRows, controllerType, new SoakStatistics(), GameplayEventLog.fromSystemProperty());
+		String seed = System.getProperty(SEED_PROPERTY);
+		if (seed != null) {
+			game.setSeed(Long.parseLong(seed));
+		}
+		game.setEndless(Boolean.getBoolean(ENDLESS_PROPERTY));
+		game.setPractice(Boolean.getBoolean(PRACTICE_PROPERTY));
+		game.setInputRecorder(InputRecorder.fromSystemProperty());
+		game.setInputLatencyMeter(InputLatencyMeter.fromSystemProperty());
+		HighScoreStore highScores = HighScoreStore.fromSystemProperty();
+		System.out.println(highScores.report());
+		game.setHighScoreStore(highScores);
+		game.setRenderPipeline(RenderPipeline.fromSystemProperty(WINDOW_DIMENSIONS));
+		SaveFile saveFile = SaveFile.fromSystemProperty();
+		game.setSaveFile(saveFile);
+		try {
+			SavedGame saved = saveFile.load();
+			if (saved != null && game.resume(saved)) {
+				System.out.println("Resuming the saved game");
+			}
+		} catch (UncheckedIOException e) {
+			System.out.println("saved game not resumed: " + e.getCause().getMessage());
+		}
+		game.run();
 	}
 
 	/**
@@ -121,10 +302,31 @@ public class BrickerGameManager extends GameManager {
 	 */
 	public BrickerGameManager(String WINDOW_TITLE, Vector2 windowDimensions,
 							  int numBricksPerRow, int numRows) {
+		this(WINDOW_TITLE, windowDimensions, numBricksPerRow, numRows, PaddleControllerType.KEYBOARD,
+				new SoakStatistics(), GameplayEventLog.disabled());
+	}
+
+	/**
+	 * Constructor for BrickerGameManager with a chosen paddle controller.
+	 *
+	 * @param WINDOW_TITLE         the title of the game window
+	 * @param windowDimensions     the dimensions of the game window
+	 * @param numBricksPerRow      the number of bricks per row
+	 * @param numRows              the number of rows of bricks
+	 * @param paddleControllerType who controls the paddles, the keyboard or a bot
+	 * @param soakStatistics       where frame times and game outcomes are recorded
+	 * @param eventLog             where gameplay events are recorded (may be disabled)
+	 */
+	public BrickerGameManager(String WINDOW_TITLE, Vector2 windowDimensions, int numBricksPerRow,
+							  int numRows, PaddleControllerType paddleControllerType,
+							  SoakStatistics soakStatistics, GameplayEventLog eventLog) {
 		super(WINDOW_TITLE, windowDimensions);
 		this.windowDimensions = windowDimensions;
 		this.numBricksPerRow = numBricksPerRow;
 		this.numRows = numRows;
+		this.paddleControllerType = paddleControllerType;
+		this.soakStatistics = soakStatistics;
+		this.eventLog = eventLog;
 	}
 
 	/**
@@ -142,67 +344,350 @@ public class BrickerGameManager extends GameManager {
 		super.initializeGame(imageReader, soundReader, inputListener, windowController);
 		this.windowController = windowController;
 		this.inputListener = inputListener;
-		this.imageReader = imageReader;
-		this.soundReader = soundReader;
+		if (!assets.isEnabled()) {
+			assets = new AssetStore(imageReader, soundReader);
+		}
+		if (qualityGovernor == null) {
+			qualityGovernor = QualityGovernor.fromSystemProperty(this::applyQuality);
+		}
+		lastUpdateStart = 0; // the time spent in the end game dialog is not a frame
+		sessionOver = false;
+		makeGameObjects();
+		renderPipeline.capture(gameObjects());
+	}
+
+	/**
+	 * Draws the game. When rendering is pipelined, the game was drawn by the render thread, and only the
+	 * newest frame it finished is drawn here.
+	 *
+	 * @param g the graphics of the window
+	 */
+	@Override
+	public void render(Graphics2D g) {
+		if (renderPipeline.isEnabled()) {
+			renderPipeline.draw(g);
+		} else {
+			super.render(g);
+		}
+	}
+
+	/**
+	 * Initializes the game without a window, image and sound readers or keyboard. Game objects are
+	 * created without renderables and sounds, and the game is driven by calling update directly.
+	 * Only meaningful with a bot controlling the paddles.
+	 *
+	 * @see HeadlessRunner
+	 */
+	public void initializeHeadlessGame() {
+		sessionOver = false;
+		makeGameObjects();
+	}
+
+	/**
+	 * Initializes the game as one of several boards in a window it does not own. The game is driven by
+	 * calling update directly, like a headless game, but its objects get their images (and sounds) from
+	 * the given store, shared with the other boards, and are drawn by whoever hosts the boards.
+	 * Only meaningful with a bot controlling the paddles.
+	 *
+	 * @param assets the images and sounds shared by the boards
+	 * @see BoardWall
+	 */
+	public void initializeBoard(AssetStore assets) {
+		this.assets = assets;
+		sessionOver = false;
 		makeGameObjects();
 	}
 
 	/*
 	 * Creates and initializes all game objects including the background, borders, paddle, ball, bricks,
-	 * and the game state. Sets up collision brick_strategies and the lives display.
+	 * and the game state. Sets up collision brick_strategies, the gameplay event bus and the lives display.
 	 */
 	private void makeGameObjects() {
+		if (rowGenerator != null) {
+			rowGenerator.close();
+			rowGenerator = null;
+		}
+		clearedRows.clear();
+		if (endless && inputRecorder.isEnabled()) {
+			throw new IllegalStateException("endless games cannot be recorded");
+		}
+		if (practice && (endless || inputRecorder.isEnabled())) {
+			throw new IllegalStateException("endless and recorded games cannot be practiced");
+		}
+		random = new RewindableRandom(seed);
+		gameStartFrame = frame;
+		Arrays.fill(eventCounts, 0);
+		eventBus = new GameplayEventBus();
+		makeStaticLayer();
+		makeParticleLayer();
+		makeBallCollisionPass();
 		makeBackground();
 		makeBorders();
 		gameState = new GameState(INITIAL_LIVES,
-				numBricksPerRow * numRows, INITIAL_PADDLES, MAX_LIVES);
+				numBricksPerRow * numRows, INITIAL_PADDLES, MAX_LIVES, eventBus);
 		makeBall();
+		// bots draw from their own generator, so a replay (which does not run them) draws the same numbers
+		long controllerSeed = random.nextLong();
+		PaddleControllerFactory controllerFactory = new PaddleControllerFactory();
+		paddleController = controllerFactory.buildPaddleController(paddleControllerType, this::getInput, ball,
+				windowDimensions, new Random(controllerSeed));
+		paddleInput = recorded(paddleController);
+		if (paddleControllerType.isShared()) {
+			subPaddleInput = paddleInput;
+		} else {
+			Random subPaddleRandom = new Random(new SplittableRandom(controllerSeed).nextLong());
+			subPaddleInput = recorded(controllerFactory.buildPaddleController(paddleControllerType,
+					this::getInput, ball, windowDimensions, subPaddleRandom));
+		}
 		makePaddle(windowDimensions.y() - PADDLE_OFFSET_FROM_BOTTOM);
-		makeBricks();
-		livesDisplay = new LivesDisplay(imageReader, this, INITIAL_LIVES,
-				MAX_LIVES, HEART_IMAGE_PATH, HEART_SIZE);
+		if (resumed != null) {
+			makeSavedBricks(resumed);
+		} else {
+			makeBricks();
+		}
+		livesDisplay = new LivesDisplay(readImage(HEART_IMAGE_PATH, true), this, INITIAL_LIVES,
+				MAX_LIVES, HEART_SIZE);
+		makeBotIcon();
+		makePowerUpEffects();
+		subscribeToGameplayEvents();
+		applyQuality(quality);
+		if (resumed != null) {
+			applySnapshot(resumed.getSnapshot());
+			gameStartFrame = frame - resumed.getFramesPlayed();
+			resumed = null;
+		}
+		keyframeDue = true;
+		rewindBuffer = practice ? new RewindBuffer(REWIND_FRAMES, REWIND_MAX_BYTES) : null;
+		if (!updating) {
+			writeKeyframeIfDue();
+			keepRewindFrame();
+		}
+	}
+
+	/*
+	 * Creates the cached static layer, drawn behind everything else. The background, borders and bricks
+	 * are baked into it as they are created.
+	 */
+	private void makeStaticLayer() {
+		staticLayer = new StaticLayerCache(windowDimensions);
+		GameObject staticLayerObject = new StaticGameObject(Vector2.ZERO, windowDimensions, staticLayer);
+		staticLayerObject.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+		gameObjects().addGameObject(staticLayerObject, Layer.BACKGROUND);
+	}
+
+	/*
+	 * Adds the debris of destroyed bricks, drawn in front of the game objects. The particle system is
+	 * made once and emptied for every new game; a headless game gets one without room for particles.
+	 */
+	private void makeParticleLayer() {
+		if (particles == null) {
+			int capacity = windowController == null ? 0 : PARTICLE_CAPACITY;
+			particles = new ParticleSystem(capacity, windowDimensions);
+		}
+		particles.clear();
+		GameObject particleLayerObject = new StaticGameObject(Vector2.ZERO, windowDimensions, particles);
+		particleLayerObject.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+		gameObjects().addGameObject(particleLayerObject, Layer.FOREGROUND);
+	}
+
+	/*
+	 * Creates the ball collision pass, and stops the engine from colliding the default layer (balls) with
+	 * the static objects layer (bricks), which the pass takes over.
+	 */
+	private void makeBallCollisionPass() {
+		Vector2 gridTopLeft = getBrickTopLeft(0, 0);
+		Vector2 cellPitch = getBrickTopLeft(1, 1).subtract(gridTopLeft);
+		ballCollisionPass = new BallCollisionPass(numRows, numBricksPerRow, gridTopLeft, cellPitch,
+				windowDimensions);
+		gameObjects().layers().shouldLayersCollide(Layer.DEFAULT, Layer.STATIC_OBJECTS, false);
+	}
+
+	/*
+	 * Connects the subsystems reacting to gameplay events: spawning, power-ups, audio, debris, scoring,
+	 * the HUD, logging and the event counts of the game.
+	 */
+	private void subscribeToGameplayEvents() {
+		eventBus.subscribe(GameplayEventType.PUCKS_SPAWNED, event -> makePucks(event.getSource()));
+		eventBus.subscribe(GameplayEventType.HEART_SPAWNED,
+				event -> spawnHeart(event.getSource().getCenter()));
+		eventBus.subscribe(GameplayEventType.SUB_PADDLE_SPAWNED,
+				event -> makePaddle(windowDimensions.y() / 2f));
+		eventBus.subscribe(GameplayEventType.EXPLOSION_TRIGGERED,
+				event -> explodeBricks(event.getSource(), event.getOther()));
+		eventBus.subscribe(GameplayEventType.POWER_UP_TRIGGERED, this::applyPowerUp);
+		eventBus.subscribe(GameplayEventType.HEART_CAUGHT, event -> {
+			removeGameObject(event.getSource(), Layer.DEFAULT);
+			increaseLives();
+		});
+		eventBus.subscribe(GameplayEventType.EXPLOSION_TRIGGERED,
+				new SoundEffectListener(readSound(EXPLODE_SOUND_PATH)));
+		eventBus.subscribe(GameplayEventType.BRICK_DESTROYED, event -> particles.emit(
+				event.getSource().getTopLeftCorner(), event.getSource().getDimensions(), DEBRIS_PER_BRICK,
+				DEBRIS_COLOR, DEBRIS_SPEED));
+		eventBus.subscribe(GameplayEventType.EXPLOSION_TRIGGERED, event -> particles.emit(
+				event.getSource().getTopLeftCorner(), event.getSource().getDimensions(),
+				SPARKS_PER_EXPLOSION, SPARKS_COLOR, SPARKS_SPEED));
+		ScoreKeeper scoreKeeper = new ScoreKeeper(gameState, PUCK_TAG);
+		eventBus.subscribe(GameplayEventType.BRICK_DESTROYED, scoreKeeper);
+		eventBus.subscribe(GameplayEventType.EXPLOSION_TRIGGERED, scoreKeeper);
+		eventBus.subscribe(GameplayEventType.LIFE_LOST, livesDisplay);
+		eventBus.subscribe(GameplayEventType.LIFE_GAINED, livesDisplay);
+		eventBus.subscribeToAll(eventLog);
+		eventBus.subscribeToAll(event -> eventCounts[event.getType().ordinal()]++);
+	}
+
+	/*
+	 * Shows which bot is playing in the top right corner. Nothing is shown when the keyboard is used.
+	 */
+	private void makeBotIcon() {
+		if (paddleControllerType == PaddleControllerType.KEYBOARD) {
+			return;
+		}
+		String path = paddleControllerType == PaddleControllerType.GOOD_BOT ?
+				GOOD_BOT_IMAGE_PATH : BAD_BOT_IMAGE_PATH;
+		Vector2 position = new Vector2(windowDimensions.x() - BORDER_THICKNESS - BOT_ICON_SIZE.x(),
+				windowDimensions.y() - BOT_ICON_SIZE.y());
+		addGameObject(new GameObject(position, BOT_ICON_SIZE, readImage(path, true)), Layer.UI);
+	}
+
+	/*
+	 * Creates the timed effects of the power-ups of the game, with an icon for every power-up, shown
+	 * while it is active.
+	 */
+	private void makePowerUpEffects() {
+		Renderable[] icons = new Renderable[PowerUp.values().length];
+		for (PowerUp powerUp : PowerUp.values()) {
+			icons[powerUp.ordinal()] = readImage(powerUp.getImagePath(), true);
+		}
+		powerUps = new PowerUpEffects(gameObjects(), icons, windowDimensions);
+	}
+
+	/*
+	 * Applies a triggered power-up, to every paddle in play or to the ball that hit the brick, for the
+	 * duration of the power-up.
+	 */
+	private void applyPowerUp(GameplayEvent event) {
+		PowerUp powerUp = PowerUp.of(event.getValue());
+		if (!powerUp.isOnPaddles()) {
+			if (event.getOther() instanceof Ball) {
+				powerUps.apply(powerUp, event.getOther(), powerUp.getDuration());
+			}
+			return;
+		}
+		for (GameObject gameObject : gameObjects().objectsInLayer(Layer.DEFAULT)) {
+			if (gameObject instanceof Paddle) {
+				powerUps.apply(powerUp, gameObject, powerUp.getDuration());
+			}
+		}
+	}
+
+	/*
+	 * Reads an image from the asset store, or returns null when running headless (no image reader).
+	 */
+	private Renderable readImage(String path, boolean isTopLeftPixelTransparent) {
+		return assets.readImage(path, isTopLeftPixelTransparent);
+	}
+
+	/*
+	 * Reads a sound from the asset store, or returns null when running headless (no sound reader).
+	 */
+	private Sound readSound(String path) {
+		return assets.readSound(path);
 	}
 
 	/*
 	 * Creates the brick layout based on the specified number of rows and bricks per row.
-	 * Each brick is assigned a collision strategy to handle interactions with the ball.
-	 * @param collisionStrategy the strategy to apply when a brick collides with another object
+	 * Each brick is assigned a collision strategy to handle interactions with the ball. The strategies
+	 * are drawn in parallel by the board generator, reproducibly from the seed of the game, then the
+	 * bricks are added to the game one by one.
 	 */
 	private void makeBricks() {
-		// Calculate brick width based on available space and gaps
-		float totalGap = 2 * BORDER_THICKNESS + (numBricksPerRow - 1) * BRICK_GAP;
-		float brickWidth = (windowDimensions.x() - totalGap) / numBricksPerRow;
-		Renderable brickImage = imageReader.readImage(BRICK_IMAGE_PATH, false);
-		// Use a basic collision strategy for bricks. main part to be changed for the final part of the
-		// assignment!!
-		CollisionStrategyFactory collisionStrategyFactory = new CollisionStrategyFactory();
+		brickImage = readImage(BRICK_IMAGE_PATH, false);
+		BoardGenerator boardGenerator = new BoardGenerator(collisionStrategyFactory);
 		CollisionStrategy basicStrategy = new BasicCollisionStrategy(this);
+		strategyIds = boardGenerator.assignStrategyIds(numRows * numBricksPerRow, seed);
+		strategyNames = collisionStrategyFactory.getStrategyNames();
+		bricksInRow = new int[numRows];
+		Arrays.fill(bricksInRow, numBricksPerRow);
+		bricksByCell = new Brick[numRows * numBricksPerRow];
+		if (endless) {
+			rowGenerator = new EndlessRowGenerator(collisionStrategyFactory, basicStrategy, this,
+					numBricksPerRow, random.nextLong());
+		}
 		// Create bricks in a grid layout
 		for (int row = 0; row < numRows; row++) {
 			for (int col = 0; col < numBricksPerRow; col++) {
-				makeBrick(collisionStrategyFactory.buildCollisionStrategy(basicStrategy,
-						this), col, brickWidth, row, brickImage);
+				int strategyId = strategyIds[row * numBricksPerRow + col];
+				makeBrick(collisionStrategyFactory.buildCollisionStrategy(strategyId, basicStrategy, this),
+						col, row, brickImage);
 			}
 		}
 	}
 
 	/*
-	 * Creates a single brick at the specified column and row position with the given dimensions and image.
+	 * Creates the bricks of a saved board: only the cells still holding a brick get one, with the
+	 * strategy it was saved with. The rest of the saved state is applied once the game is made.
+	 */
+	private void makeSavedBricks(SavedGame saved) {
+		brickImage = readImage(BRICK_IMAGE_PATH, false);
+		strategyNames = collisionStrategyFactory.getStrategyNames();
+		if (!strategyNames.equals(saved.getStrategyNames())) {
+			throw new IllegalStateException("the game was saved with the strategies " +
+					saved.getStrategyNames() + " but " + strategyNames + " are registered");
+		}
+		CollisionStrategy basicStrategy = new BasicCollisionStrategy(this);
+		strategyIds = saved.getStrategyIds();
+		bricksInRow = new int[numRows];
+		bricksByCell = new Brick[numRows * numBricksPerRow];
+		GameSnapshot board = saved.getSnapshot();
+		for (int cell = 0; cell < bricksByCell.length; cell++) {
+			if (board.isBrickLeft(cell)) {
+				int strategyId = strategyIds[cell];
+				makeBrick(collisionStrategyFactory.buildCollisionStrategy(strategyId, basicStrategy, this),
+						cell % numBricksPerRow, cell / numBricksPerRow, brickImage);
+			}
+		}
+	}
+
+	/*
+	 * Creates a single brick at the specified column and row position with the given image.
 	 * @param collisionStrategy the strategy to apply when this brick collides with another object
 	 * @param col the column index for the brick's position
-	 * @param brickWidth the width of the brick
-	 * @param y the y-coordinate for the brick's position
+	 * @param row the row index for the brick's position
 	 * @param brickImage the image to use for rendering the brick
 	 */
-	private void makeBrick(CollisionStrategy collisionStrategy, int col, float brickWidth, int row,
+	private void makeBrick(CollisionStrategy collisionStrategy, int col, int row,
 						   Renderable brickImage) {
-		// Calculate x position based on column index
-		float x = BORDER_THICKNESS + col * (brickWidth + BRICK_GAP);
-		float y = BORDER_THICKNESS + row * (BRICK_HEIGHT + BRICK_GAP);
-		GameObject brick = new Brick(row, col, new Vector2(x, y), new Vector2(brickWidth, BRICK_HEIGHT),
-				brickImage, collisionStrategy);
+		Brick brick = new Brick(row, col, getBrickTopLeft(row, col), getBrickDimensions(),
+				brickImage, collisionStrategy, this::getFrame);
 		gameObjects().addGameObject(brick, Layer.STATIC_OBJECTS);
 		brick.setTag(BRICK_TAG);
+		staticLayer.bake(brick);
+		ballCollisionPass.addBrick(brick);
+		bricksByCell[row * numBricksPerRow + col] = brick;
+	}
+
+	/**
+	 * Gets the top-left corner of the brick in the given cell of the grid.
+	 *
+	 * @param row the row of the brick in the grid
+	 * @param col the column of the brick in the grid
+	 * @return the top-left corner of the brick
+	 */
+	public Vector2 getBrickTopLeft(int row, int col) {
+		float x = BORDER_THICKNESS + col * (getBrickDimensions().x() + BRICK_GAP);
+		float y = BORDER_THICKNESS + row * (BRICK_HEIGHT + BRICK_GAP);
+		return new Vector2(x, y);
+	}
+
+	/**
+	 * Gets the dimensions of a single brick. The brick width is based on the available space and gaps.
+	 *
+	 * @return the width and height of a brick
+	 */
+	public Vector2 getBrickDimensions() {
+		float totalGap = 2 * BORDER_THICKNESS + (numBricksPerRow - 1) * BRICK_GAP;
+		return new Vector2((windowDimensions.x() - totalGap) / numBricksPerRow, BRICK_HEIGHT);
 	}
 
 	/*
@@ -211,20 +696,21 @@ public class BrickerGameManager extends GameManager {
 	 */
 	private void makeBorders() {
 		Renderable wallImage = new RectangleRenderable(Color.CYAN);
-		GameObject leftBorder = new GameObject(Vector2.ZERO, new Vector2(BORDER_THICKNESS,
+		GameObject leftBorder = new StaticGameObject(Vector2.ZERO, new Vector2(BORDER_THICKNESS,
 				windowDimensions.y()), wallImage);
 		gameObjects().addGameObject(leftBorder);
-		GameObject rightBorder = new GameObject(
+		GameObject rightBorder = new StaticGameObject(
 				new Vector2(windowDimensions.x() - BORDER_THICKNESS, 0),
 				new Vector2(BORDER_THICKNESS, windowDimensions.y()), wallImage);
 		gameObjects().addGameObject(rightBorder);
-		GameObject topBorder = new GameObject(Vector2.ZERO,
+		GameObject topBorder = new StaticGameObject(Vector2.ZERO,
 				new Vector2(windowDimensions.x(), BORDER_THICKNESS),
 				wallImage);
 		gameObjects().addGameObject(topBorder);
 		GameObject[] borders = {leftBorder, rightBorder, topBorder};
 		for (GameObject border : borders) {
 			border.setTag(BORDER_TAG);
+			staticLayer.bake(border);
 		}
 	}
 
@@ -233,28 +719,51 @@ public class BrickerGameManager extends GameManager {
 	 * Paddles are always created in the middle of the X axis.
 	 *
 	 * @param paddleYPosition the Y position where the paddle should be created
+	 * @return the paddle, or null if there are already two paddles
 	 */
-	public void makePaddle(float paddleYPosition) {
+	public GameObject makePaddle(float paddleYPosition) {
 		if (gameState.getPaddlesCounter() >= 2) {
-			return;
+			return null;
 		}
-		Renderable paddleImage = imageReader.readImage(PADDLE_IMAGE_PATH, true);
+		Renderable paddleImage = readImage(PADDLE_IMAGE_PATH, true);
 		Vector2 initialPosition = new Vector2(windowDimensions.x() / 2f, paddleYPosition);
 		if (gameState.getPaddlesCounter() == 0) {
 			GameObject paddle = new Paddle(initialPosition, new Vector2(PADDLE_WIDTH,
 					PADDLE_HEIGHT),
 					windowDimensions, paddleImage
-					, inputListener);
+					, paddleInput, eventBus);
 			paddle.setTag(MAIN_PADDLE_TAG);
 			gameObjects().addGameObject(paddle);
-		} else {
-			GameObject subPaddle = new SubPaddle(initialPosition, new Vector2(PADDLE_WIDTH,
-					PADDLE_HEIGHT),
-					windowDimensions, paddleImage
-					, inputListener, this, BORDER_TAG);
-			gameObjects().addGameObject(subPaddle);
+			mainPaddle = paddle;
+			gameState.incrementPaddlesCounter();
+			return paddle;
 		}
+		GameObject subPaddle = makeSubPaddle(paddleYPosition);
+		new SubPaddleEvent(frame, SubPaddleEvent.CREATED, 0).commit();
 		gameState.incrementPaddlesCounter();
+		return subPaddle;
+	}
+
+	/*
+	 * Creates a sub-paddle in the middle of the X axis and adds it to the game, without counting it.
+	 */
+	private SubPaddle makeSubPaddle(float paddleYPosition) {
+		Vector2 initialPosition = new Vector2(windowDimensions.x() / 2f, paddleYPosition);
+		SubPaddle subPaddle = new SubPaddle(initialPosition, new Vector2(PADDLE_WIDTH, PADDLE_HEIGHT),
+				windowDimensions, readImage(PADDLE_IMAGE_PATH, true), subPaddleInput, eventBus, this,
+				BORDER_TAG);
+		gameObjects().addGameObject(subPaddle);
+		return subPaddle;
+	}
+
+	/*
+	 * Wraps a paddle controller so its directions are recorded, when recording.
+	 */
+	private PaddleController recorded(PaddleController controller) {
+		if (!inputRecorder.isEnabled()) {
+			return controller;
+		}
+		return new RecordingPaddleController(controller, inputRecorder);
 	}
 
 	/*
@@ -263,10 +772,11 @@ public class BrickerGameManager extends GameManager {
 	 * is managed by collision detection.
 	 */
 	private void makeBall() {
-		Renderable ballImage = imageReader.readImage(BALL_IMAGE_PATH, true);
-		Sound collisionSound = soundReader.readSound(BALL_SOUND_PATH);
+		Renderable ballImage = readImage(BALL_IMAGE_PATH, true);
+		Sound collisionSound = readSound(BALL_SOUND_PATH);
 		ball = new Ball(Vector2.ZERO, new Vector2(BALL_SIZE, BALL_SIZE), ballImage,
 				collisionSound);
+		ball.setSoundGate(this::allowCollisionSound);
 		resetBall();
 		gameObjects().addGameObject(ball);
 	}
@@ -279,16 +789,12 @@ public class BrickerGameManager extends GameManager {
 	 */
 	public void makePucks(danogl.GameObject thisObj) {
 		//creating the puck
-		Renderable puckImage = imageReader.readImage(PUCK_IMAGE_PATH, true);
-		Sound puckSound = soundReader.readSound(BALL_SOUND_PATH);
-		Ball puck1 = new Ball(thisObj.getTopLeftCorner(),
-				new Vector2(PUCK_SIZE, PUCK_SIZE), puckImage, puckSound);
-		Ball puck2 = new Ball(thisObj.getTopLeftCorner(),
-				new Vector2(PUCK_SIZE, PUCK_SIZE), puckImage, puckSound);
+		Renderable puckImage = readImage(PUCK_IMAGE_PATH, true);
+		Sound puckSound = readSound(BALL_SOUND_PATH);
+		Ball puck1 = makePuck(thisObj.getTopLeftCorner(), puckImage, puckSound);
+		Ball puck2 = makePuck(thisObj.getTopLeftCorner(), puckImage, puckSound);
 		Ball[] pucks = {puck1, puck2};
 		for (Ball puck : pucks) {
-			// this is to distinguish between the main ball and the pucks
-			puck.setTag(BrickerGameManager.PUCK_TAG);
 			//initializing the location and velocity of the puck
 			puck.setCenter(thisObj.getCenter());
 			double angle = random.nextDouble() * Math.PI;
@@ -297,6 +803,17 @@ public class BrickerGameManager extends GameManager {
 			puck.setVelocity(new Vector2(velocityX, velocityY));
 			addGameObject(puck, Layer.DEFAULT);
 		}
+		new SpawnEvent(frame, SpawnEvent.PUCK, pucks.length).commit();
+	}
+
+	/*
+	 * Creates a puck, tagged to distinguish it from the main ball, without adding it to the game.
+	 */
+	private Ball makePuck(Vector2 topLeftCorner, Renderable puckImage, Sound puckSound) {
+		Ball puck = new Ball(topLeftCorner, new Vector2(PUCK_SIZE, PUCK_SIZE), puckImage, puckSound);
+		puck.setTag(PUCK_TAG);
+		puck.setSoundGate(this::allowCollisionSound);
+		return puck;
 	}
 
 	/**
@@ -306,13 +823,21 @@ public class BrickerGameManager extends GameManager {
 	 * @param brickCenter the center position of the brick where the heart should be spawned
 	 */
 	public void spawnHeart(Vector2 brickCenter) {
-		Renderable heartImage = imageReader.readImage(HEART_IMAGE_PATH, true);
 		float x = brickCenter.x() - HEART_SIZE.x() / 2f;
 		float y = brickCenter.y() - HEART_SIZE.y() / 2f;
-		Heart heart = new Heart(new Vector2(x, y), HEART_SIZE,
-				heartImage, MAIN_PADDLE_TAG, new HeartCollisionStrategy(this), HEART_TAG);
+		makeHeart(new Vector2(x, y));
+		new SpawnEvent(frame, SpawnEvent.HEART, 1).commit();
+	}
+
+	/*
+	 * Creates a falling heart at the given position and adds it to the game.
+	 */
+	private Heart makeHeart(Vector2 topLeftCorner) {
+		Heart heart = new Heart(topLeftCorner, HEART_SIZE, readImage(HEART_IMAGE_PATH, true),
+				MAIN_PADDLE_TAG, new HeartCollisionStrategy(this), HEART_TAG);
 		addGameObject(heart, Layer.DEFAULT);
 		heart.setVelocity(HEART_VELOCITY);
+		return heart;
 	}
 
 	/*
@@ -321,7 +846,6 @@ public class BrickerGameManager extends GameManager {
 	 */
 	private void resetBall() {
 		ball.setCenter(windowDimensions.mult(HALF));
-		Random random = new Random();
 		float ballSpeedX = BALL_SPEED * (random.nextBoolean() ? 1 : -1);
 		float ballSpeedY = BALL_SPEED * (random.nextBoolean() ? 1 : -1);
 		ball.setVelocity(new Vector2(ballSpeedX, ballSpeedY));
@@ -332,12 +856,12 @@ public class BrickerGameManager extends GameManager {
 	 * The background image is scaled to fit the entire window dimensions.
 	 */
 	private void makeBackground() {
-		Renderable backgroundImage =
-				imageReader.readImage(BACKGROUND_IMAGE_PATH, false);
+		Renderable backgroundImage = readImage(BACKGROUND_IMAGE_PATH, false);
 		GameObject background =
-				new GameObject(Vector2.ZERO, windowController.getWindowDimensions(), backgroundImage);
+				new StaticGameObject(Vector2.ZERO, windowDimensions, backgroundImage);
 		background.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
 		gameObjects().addGameObject(background, Layer.BACKGROUND);
+		staticLayer.bake(background);
 	}
 
 	/**
@@ -364,12 +888,21 @@ public class BrickerGameManager extends GameManager {
 	 * Removes a brick from the game and decrements the brick counter in the game state.
 	 *
 	 * @param brick the brick game object to remove
+	 * @return true if the brick was removed, false if it had already been removed
 	 */
-	public void removeBrick(GameObject brick) {
+	public boolean removeBrick(GameObject brick) {
 		boolean removed = gameObjects().removeGameObject(brick, Layer.STATIC_OBJECTS);
 		if (removed) {
+			staticLayer.evict(brick);
+			ballCollisionPass.removeBrick((Brick) brick);
+			int row = ((Brick) brick).getRow();
+			bricksInRow[row]--;
+			if (endless && bricksInRow[row] == 0) {
+				clearedRows.add(row);
+			}
 			gameState.decrementBricksCounter();
 		}
+		return removed;
 	}
 
 	/**
@@ -381,36 +914,36 @@ public class BrickerGameManager extends GameManager {
 	public void subPaddleHit(GameObject subPaddle) {
 		//remove sub paddle and reset counter after 4 hits
 		if (gameState.getSubPaddleHitsCounter() >= SUB_PADDLES_MAX_HITS) {
+			new SubPaddleEvent(frame, SubPaddleEvent.REMOVED, gameState.getSubPaddleHitsCounter() + 1)
+					.commit();
 			gameObjects().removeGameObject(subPaddle);
 			gameState.resetSubPaddleHitsCounter();
 			gameState.decrementPaddlesCounter();
 			//increment subPaddle hits counter if less than 4 hits
 		} else {
 			gameState.incrementSubPaddleHitsCounter();
+			new SubPaddleEvent(frame, SubPaddleEvent.HIT, gameState.getSubPaddleHitsCounter()).commit();
 		}
 	}
 
 	/**
 	 * Handles the explosion of bricks when hit by the ball.
+	 * Each neighbor reacts as if hit by the ball, unless it has already reacted in this frame.
 	 *
 	 * @param brick the center brick that was hit
 	 * @param ball  the ball that hit the brick
 	 */
 	public void explodeBricks(GameObject brick, GameObject ball) {
-		if (brick.getTag().equals(EXPLODED_TAG)) {
-			return;
-		}
-		brick.setTag(EXPLODED_TAG);
 		Brick myBrick = (Brick) brick;
-		Sound explodeSound = soundReader.readSound(EXPLODE_SOUND_PATH);
-		explodeSound.play();
 		int i = myBrick.getRow();
 		int j = myBrick.getCol();
+		ExplosionWaveEvent explosionWave = new ExplosionWaveEvent(frame, i, j);
+		explosionWave.begin();
 		Brick[] neighbors = new Brick[NUM_NEIGHBORS];
 		int index = 0;
 		//find neighbors and store them in an array
 		for (GameObject go : gameObjects().objectsInLayer(Layer.STATIC_OBJECTS)) {
-			if (go.getTag().equals(BRICK_TAG) || go.getTag().equals(EXPLODED_TAG)) {
+			if (go instanceof Brick) {
 				Brick nextBrick = (Brick) go;
 				//left and right neighbors
 				if (nextBrick.getCol() == j && Math.abs(nextBrick.getRow() - i) == 1) {
@@ -429,6 +962,11 @@ public class BrickerGameManager extends GameManager {
 			if (!b.shouldCollideWith(ball)) continue;
 			b.onCollisionEnter(ball, null);
 		}
+		explosionWave.end();
+		if (explosionWave.shouldCommit()) {
+			explosionWave.setNeighborsHit(index);
+			explosionWave.commit();
+		}
 	}
 
 	/**
@@ -436,28 +974,98 @@ public class BrickerGameManager extends GameManager {
 	 * If the ball falls below the screen, the player loses a life and the ball is reset.
 	 * If all bricks are destroyed, the player wins.
 	 * The game can be restarted or exited based on player input.
+	 * Gameplay events published during the frame are dispatched at its end, then the power-up effects
+	 * that ran out wear off, and then the particles move.
+	 * The duration of every update is recorded in the soak statistics.
 	 *
 	 * @param deltaTime the time elapsed since the last update
 	 */
 	@Override
 	public void update(float deltaTime) {
+		if (sessionOver) {
+			return;
+		}
+		long frameStart = System.nanoTime();
+		if (qualityGovernor != null && lastUpdateStart != 0) {
+			qualityGovernor.recordFrame(frameStart - lastUpdateStart);
+		}
+		lastUpdateStart = frameStart;
+		input = inputListener == null ? InputSnapshot.NONE : InputSnapshot.sample(inputListener);
+		if (rewindBuffer != null && input.isKeyPressed(REWIND_KEY)) {
+			rewind(REWIND_FRAMES_PER_UPDATE);
+			renderPipeline.capture(gameObjects());
+			return;
+		}
+		updating = true;
+		inputRecorder.beginTick(deltaTime);
+		eventLog.setFrame(frame);
+		updateGame(deltaTime);
+		FramePhaseEvent dispatchPhase = new FramePhaseEvent(frame, FramePhaseEvent.EVENT_DISPATCH);
+		dispatchPhase.begin();
+		eventBus.dispatch();
+		dispatchPhase.commit();
+		powerUps.tick();
+		FramePhaseEvent particlesPhase = new FramePhaseEvent(frame, FramePhaseEvent.PARTICLES);
+		particlesPhase.begin();
+		particles.update(deltaTime);
+		particlesPhase.commit();
+		frame++;
+		inputRecorder.endTick();
+		updating = false;
+		if (frame % KEYFRAME_INTERVAL == 0) {
+			keyframeDue = true;
+		}
+		writeKeyframeIfDue();
+		keepRewindFrame();
+		if (frame % AUTOSAVE_INTERVAL == 0) {
+			saveGame();
+		}
+		inputLatencyMeter.onFrameEnd(input, mainPaddle.getTopLeftCorner().x());
+		renderPipeline.capture(gameObjects());
+		soakStatistics.recordFrame(System.nanoTime() - frameStart);
+	}
+
+	/*
+	 * Advances the game by one frame and checks for victory or loss conditions.
+	 */
+	private void updateGame(float deltaTime) {
+		FramePhaseEvent enginePhase = new FramePhaseEvent(frame, FramePhaseEvent.ENGINE);
+		enginePhase.begin();
 		super.update(deltaTime);
+		enginePhase.commit();
+		FramePhaseEvent collisionsPhase = new FramePhaseEvent(frame, FramePhaseEvent.BALL_COLLISIONS);
+		collisionsPhase.begin();
+		ballCollisionPass.run(gameObjects().objectsInLayer(Layer.DEFAULT));
+		collisionsPhase.commit();
+		FramePhaseEvent rulesPhase = new FramePhaseEvent(frame, FramePhaseEvent.RULES);
+		rulesPhase.begin();
+		applyGameRules();
+		rulesPhase.commit();
+	}
 
+	/*
+	 * Checks for victory or loss conditions and removes the objects that fell off the screen.
+	 */
+	private void applyGameRules() {
+		if (endless) {
+			refillClearedRows();
+		}
 		// Check victory
-		if (gameState.isVictory() || inputListener.isKeyPressed(KeyEvent.VK_W)) {
-			showEndGameWindow(WIN_MESSAGE);
+		if ((!endless && gameState.isVictory()) ||
+				input.isKeyPressed(KeyEvent.VK_W)) {
+			endGame(true);
 			return;
 		}
 
 		// Check ball falling below screen
 		if (ball.getCenter().y() > windowDimensions.y()) {
-			gameState.decrementLivesCounter();
-			livesDisplay.updateLives(gameState.getLivesCounter()); // Update display
+			gameState.decrementLivesCounter(); // the lives display listens to the event
 			// Check for game over
 			if (!gameState.isGameOver()) {
 				resetBall();
 			} else {
-				showEndGameWindow(LOSE_MESSAGE);
+				endGame(false);
+				return;
 			}
 		}
 		//remove any puck or heart objects that have fallen below the screen
@@ -470,6 +1078,58 @@ public class BrickerGameManager extends GameManager {
 		}
 	}
 
+	/*
+	 * Replaces cleared rows with new rows from the row generator, as long as it has rows ready. Rows that
+	 * are not ready yet are refilled in a later frame.
+	 */
+	private void refillClearedRows() {
+		while (!clearedRows.isEmpty()) {
+			CollisionStrategy[] strategies = rowGenerator.poll();
+			if (strategies == null) {
+				return;
+			}
+			int row = clearedRows.poll();
+			for (int col = 0; col < numBricksPerRow; col++) {
+				makeBrick(strategies[col], col, row, brickImage);
+			}
+			bricksInRow[row] = numBricksPerRow;
+			gameState.addBricks(numBricksPerRow);
+		}
+	}
+
+	/*
+	 * Ends the current game. The events of the last frame are dispatched first, so they are scored, and
+	 * the outcome is kept in the high score store unless the game was practiced. A human player is asked
+	 * whether to play again, a bot's game is recorded and restarted right away (or just marked as over
+	 * when running headless).
+	 * @param victory true if the game was won, false if it was lost
+	 */
+	private void endGame(boolean victory) {
+		sessionOver = true;
+		if (rowGenerator != null) {
+			rowGenerator.close();
+		}
+		eventBus.dispatch();
+		if (isSaved()) {
+			saveFile.delete();
+		}
+		if (!practice) {
+			highScores.submit(new SessionRecord(System.currentTimeMillis(), seed, gameState.getScore(),
+					getFramesPlayed(), numBricksPerRow, numRows, paddleControllerType, victory));
+		}
+		seed = random.nextLong(); // the next game gets a different, but still reproducible, board
+		if (paddleControllerType == PaddleControllerType.KEYBOARD) {
+			showEndGameWindow(String.format(SCORE_MESSAGE, victory ? WIN_MESSAGE : LOSE_MESSAGE,
+					gameState.getScore(), Math.max(gameState.getScore(), highScores.getBestScore())));
+			return;
+		}
+		soakStatistics.recordGame(victory);
+		if (windowController != null) {
+			System.out.println(soakStatistics.report());
+			windowController.resetGame();
+		}
+	}
+
 	/*
 	 * Displays an end-game dialog with the specified message, asking the player if they want to play again.
 	 * If the player chooses to play again, the game is reset; otherwise, the game window is closed.
@@ -493,11 +1153,519 @@ public class BrickerGameManager extends GameManager {
 		return this.windowDimensions;
 	}
 
+	/**
+	 * Sets the seed of the next game. The seed decides the board and every random draw of the game
+	 * (ball directions, puck angles and bot noise), so two games with the same seed and the same input
+	 * play out the same way.
+	 *
+	 * @param seed the seed of the next game
+	 */
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	/**
+	 * Sets where the session is recorded, starting with the next game. Endless games cannot be recorded.
+	 *
+	 * @param inputRecorder the recorder, may be disabled
+	 * @see bricker.replay.ReplayPlayer
+	 */
+	public void setInputRecorder(InputRecorder inputRecorder) {
+		this.inputRecorder = inputRecorder;
+	}
+
+	/**
+	 * Sets the meter the input latency of the keyboard is measured with.
+	 *
+	 * @param inputLatencyMeter the meter, may be disabled
+	 */
+	public void setInputLatencyMeter(InputLatencyMeter inputLatencyMeter) {
+		this.inputLatencyMeter = inputLatencyMeter;
+	}
+
+	/**
+	 * Gets the input sampled at the start of the current tick. Everything in the tick that reacts to the
+	 * keyboard reads this snapshot instead of the keyboard.
+	 *
+	 * @return the input of the current tick
+	 */
+	public InputSnapshot getInput() {
+		return input;
+	}
+
+	/**
+	 * Sets the pipeline the game is drawn through, starting with the next frame. Only meaningful with a
+	 * window.
+	 *
+	 * @param renderPipeline the pipeline, may be disabled
+	 */
+	public void setRenderPipeline(RenderPipeline renderPipeline) {
+		this.renderPipeline = renderPipeline;
+	}
+
+	/**
+	 * Sets the file games in progress are saved to. Keyboard games that are neither endless nor recorded
+	 * are saved every few seconds, and their save is removed once they end.
+	 *
+	 * @param saveFile the save file, may be disabled
+	 */
+	public void setSaveFile(SaveFile saveFile) {
+		this.saveFile = saveFile;
+	}
+
+	/**
+	 * Resumes a saved game instead of starting a new board, with the next game, if the game was saved
+	 * from a game like the next one: same window, board and strategies, and saved at all.
+	 *
+	 * @param saved the saved game
+	 * @return true if the saved game will be resumed, false if it does not fit and a new board is made
+	 */
+	public boolean resume(SavedGame saved) {
+		Vector2 savedWindow = saved.getWindowDimensions();
+		if (!isSaved() || savedWindow.x() != windowDimensions.x() || savedWindow.y() != windowDimensions.y()
+				|| saved.getNumBricksPerRow() != numBricksPerRow || saved.getNumRows() != numRows
+				|| !saved.getStrategyNames().equals(collisionStrategyFactory.getStrategyNames())) {
+			return false;
+		}
+		seed = saved.getSeed();
+		resumed = saved;
+		return true;
+	}
+
+	/*
+	 * Saves the game in progress, if it is saved at all. The save is written by the writer of the save
+	 * file, so it gets a snapshot of its own.
+	 */
+	private void saveGame() {
+		if (!isSaved() || sessionOver) {
+			return;
+		}
+		GameSnapshot saved = new GameSnapshot();
+		captureSnapshot(saved);
+		saveFile.save(new SavedGame(windowDimensions, numBricksPerRow, numRows, seed, getFramesPlayed(),
+				strategyNames, strategyIds, saved));
+	}
+
+	/*
+	 * Whether games are saved: only keyboard games, which are neither endless nor recorded.
+	 */
+	private boolean isSaved() {
+		return saveFile.isEnabled() && paddleControllerType == PaddleControllerType.KEYBOARD && !endless
+				&& !inputRecorder.isEnabled();
+	}
+
+	/**
+	 * Sets where the outcome of every game is kept, starting with the game that ends next. Practiced
+	 * games are not kept.
+	 *
+	 * @param highScores the store, may be disabled
+	 */
+	public void setHighScoreStore(HighScoreStore highScores) {
+		this.highScores = highScores;
+	}
+
+	/**
+	 * Turns practice mode on or off, starting with the next game. In practice mode the last seconds of
+	 * the game are kept in a rewind buffer, and holding the rewind key plays them backwards. Endless
+	 * and recorded games cannot be practiced.
+	 *
+	 * @param practice true for practice mode
+	 */
+	public void setPractice(boolean practice) {
+		this.practice = practice;
+	}
+
+	/**
+	 * Rewinds a practice game by up to the given number of frames, never past the oldest frame kept.
+	 * The game carries on from there with the next update, and the frames after it are dropped then.
+	 *
+	 * @param frames the number of frames to go back
+	 * @return the number of frames actually gone back
+	 */
+	public int rewind(int frames) {
+		if (rewindBuffer == null || rewindBuffer.isEmpty()) {
+			return 0;
+		}
+		int target = Math.max(rewindBuffer.getOldestFrame(), frame - frames);
+		if (target >= frame) {
+			return 0;
+		}
+		int rewound = frame - target;
+		rewindBuffer.restore(target, snapshot);
+		applySnapshot(snapshot);
+		return rewound;
+	}
+
+	/**
+	 * Captures the full state of the game between two frames: the board, every moving object, the
+	 * counters and the random generator. Restoring it with restoreKeyframe and feeding the same paddle
+	 * inputs plays the game out exactly as it was played from this point.
+	 *
+	 * @return the state, in a format private to this class
+	 */
+	public byte[] captureKeyframe() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeFloat(windowDimensions.x());
+			out.writeFloat(windowDimensions.y());
+			out.writeInt(numBricksPerRow);
+			out.writeInt(numRows);
+			out.writeLong(seed); // at KEYFRAME_SEED_OFFSET
+			captureSnapshot(snapshot);
+			snapshot.writeTo(out);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Creates a headless game, with its paddles steered by a replay, in the state of a keyframe.
+	 *
+	 * @param keyframe a state captured by captureKeyframe
+	 * @return the restored game
+	 * @see bricker.paddle_controllers.ReplayPaddleController
+	 */
+	public static BrickerGameManager restoreKeyframe(byte[] keyframe) {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(keyframe))) {
+			Vector2 windowDimensions = new Vector2(in.readFloat(), in.readFloat());
+			int numBricksPerRow = in.readInt();
+			int numRows = in.readInt();
+			BrickerGameManager game = new BrickerGameManager(REPLAY_WINDOW_TITLE, windowDimensions,
+					numBricksPerRow, numRows, PaddleControllerType.REPLAY, new SoakStatistics(),
+					GameplayEventLog.disabled());
+			game.setSeed(in.readLong());
+			game.initializeHeadlessGame();
+			game.snapshot.readFrom(in);
+			game.applySnapshot(game.snapshot);
+			return game;
+		} catch (IOException e) {
+			throw new IllegalArgumentException("not a keyframe", e);
+		}
+	}
+
+	/**
+	 * Reads the seed of the game a keyframe was captured from, without restoring it.
+	 *
+	 * @param keyframe a state captured by captureKeyframe
+	 * @return the seed of the game
+	 */
+	public static long readKeyframeSeed(byte[] keyframe) {
+		return ByteBuffer.wrap(keyframe).getLong(KEYFRAME_SEED_OFFSET);
+	}
+
+	/*
+	 * Captures the state of the game between two frames. The moving objects are taken in the order of
+	 * their layer, so a restored game updates and collides them in the same order. In the contacts a
+	 * brick is saved as its cell, and a paddle as -1 - its index among the objects.
+	 */
+	private void captureSnapshot(GameSnapshot into) {
+		into.reset(frame, random.getState(), gameState.getLivesCounter(), gameState.getBricksCounter(),
+				gameState.getPaddlesCounter(), gameState.getSubPaddleHitsCounter(), gameState.getScore());
+		for (int cell = 0; cell < bricksByCell.length; cell++) {
+			if (ballCollisionPass.getBrick(cell / numBricksPerRow, cell % numBricksPerRow) != null) {
+				into.setBrickLeft(cell);
+			}
+		}
+		Map<GameObject, Integer> objectIndices = new IdentityHashMap<>();
+		for (GameObject gameObject : gameObjects().objectsInLayer(Layer.DEFAULT)) {
+			byte kind = snapshotKind(gameObject);
+			if (kind != SNAPSHOT_NOT_SAVED) {
+				objectIndices.put(gameObject,
+						into.addObject(kind, gameObject.getTopLeftCorner(), gameObject.getVelocity()));
+			}
+		}
+		List<long[]> contacts = new ArrayList<>();
+		ballCollisionPass.forEachContact((contactBall, target) -> {
+			Integer object = objectIndices.get(contactBall);
+			if (object == null) {
+				return;
+			}
+			if (target instanceof Brick) {
+				Brick brick = (Brick) target;
+				if (ballCollisionPass.getBrick(brick.getRow(), brick.getCol()) == brick) {
+					contacts.add(new long[]{object, brick.getRow() * numBricksPerRow + brick.getCol()});
+				}
+			} else if (objectIndices.containsKey(target)) {
+				contacts.add(new long[]{object, -1 - objectIndices.get(target)});
+			}
+		});
+		// in a fixed order, so contacts that did not change are not saved again in a delta
+		contacts.sort(Comparator.comparingLong((long[] contact) -> contact[0])
+				.thenComparingLong(contact -> contact[1]));
+		for (long[] contact : contacts) {
+			into.addContact((int) contact[0], (int) contact[1]);
+		}
+		for (int effect = 0; effect < powerUps.getNumEffects(); effect++) {
+			Integer object = objectIndices.get(powerUps.getTarget(effect));
+			if (object != null) { // effects on objects gone from the game have nothing left to undo
+				into.addEffect(powerUps.getPowerUp(effect).ordinal(), object,
+						frame + powerUps.getFramesLeft(effect));
+			}
+		}
+	}
+
+	/*
+	 * Brings the current game to the state of a snapshot: bricks are put back or removed, the ball and
+	 * the main paddle are moved, the other moving objects are made again, and the power-up effects of
+	 * the snapshot replace the active ones.
+	 */
+	private void applySnapshot(GameSnapshot from) {
+		powerUps.clear();
+		frame = from.getFrame();
+		random.setState(from.getRandomState());
+		for (int cell = 0; cell < bricksByCell.length; cell++) {
+			Brick brick = bricksByCell[cell];
+			if (brick == null) {
+				continue; // a cell left empty by a resumed board never holds a brick again
+			}
+			boolean present = ballCollisionPass.getBrick(brick.getRow(), brick.getCol()) == brick;
+			if (from.isBrickLeft(cell) && !present) {
+				brick.resetReaction();
+				gameObjects().addGameObject(brick, Layer.STATIC_OBJECTS);
+				staticLayer.bake(brick);
+				ballCollisionPass.addBrick(brick);
+			} else if (!from.isBrickLeft(cell) && present) {
+				gameObjects().removeGameObject(brick, Layer.STATIC_OBJECTS);
+				staticLayer.evict(brick);
+				ballCollisionPass.removeBrick(brick);
+			}
+		}
+		for (int row = 0; row < numRows; row++) {
+			bricksInRow[row] = 0;
+			for (int col = 0; col < numBricksPerRow; col++) {
+				if (ballCollisionPass.getBrick(row, col) != null) {
+					bricksInRow[row]++;
+				}
+			}
+		}
+		List<GameObject> madeAgain = new ArrayList<>();
+		for (GameObject gameObject : gameObjects().objectsInLayer(Layer.DEFAULT)) {
+			byte kind = snapshotKind(gameObject);
+			if (kind != SNAPSHOT_NOT_SAVED && kind != SNAPSHOT_BALL && kind != SNAPSHOT_MAIN_PADDLE) {
+				madeAgain.add(gameObject);
+			}
+		}
+		for (GameObject gameObject : madeAgain) {
+			gameObjects().removeGameObject(gameObject, Layer.DEFAULT);
+		}
+		Renderable puckImage = readImage(PUCK_IMAGE_PATH, true);
+		Sound puckSound = readSound(BALL_SOUND_PATH);
+		GameObject[] objects = new GameObject[from.getNumObjects()];
+		for (int i = 0; i < objects.length; i++) {
+			Vector2 topLeftCorner = from.getTopLeftCorner(i);
+			switch (from.getKind(i)) {
+				case SNAPSHOT_BALL -> objects[i] = ball;
+				case SNAPSHOT_MAIN_PADDLE -> objects[i] = mainPaddle;
+				case SNAPSHOT_SUB_PADDLE -> objects[i] = makeSubPaddle(topLeftCorner.y());
+				case SNAPSHOT_PUCK -> {
+					objects[i] = makePuck(topLeftCorner, puckImage, puckSound);
+					addGameObject(objects[i], Layer.DEFAULT);
+				}
+				case SNAPSHOT_HEART -> objects[i] = makeHeart(topLeftCorner);
+				default -> throw new IllegalArgumentException("unknown object kind " + from.getKind(i));
+			}
+			objects[i].setTopLeftCorner(topLeftCorner);
+			objects[i].setVelocity(from.getVelocity(i));
+		}
+		ballCollisionPass.clearContacts();
+		for (int i = 0; i < from.getNumContacts(); i++) {
+			int target = from.getContactTarget(i);
+			ballCollisionPass.restoreContact(objects[from.getContactObject(i)], target >= 0 ?
+					bricksByCell[target] : objects[-1 - target]);
+		}
+		for (int i = 0; i < from.getNumEffects(); i++) {
+			powerUps.apply(PowerUp.of(from.getEffectKind(i)), objects[from.getEffectObject(i)],
+					from.getEffectExpiryFrame(i) - frame);
+		}
+		if (from.getLives() != gameState.getLivesCounter()) {
+			livesDisplay.updateLives(from.getLives());
+		}
+		gameState.restore(from.getLives(), from.getBricks(), from.getPaddles(), from.getSubPaddleHits(),
+				from.getScore());
+	}
+
+	/*
+	 * The kind an object is saved as in a snapshot, or SNAPSHOT_NOT_SAVED for objects that are the same
+	 * in every game (borders).
+	 */
+	private byte snapshotKind(GameObject gameObject) {
+		if (gameObject == ball) {
+			return SNAPSHOT_BALL;
+		} else if (gameObject instanceof SubPaddle) {
+			return SNAPSHOT_SUB_PADDLE;
+		} else if (gameObject instanceof Paddle) {
+			return SNAPSHOT_MAIN_PADDLE;
+		} else if (gameObject.getTag().equals(PUCK_TAG)) {
+			return SNAPSHOT_PUCK;
+		} else if (gameObject.getTag().equals(HEART_TAG)) {
+			return SNAPSHOT_HEART;
+		}
+		return SNAPSHOT_NOT_SAVED;
+	}
+
+	/*
+	 * Applies a level of the quality ladder to the current game. Collision sounds ask
+	 * allowCollisionSound, so they follow the level by themselves.
+	 */
+	private void applyQuality(QualityLevel level) {
+		quality = level;
+		particles.setEmissionScale(level.isAtOrBelow(QualityLevel.FEWER_PARTICLES) ?
+				FEWER_PARTICLES_SCALE : 1);
+		livesDisplay.setNumberShown(!level.isAtOrBelow(QualityLevel.PLAIN_HUD));
+		staticLayer.setResolution(level.isAtOrBelow(QualityLevel.LOW_RES_BACKGROUND) ?
+				LOW_RES_BACKGROUND_RESOLUTION : 1);
+	}
+
+	/*
+	 * The sound gate of the balls: below full quality, only the first collision sound of a frame plays.
+	 */
+	private boolean allowCollisionSound() {
+		if (!quality.isAtOrBelow(QualityLevel.FEWER_SOUNDS)) {
+			return true;
+		}
+		if (lastCollisionSoundFrame == frame) {
+			return false;
+		}
+		lastCollisionSoundFrame = frame;
+		return true;
+	}
+
+	/*
+	 * Keeps the state after the last frame in the rewind buffer of a practice game.
+	 */
+	private void keepRewindFrame() {
+		if (rewindBuffer != null) {
+			captureSnapshot(snapshot);
+			rewindBuffer.push(snapshot);
+		}
+	}
+
+	/*
+	 * Writes a keyframe if one is due and the session is recorded.
+	 */
+	private void writeKeyframeIfDue() {
+		if (keyframeDue && inputRecorder.isEnabled()) {
+			inputRecorder.writeKeyframe(captureKeyframe());
+		}
+		keyframeDue = false;
+	}
+
+	/**
+	 * Turns endless mode on or off, starting with the next game. In endless mode cleared rows are
+	 * replaced by new ones, and the game only ends when the last life is lost.
+	 *
+	 * @param endless true for endless mode
+	 */
+	public void setEndless(boolean endless) {
+		this.endless = endless;
+	}
+
+	/**
+	 * Gets the seed of the current game (or of the next game, once the current one has ended).
+	 *
+	 * @return the seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Gets the number of the current frame, counted from the first frame this game manager updated.
+	 * Bricks use it to react to at most one hit per frame.
+	 *
+	 * @return the number of the current frame
+	 */
+	public int getFrame() {
+		return frame;
+	}
+
+	/**
+	 * Gets the number of rows of bricks.
+	 *
+	 * @return the number of rows of bricks
+	 */
+	public int getNumRows() {
+		return numRows;
+	}
+
+	/**
+	 * Gets the number of bricks per row.
+	 *
+	 * @return the number of bricks per row
+	 */
+	public int getNumBricksPerRow() {
+		return numBricksPerRow;
+	}
+
+	/**
+	 * Gets the main ball. Losing this ball (unlike a puck) costs a life.
+	 *
+	 * @return the main ball of the current game
+	 */
+	public Ball getBall() {
+		return ball;
+	}
+
+	/**
+	 * Gets the state (lives, bricks, paddles, sub-paddle hits and score) of the current game.
+	 *
+	 * @return the current game state
+	 */
+	public GameState getGameState() {
+		return gameState;
+	}
+
+	/**
+	 * Gets the bus gameplay events of the current game are published to.
+	 *
+	 * @return the gameplay event bus
+	 */
+	public GameplayEventBus getEventBus() {
+		return eventBus;
+	}
+
+	/**
+	 * Gets the controller steering the paddles of the current game.
+	 *
+	 * @return the current paddle controller
+	 */
+	public PaddleController getPaddleController() {
+		return paddleController;
+	}
+
+	/**
+	 * Determines if the current game has been won or lost. Used to stop driving headless games.
+	 *
+	 * @return true once the game has ended, false while it is still being played.
+	 */
+	public boolean isSessionOver() {
+		return sessionOver;
+	}
+
+	/**
+	 * Gets the number of frames the current game has lasted so far.
+	 *
+	 * @return the number of frames since the game started
+	 */
+	public int getFramesPlayed() {
+		return frame - gameStartFrame;
+	}
+
+	/**
+	 * Gets how many events of a kind the current game has dispatched so far.
+	 *
+	 * @param type the kind of event
+	 * @return the number of events of that kind
+	 */
+	public int getEventCount(GameplayEventType type) {
+		return eventCounts[type.ordinal()];
+	}
+
 	/**
 	 * Determines if the player's lives increase by one.
 	 */
 	public void increaseLives() {
 		gameState.incrementLivesCounter();
-		livesDisplay.updateLives(gameState.getLivesCounter());
 	}
 }
\ No newline at end of file
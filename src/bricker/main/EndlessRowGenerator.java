@@ -0,0 +1,71 @@
+package bricker.main;
+
+import bricker.brick_strategies.CollisionStrategy;
+import bricker.brick_strategies.CollisionStrategyFactory;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Generates the rows of bricks of an endless game ahead of time, on a background thread.
+ * A row is the collision strategies of its bricks, drawn from a CollisionStrategyFactory. Ready rows wait
+ * in a bounded queue: the generator blocks while the queue is full, and the game thread only ever takes
+ * a row when one is ready, so the game never waits for generation and memory stays bounded however long
+ * the game lasts.
+ * Rows are generated one after the other from a single seeded stream, so the sequence of rows depends
+ * only on the seed.
+ *
+ * @author Aron Isaacs
+ * @see BrickerGameManager#setEndless(boolean)
+ */
+public class EndlessRowGenerator {
+	private static final int READY_ROWS = 8;
+	private final BlockingQueue<CollisionStrategy[]> readyRows = new ArrayBlockingQueue<>(READY_ROWS);
+	private final Thread generator;
+
+	/**
+	 * Constructs an EndlessRowGenerator and starts generating rows.
+	 *
+	 * @param factory            the factory drawing the strategy of each brick
+	 * @param basicStrategy      the basic strategy that every drawn strategy decorates
+	 * @param brickerGameManager the game the strategies act on
+	 * @param bricksPerRow       the number of bricks in a row
+	 * @param seed               the seed of the sequence of rows
+	 */
+	public EndlessRowGenerator(CollisionStrategyFactory factory, CollisionStrategy basicStrategy,
+							   BrickerGameManager brickerGameManager, int bricksPerRow, long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		generator = new Thread(() -> {
+			try {
+				while (!Thread.currentThread().isInterrupted()) {
+					CollisionStrategy[] row = new CollisionStrategy[bricksPerRow];
+					for (int col = 0; col < bricksPerRow; col++) {
+						row[col] = factory.buildCollisionStrategy(basicStrategy, brickerGameManager, random);
+					}
+					readyRows.put(row);
+				}
+			} catch (InterruptedException e) {
+				// closed, stop generating
+			}
+		}, "bricker-row-generator");
+		generator.setDaemon(true);
+		generator.start();
+	}
+
+	/**
+	 * Takes the next row if one is ready, without waiting.
+	 *
+	 * @return the strategies of the bricks of the next row, or null if no row is ready yet
+	 */
+	public CollisionStrategy[] poll() {
+		return readyRows.poll();
+	}
+
+	/**
+	 * Stops generating rows. Rows that are already ready can still be taken.
+	 */
+	public void close() {
+		generator.interrupt();
+	}
+}
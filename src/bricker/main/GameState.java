@@ -1,11 +1,15 @@
 package bricker.main;
 
+import bricker.flight_recorder.LifeChangeEvent;
+import bricker.gameplay_events.GameplayEventBus;
+import bricker.gameplay_events.GameplayEventType;
 import danogl.util.Counter;
 
 /**
  * A class to manage the game state, including lives and bricks counters.
  * It provides methods to increment and decrement these counters,
  * as well as to check for victory or game over conditions.
+ * Lives lost and gained are published to the gameplay event bus.
  *
  * @author Aron Isaacs
  * @see danogl.GameManager
@@ -15,7 +19,9 @@ public class GameState {
 	private final Counter bricks;
 	private final Counter paddles;
 	private final Counter subPaddleHits;
-	private static int MAX_LIVES;
+	private final Counter score;
+	private final int maxLives;
+	private final GameplayEventBus eventBus;
 
 	/**
 	 * Constructs a GameState with specified initial lives and total bricks.
@@ -24,13 +30,17 @@ public class GameState {
 	 * @param totalBricks  the total number of bricks.
 	 * @param totalPaddles the total number of paddles.
 	 * @param maxLives     the maximum number of lives allowed.
+	 * @param eventBus     the bus lives lost and gained are published to.
 	 */
-	public GameState(int initialLives, int totalBricks, int totalPaddles, int maxLives) {
+	public GameState(int initialLives, int totalBricks, int totalPaddles, int maxLives,
+					 GameplayEventBus eventBus) {
 		lives = new Counter(initialLives);
 		bricks = new Counter(totalBricks);
 		paddles = new Counter(totalPaddles);
 		subPaddleHits = new Counter(0);
-		MAX_LIVES = maxLives;
+		score = new Counter(0);
+		this.maxLives = maxLives;
+		this.eventBus = eventBus;
 	}
 
 	/**
@@ -38,14 +48,18 @@ public class GameState {
 	 */
 	public void decrementLivesCounter() {
 		lives.decrement();
+		new LifeChangeEvent(-1, lives.value()).commit();
+		eventBus.publish(GameplayEventType.LIFE_LOST, lives.value());
 	}
 
 	/**
 	 * Increments the lives counter by one.
 	 */
 	public void incrementLivesCounter() {
-		if (lives.value() < MAX_LIVES) {
+		if (lives.value() < maxLives) {
 			lives.increment();
+			new LifeChangeEvent(1, lives.value()).commit();
+			eventBus.publish(GameplayEventType.LIFE_GAINED, lives.value());
 		}
 	}
 
@@ -70,6 +84,47 @@ public class GameState {
 		bricks.decrement();
 	}
 
+	/**
+	 * Increases the bricks counter, when new bricks are added during the game.
+	 *
+	 * @param count the number of bricks added.
+	 */
+	public void addBricks(int count) {
+		bricks.increaseBy(count);
+	}
+
+	/**
+	 * Adds points to the score.
+	 *
+	 * @param points the number of points to add.
+	 * @see bricker.scores.ScoreKeeper
+	 */
+	public void addScore(int points) {
+		score.increaseBy(points);
+	}
+
+	/**
+	 * Sets all the counters at once, when a game is restored from a keyframe. Nothing is published.
+	 *
+	 * @param lives         the number of lives.
+	 * @param bricks        the number of bricks left.
+	 * @param paddles       the number of paddles.
+	 * @param subPaddleHits the number of hits on the sub-paddle.
+	 * @param score         the score.
+	 */
+	public void restore(int lives, int bricks, int paddles, int subPaddleHits, int score) {
+		this.lives.reset();
+		this.lives.increaseBy(lives);
+		this.bricks.reset();
+		this.bricks.increaseBy(bricks);
+		this.paddles.reset();
+		this.paddles.increaseBy(paddles);
+		this.subPaddleHits.reset();
+		this.subPaddleHits.increaseBy(subPaddleHits);
+		this.score.reset();
+		this.score.increaseBy(score);
+	}
+
 	/**
 	 * Increments the sub-paddle hits counter by one.
 	 */
@@ -93,6 +148,15 @@ public class GameState {
 		return lives.value();
 	}
 
+	/**
+	 * gets the current number of bricks left.
+	 *
+	 * @return the current number of bricks.
+	 */
+	public int getBricksCounter() {
+		return bricks.value();
+	}
+
 	/**
 	 * gets the current number of Paddles.
 	 *
@@ -111,6 +175,15 @@ public class GameState {
 		return subPaddleHits.value();
 	}
 
+	/**
+	 * gets the current score.
+	 *
+	 * @return the current score.
+	 */
+	public int getScore() {
+		return score.value();
+	}
+
 	/**
 	 * decides if the game is won.
 	 *
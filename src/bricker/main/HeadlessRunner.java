@@ -0,0 +1,120 @@
+package bricker.main;
+
+import bricker.brick_strategies.CollisionStrategyRegistry;
+import bricker.gameplay_log.GameplayEventLog;
+import bricker.paddle_controllers.PaddleControllerType;
+import bricker.results.ResultRow;
+import bricker.results.ResultsColumn;
+import bricker.results.ResultsWriter;
+import danogl.util.Vector2;
+
+/**
+ * Plays many Bricker games back to back without a window, with a bot holding the paddle.
+ * Every game is stepped with a fixed time step as fast as the machine allows, which makes it suitable
+ * for unattended soak testing of memory, frame time and game state transitions.
+ * The outcome of every game is written to the results file named by the bricker.results property, if
+ * set, to be sliced later with ResultsQuery.
+ *
+ * @author Aron Isaacs
+ * @see BrickerGameManager#initializeHeadlessGame()
+ * @see SoakStatistics
+ * @see bricker.results.ResultsWriter
+ */
+public class HeadlessRunner {
+	private static final float FIXED_DELTA_TIME = 1 / 60f;
+	private static final int MAX_TICKS_PER_GAME = 60 * 60 * 10; // ten minutes of game time
+	private static final int DEFAULT_NUM_GAMES = 1000;
+	private static final int DEFAULT_NUM_BRICKS_PER_ROW = 8;
+	private static final int DEFAULT_NUM_ROWS = 6;
+	private static final Vector2 WINDOW_DIMENSIONS = new Vector2(800, 600);
+	private static final String WINDOW_TITLE = "Bricker (headless)";
+	private static final String DEFAULT_STRATEGY_MIX = "default";
+
+	/**
+	 * Runs the soak test and prints a summary when done.
+	 *
+	 * @param args command-line arguments: [numGames [controllerType [numBricksPerRow numRows]]]
+	 */
+	public static void main(String[] args) {
+		int numGames = DEFAULT_NUM_GAMES;
+		PaddleControllerType controllerType = PaddleControllerType.GOOD_BOT;
+		int numBricksPerRow = DEFAULT_NUM_BRICKS_PER_ROW;
+		int numRows = DEFAULT_NUM_ROWS;
+		if (args.length >= 1) {
+			numGames = Integer.parseInt(args[0]);
+		}
+		if (args.length >= 2) {
+			controllerType = PaddleControllerType.valueOf(args[1].toUpperCase());
+		}
+		if (args.length == 4) {
+			numBricksPerRow = Integer.parseInt(args[2]);
+			numRows = Integer.parseInt(args[3]);
+		}
+		SoakStatistics statistics = new SoakStatistics();
+		GameplayEventLog eventLog = GameplayEventLog.fromSystemProperty();
+		ResultsWriter results = ResultsWriter.fromSystemProperty();
+		long start = System.nanoTime();
+		for (int i = 0; i < numGames; i++) {
+			playGame(controllerType, numBricksPerRow, numRows, statistics, eventLog, results);
+		}
+		results.close();
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.println(statistics.report() + " droppedEvents=" + eventLog.getDroppedEvents());
+		System.out.printf("%.1f games/s%n", numGames / seconds);
+	}
+
+	/**
+	 * Plays one headless game until it is won, lost or reaches the tick limit.
+	 *
+	 * @param controllerType  the bot holding the paddle
+	 * @param numBricksPerRow the number of bricks per row
+	 * @param numRows         the number of rows of bricks
+	 * @param statistics      where the frames and the outcome of the game are recorded
+	 * @param eventLog        where the gameplay events of the game are recorded
+	 * @param results         where the outcome of the game is written
+	 */
+	public static void playGame(PaddleControllerType controllerType, int numBricksPerRow, int numRows,
+								SoakStatistics statistics, GameplayEventLog eventLog, ResultsWriter results) {
+		BrickerGameManager game = new BrickerGameManager(WINDOW_TITLE, WINDOW_DIMENSIONS,
+				numBricksPerRow, numRows, controllerType, statistics, eventLog);
+		game.initializeHeadlessGame();
+		for (int tick = 0; tick < MAX_TICKS_PER_GAME && !game.isSessionOver(); tick++) {
+			game.update(FIXED_DELTA_TIME);
+		}
+		if (!game.isSessionOver()) {
+			statistics.recordUnfinishedGame();
+		}
+		if (results.isEnabled()) {
+			results.append(resultOf(game, controllerType, numBricksPerRow, numRows));
+		}
+	}
+
+	/*
+	 * The row of the results file describing a played game.
+	 */
+	private static ResultRow resultOf(BrickerGameManager game, PaddleControllerType controllerType,
+									  int numBricksPerRow, int numRows) {
+		GameState gameState = game.getGameState();
+		ResultRow row = new ResultRow();
+		row.set(ResultsColumn.BRICKS_PER_ROW, numBricksPerRow);
+		row.set(ResultsColumn.ROWS, numRows);
+		row.set(ResultsColumn.CONTROLLER, controllerType.name());
+		row.set(ResultsColumn.STRATEGY_MIX,
+				System.getProperty(CollisionStrategyRegistry.WEIGHTS_PROPERTY, DEFAULT_STRATEGY_MIX));
+		if (!game.isSessionOver()) {
+			row.set(ResultsColumn.OUTCOME, ResultsColumn.UNFINISHED);
+		} else {
+			row.set(ResultsColumn.OUTCOME, gameState.isGameOver() ? ResultsColumn.LOST : ResultsColumn.WON);
+		}
+		row.set(ResultsColumn.FRAMES, game.getFramesPlayed());
+		row.set(ResultsColumn.SCORE, gameState.getScore());
+		row.set(ResultsColumn.LIVES_LEFT, gameState.getLivesCounter());
+		row.set(ResultsColumn.BRICKS_LEFT, gameState.getBricksCounter());
+		for (ResultsColumn column : ResultsColumn.values()) {
+			if (column.getCountedEvent() != null) {
+				row.set(column, game.getEventCount(column.getCountedEvent()));
+			}
+		}
+		return row;
+	}
+}
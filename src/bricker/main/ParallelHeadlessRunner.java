@@ -0,0 +1,112 @@
+package bricker.main;
+
+import bricker.gameplay_log.GameplayEventLog;
+import bricker.paddle_controllers.PaddleControllerType;
+import bricker.results.ResultsWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays many independent headless Bricker games at the same time, one per worker of a fixed thread
+ * pool. Games share no mutable state, so every worker simply plays games until the requested number has
+ * been claimed, recording into its own SoakStatistics, and the statistics are merged at the end.
+ * The gameplay event log accepts events from a single thread only, so games played here are not logged;
+ * their outcomes still go to the shared results writer.
+ *
+ * @author Aron Isaacs
+ * @see HeadlessRunner
+ */
+public class ParallelHeadlessRunner {
+	private static final int DEFAULT_NUM_GAMES = 1000;
+	private static final int DEFAULT_NUM_BRICKS_PER_ROW = 8;
+	private static final int DEFAULT_NUM_ROWS = 6;
+
+	/**
+	 * Runs the games and prints a summary and the aggregate throughput when done.
+	 *
+	 * @param args command-line arguments: [numGames [numThreads [controllerType [numBricksPerRow numRows]]]]
+	 */
+	public static void main(String[] args) {
+		int numGames = DEFAULT_NUM_GAMES;
+		int numThreads = Runtime.getRuntime().availableProcessors();
+		PaddleControllerType controllerType = PaddleControllerType.GOOD_BOT;
+		int numBricksPerRow = DEFAULT_NUM_BRICKS_PER_ROW;
+		int numRows = DEFAULT_NUM_ROWS;
+		if (args.length >= 1) {
+			numGames = Integer.parseInt(args[0]);
+		}
+		if (args.length >= 2) {
+			numThreads = Integer.parseInt(args[1]);
+		}
+		if (args.length >= 3) {
+			controllerType = PaddleControllerType.valueOf(args[2].toUpperCase());
+		}
+		if (args.length == 5) {
+			numBricksPerRow = Integer.parseInt(args[3]);
+			numRows = Integer.parseInt(args[4]);
+		}
+		ResultsWriter results = ResultsWriter.fromSystemProperty();
+		long start = System.nanoTime();
+		SoakStatistics statistics = new ParallelHeadlessRunner().playGames(numGames, numThreads,
+				controllerType, numBricksPerRow, numRows, results);
+		results.close();
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.println(statistics.report() + " threads=" + numThreads);
+		System.out.printf("%.1f games/s%n", numGames / seconds);
+	}
+
+	/**
+	 * Constructs a ParallelHeadlessRunner.
+	 */
+	public ParallelHeadlessRunner() {
+	}
+
+	/**
+	 * Plays the given number of headless games on a fixed pool of threads and waits for all of them.
+	 *
+	 * @param numGames        the number of games to play
+	 * @param numThreads      the number of games played at the same time
+	 * @param controllerType  the bot holding the paddle
+	 * @param numBricksPerRow the number of bricks per row
+	 * @param numRows         the number of rows of bricks
+	 * @param results         where the outcome of every game is written, shared by the workers
+	 * @return the statistics of all the games
+	 */
+	public SoakStatistics playGames(int numGames, int numThreads, PaddleControllerType controllerType,
+									int numBricksPerRow, int numRows, ResultsWriter results) {
+		AtomicInteger gamesClaimed = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+		try {
+			List<Future<SoakStatistics>> workers = new ArrayList<>();
+			for (int i = 0; i < numThreads; i++) {
+				workers.add(executor.submit(() -> {
+					SoakStatistics workerStatistics = new SoakStatistics();
+					GameplayEventLog eventLog = GameplayEventLog.disabled();
+					while (gamesClaimed.getAndIncrement() < numGames) {
+						HeadlessRunner.playGame(controllerType, numBricksPerRow, numRows, workerStatistics,
+								eventLog, results);
+					}
+					return workerStatistics;
+				}));
+			}
+			SoakStatistics statistics = new SoakStatistics();
+			for (Future<SoakStatistics> worker : workers) {
+				statistics.merge(worker.get());
+			}
+			return statistics;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while waiting for the games", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("a game failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
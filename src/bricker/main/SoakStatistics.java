@@ -0,0 +1,104 @@
+package bricker.main;
+
+/**
+ * Collects statistics over many unattended (bot played) games, so long soak runs can be checked for
+ * frame time and memory regressions. It counts the finished games and their outcomes, and keeps the
+ * average and worst update time of a frame.
+ * A SoakStatistics is not thread-safe: games played in parallel each record into their own, and the
+ * results are merged once they are done.
+ *
+ * @author Aron Isaacs
+ * @see BrickerGameManager
+ */
+public class SoakStatistics {
+	private static final double NANOS_PER_MICRO = 1_000.0;
+	private static final long BYTES_PER_MB = 1024 * 1024;
+	private int games;
+	private int victories;
+	private int unfinishedGames;
+	private long frames;
+	private long totalFrameNanos;
+	private long maxFrameNanos;
+
+	/**
+	 * Constructs an empty SoakStatistics.
+	 */
+	public SoakStatistics() {
+	}
+
+	/**
+	 * Records the time one frame update took.
+	 *
+	 * @param frameNanos the duration of the update in nanoseconds
+	 */
+	public void recordFrame(long frameNanos) {
+		frames++;
+		totalFrameNanos += frameNanos;
+		maxFrameNanos = Math.max(maxFrameNanos, frameNanos);
+	}
+
+	/**
+	 * Records a finished game.
+	 *
+	 * @param victory true if the game was won, false if it was lost
+	 */
+	public void recordGame(boolean victory) {
+		games++;
+		if (victory) {
+			victories++;
+		}
+	}
+
+	/**
+	 * Records a game that was stopped before it was won or lost, e.g. because it hit a tick limit.
+	 */
+	public void recordUnfinishedGame() {
+		unfinishedGames++;
+	}
+
+	/**
+	 * Adds everything recorded by another SoakStatistics to this one.
+	 *
+	 * @param other the statistics to add, which are left unchanged
+	 */
+	public void merge(SoakStatistics other) {
+		games += other.games;
+		victories += other.victories;
+		unfinishedGames += other.unfinishedGames;
+		frames += other.frames;
+		totalFrameNanos += other.totalFrameNanos;
+		maxFrameNanos = Math.max(maxFrameNanos, other.maxFrameNanos);
+	}
+
+	/**
+	 * gets the number of games that were won or lost.
+	 *
+	 * @return the number of finished games.
+	 */
+	public int getGames() {
+		return games;
+	}
+
+	/**
+	 * gets the number of recorded frames.
+	 *
+	 * @return the number of recorded frames.
+	 */
+	public long getFrames() {
+		return frames;
+	}
+
+	/**
+	 * Builds a one line summary of everything recorded so far, including the current heap usage.
+	 *
+	 * @return a human readable report.
+	 */
+	public String report() {
+		Runtime runtime = Runtime.getRuntime();
+		long usedHeapMb = (runtime.totalMemory() - runtime.freeMemory()) / BYTES_PER_MB;
+		double averageFrameMicros = frames == 0 ? 0 : totalFrameNanos / NANOS_PER_MICRO / frames;
+		return String.format("games=%d wins=%d losses=%d unfinished=%d frames=%d avgFrame=%.1fus " +
+						"maxFrame=%.1fus heap=%dMB", games, victories, games - victories, unfinishedGames,
+				frames, averageFrameMicros, maxFrameNanos / NANOS_PER_MICRO, usedHeapMb);
+	}
+}
@@ -0,0 +1,105 @@
+package bricker.network;
+
+import danogl.util.Vector2;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The layout of the brick grid, sent once with every full update so that a client can place the bricks
+ * by their ids without knowing how the server computed the layout.
+ *
+ * @author Ron Stein
+ * @see SnapshotCodec
+ */
+public class BoardGeometry {
+	/**
+	 * The size of a written BoardGeometry in bytes.
+	 */
+	public static final int SIZE = 2 * Integer.BYTES + 6 * Float.BYTES;
+	private static final long MAX_BRICKS = (long) Byte.SIZE * SnapshotCodec.MAX_PACKET_SIZE; // one bit each
+	private final int numRows;
+	private final int numBricksPerRow;
+	private final Vector2 origin;
+	private final Vector2 step;
+	private final Vector2 brickDimensions;
+
+	/**
+	 * Constructs a BoardGeometry.
+	 *
+	 * @param numRows         the number of rows of bricks
+	 * @param numBricksPerRow the number of bricks per row
+	 * @param origin          the top-left corner of the brick in row 0 and column 0
+	 * @param step            the offset between two neighboring columns (x) and rows (y)
+	 * @param brickDimensions the dimensions of a single brick
+	 */
+	public BoardGeometry(int numRows, int numBricksPerRow, Vector2 origin, Vector2 step,
+						 Vector2 brickDimensions) {
+		this.numRows = numRows;
+		this.numBricksPerRow = numBricksPerRow;
+		this.origin = origin;
+		this.step = step;
+		this.brickDimensions = brickDimensions;
+	}
+
+	/**
+	 * Reads a BoardGeometry written by write.
+	 *
+	 * @param in the buffer to read from
+	 * @return the geometry read
+	 * @throws java.nio.BufferUnderflowException if the buffer ends before the geometry
+	 * @throws IllegalArgumentException          if the board is negative or larger than a packet can cover
+	 */
+	public static BoardGeometry read(ByteBuffer in) {
+		int numRows = in.getInt();
+		int numBricksPerRow = in.getInt();
+		if (numRows < 0 || numBricksPerRow < 0 || (long) numRows * numBricksPerRow > MAX_BRICKS) {
+			throw new IllegalArgumentException("bad board: " + numBricksPerRow + "x" + numRows);
+		}
+		Vector2 origin = new Vector2(in.getFloat(), in.getFloat());
+		Vector2 step = new Vector2(in.getFloat(), in.getFloat());
+		Vector2 brickDimensions = new Vector2(in.getFloat(), in.getFloat());
+		return new BoardGeometry(numRows, numBricksPerRow, origin, step, brickDimensions);
+	}
+
+	/**
+	 * Writes the geometry to the buffer.
+	 *
+	 * @param out the buffer to write to
+	 */
+	public void write(ByteBuffer out) {
+		out.putInt(numRows).putInt(numBricksPerRow);
+		out.putFloat(origin.x()).putFloat(origin.y());
+		out.putFloat(step.x()).putFloat(step.y());
+		out.putFloat(brickDimensions.x()).putFloat(brickDimensions.y());
+	}
+
+	/**
+	 * Gets the total number of bricks on the board.
+	 *
+	 * @return the number of bricks
+	 */
+	public int getNumBricks() {
+		return numRows * numBricksPerRow;
+	}
+
+	/**
+	 * Gets the top-left corner of the brick with the given id.
+	 *
+	 * @param brickId the id of the brick (row * bricksPerRow + col)
+	 * @return the top-left corner of the brick
+	 */
+	public Vector2 getBrickTopLeft(int brickId) {
+		int row = brickId / numBricksPerRow;
+		int col = brickId % numBricksPerRow;
+		return new Vector2(origin.x() + col * step.x(), origin.y() + row * step.y());
+	}
+
+	/**
+	 * Gets the dimensions of a single brick.
+	 *
+	 * @return the dimensions of a brick
+	 */
+	public Vector2 getBrickDimensions() {
+		return brickDimensions;
+	}
+}
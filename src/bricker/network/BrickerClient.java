@@ -0,0 +1,295 @@
+package bricker.network;
+
+import danogl.GameManager;
+import danogl.GameObject;
+import danogl.collisions.Layer;
+import danogl.components.CoordinateSpace;
+import danogl.gui.ImageReader;
+import danogl.gui.SoundReader;
+import danogl.gui.UserInputListener;
+import danogl.gui.WindowController;
+import danogl.gui.rendering.Renderable;
+import danogl.gui.rendering.TextRenderable;
+import danogl.util.Vector2;
+import bricker.gameobjects.StaticGameObject;
+import bricker.rendering.StaticLayerCache;
+
+import java.awt.Color;
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A thin client for a match hosted by a MatchServer. It does not simulate anything: every frame it
+ * applies the newest state received from the server to plain game objects, and sends the arrow keys
+ * back together with the tick of the last state it applied.
+ *
+ * @author Ron Stein
+ * @see MatchServer
+ */
+public class BrickerClient extends GameManager {
+	private static final String WINDOW_TITLE = "Bricker client";
+	private static final Vector2 WINDOW_DIMENSIONS = new Vector2(800, 600);
+	private static final String DEFAULT_HOST = "localhost";
+	private static final int DEFAULT_PORT = 47_000;
+	private static final int HISTORY_SIZE = 64;
+	private static final String BALL_IMAGE_PATH = "assets/ball.png";
+	private static final String PUCK_IMAGE_PATH = "assets/mockBall.png";
+	private static final String PADDLE_IMAGE_PATH = "assets/paddle.png";
+	private static final String HEART_IMAGE_PATH = "assets/heart.png";
+	private static final String BRICK_IMAGE_PATH = "assets/brick.png";
+	private static final String BACKGROUND_IMAGE_PATH = "assets/DARK_BG2_small.jpeg";
+	private static final Vector2 HUD_POSITION = new Vector2(20, 20);
+	private static final Vector2 HUD_SIZE = new Vector2(200, 30);
+	private final InetSocketAddress serverAddress;
+	private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(SnapshotCodec.MAX_PACKET_SIZE);
+	private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(SnapshotCodec.INPUT_PACKET_SIZE);
+	private final WorldSnapshot[] history = new WorldSnapshot[HISTORY_SIZE];
+	private final Map<Integer, GameObject> entities = new HashMap<>();
+	private DatagramChannel channel;
+	private ImageReader imageReader;
+	private UserInputListener inputListener;
+	private TextRenderable hudText;
+	private StaticLayerCache staticLayer;
+	private GameObject[] bricks = new GameObject[0];
+	private boolean hasEpoch;
+	private byte epoch;
+	private int lastAppliedTick = SnapshotCodec.NO_BASE;
+	private long packetsDropped;
+
+	/**
+	 * Starts a client connected to the given server.
+	 *
+	 * @param args command-line arguments: [host [port]]
+	 */
+	public static void main(String[] args) {
+		String host = args.length >= 1 ? args[0] : DEFAULT_HOST;
+		int port = args.length >= 2 ? Integer.parseInt(args[1]) : DEFAULT_PORT;
+		new BrickerClient(new InetSocketAddress(host, port)).run();
+	}
+
+	/**
+	 * Constructor for BrickerClient.
+	 *
+	 * @param serverAddress the address of the match server
+	 */
+	public BrickerClient(InetSocketAddress serverAddress) {
+		super(WINDOW_TITLE, WINDOW_DIMENSIONS);
+		this.serverAddress = serverAddress;
+	}
+
+	/**
+	 * Opens the connection to the server and creates the background and the HUD. The board itself is
+	 * created once the first full update arrives.
+	 *
+	 * @param imageReader      used to read images for rendering game objects
+	 * @param soundReader      used to read sounds for game events
+	 * @param inputListener    listens for user input (keyboard/mouse)
+	 * @param windowController controls the game window (open, close, reset)
+	 */
+	@Override
+	public void initializeGame(ImageReader imageReader, SoundReader soundReader,
+							   UserInputListener inputListener, WindowController windowController) {
+		super.initializeGame(imageReader, soundReader, inputListener, windowController);
+		this.imageReader = imageReader;
+		this.inputListener = inputListener;
+		try {
+			channel = DatagramChannel.open();
+			channel.connect(serverAddress);
+			channel.configureBlocking(false);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		staticLayer = new StaticLayerCache(WINDOW_DIMENSIONS);
+		GameObject staticLayerObject = new StaticGameObject(Vector2.ZERO, WINDOW_DIMENSIONS, staticLayer);
+		staticLayerObject.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+		gameObjects().addGameObject(staticLayerObject, Layer.BACKGROUND);
+		staticLayer.bake(new GameObject(Vector2.ZERO, WINDOW_DIMENSIONS,
+				imageReader.readImage(BACKGROUND_IMAGE_PATH, false)));
+		hudText = new TextRenderable("");
+		hudText.setColor(Color.WHITE);
+		gameObjects().addGameObject(new GameObject(HUD_POSITION, HUD_SIZE, hudText), Layer.UI);
+	}
+
+	/**
+	 * Applies the states received since the last frame and sends the current input to the server.
+	 *
+	 * @param deltaTime the time elapsed since the last update
+	 */
+	@Override
+	public void update(float deltaTime) {
+		super.update(deltaTime);
+		try {
+			receiveStates();
+			sendInput();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Gets the number of packets received that were not state packets or could not be decoded.
+	 *
+	 * @return the number of packets dropped
+	 */
+	public long getPacketsDropped() {
+		return packetsDropped;
+	}
+
+	/*
+	 * Drains all pending state packets. Packets older than the last applied one, of a stale epoch, or
+	 * encoded against a base this client no longer has are dropped; the server will resend. Packets that
+	 * are not state packets or cannot be decoded are dropped and counted.
+	 */
+	private void receiveStates() throws IOException {
+		while (true) {
+			receiveBuffer.clear();
+			if (channel.receive(receiveBuffer) == null) {
+				return;
+			}
+			receiveBuffer.flip();
+			if (receiveBuffer.remaining() < SnapshotCodec.STATE_HEADER_SIZE ||
+					receiveBuffer.get() != SnapshotCodec.STATE_PACKET) {
+				packetsDropped++;
+				continue;
+			}
+			try {
+				receiveState();
+			} catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+				packetsDropped++;
+			}
+		}
+	}
+
+	/*
+	 * Decodes the state packet in the receive buffer, positioned after its type, and applies it.
+	 */
+	private void receiveState() {
+		byte packetEpoch = receiveBuffer.get();
+		int tick = receiveBuffer.getInt();
+		int baseTick = receiveBuffer.getInt();
+		WorldSnapshot base;
+		if (baseTick == SnapshotCodec.NO_BASE) {
+			BoardGeometry board = BoardGeometry.read(receiveBuffer);
+			if (!hasEpoch || packetEpoch != epoch) {
+				startEpoch(packetEpoch, board);
+			}
+			base = WorldSnapshot.empty();
+		} else {
+			base = baseTick < 0 ? null : history[baseTick % HISTORY_SIZE];
+			if (!hasEpoch || packetEpoch != epoch || base == null || base.getTick() != baseTick) {
+				return;
+			}
+		}
+		if (tick <= lastAppliedTick) {
+			return;
+		}
+		WorldSnapshot snapshot = SnapshotCodec.decodeState(receiveBuffer, base, tick);
+		history[tick % HISTORY_SIZE] = snapshot;
+		lastAppliedTick = tick;
+		apply(snapshot);
+	}
+
+	/*
+	 * Sends the arrow keys and acknowledges the last applied state.
+	 */
+	private void sendInput() throws IOException {
+		int direction = 0;
+		if (inputListener.isKeyPressed(KeyEvent.VK_RIGHT)) {
+			direction++;
+		}
+		if (inputListener.isKeyPressed(KeyEvent.VK_LEFT)) {
+			direction--;
+		}
+		sendBuffer.clear();
+		SnapshotCodec.encodeInput(sendBuffer, epoch, lastAppliedTick, direction);
+		sendBuffer.flip();
+		channel.write(sendBuffer);
+	}
+
+	/*
+	 * Replaces the board and forgets all entities and history when the server starts a new game.
+	 */
+	private void startEpoch(byte newEpoch, BoardGeometry board) {
+		for (GameObject brick : bricks) {
+			if (brick != null) {
+				gameObjects().removeGameObject(brick, Layer.STATIC_OBJECTS);
+				staticLayer.evict(brick);
+			}
+		}
+		for (GameObject entity : entities.values()) {
+			gameObjects().removeGameObject(entity);
+		}
+		entities.clear();
+		Arrays.fill(history, null);
+		lastAppliedTick = SnapshotCodec.NO_BASE;
+		Renderable brickImage = imageReader.readImage(BRICK_IMAGE_PATH, false);
+		bricks = new GameObject[board.getNumBricks()];
+		for (int i = 0; i < bricks.length; i++) {
+			bricks[i] = new StaticGameObject(board.getBrickTopLeft(i), board.getBrickDimensions(), brickImage);
+			gameObjects().addGameObject(bricks[i], Layer.STATIC_OBJECTS);
+			staticLayer.bake(bricks[i]);
+		}
+		epoch = newEpoch;
+		hasEpoch = true;
+	}
+
+	/*
+	 * Makes the game objects on screen match the snapshot.
+	 */
+	private void apply(WorldSnapshot snapshot) {
+		for (int i = 0; i < bricks.length; i++) {
+			if (bricks[i] != null && snapshot.isBrickRemoved(i)) {
+				gameObjects().removeGameObject(bricks[i], Layer.STATIC_OBJECTS);
+				staticLayer.evict(bricks[i]);
+				bricks[i] = null;
+			}
+		}
+		Map<Integer, WorldSnapshot.Entity> snapshotEntities = snapshot.getEntities();
+		entities.entrySet().removeIf(entry -> {
+			if (snapshotEntities.containsKey(entry.getKey())) {
+				return false;
+			}
+			gameObjects().removeGameObject(entry.getValue());
+			return true;
+		});
+		for (Map.Entry<Integer, WorldSnapshot.Entity> entry : snapshotEntities.entrySet()) {
+			WorldSnapshot.Entity state = entry.getValue();
+			Vector2 topLeft = new Vector2(SnapshotCodec.dequantize(state.getX()),
+					SnapshotCodec.dequantize(state.getY()));
+			Vector2 dimensions = new Vector2(SnapshotCodec.dequantize(state.getWidth()),
+					SnapshotCodec.dequantize(state.getHeight()));
+			GameObject entity = entities.get(entry.getKey());
+			if (entity == null) {
+				entity = new GameObject(topLeft, dimensions, imageForKind(state.getKind()));
+				entities.put(entry.getKey(), entity);
+				gameObjects().addGameObject(entity);
+			} else {
+				entity.setTopLeftCorner(topLeft);
+				entity.setDimensions(dimensions);
+			}
+		}
+		hudText.setString("lives " + snapshot.getCounter(WorldSnapshot.LIVES) +
+				"  bricks " + snapshot.getCounter(WorldSnapshot.BRICKS) +
+				(packetsDropped == 0 ? "" : "  dropped " + packetsDropped));
+	}
+
+	/*
+	 * Gets the image used to draw an entity of the given kind.
+	 */
+	private Renderable imageForKind(byte kind) {
+		return switch (kind) {
+			case SnapshotCodec.BALL -> imageReader.readImage(BALL_IMAGE_PATH, true);
+			case SnapshotCodec.PUCK -> imageReader.readImage(PUCK_IMAGE_PATH, true);
+			case SnapshotCodec.PADDLE -> imageReader.readImage(PADDLE_IMAGE_PATH, true);
+			default -> imageReader.readImage(HEART_IMAGE_PATH, true);
+		};
+	}
+}
@@ -0,0 +1,93 @@
+package bricker.network;
+
+import bricker.paddle_controllers.PaddleControllerType;
+import danogl.util.Vector2;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hosts many concurrent matches on one thread at a fixed tick rate. Match i listens on port + i of the
+ * loopback interface. Every few seconds the server reports the bandwidth per tick of the connected
+ * matches and how many matches a single core could sustain at the current cost per tick.
+ *
+ * @author Ron Stein
+ * @see MatchServer
+ */
+public class BrickerServer {
+	private static final int DEFAULT_PORT = 47_000;
+	private static final int DEFAULT_NUM_MATCHES = 1;
+	private static final int DEFAULT_NUM_BRICKS_PER_ROW = 8;
+	private static final int DEFAULT_NUM_ROWS = 6;
+	private static final int TICKS_PER_SECOND = 60;
+	private static final float DELTA_TIME = 1f / TICKS_PER_SECOND;
+	private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1) / TICKS_PER_SECOND;
+	private static final int REPORT_INTERVAL_TICKS = 5 * TICKS_PER_SECOND;
+	private static final Vector2 WINDOW_DIMENSIONS = new Vector2(800, 600);
+
+	/**
+	 * Starts the server and runs until the process is killed.
+	 *
+	 * @param args command-line arguments: [port [numMatches [controllerType [numBricksPerRow numRows]]]]
+	 * @throws IOException          if a socket cannot be opened or fails
+	 * @throws InterruptedException if the server thread is interrupted
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		int port = args.length >= 1 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		int numMatches = args.length >= 2 ? Integer.parseInt(args[1]) : DEFAULT_NUM_MATCHES;
+		PaddleControllerType controllerType = args.length >= 3 ?
+				PaddleControllerType.valueOf(args[2].toUpperCase()) : PaddleControllerType.REMOTE;
+		int numBricksPerRow = DEFAULT_NUM_BRICKS_PER_ROW;
+		int numRows = DEFAULT_NUM_ROWS;
+		if (args.length == 5) {
+			numBricksPerRow = Integer.parseInt(args[3]);
+			numRows = Integer.parseInt(args[4]);
+		}
+		MatchServer[] matches = new MatchServer[numMatches];
+		for (int i = 0; i < numMatches; i++) {
+			matches[i] = new MatchServer(port + i, WINDOW_DIMENSIONS, numBricksPerRow, numRows,
+					controllerType);
+		}
+		System.out.printf("serving %d matches on loopback ports %d-%d%n", numMatches, port,
+				port + numMatches - 1);
+		long busyNanos = 0;
+		long nextTick = System.nanoTime();
+		for (long tick = 1; ; tick++) {
+			long start = System.nanoTime();
+			for (MatchServer match : matches) {
+				match.tick(DELTA_TIME);
+			}
+			busyNanos += System.nanoTime() - start;
+			if (tick % REPORT_INTERVAL_TICKS == 0) {
+				report(matches, busyNanos, REPORT_INTERVAL_TICKS);
+				busyNanos = 0;
+			}
+			nextTick += TICK_NANOS;
+			long sleepNanos = nextTick - System.nanoTime();
+			if (sleepNanos > 0) {
+				TimeUnit.NANOSECONDS.sleep(sleepNanos);
+			} else {
+				nextTick = System.nanoTime(); // overloaded, do not try to catch up
+			}
+		}
+	}
+
+	/*
+	 * Prints the average bytes per state packet, the number of states too large to send, and the number
+	 * of matches one core could run.
+	 */
+	private static void report(MatchServer[] matches, long busyNanos, int ticks) {
+		long bytes = 0;
+		long packets = 0;
+		long dropped = 0;
+		for (MatchServer match : matches) {
+			bytes += match.getBytesSent();
+			packets += match.getPacketsSent();
+			dropped += match.getPacketsDropped();
+		}
+		double busyPerTick = (double) busyNanos / ticks;
+		double matchesPerCore = busyPerTick == 0 ? 0 : matches.length * TICK_NANOS / busyPerTick;
+		System.out.printf("bytes/tick=%.1f dropped=%d busy/tick=%.1fus matches/core=%.0f%n",
+				packets == 0 ? 0.0 : (double) bytes / packets, dropped, busyPerTick / 1_000, matchesPerCore);
+	}
+}
@@ -0,0 +1,257 @@
+package bricker.network;
+
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.Brick;
+import bricker.gameobjects.Heart;
+import bricker.gameobjects.Paddle;
+import bricker.gameplay_log.GameplayEventLog;
+import bricker.main.BrickerGameManager;
+import bricker.main.GameState;
+import bricker.main.SoakStatistics;
+import bricker.paddle_controllers.PaddleControllerType;
+import bricker.paddle_controllers.RemotePaddleController;
+import danogl.GameObject;
+import danogl.collisions.Layer;
+import danogl.util.Vector2;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Runs one authoritative match without rendering and serves it to a single client over a loopback UDP
+ * socket. Every tick the match is advanced, a snapshot is taken and sent as a delta against the last
+ * snapshot the client acknowledged. Paddle input sent by the client is applied before the next tick.
+ * When a game ends a new one starts right away under a new epoch, and the next update is a full one.
+ * A state that does not fit in one datagram is dropped, and the client keeps the last one it got; a
+ * board too large for even its emptiest full update to fit is refused.
+ *
+ * @author Ron Stein
+ * @see SnapshotCodec
+ * @see BrickerClient
+ */
+public class MatchServer {
+	private static final int HISTORY_SIZE = 64; // ticks a client ack may lag behind before a full update
+	private static final String WINDOW_TITLE = "Bricker server";
+	private final DatagramChannel channel;
+	private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(SnapshotCodec.MAX_PACKET_SIZE);
+	private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(SnapshotCodec.INPUT_PACKET_SIZE);
+	private final WorldSnapshot[] history = new WorldSnapshot[HISTORY_SIZE];
+	private final Vector2 windowDimensions;
+	private final int numBricksPerRow;
+	private final int numRows;
+	private final PaddleControllerType controllerType;
+	private final SoakStatistics statistics = new SoakStatistics();
+	private Map<GameObject, Integer> entityIds = new IdentityHashMap<>();
+	private BrickerGameManager game;
+	private BoardGeometry board;
+	private SocketAddress client;
+	private byte epoch;
+	private int tick;
+	private int nextEntityId;
+	private int lastAckedTick = SnapshotCodec.NO_BASE;
+	private long bytesSent;
+	private long packetsSent;
+	private long packetsDropped;
+
+	/**
+	 * Constructs a MatchServer listening on the loopback interface and starts its first game.
+	 *
+	 * @param port             the UDP port to listen on
+	 * @param windowDimensions the dimensions of the (virtual) game window
+	 * @param numBricksPerRow  the number of bricks per row
+	 * @param numRows          the number of rows of bricks
+	 * @param controllerType   REMOTE to be played by the client, or a bot for load testing
+	 * @throws IOException              if the socket cannot be opened
+	 * @throws IllegalArgumentException if a full update of the board cannot fit in a datagram
+	 */
+	public MatchServer(int port, Vector2 windowDimensions, int numBricksPerRow, int numRows,
+					   PaddleControllerType controllerType) throws IOException {
+		if (SnapshotCodec.getMinFullStateSize(numBricksPerRow * numRows) > SnapshotCodec.MAX_PACKET_SIZE) {
+			throw new IllegalArgumentException("board too large to serve: " + numBricksPerRow + "x" +
+					numRows);
+		}
+		this.windowDimensions = windowDimensions;
+		this.numBricksPerRow = numBricksPerRow;
+		this.numRows = numRows;
+		this.controllerType = controllerType;
+		channel = DatagramChannel.open();
+		channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+		channel.configureBlocking(false);
+		startGame();
+	}
+
+	/**
+	 * Advances the match by one tick: applies pending client input, updates the game and sends the
+	 * resulting state to the client (if one has connected).
+	 *
+	 * @param deltaTime the simulated time of one tick
+	 * @throws IOException if the socket fails
+	 */
+	public void tick(float deltaTime) throws IOException {
+		receiveInputs();
+		game.update(deltaTime);
+		if (game.isSessionOver()) {
+			startGame();
+		}
+		WorldSnapshot snapshot = capture();
+		history[tick % HISTORY_SIZE] = snapshot;
+		if (client != null) {
+			send(snapshot);
+		}
+		tick++;
+	}
+
+	/**
+	 * Gets the total number of bytes sent to the client.
+	 *
+	 * @return the number of bytes sent
+	 */
+	public long getBytesSent() {
+		return bytesSent;
+	}
+
+	/**
+	 * Gets the number of state packets sent to the client.
+	 *
+	 * @return the number of packets sent
+	 */
+	public long getPacketsSent() {
+		return packetsSent;
+	}
+
+	/**
+	 * Gets the number of states not sent because they did not fit in a datagram.
+	 *
+	 * @return the number of packets dropped
+	 */
+	public long getPacketsDropped() {
+		return packetsDropped;
+	}
+
+	/**
+	 * Closes the socket of the match.
+	 *
+	 * @throws IOException if closing fails
+	 */
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/*
+	 * Starts a new game under a new epoch. Acks of the previous game are meaningless from now on.
+	 */
+	private void startGame() {
+		game = new BrickerGameManager(WINDOW_TITLE, windowDimensions, numBricksPerRow, numRows,
+				controllerType, statistics, GameplayEventLog.disabled());
+		game.initializeHeadlessGame();
+		Vector2 origin = game.getBrickTopLeft(0, 0);
+		Vector2 step = game.getBrickTopLeft(1, 1).subtract(origin);
+		board = new BoardGeometry(numRows, numBricksPerRow, origin, step, game.getBrickDimensions());
+		entityIds = new IdentityHashMap<>();
+		lastAckedTick = SnapshotCodec.NO_BASE;
+		epoch++;
+	}
+
+	/*
+	 * Drains all pending input packets. The latest direction wins and the newest ack of the current
+	 * epoch becomes the base of the next delta.
+	 */
+	private void receiveInputs() throws IOException {
+		while (true) {
+			receiveBuffer.clear();
+			SocketAddress sender = channel.receive(receiveBuffer);
+			if (sender == null) {
+				return;
+			}
+			receiveBuffer.flip();
+			if (receiveBuffer.remaining() < SnapshotCodec.INPUT_PACKET_SIZE ||
+					receiveBuffer.get() != SnapshotCodec.INPUT_PACKET) {
+				continue;
+			}
+			client = sender;
+			byte packetEpoch = receiveBuffer.get();
+			int ackTick = receiveBuffer.getInt();
+			byte direction = receiveBuffer.get();
+			if (packetEpoch == epoch && ackTick > lastAckedTick) {
+				lastAckedTick = ackTick;
+			}
+			if (game.getPaddleController() instanceof RemotePaddleController remoteController) {
+				remoteController.setDirection(Math.signum(direction));
+			}
+		}
+	}
+
+	/*
+	 * Sends the snapshot as a delta against the last acked one, or as a full update when the ack is
+	 * missing or too old to still be in the history. A snapshot too large for a datagram is dropped.
+	 */
+	private void send(WorldSnapshot snapshot) throws IOException {
+		WorldSnapshot base = null;
+		if (lastAckedTick != SnapshotCodec.NO_BASE && tick - lastAckedTick < HISTORY_SIZE) {
+			base = history[lastAckedTick % HISTORY_SIZE];
+		}
+		sendBuffer.clear();
+		if (!SnapshotCodec.encodeState(sendBuffer, epoch, base, snapshot, board)) {
+			packetsDropped++;
+			return;
+		}
+		sendBuffer.flip();
+		bytesSent += channel.send(sendBuffer, client);
+		packetsSent++;
+	}
+
+	/*
+	 * Takes a snapshot of the game. Entities keep their id for as long as they exist.
+	 */
+	private WorldSnapshot capture() {
+		GameState gameState = game.getGameState();
+		int[] counters = new int[WorldSnapshot.NUM_COUNTERS];
+		counters[WorldSnapshot.LIVES] = gameState.getLivesCounter();
+		counters[WorldSnapshot.BRICKS] = gameState.getBricksCounter();
+		counters[WorldSnapshot.PADDLES] = gameState.getPaddlesCounter();
+		counters[WorldSnapshot.SUB_PADDLE_HITS] = gameState.getSubPaddleHitsCounter();
+		Map<GameObject, Integer> currentIds = new IdentityHashMap<>();
+		Map<Integer, WorldSnapshot.Entity> entities = new HashMap<>();
+		for (GameObject obj : game.gameObjects().objectsInLayer(Layer.DEFAULT)) {
+			byte kind;
+			if (obj == game.getBall()) {
+				kind = SnapshotCodec.BALL;
+			} else if (obj instanceof Ball) {
+				kind = SnapshotCodec.PUCK;
+			} else if (obj instanceof Paddle) {
+				kind = SnapshotCodec.PADDLE;
+			} else if (obj instanceof Heart) {
+				kind = SnapshotCodec.HEART;
+			} else {
+				continue;
+			}
+			Integer id = entityIds.get(obj);
+			if (id == null) {
+				id = nextEntityId++;
+			}
+			currentIds.put(obj, id);
+			Vector2 topLeft = obj.getTopLeftCorner();
+			Vector2 dimensions = obj.getDimensions();
+			entities.put(id, new WorldSnapshot.Entity(kind, SnapshotCodec.quantize(topLeft.x()),
+					SnapshotCodec.quantize(topLeft.y()), SnapshotCodec.quantize(dimensions.x()),
+					SnapshotCodec.quantize(dimensions.y())));
+		}
+		entityIds = currentIds;
+		BitSet removedBricks = new BitSet(board.getNumBricks());
+		removedBricks.set(0, board.getNumBricks());
+		for (GameObject obj : game.gameObjects().objectsInLayer(Layer.STATIC_OBJECTS)) {
+			if (obj instanceof Brick brick) {
+				removedBricks.clear(brick.getRow() * numBricksPerRow + brick.getCol());
+			}
+		}
+		return new WorldSnapshot(tick, counters, entities, removedBricks);
+	}
+}
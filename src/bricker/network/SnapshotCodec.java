@@ -0,0 +1,279 @@
+package bricker.network;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Encodes and decodes the packets exchanged between a match server and its client.
+ * A state packet is a delta against a base snapshot the client has acknowledged: it carries only the
+ * counters that changed, the entities that moved, appeared or disappeared, and the newly removed bricks.
+ * When there is no usable base the delta is taken against an empty snapshot and the board layout is
+ * added, which makes it a full update.
+ * The brick removals are written as a list of brick ids or as a bitset of the board, whichever is
+ * smaller: a delta usually removes a few bricks, while a full update of a large, half cleared board
+ * removes many. A state that does not fit in a single datagram even so is not encoded.
+ *
+ * <pre>
+ * state: type, epoch, tick, baseTick, [board layout if baseTick == NO_BASE],
+ *        counterMask, changed counters, entity updates, entity removals,
+ *        BRICK_IDS, count, brick ids | BRICK_BITSET, length, bitset bytes (little endian)
+ * input: type, epoch, ackTick, direction
+ * </pre>
+ *
+ * @author Ron Stein
+ * @see WorldSnapshot
+ */
+public class SnapshotCodec {
+	/**
+	 * The type byte of a state packet (server to client).
+	 */
+	public static final byte STATE_PACKET = 1;
+	/**
+	 * The type byte of an input packet (client to server).
+	 */
+	public static final byte INPUT_PACKET = 2;
+	/**
+	 * The base tick of a full update, and the ack of a client that has nothing yet.
+	 */
+	public static final int NO_BASE = -1;
+	/**
+	 * The size of the header of a state packet in bytes: type, epoch, tick and base tick.
+	 */
+	public static final int STATE_HEADER_SIZE = 2 * Byte.BYTES + 2 * Integer.BYTES;
+	/**
+	 * The size of an input packet in bytes.
+	 */
+	public static final int INPUT_PACKET_SIZE = 7;
+	/**
+	 * The largest payload of a single UDP datagram.
+	 */
+	public static final int MAX_PACKET_SIZE = 65_507;
+	/**
+	 * Entity kind of the main ball.
+	 */
+	public static final byte BALL = 0;
+	/**
+	 * Entity kind of a puck.
+	 */
+	public static final byte PUCK = 1;
+	/**
+	 * Entity kind of a paddle.
+	 */
+	public static final byte PADDLE = 2;
+	/**
+	 * Entity kind of a falling heart.
+	 */
+	public static final byte HEART = 3;
+	private static final float POSITION_SCALE = 4f; // quarter pixel precision, up to 8191 pixels
+	private static final byte BRICK_IDS = 0;
+	private static final byte BRICK_BITSET = 1;
+
+	/**
+	 * Constructs a SnapshotCodec.
+	 */
+	public SnapshotCodec() {
+	}
+
+	/**
+	 * Quantizes a coordinate or size for the snapshot.
+	 *
+	 * @param value the value in pixels
+	 * @return the quantized value
+	 */
+	public static short quantize(float value) {
+		return (short) Math.round(value * POSITION_SCALE);
+	}
+
+	/**
+	 * Converts a quantized value back to pixels.
+	 *
+	 * @param value the quantized value
+	 * @return the value in pixels
+	 */
+	public static float dequantize(short value) {
+		return value / POSITION_SCALE;
+	}
+
+	/**
+	 * Writes a state packet for the current snapshot as a delta against the base.
+	 *
+	 * @param out     the buffer to write to
+	 * @param epoch   the epoch of the match, bumped whenever a new game starts
+	 * @param base    the snapshot the client acknowledged, or null to send a full update
+	 * @param current the snapshot to send
+	 * @param board   the board layout, written only for a full update
+	 * @return true if the packet was written, false if it does not fit in the buffer (which is then left
+	 * with a partial packet)
+	 */
+	public static boolean encodeState(ByteBuffer out, byte epoch, WorldSnapshot base, WorldSnapshot current,
+									  BoardGeometry board) {
+		try {
+			writeState(out, epoch, base, current, board);
+			return true;
+		} catch (BufferOverflowException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Gets the size of the largest full update of a board with no entities, i.e. the least a buffer
+	 * needs to serve the board at all.
+	 *
+	 * @param numBricks the number of bricks on the board
+	 * @return the size in bytes
+	 */
+	public static int getMinFullStateSize(int numBricks) {
+		int header = STATE_HEADER_SIZE + BoardGeometry.SIZE;
+		int counters = Byte.BYTES + WorldSnapshot.NUM_COUNTERS * Integer.BYTES;
+		int entities = 2 * Short.BYTES;
+		int bricks = Byte.BYTES + Integer.BYTES + (numBricks + Byte.SIZE - 1) / Byte.SIZE;
+		return header + counters + entities + bricks;
+	}
+
+	/*
+	 * Writes a state packet, throwing BufferOverflowException if it does not fit.
+	 */
+	private static void writeState(ByteBuffer out, byte epoch, WorldSnapshot base, WorldSnapshot current,
+								   BoardGeometry board) {
+		out.put(STATE_PACKET).put(epoch).putInt(current.getTick());
+		if (base == null) {
+			out.putInt(NO_BASE);
+			board.write(out);
+			base = WorldSnapshot.empty();
+		} else {
+			out.putInt(base.getTick());
+		}
+		encodeCounters(out, base, current);
+		encodeEntities(out, base, current);
+		BitSet newlyRemoved = current.getRemovedBricks();
+		newlyRemoved.andNot(base.getRemovedBricks());
+		encodeBricks(out, newlyRemoved);
+	}
+
+	/**
+	 * Reads the rest of a state packet (after the header) and applies it to the base.
+	 *
+	 * @param in   the buffer positioned after the header (and the board layout of a full update)
+	 * @param base the snapshot the packet was encoded against (empty for a full update)
+	 * @param tick the tick from the header
+	 * @return the decoded snapshot
+	 * @throws BufferUnderflowException          if the packet is truncated
+	 * @throws IndexOutOfBoundsException         if the packet names a negative brick id
+	 */
+	public static WorldSnapshot decodeState(ByteBuffer in, WorldSnapshot base, int tick) {
+		int[] counters = new int[WorldSnapshot.NUM_COUNTERS];
+		int counterMask = in.get();
+		for (int i = 0; i < WorldSnapshot.NUM_COUNTERS; i++) {
+			counters[i] = (counterMask & (1 << i)) != 0 ? in.getInt() : base.getCounter(i);
+		}
+		Map<Integer, WorldSnapshot.Entity> entities = new HashMap<>(base.getEntities());
+		int updates = in.getShort() & 0xFFFF;
+		for (int i = 0; i < updates; i++) {
+			int id = in.getInt();
+			entities.put(id, new WorldSnapshot.Entity(in.get(), in.getShort(), in.getShort(),
+					in.getShort(), in.getShort()));
+		}
+		int removals = in.getShort() & 0xFFFF;
+		for (int i = 0; i < removals; i++) {
+			entities.remove(in.getInt());
+		}
+		BitSet removedBricks = base.getRemovedBricks();
+		byte brickEncoding = in.get();
+		int brickRemovals = in.getInt();
+		if (brickEncoding == BRICK_BITSET) {
+			if (brickRemovals < 0 || brickRemovals > in.remaining()) {
+				throw new BufferUnderflowException();
+			}
+			removedBricks.or(BitSet.valueOf(in.slice(in.position(), brickRemovals)));
+			in.position(in.position() + brickRemovals);
+		} else {
+			for (int i = 0; i < brickRemovals; i++) {
+				removedBricks.set(in.getInt());
+			}
+		}
+		return new WorldSnapshot(tick, counters, entities, removedBricks);
+	}
+
+	/**
+	 * Writes an input packet.
+	 *
+	 * @param out       the buffer to write to
+	 * @param epoch     the epoch of the last applied state
+	 * @param ackTick   the tick of the last applied state, or NO_BASE
+	 * @param direction -1 to move left, 1 to move right, 0 to stand still
+	 */
+	public static void encodeInput(ByteBuffer out, byte epoch, int ackTick, int direction) {
+		out.put(INPUT_PACKET).put(epoch).putInt(ackTick).put((byte) direction);
+	}
+
+	/*
+	 * Writes a mask of the counters that differ from the base, followed by their new values.
+	 */
+	private static void encodeCounters(ByteBuffer out, WorldSnapshot base, WorldSnapshot current) {
+		int counterMask = 0;
+		for (int i = 0; i < WorldSnapshot.NUM_COUNTERS; i++) {
+			if (current.getCounter(i) != base.getCounter(i)) {
+				counterMask |= 1 << i;
+			}
+		}
+		out.put((byte) counterMask);
+		for (int i = 0; i < WorldSnapshot.NUM_COUNTERS; i++) {
+			if ((counterMask & (1 << i)) != 0) {
+				out.putInt(current.getCounter(i));
+			}
+		}
+	}
+
+	/*
+	 * Writes the newly removed bricks as a list of ids, or as a bitset when that is smaller.
+	 */
+	private static void encodeBricks(ByteBuffer out, BitSet newlyRemoved) {
+		int count = newlyRemoved.cardinality();
+		int bitsetLength = (newlyRemoved.length() + Byte.SIZE - 1) / Byte.SIZE;
+		if (bitsetLength < count * Integer.BYTES) {
+			out.put(BRICK_BITSET).putInt(bitsetLength).put(newlyRemoved.toByteArray());
+			return;
+		}
+		out.put(BRICK_IDS).putInt(count);
+		for (int i = newlyRemoved.nextSetBit(0); i >= 0; i = newlyRemoved.nextSetBit(i + 1)) {
+			out.putInt(i);
+		}
+	}
+
+	/*
+	 * Writes the entities that are new or changed since the base, then the ids of those that are gone.
+	 * The counts are patched in after the entries since they are only known at the end.
+	 */
+	private static void encodeEntities(ByteBuffer out, WorldSnapshot base, WorldSnapshot current) {
+		Map<Integer, WorldSnapshot.Entity> baseEntities = base.getEntities();
+		Map<Integer, WorldSnapshot.Entity> currentEntities = current.getEntities();
+		int countPosition = out.position();
+		out.putShort((short) 0);
+		int updates = 0;
+		for (Map.Entry<Integer, WorldSnapshot.Entity> entry : currentEntities.entrySet()) {
+			WorldSnapshot.Entity entity = entry.getValue();
+			if (entity.equals(baseEntities.get(entry.getKey()))) {
+				continue;
+			}
+			out.putInt(entry.getKey()).put(entity.getKind());
+			out.putShort(entity.getX()).putShort(entity.getY());
+			out.putShort(entity.getWidth()).putShort(entity.getHeight());
+			updates++;
+		}
+		out.putShort(countPosition, (short) updates);
+		countPosition = out.position();
+		out.putShort((short) 0);
+		int removals = 0;
+		for (Integer id : baseEntities.keySet()) {
+			if (!currentEntities.containsKey(id)) {
+				out.putInt(id);
+				removals++;
+			}
+		}
+		out.putShort(countPosition, (short) removals);
+	}
+}
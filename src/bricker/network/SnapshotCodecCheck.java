@@ -0,0 +1,218 @@
+package bricker.network;
+
+import danogl.util.Vector2;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * A self-check of the SnapshotCodec, runnable without a window: full updates and deltas are encoded and
+ * decoded back, directly and through a loopback UDP socket, on a small board and on a large half cleared
+ * one, a state too large for a datagram must be refused, and a truncated packet must fail to decode.
+ *
+ * @author Ron Stein
+ * @see SnapshotCodec
+ */
+public class SnapshotCodecCheck {
+	private static final int SMALL_BOARD_ROWS = 6;
+	private static final int SMALL_BOARD_COLUMNS = 8;
+	private static final int LARGE_BOARD_ROWS = 400;
+	private static final int LARGE_BOARD_COLUMNS = 1000;
+	private static final int TOO_LARGE_BOARD_ROWS = 1000;
+	private static final int NUM_ENTITIES = 20;
+	private static final int WINDOW_WIDTH = 800;
+	private static final int WINDOW_HEIGHT = 600;
+	private static final float ENTITY_SIZE = 20;
+	private static final long SEED = 42;
+	private static final byte EPOCH = 3;
+
+	/**
+	 * Constructor for the SnapshotCodecCheck.
+	 */
+	public SnapshotCodecCheck() {
+	}
+
+	/**
+	 * Runs the check, and prints its result.
+	 *
+	 * @param args ignored
+	 * @throws IOException           if the loopback socket cannot be opened
+	 * @throws IllegalStateException if the codec does not behave as documented
+	 */
+	public static void main(String[] args) throws IOException {
+		SplittableRandom random = new SplittableRandom(SEED);
+		ByteBuffer buffer = ByteBuffer.allocate(SnapshotCodec.MAX_PACKET_SIZE);
+
+		BoardGeometry small = board(SMALL_BOARD_ROWS, SMALL_BOARD_COLUMNS);
+		WorldSnapshot base = snapshot(1, small, 0.25, random);
+		checkRoundTrip(buffer, null, base, small, "a full update");
+		WorldSnapshot current = snapshot(2, small, 0.5, random);
+		BitSet removed = base.getRemovedBricks();
+		removed.or(current.getRemovedBricks()); // bricks never come back within an epoch
+		current = new WorldSnapshot(2, counters(random), current.getEntities(), removed);
+		checkRoundTrip(buffer, base, current, small, "a delta");
+		checkTruncated(buffer, null, current, small);
+		checkTruncated(buffer, base, current, small);
+
+		BoardGeometry large = board(LARGE_BOARD_ROWS, LARGE_BOARD_COLUMNS);
+		WorldSnapshot halfCleared = snapshot(3, large, 0.5, random);
+		checkRoundTrip(buffer, null, halfCleared, large, "a full update of a large half cleared board");
+		checkLoopback(buffer, halfCleared, large);
+		BitSet oneMoreRemoved = halfCleared.getRemovedBricks();
+		oneMoreRemoved.set(oneMoreRemoved.previousClearBit(large.getNumBricks() - 1));
+		WorldSnapshot oneBrickLater = new WorldSnapshot(4, counters(random), halfCleared.getEntities(),
+				oneMoreRemoved);
+		checkRoundTrip(buffer, halfCleared, oneBrickLater, large,
+				"a delta removing one brick of a large board");
+
+		BoardGeometry tooLarge = board(TOO_LARGE_BOARD_ROWS, LARGE_BOARD_COLUMNS);
+		check(SnapshotCodec.getMinFullStateSize(tooLarge.getNumBricks()) > SnapshotCodec.MAX_PACKET_SIZE,
+				"a board of " + tooLarge.getNumBricks() + " bricks is too large to serve");
+		buffer.clear();
+		check(!SnapshotCodec.encodeState(buffer, EPOCH, null, snapshot(5, tooLarge, 1, random), tooLarge),
+				"a state too large for a datagram is refused");
+		System.out.println("SnapshotCodec: ok");
+	}
+
+	/*
+	 * Encodes a state against a base (or as a full update when it is null), decodes it as the client
+	 * does, and checks that the client ends up with the same state.
+	 */
+	private static void checkRoundTrip(ByteBuffer buffer, WorldSnapshot base, WorldSnapshot current,
+									   BoardGeometry board, String packet) {
+		buffer.clear();
+		check(SnapshotCodec.encodeState(buffer, EPOCH, base, current, board), packet + " fits in a datagram");
+		buffer.flip();
+		checkDecoded(buffer, base, current, board, packet);
+	}
+
+	/*
+	 * Cuts a state packet at every length past its header, and checks that decoding each of them fails
+	 * with an exception the client drops the packet on, rather than with another one or with a state.
+	 */
+	private static void checkTruncated(ByteBuffer buffer, WorldSnapshot base, WorldSnapshot current,
+									   BoardGeometry board) {
+		buffer.clear();
+		SnapshotCodec.encodeState(buffer, EPOCH, base, current, board);
+		int length = buffer.position();
+		for (int cut = SnapshotCodec.STATE_HEADER_SIZE; cut < length; cut++) {
+			ByteBuffer in = buffer.duplicate().position(SnapshotCodec.STATE_HEADER_SIZE).limit(cut);
+			try {
+				if (base == null) {
+					BoardGeometry.read(in);
+				}
+				SnapshotCodec.decodeState(in, base == null ? WorldSnapshot.empty() : base, current.getTick());
+				check(false, "a packet cut at " + cut + " of " + length + " bytes is rejected");
+			} catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+				// rejected as the client expects
+			}
+		}
+	}
+
+	/*
+	 * Sends a full update through a loopback UDP socket, and checks the state received.
+	 */
+	private static void checkLoopback(ByteBuffer buffer, WorldSnapshot current, BoardGeometry board)
+			throws IOException {
+		try (DatagramChannel server = DatagramChannel.open();
+			 DatagramChannel client = DatagramChannel.open()) {
+			client.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+			server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+			buffer.clear();
+			SnapshotCodec.encodeState(buffer, EPOCH, null, current, board);
+			buffer.flip();
+			int sent = server.send(buffer, client.getLocalAddress());
+			ByteBuffer received = ByteBuffer.allocateDirect(SnapshotCodec.MAX_PACKET_SIZE);
+			client.receive(received);
+			received.flip();
+			check(received.remaining() == sent, "a full update arrives whole over loopback");
+			checkDecoded(received, null, current, board, "a full update sent over loopback");
+		}
+	}
+
+	/*
+	 * Decodes a state packet as the client does, and checks it against the state that was encoded.
+	 */
+	private static void checkDecoded(ByteBuffer in, WorldSnapshot base, WorldSnapshot expected,
+									 BoardGeometry board, String packet) {
+		check(in.get() == SnapshotCodec.STATE_PACKET && in.get() == EPOCH, packet + " has a state header");
+		int tick = in.getInt();
+		int baseTick = in.getInt();
+		if (base == null) {
+			check(baseTick == SnapshotCodec.NO_BASE, packet + " has no base");
+			BoardGeometry decodedBoard = BoardGeometry.read(in);
+			check(decodedBoard.getNumBricks() == board.getNumBricks(), packet + " carries the board");
+			base = WorldSnapshot.empty();
+		} else {
+			check(baseTick == base.getTick(), packet + " names its base");
+		}
+		WorldSnapshot decoded = SnapshotCodec.decodeState(in, base, tick);
+		check(!in.hasRemaining(), packet + " is read to its end");
+		check(decoded.getTick() == expected.getTick(), packet + " keeps the tick");
+		for (int i = 0; i < WorldSnapshot.NUM_COUNTERS; i++) {
+			check(decoded.getCounter(i) == expected.getCounter(i), packet + " keeps counter " + i);
+		}
+		check(decoded.getEntities().equals(expected.getEntities()), packet + " keeps the entities");
+		check(decoded.getRemovedBricks().equals(expected.getRemovedBricks()),
+				packet + " keeps the removed bricks");
+	}
+
+	/*
+	 * Makes a board of the given size, laid out like the game's.
+	 */
+	private static BoardGeometry board(int numRows, int numBricksPerRow) {
+		return new BoardGeometry(numRows, numBricksPerRow, new Vector2(3, 3), new Vector2(10, 5),
+				new Vector2(9, 4));
+	}
+
+	/*
+	 * Makes a random state in which every brick of the board is removed with the given probability.
+	 */
+	private static WorldSnapshot snapshot(int tick, BoardGeometry board, double removedShare,
+										  SplittableRandom random) {
+		Map<Integer, WorldSnapshot.Entity> entities = new HashMap<>();
+		for (int id = 0; id < NUM_ENTITIES; id++) {
+			if (random.nextBoolean()) {
+				entities.put(id, new WorldSnapshot.Entity((byte) random.nextInt(SnapshotCodec.HEART + 1),
+						SnapshotCodec.quantize(random.nextInt(WINDOW_WIDTH)),
+						SnapshotCodec.quantize(random.nextInt(WINDOW_HEIGHT)),
+						SnapshotCodec.quantize(ENTITY_SIZE), SnapshotCodec.quantize(ENTITY_SIZE)));
+			}
+		}
+		BitSet removedBricks = new BitSet(board.getNumBricks());
+		for (int brick = 0; brick < board.getNumBricks(); brick++) {
+			if (random.nextDouble() < removedShare) {
+				removedBricks.set(brick);
+			}
+		}
+		return new WorldSnapshot(tick, counters(random), entities, removedBricks);
+	}
+
+	/*
+	 * Makes random counters, some of them left at 0.
+	 */
+	private static int[] counters(SplittableRandom random) {
+		int[] counters = new int[WorldSnapshot.NUM_COUNTERS];
+		for (int i = 0; i < counters.length; i++) {
+			counters[i] = random.nextBoolean() ? random.nextInt(1000) : 0;
+		}
+		return counters;
+	}
+
+	/*
+	 * Throws if a property of the codec does not hold.
+	 */
+	private static void check(boolean holds, String property) {
+		if (!holds) {
+			throw new IllegalStateException("SnapshotCodec: " + property + " does not hold");
+		}
+	}
+}
@@ -0,0 +1,201 @@
+package bricker.network;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable picture of one tick of a match, as far as a client needs it to draw the game: the moving
+ * entities (balls, pucks, paddles and hearts) by id, the bricks removed so far, and the game state
+ * counters. Positions and sizes are quantized so that unchanged entities compare equal between ticks.
+ *
+ * @author Ron Stein
+ * @see SnapshotCodec
+ */
+public class WorldSnapshot {
+	/**
+	 * Index of the lives counter.
+	 */
+	public static final int LIVES = 0;
+	/**
+	 * Index of the bricks counter.
+	 */
+	public static final int BRICKS = 1;
+	/**
+	 * Index of the paddles counter.
+	 */
+	public static final int PADDLES = 2;
+	/**
+	 * Index of the sub-paddle hits counter.
+	 */
+	public static final int SUB_PADDLE_HITS = 3;
+	/**
+	 * The number of game state counters in a snapshot.
+	 */
+	public static final int NUM_COUNTERS = 4;
+	private final int tick;
+	private final int[] counters;
+	private final Map<Integer, Entity> entities;
+	private final BitSet removedBricks;
+
+	/**
+	 * Constructs a WorldSnapshot. The given collections are owned by the snapshot from now on.
+	 *
+	 * @param tick          the tick the snapshot was taken at
+	 * @param counters      the game state counters, indexed by LIVES, BRICKS, PADDLES and SUB_PADDLE_HITS
+	 * @param entities      the moving entities by id
+	 * @param removedBricks the ids (row * bricksPerRow + col) of the bricks removed so far
+	 */
+	public WorldSnapshot(int tick, int[] counters, Map<Integer, Entity> entities, BitSet removedBricks) {
+		this.tick = tick;
+		this.counters = counters;
+		this.entities = entities;
+		this.removedBricks = removedBricks;
+	}
+
+	/**
+	 * Creates the snapshot every full (non-delta) update is encoded against: no entities, no removed
+	 * bricks and all counters zero.
+	 *
+	 * @return an empty snapshot
+	 */
+	public static WorldSnapshot empty() {
+		return new WorldSnapshot(SnapshotCodec.NO_BASE, new int[NUM_COUNTERS], new HashMap<>(), new BitSet());
+	}
+
+	/**
+	 * Gets the tick the snapshot was taken at.
+	 *
+	 * @return the tick of the snapshot
+	 */
+	public int getTick() {
+		return tick;
+	}
+
+	/**
+	 * Gets one of the game state counters.
+	 *
+	 * @param index LIVES, BRICKS, PADDLES or SUB_PADDLE_HITS
+	 * @return the value of the counter
+	 */
+	public int getCounter(int index) {
+		return counters[index];
+	}
+
+	/**
+	 * Gets the moving entities by id.
+	 *
+	 * @return an unmodifiable view of the entities
+	 */
+	public Map<Integer, Entity> getEntities() {
+		return Collections.unmodifiableMap(entities);
+	}
+
+	/**
+	 * Determines if the brick with the given id has been removed.
+	 *
+	 * @param brickId the id of the brick (row * bricksPerRow + col)
+	 * @return true if the brick has been removed
+	 */
+	public boolean isBrickRemoved(int brickId) {
+		return removedBricks.get(brickId);
+	}
+
+	/**
+	 * Gets a copy of the ids of all removed bricks.
+	 *
+	 * @return the removed bricks
+	 */
+	public BitSet getRemovedBricks() {
+		return (BitSet) removedBricks.clone();
+	}
+
+	/**
+	 * The quantized state of one moving entity.
+	 */
+	public static final class Entity {
+		private final byte kind;
+		private final short x;
+		private final short y;
+		private final short width;
+		private final short height;
+
+		/**
+		 * Constructs an Entity from quantized values, see SnapshotCodec.quantize.
+		 *
+		 * @param kind   what the entity is (ball, puck, paddle or heart)
+		 * @param x      the quantized x of the top-left corner
+		 * @param y      the quantized y of the top-left corner
+		 * @param width  the quantized width
+		 * @param height the quantized height
+		 */
+		public Entity(byte kind, short x, short y, short width, short height) {
+			this.kind = kind;
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+		}
+
+		/**
+		 * Gets what the entity is.
+		 *
+		 * @return the kind of the entity
+		 */
+		public byte getKind() {
+			return kind;
+		}
+
+		/**
+		 * Gets the quantized x of the top-left corner.
+		 *
+		 * @return the quantized x
+		 */
+		public short getX() {
+			return x;
+		}
+
+		/**
+		 * Gets the quantized y of the top-left corner.
+		 *
+		 * @return the quantized y
+		 */
+		public short getY() {
+			return y;
+		}
+
+		/**
+		 * Gets the quantized width.
+		 *
+		 * @return the quantized width
+		 */
+		public short getWidth() {
+			return width;
+		}
+
+		/**
+		 * Gets the quantized height.
+		 *
+		 * @return the quantized height
+		 */
+		public short getHeight() {
+			return height;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Entity)) {
+				return false;
+			}
+			Entity entity = (Entity) other;
+			return kind == entity.kind && x == entity.x && y == entity.y &&
+					width == entity.width && height == entity.height;
+		}
+
+		@Override
+		public int hashCode() {
+			return (((kind * 31 + x) * 31 + y) * 31 + width) * 31 + height;
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package bricker.paddle_controllers;
+
+import danogl.GameObject;
+
+import java.util.Random;
+
+/**
+ * A bot with slow reactions and a shaky aim. It only looks at the ball every so often and then heads
+ * for a noisy guess of where the ball currently is, so it misses regularly.
+ *
+ * @author Aron Isaacs
+ * @see PaddleController
+ */
+public class BadBotPaddleController implements PaddleController {
+	private static final float REACTION_TIME = 0.4f; // seconds between two looks at the ball
+	private static final float AIM_NOISE = 80f; // standard deviation of the aim, in pixels
+	private static final float DEAD_ZONE = 10f;
+	private final GameObject ball;
+	private final Random random;
+	private float timeSinceLastLook = REACTION_TIME;
+	private float targetX;
+
+	/**
+	 * Constructor for the BadBotPaddleController.
+	 *
+	 * @param ball   the ball the bot tries to keep in play
+	 * @param random the source of the bot's aiming noise
+	 */
+	public BadBotPaddleController(GameObject ball, Random random) {
+		this.ball = ball;
+		this.random = random;
+	}
+
+	/**
+	 * Moves the paddle towards the last noisy guess of the ball's position.
+	 *
+	 * @param paddle    the paddle being controlled
+	 * @param deltaTime the time elapsed since the last update
+	 * @return the direction of the guessed position, or 0 if the paddle is already there
+	 */
+	@Override
+	public float getMovementDirection(GameObject paddle, float deltaTime) {
+		timeSinceLastLook += deltaTime;
+		if (timeSinceLastLook >= REACTION_TIME) {
+			timeSinceLastLook = 0;
+			targetX = ball.getCenter().x() + (float) random.nextGaussian() * AIM_NOISE;
+		}
+		float offset = targetX - paddle.getCenter().x();
+		if (Math.abs(offset) < DEAD_ZONE) {
+			return 0;
+		}
+		return Math.signum(offset);
+	}
+}
@@ -0,0 +1,68 @@
+package bricker.paddle_controllers;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+/**
+ * A bot that predicts where the ball will cross the paddle's height, taking the bounces off the side
+ * walls into account, and moves the paddle there ahead of time.
+ *
+ * @author Aron Isaacs
+ * @see PaddleController
+ */
+public class GoodBotPaddleController implements PaddleController {
+	private static final float DEAD_ZONE_FRACTION = 0.25f; // of the paddle width, to avoid jittering
+	private final GameObject ball;
+	private final Vector2 windowDimensions;
+
+	/**
+	 * Constructor for the GoodBotPaddleController.
+	 *
+	 * @param ball             the ball the bot has to keep in play
+	 * @param windowDimensions the dimensions of the game window
+	 */
+	public GoodBotPaddleController(GameObject ball, Vector2 windowDimensions) {
+		this.ball = ball;
+		this.windowDimensions = windowDimensions;
+	}
+
+	/**
+	 * Moves the paddle towards the predicted landing point of the ball.
+	 *
+	 * @param paddle    the paddle being controlled
+	 * @param deltaTime the time elapsed since the last update
+	 * @return the direction of the predicted landing point, or 0 if the paddle is already there
+	 */
+	@Override
+	public float getMovementDirection(GameObject paddle, float deltaTime) {
+		float offset = predictLandingX(paddle.getCenter().y()) - paddle.getCenter().x();
+		if (Math.abs(offset) < paddle.getDimensions().x() * DEAD_ZONE_FRACTION) {
+			return 0;
+		}
+		return Math.signum(offset);
+	}
+
+	/*
+	 * Extrapolates the ball's straight path down to the given height and folds it back into the window
+	 * for every bounce off a side wall. While the ball moves upwards the bot simply shadows it.
+	 */
+	private float predictLandingX(float paddleY) {
+		Vector2 center = ball.getCenter();
+		Vector2 velocity = ball.getVelocity();
+		if (velocity.y() <= 0 || center.y() > paddleY) {
+			return center.x();
+		}
+		float timeToPaddle = (paddleY - center.y()) / velocity.y();
+		float minX = ball.getDimensions().x() / 2f;
+		float span = windowDimensions.x() - 2 * minX;
+		if (span <= 0) {
+			return center.x();
+		}
+		float period = 2 * span;
+		float x = (center.x() - minX + velocity.x() * timeToPaddle) % period;
+		if (x < 0) {
+			x += period;
+		}
+		return minX + (x > span ? period - x : x);
+	}
+}
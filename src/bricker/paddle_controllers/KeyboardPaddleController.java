@@ -0,0 +1,39 @@
+package bricker.paddle_controllers;
+
+import bricker.input.InputSnapshot;
+import danogl.GameObject;
+
+import java.util.function.Supplier;
+
+/**
+ * A paddle controller driven by the left and right arrow keys. It reads the input snapshot of the
+ * current tick rather than the keyboard, so all the paddles move the same way within a tick.
+ *
+ * @author Aron Isaacs
+ * @see PaddleController
+ */
+public class KeyboardPaddleController implements PaddleController {
+	private final Supplier<InputSnapshot> input;
+
+	/**
+	 * Constructor for the KeyboardPaddleController.
+	 *
+	 * @param input gives the input snapshot of the current tick.
+	 */
+	public KeyboardPaddleController(Supplier<InputSnapshot> input) {
+		this.input = input;
+	}
+
+	/**
+	 * Moves right while the right arrow is held and left while the left arrow is held.
+	 * Holding both keys cancels the movement.
+	 *
+	 * @param paddle    the paddle being controlled
+	 * @param deltaTime the time elapsed since the last update
+	 * @return the movement direction according to the pressed keys
+	 */
+	@Override
+	public float getMovementDirection(GameObject paddle, float deltaTime) {
+		return input.get().getHorizontalDirection();
+	}
+}
@@ -0,0 +1,22 @@
+package bricker.paddle_controllers;
+
+import danogl.GameObject;
+
+/**
+ * An interface defining who steers a paddle. A paddle asks its controller every frame in which
+ * horizontal direction it should move, which allows the keyboard to be replaced by a bot.
+ *
+ * @author Aron Isaacs
+ * @see bricker.gameobjects.Paddle
+ */
+public interface PaddleController {
+
+	/**
+	 * Decides the horizontal movement of the paddle for the current frame.
+	 *
+	 * @param paddle    the paddle being controlled
+	 * @param deltaTime the time elapsed since the last update
+	 * @return -1 to move left, 1 to move right, 0 to stand still (values in between scale the speed)
+	 */
+	float getMovementDirection(GameObject paddle, float deltaTime);
+}
@@ -0,0 +1,47 @@
+package bricker.paddle_controllers;
+
+import bricker.input.InputSnapshot;
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * A factory class for creating paddle controllers. The paddles of one game share a keyboard, remote or
+ * replay controller, so the sub paddle follows the same player as the main paddle, while every paddle
+ * gets a bot of its own (see PaddleControllerType.isShared).
+ *
+ * @author Aron Isaacs
+ * @see PaddleControllerType
+ */
+public class PaddleControllerFactory {
+
+	/**
+	 * Constructs a PaddleControllerFactory.
+	 */
+	public PaddleControllerFactory() {
+	}
+
+	/**
+	 * Builds the paddle controller of the given type.
+	 *
+	 * @param type             the kind of controller to build
+	 * @param input            gives the input snapshot of the current tick, only used by the keyboard
+	 *                         controller
+	 * @param ball             the main ball, which the bots try to keep in play
+	 * @param windowDimensions the dimensions of the game window
+	 * @param random           the source of randomness for the bots
+	 * @return a PaddleController instance.
+	 */
+	public PaddleController buildPaddleController(PaddleControllerType type, Supplier<InputSnapshot> input,
+												  GameObject ball, Vector2 windowDimensions, Random random) {
+		return switch (type) {
+			case KEYBOARD -> new KeyboardPaddleController(input);
+			case GOOD_BOT -> new GoodBotPaddleController(ball, windowDimensions);
+			case BAD_BOT -> new BadBotPaddleController(ball, random);
+			case REMOTE -> new RemotePaddleController();
+			case REPLAY -> new ReplayPaddleController();
+		};
+	}
+}
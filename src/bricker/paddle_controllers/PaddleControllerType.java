@@ -0,0 +1,41 @@
+package bricker.paddle_controllers;
+
+/**
+ * The kinds of paddle controllers the game can be played with.
+ *
+ * @author Aron Isaacs
+ * @see PaddleControllerFactory
+ */
+public enum PaddleControllerType {
+	/**
+	 * The player steers the paddles with the arrow keys.
+	 */
+	KEYBOARD,
+	/**
+	 * A bot that predicts where the ball lands and waits for it there.
+	 */
+	GOOD_BOT,
+	/**
+	 * A bot that chases the ball late and with a shaky aim.
+	 */
+	BAD_BOT,
+	/**
+	 * A remote client steers the paddles, see bricker.network.
+	 */
+	REMOTE,
+	/**
+	 * A recorded session steers the paddles, see bricker.replay.
+	 */
+	REPLAY;
+
+	/**
+	 * Checks whether one controller of this type steers all the paddles of a game. The bots keep state
+	 * from one call to the next (e.g. the reaction time of the bad bot), so every paddle gets a bot of
+	 * its own; the other controllers follow a single player, or a single recording, for all the paddles.
+	 *
+	 * @return true if the paddles share one controller
+	 */
+	public boolean isShared() {
+		return this != GOOD_BOT && this != BAD_BOT;
+	}
+}
@@ -0,0 +1,41 @@
+package bricker.paddle_controllers;
+
+import danogl.GameObject;
+
+/**
+ * A paddle controller fed by a remote client. The server stores the latest direction the client
+ * sent, and the paddles keep moving that way until a new input arrives.
+ *
+ * @author Ron Stein
+ * @see PaddleController
+ */
+public class RemotePaddleController implements PaddleController {
+	private float direction;
+
+	/**
+	 * Constructs a RemotePaddleController standing still.
+	 */
+	public RemotePaddleController() {
+	}
+
+	/**
+	 * Sets the direction received from the client.
+	 *
+	 * @param direction -1 to move left, 1 to move right, 0 to stand still
+	 */
+	public void setDirection(float direction) {
+		this.direction = direction;
+	}
+
+	/**
+	 * Returns the last direction received from the client.
+	 *
+	 * @param paddle    the paddle being controlled
+	 * @param deltaTime the time elapsed since the last update
+	 * @return the last received direction
+	 */
+	@Override
+	public float getMovementDirection(GameObject paddle, float deltaTime) {
+		return direction;
+	}
+}
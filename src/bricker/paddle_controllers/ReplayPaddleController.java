@@ -0,0 +1,46 @@
+package bricker.paddle_controllers;
+
+import danogl.GameObject;
+
+/**
+ * A paddle controller fed by a recorded session. Before every tick the replay player hands it the
+ * directions recorded for that tick, which it returns in the order they were recorded.
+ *
+ * @author Ron Stein
+ * @see PaddleController
+ */
+public class ReplayPaddleController implements PaddleController {
+	private float[] directions = new float[0];
+	private int numDirections;
+	private int next;
+
+	/**
+	 * Constructs a ReplayPaddleController with no directions.
+	 */
+	public ReplayPaddleController() {
+	}
+
+	/**
+	 * Sets the directions recorded for the next tick.
+	 *
+	 * @param directions    the recorded directions, in the order they were asked for
+	 * @param numDirections the number of directions to use from the array
+	 */
+	public void setDirections(float[] directions, int numDirections) {
+		this.directions = directions;
+		this.numDirections = numDirections;
+		this.next = 0;
+	}
+
+	/**
+	 * Returns the next recorded direction of the tick, or 0 if the tick has no more.
+	 *
+	 * @param paddle    the paddle being controlled
+	 * @param deltaTime the time elapsed since the last update
+	 * @return the next recorded direction
+	 */
+	@Override
+	public float getMovementDirection(GameObject paddle, float deltaTime) {
+		return next < numDirections ? directions[next++] : 0;
+	}
+}
@@ -0,0 +1,93 @@
+package bricker.power_ups;
+
+/**
+ * The timed power-ups a brick can hold. The paddle power-ups change the width of every paddle in play,
+ * the ball power-ups change the ball that broke the brick, and every effect wears off after its
+ * duration. Power-ups are identified by their ordinal in gameplay events and snapshots, so new ones go
+ * at the end.
+ *
+ * @author Ron Stein
+ * @see PowerUpEffects
+ * @see bricker.brick_strategies.PowerUpCollisionStrategy
+ */
+public enum PowerUp {
+	/**
+	 * Makes the paddles wider.
+	 */
+	WIDEN("buffWiden", "assets/buffWiden.png", true, 600),
+	/**
+	 * Makes the paddles narrower.
+	 */
+	NARROW("buffNarrow", "assets/buffNarrow.png", true, 600),
+	/**
+	 * Slows the ball down.
+	 */
+	SLOW("slow", "assets/slow.png", false, 300),
+	/**
+	 * Speeds the ball up.
+	 */
+	QUICKEN("quicken", "assets/quicken.png", false, 300),
+	/**
+	 * Pulls the ball down, so it falls faster than it rises.
+	 */
+	GRAVITY("gravity", "assets/gravity.png", false, 300);
+
+	private static final PowerUp[] POWER_UPS = values();
+	private final String strategyName;
+	private final String imagePath;
+	private final boolean onPaddles;
+	private final int duration;
+
+	PowerUp(String strategyName, String imagePath, boolean onPaddles, int duration) {
+		this.strategyName = strategyName;
+		this.imagePath = imagePath;
+		this.onPaddles = onPaddles;
+		this.duration = duration;
+	}
+
+	/**
+	 * Gets a power-up by its ordinal, without copying the values.
+	 *
+	 * @param ordinal the ordinal of the power-up
+	 * @return the power-up
+	 */
+	public static PowerUp of(int ordinal) {
+		return POWER_UPS[ordinal];
+	}
+
+	/**
+	 * Gets the name the strategy holding this power-up is registered with, to configure its weight.
+	 *
+	 * @return the name of the strategy
+	 */
+	public String getStrategyName() {
+		return strategyName;
+	}
+
+	/**
+	 * Gets the path of the icon shown while the power-up is active.
+	 *
+	 * @return the path of the image
+	 */
+	public String getImagePath() {
+		return imagePath;
+	}
+
+	/**
+	 * Checks whether the power-up changes the paddles, or else the ball.
+	 *
+	 * @return true for the paddle power-ups
+	 */
+	public boolean isOnPaddles() {
+		return onPaddles;
+	}
+
+	/**
+	 * Gets how long the effect of the power-up lasts.
+	 *
+	 * @return the duration, in frames
+	 */
+	public int getDuration() {
+		return duration;
+	}
+}
@@ -0,0 +1,185 @@
+package bricker.power_ups;
+
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.Paddle;
+import bricker.timing.TimedTask;
+import bricker.timing.TimingWheel;
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The timed effects of the power-ups of one game. An effect changes a paddle or a ball as soon as it
+ * is applied, and undoes the change when it wears off. Effects wear off on a TimingWheel ticked once
+ * per frame, so a frame costs the same however many effects are active, and the paddles and balls do
+ * not count down themselves. Effects on the same object add up, and wear off one by one.
+ * The icon of a power-up is shown at the bottom of the window as long as one of its effects is active.
+ *
+ * @author Ron Stein
+ * @see PowerUp
+ * @see TimingWheel
+ */
+public class PowerUpEffects {
+	private static final float WIDEN_FACTOR = 1.5f;
+	private static final float NARROW_FACTOR = 2 / 3f;
+	private static final float SLOW_FACTOR = 0.5f;
+	private static final float QUICKEN_FACTOR = 1.5f;
+	private static final float GRAVITY = 300f;
+	private static final Vector2 ICON_SIZE = new Vector2(30, 30);
+	private static final float ICON_SPACING = 35f;
+	private final TimingWheel wheel = new TimingWheel();
+	private final List<Effect> effects = new ArrayList<>();
+	private final int[] activeEffects = new int[PowerUp.values().length];
+	private final GameObject[] icons = new GameObject[PowerUp.values().length];
+	private final GameObjectCollection gameObjects;
+
+	/**
+	 * Constructor for PowerUpEffects.
+	 *
+	 * @param gameObjects      the objects of the game, where the icons are shown
+	 * @param icons            the icon of every power-up, by ordinal (null entries when headless)
+	 * @param windowDimensions the dimensions of the game window
+	 */
+	public PowerUpEffects(GameObjectCollection gameObjects, Renderable[] icons, Vector2 windowDimensions) {
+		this.gameObjects = gameObjects;
+		float left = (windowDimensions.x() - ICON_SPACING * this.icons.length) / 2f;
+		for (int i = 0; i < this.icons.length; i++) {
+			float x = left + i * ICON_SPACING;
+			this.icons[i] = new GameObject(new Vector2(x, windowDimensions.y() - ICON_SIZE.y()), ICON_SIZE,
+					icons[i]);
+		}
+	}
+
+	/**
+	 * Applies the effect of a power-up to a paddle or a ball, for the given number of frames.
+	 *
+	 * @param powerUp  the power-up
+	 * @param target   a paddle for the paddle power-ups, a ball for the others
+	 * @param duration the number of frames until the effect wears off
+	 */
+	public void apply(PowerUp powerUp, GameObject target, int duration) {
+		Effect effect = new Effect(powerUp, target);
+		change(powerUp, target, false);
+		effect.index = effects.size();
+		effects.add(effect);
+		wheel.schedule(effect, duration);
+		if (activeEffects[powerUp.ordinal()]++ == 0) {
+			gameObjects.addGameObject(icons[powerUp.ordinal()], Layer.UI);
+		}
+	}
+
+	/**
+	 * Moves to the next frame, and undoes the effects wearing off in it.
+	 */
+	public void tick() {
+		wheel.advance();
+	}
+
+	/**
+	 * Undoes every active effect at once, e.g. before the game is brought back to an earlier state.
+	 */
+	public void clear() {
+		while (!effects.isEmpty()) {
+			Effect effect = effects.get(effects.size() - 1);
+			wheel.cancel(effect);
+			wearOff(effect);
+		}
+	}
+
+	/**
+	 * Gets the number of active effects.
+	 *
+	 * @return the number of effects that did not wear off yet
+	 */
+	public int getNumEffects() {
+		return effects.size();
+	}
+
+	/**
+	 * Gets the power-up of an active effect.
+	 *
+	 * @param effect the index of the effect, below getNumEffects
+	 * @return the power-up
+	 */
+	public PowerUp getPowerUp(int effect) {
+		return effects.get(effect).powerUp;
+	}
+
+	/**
+	 * Gets the paddle or ball an active effect changed.
+	 *
+	 * @param effect the index of the effect, below getNumEffects
+	 * @return the paddle or the ball
+	 */
+	public GameObject getTarget(int effect) {
+		return effects.get(effect).target;
+	}
+
+	/**
+	 * Gets the number of frames until an active effect wears off.
+	 *
+	 * @param effect the index of the effect, below getNumEffects
+	 * @return the number of frames left, at least 1
+	 */
+	public int getFramesLeft(int effect) {
+		return (int) wheel.getTicksLeft(effects.get(effect));
+	}
+
+	/*
+	 * Changes the paddle or ball as the power-up does, or undoes the change.
+	 */
+	private static void change(PowerUp powerUp, GameObject target, boolean undo) {
+		switch (powerUp) {
+			case WIDEN -> ((Paddle) target).scaleWidth(undo ? 1 / WIDEN_FACTOR : WIDEN_FACTOR);
+			case NARROW -> ((Paddle) target).scaleWidth(undo ? 1 / NARROW_FACTOR : NARROW_FACTOR);
+			case SLOW -> ((Ball) target).scaleTime(undo ? 1 / SLOW_FACTOR : SLOW_FACTOR);
+			case QUICKEN -> ((Ball) target).scaleTime(undo ? 1 / QUICKEN_FACTOR : QUICKEN_FACTOR);
+			case GRAVITY -> ((Ball) target).addGravity(undo ? -GRAVITY : GRAVITY);
+		}
+	}
+
+	/*
+	 * Undoes an effect that is no longer scheduled, and forgets it. The last effect takes its index.
+	 */
+	private void wearOff(Effect effect) {
+		change(effect.powerUp, effect.target, true);
+		Effect last = effects.remove(effects.size() - 1);
+		if (last != effect) {
+			last.index = effect.index;
+			effects.set(effect.index, last);
+		}
+		if (--activeEffects[effect.powerUp.ordinal()] == 0) {
+			gameObjects.removeGameObject(icons[effect.powerUp.ordinal()], Layer.UI);
+		}
+	}
+
+	/*
+	 * An active effect, which wears off when it expires.
+	 */
+	private final class Effect extends TimedTask {
+		private final PowerUp powerUp;
+		private final GameObject target;
+		private int index; // in the active effects
+
+		/*
+		 * Constructs an effect of a power-up on a paddle or ball.
+		 */
+		private Effect(PowerUp powerUp, GameObject target) {
+			this.powerUp = powerUp;
+			this.target = target;
+		}
+
+		/*
+		 * Wears the effect off.
+		 */
+		@Override
+		protected void expire() {
+			wearOff(this);
+		}
+	}
+}
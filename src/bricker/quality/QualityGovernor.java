@@ -0,0 +1,137 @@
+package bricker.quality;
+
+import bricker.flight_recorder.QualityChangeEvent;
+
+import java.util.function.Consumer;
+
+/**
+ * Keeps the frame time of a windowed game within a budget by stepping through the quality ladder.
+ * Frame times (from the start of one update to the start of the next, so drawing is included) are
+ * averaged over windows of WINDOW_FRAMES frames. A window over budget steps one rung down. Headroom
+ * cannot be seen directly, since the engine sleeps to hold its frame rate, so after enough windows on
+ * budget the governor probes one rung up; if that window goes over budget, it steps back down and waits
+ * twice as long before probing again.
+ * Every step is printed, and so is its effect, the average frame time of the window after it, which is
+ * also reported to Java Flight Recorder.
+ *
+ * @author Ron Stein
+ * @see QualityLevel
+ */
+public class QualityGovernor {
+	/**
+	 * The system property setting the frame budget in milliseconds. The default is a 60 FPS budget.
+	 */
+	public static final String FRAME_BUDGET_PROPERTY = "bricker.frameBudgetMs";
+	private static final double DEFAULT_FRAME_BUDGET_MILLIS = 1000.0 / 60;
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+	private static final int WINDOW_FRAMES = 60;
+	private static final double OVER_BUDGET = 1.1; // frame time jitters a little around the budget
+	private static final double ON_BUDGET = 1.02;
+	private static final int INITIAL_WINDOWS_BEFORE_PROBE = 5;
+	private static final int MAX_WINDOWS_BEFORE_PROBE = 60;
+	private static final QualityLevel[] LEVELS = QualityLevel.values();
+	private final long frameBudgetNanos;
+	private final Consumer<QualityLevel> onChange;
+	private QualityLevel level = QualityLevel.FULL;
+	private int windowFrames;
+	private long windowNanos;
+	private int windowsOnBudget;
+	private int windowsBeforeProbe = INITIAL_WINDOWS_BEFORE_PROBE;
+	private QualityLevel stepFrom; // the level of the last step, while its effect is measured
+	private long stepFromNanos;
+	private boolean probing;
+
+	/**
+	 * Constructs a QualityGovernor at full quality.
+	 *
+	 * @param frameBudgetNanos the longest a frame should take
+	 * @param onChange         called with the new level after every step
+	 */
+	public QualityGovernor(long frameBudgetNanos, Consumer<QualityLevel> onChange) {
+		this.frameBudgetNanos = frameBudgetNanos;
+		this.onChange = onChange;
+	}
+
+	/**
+	 * Creates a governor with the budget of the FRAME_BUDGET_PROPERTY system property.
+	 *
+	 * @param onChange called with the new level after every step
+	 * @return the governor
+	 */
+	public static QualityGovernor fromSystemProperty(Consumer<QualityLevel> onChange) {
+		String budget = System.getProperty(FRAME_BUDGET_PROPERTY);
+		double budgetMillis = budget == null ? DEFAULT_FRAME_BUDGET_MILLIS : Double.parseDouble(budget);
+		return new QualityGovernor((long) (budgetMillis * NANOS_PER_MILLI), onChange);
+	}
+
+	/**
+	 * Records the time of one frame, and steps when a window is complete.
+	 *
+	 * @param frameNanos the time from the start of the last frame to the start of this one
+	 */
+	public void recordFrame(long frameNanos) {
+		windowNanos += frameNanos;
+		if (++windowFrames < WINDOW_FRAMES) {
+			return;
+		}
+		long averageNanos = windowNanos / windowFrames;
+		windowFrames = 0;
+		windowNanos = 0;
+		if (stepFrom != null) {
+			reportEffect(averageNanos);
+		}
+		if (averageNanos > frameBudgetNanos * OVER_BUDGET) {
+			windowsOnBudget = 0;
+			if (probing) {
+				windowsBeforeProbe = Math.min(windowsBeforeProbe * 2, MAX_WINDOWS_BEFORE_PROBE);
+			}
+			probing = false;
+			if (level.ordinal() < LEVELS.length - 1) {
+				step(LEVELS[level.ordinal() + 1], averageNanos);
+			}
+		} else if (averageNanos <= frameBudgetNanos * ON_BUDGET) {
+			if (probing) {
+				probing = false;
+				windowsBeforeProbe = INITIAL_WINDOWS_BEFORE_PROBE;
+			}
+			if (++windowsOnBudget >= windowsBeforeProbe && level != QualityLevel.FULL) {
+				windowsOnBudget = 0;
+				probing = true;
+				step(LEVELS[level.ordinal() - 1], averageNanos);
+			}
+		} else {
+			windowsOnBudget = 0;
+		}
+	}
+
+	/**
+	 * Gets the current level.
+	 *
+	 * @return the current quality level
+	 */
+	public QualityLevel getLevel() {
+		return level;
+	}
+
+	/*
+	 * Steps to a level, prints the step and remembers it until its effect is measured.
+	 */
+	private void step(QualityLevel to, long averageNanos) {
+		System.out.printf("quality %s -> %s (frame %.1fms, budget %.1fms)%n", level, to,
+				averageNanos / NANOS_PER_MILLI, frameBudgetNanos / NANOS_PER_MILLI);
+		stepFrom = level;
+		stepFromNanos = averageNanos;
+		level = to;
+		onChange.accept(to);
+	}
+
+	/*
+	 * Prints and reports the frame time of the first window after the last step.
+	 */
+	private void reportEffect(long averageNanos) {
+		System.out.printf("quality %s -> %s took frame %.1fms -> %.1fms%n", stepFrom, level,
+				stepFromNanos / NANOS_PER_MILLI, averageNanos / NANOS_PER_MILLI);
+		new QualityChangeEvent(stepFrom.name(), level.name(), stepFromNanos, averageNanos).commit();
+		stepFrom = null;
+	}
+}
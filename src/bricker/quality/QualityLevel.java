@@ -0,0 +1,42 @@
+package bricker.quality;
+
+/**
+ * The rungs of the quality ladder, from full quality down. Every rung keeps the savings of the rungs
+ * above it and adds its own. Only presentation is ever degraded: the game plays out exactly the same at
+ * every level, so replays, rewinds and seeds are not affected.
+ *
+ * @author Ron Stein
+ * @see QualityGovernor
+ */
+public enum QualityLevel {
+	/**
+	 * Everything on.
+	 */
+	FULL,
+	/**
+	 * At most one collision sound per frame, however many balls bounce.
+	 */
+	FEWER_SOUNDS,
+	/**
+	 * A quarter of the debris particles are emitted when bricks break.
+	 */
+	FEWER_PARTICLES,
+	/**
+	 * The numeric lives counter is not drawn; the hearts still show the lives.
+	 */
+	PLAIN_HUD,
+	/**
+	 * The cached static layer (background, borders and bricks) is drawn at half resolution.
+	 */
+	LOW_RES_BACKGROUND;
+
+	/**
+	 * Checks whether this level is at or below another on the ladder.
+	 *
+	 * @param other the other level
+	 * @return true if this level saves at least what the other level saves
+	 */
+	public boolean isAtOrBelow(QualityLevel other) {
+		return ordinal() >= other.ordinal();
+	}
+}
@@ -0,0 +1,298 @@
+package bricker.rendering;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * The debris of destroyed bricks, kept out of the game object collection. Particles are plain entries of
+ * preallocated arrays (position, velocity, lifetime and color), updated in one loop per frame, and live
+ * particles are always packed at the front, so a dead particle is replaced by the last live one.
+ * They are drawn in one pass: every particle is written straight into the pixels of an off-screen image,
+ * and only the tiles of the image holding particles are cleared and drawn, since drawing a translucent
+ * image costs more than all the particles in it.
+ * Particles are decoration only. They draw from their own random generator, never from the game's, so
+ * they do not change how a game plays out, and a particle system of capacity 0 (headless) does nothing.
+ * Every update publishes the positions and colors of the particles through a TripleBuffer, and a render
+ * draws the newest published particles, so the particles can be drawn on another thread than the one
+ * updating them (see RenderPipeline).
+ *
+ * @author Ron Stein
+ * @see danogl.gui.rendering.Renderable
+ */
+public class ParticleSystem implements Renderable {
+	private static final float GRAVITY = 600f;
+	private static final float MIN_LIFETIME = 0.4f;
+	private static final float MAX_LIFETIME = 1.0f;
+	private static final int PARTICLE_SIZE = 2; // in pixels
+	private static final int ALPHA_SHIFT = 24;
+	private static final int RGB_MASK = 0xFFFFFF;
+	private static final int MAX_ALPHA = 255;
+	private static final int TILE_SHIFT = 5; // tiles of 32 by 32 pixels
+	private static final int TILE_SIZE = 1 << TILE_SHIFT;
+	private final int width;
+	private final int height;
+	private final int tileColumns;
+	private final int tileRows;
+	private final float[] x;
+	private final float[] y;
+	private final float[] velocityX;
+	private final float[] velocityY;
+	private final float[] lifetime; // seconds left
+	private final float[] fullLifetime;
+	private final int[] rgb;
+	private final SplittableRandom random = new SplittableRandom();
+	private final TripleBuffer<Frame> frames;
+	private int size;
+	private float emissionScale = 1;
+	private BufferedImage image;
+	private int[] pixels;
+	private boolean[] drawnTiles; // the tiles drawn by the last render, cleared before the next one
+	private boolean[] tiles;
+	private boolean anyTileDrawn;
+
+	/**
+	 * Constructs an empty ParticleSystem.
+	 *
+	 * @param capacity         the most particles alive at once; more are not emitted
+	 * @param windowDimensions the dimensions of the window, where particles are drawn
+	 */
+	public ParticleSystem(int capacity, Vector2 windowDimensions) {
+		this.width = (int) Math.ceil(windowDimensions.x());
+		this.height = (int) Math.ceil(windowDimensions.y());
+		this.tileColumns = (width + TILE_SIZE - 1) >> TILE_SHIFT;
+		this.tileRows = (height + TILE_SIZE - 1) >> TILE_SHIFT;
+		x = new float[capacity];
+		y = new float[capacity];
+		velocityX = new float[capacity];
+		velocityY = new float[capacity];
+		lifetime = new float[capacity];
+		fullLifetime = new float[capacity];
+		rgb = new int[capacity];
+		frames = new TripleBuffer<>(() -> new Frame(capacity));
+	}
+
+	/**
+	 * Emits particles from random points of an area, flying away from its center.
+	 *
+	 * @param topLeftCorner the top-left corner of the area
+	 * @param dimensions    the dimensions of the area
+	 * @param count         the number of particles at full quality, scaled by the emission scale
+	 * @param color         the color of the particles
+	 * @param speed         the greatest initial speed of a particle
+	 */
+	public void emit(Vector2 topLeftCorner, Vector2 dimensions, int count, Color color, float speed) {
+		int scaledCount = Math.min((int) (count * emissionScale), x.length - size);
+		float centerX = topLeftCorner.x() + dimensions.x() / 2;
+		float centerY = topLeftCorner.y() + dimensions.y() / 2;
+		for (int i = 0; i < scaledCount; i++) {
+			float particleX = topLeftCorner.x() + (float) random.nextDouble() * dimensions.x();
+			float particleY = topLeftCorner.y() + (float) random.nextDouble() * dimensions.y();
+			double angle = Math.atan2(particleY - centerY, particleX - centerX)
+					+ (random.nextDouble() - 0.5);
+			float particleSpeed = speed * (float) random.nextDouble();
+			x[size] = particleX;
+			y[size] = particleY;
+			velocityX[size] = (float) Math.cos(angle) * particleSpeed;
+			velocityY[size] = (float) Math.sin(angle) * particleSpeed;
+			lifetime[size] = MIN_LIFETIME + (float) random.nextDouble() * (MAX_LIFETIME - MIN_LIFETIME);
+			fullLifetime[size] = lifetime[size];
+			rgb[size] = color.getRGB() & RGB_MASK;
+			size++;
+		}
+	}
+
+	/**
+	 * Moves every particle, and removes the particles whose lifetime ran out or that left the window.
+	 *
+	 * @param deltaTime the time elapsed since the last update
+	 */
+	public void update(float deltaTime) {
+		int i = 0;
+		while (i < size) {
+			float left = lifetime[i] - deltaTime;
+			float newX = x[i] + velocityX[i] * deltaTime;
+			float newY = y[i] + velocityY[i] * deltaTime;
+			if (left <= 0 || newX < 0 || newX >= width || newY < 0 || newY >= height) {
+				size--;
+				x[i] = x[size];
+				y[i] = y[size];
+				velocityX[i] = velocityX[size];
+				velocityY[i] = velocityY[size];
+				lifetime[i] = lifetime[size];
+				fullLifetime[i] = fullLifetime[size];
+				rgb[i] = rgb[size];
+				continue; // the particle moved here is updated next
+			}
+			lifetime[i] = left;
+			x[i] = newX;
+			y[i] = newY;
+			velocityY[i] += GRAVITY * deltaTime;
+			i++;
+		}
+		publish();
+	}
+
+	/**
+	 * Sets the share of the particles that are actually emitted, to lower the cost of particles.
+	 *
+	 * @param emissionScale between 0 (no particles) and 1 (all particles)
+	 */
+	public void setEmissionScale(float emissionScale) {
+		this.emissionScale = emissionScale;
+	}
+
+	/**
+	 * Removes every particle, when a new game starts.
+	 */
+	public void clear() {
+		size = 0;
+		publish();
+	}
+
+	/**
+	 * Gets the number of live particles.
+	 *
+	 * @return the number of live particles
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Draws the particles of the newest update, fading out with their lifetime, in one image draw.
+	 *
+	 * @param g                       the graphics to draw on
+	 * @param topLeftCorner           ignored, particles are drawn where they are in the window
+	 * @param dimensions              ignored, particles are drawn at their size
+	 * @param degreesCounterClockwise ignored, particles are never rotated
+	 * @param isFlippedHorizontally   ignored, particles are never flipped
+	 * @param isFlippedVertically     ignored, particles are never flipped
+	 * @param opaqueness              ignored, particles fade with their lifetime
+	 */
+	@Override
+	public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
+					   double degreesCounterClockwise, boolean isFlippedHorizontally,
+					   boolean isFlippedVertically, double opaqueness) {
+		frames.take();
+		Frame frame = frames.getFront();
+		if (frame.size == 0 && !anyTileDrawn) {
+			return;
+		}
+		if (image == null) {
+			image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+			pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+			drawnTiles = new boolean[tileColumns * tileRows];
+			tiles = new boolean[tileColumns * tileRows];
+		}
+		clearDrawnTiles();
+		for (int i = 0; i < frame.size; i++) {
+			int pixelX = Math.min((int) frame.x[i], width - PARTICLE_SIZE);
+			int pixelY = Math.min((int) frame.y[i], height - PARTICLE_SIZE);
+			int argb = frame.argb[i];
+			for (int dy = 0; dy < PARTICLE_SIZE; dy++) {
+				int offset = (pixelY + dy) * width + pixelX;
+				for (int dx = 0; dx < PARTICLE_SIZE; dx++) {
+					pixels[offset + dx] = argb;
+				}
+			}
+			// a particle may reach into the next tile, which is marked too
+			int tileRow = pixelY >> TILE_SHIFT;
+			int tileColumn = pixelX >> TILE_SHIFT;
+			int lastTileRow = (pixelY + PARTICLE_SIZE - 1) >> TILE_SHIFT;
+			int lastTileColumn = (pixelX + PARTICLE_SIZE - 1) >> TILE_SHIFT;
+			tiles[tileRow * tileColumns + tileColumn] = true;
+			tiles[tileRow * tileColumns + lastTileColumn] = true;
+			tiles[lastTileRow * tileColumns + tileColumn] = true;
+			tiles[lastTileRow * tileColumns + lastTileColumn] = true;
+		}
+		drawTiles(g);
+		boolean[] swap = drawnTiles;
+		drawnTiles = tiles;
+		tiles = swap;
+		anyTileDrawn = frame.size > 0;
+	}
+
+	/*
+	 * Publishes the positions and colors of the live particles, faded by their lifetime, for rendering.
+	 */
+	private void publish() {
+		Frame frame = frames.getBack();
+		for (int i = 0; i < size; i++) {
+			frame.x[i] = x[i];
+			frame.y[i] = y[i];
+			int alpha = (int) (MAX_ALPHA * lifetime[i] / fullLifetime[i]);
+			frame.argb[i] = (alpha << ALPHA_SHIFT) | rgb[i];
+		}
+		frame.size = size;
+		frames.publish();
+	}
+
+	/*
+	 * Clears the pixels of the tiles drawn by the last render.
+	 */
+	private void clearDrawnTiles() {
+		for (int tile = 0; tile < drawnTiles.length; tile++) {
+			if (!drawnTiles[tile]) {
+				continue;
+			}
+			drawnTiles[tile] = false;
+			int left = (tile % tileColumns) << TILE_SHIFT;
+			int top = (tile / tileColumns) << TILE_SHIFT;
+			int right = Math.min(left + TILE_SIZE, width);
+			int bottom = Math.min(top + TILE_SIZE, height);
+			for (int row = top; row < bottom; row++) {
+				Arrays.fill(pixels, row * width + left, row * width + right, 0);
+			}
+		}
+	}
+
+	/*
+	 * Draws the marked tiles of the image, a run of neighboring tiles in a row at a time.
+	 */
+	private void drawTiles(Graphics2D g) {
+		for (int tileRow = 0; tileRow < tileRows; tileRow++) {
+			int top = tileRow << TILE_SHIFT;
+			int bottom = Math.min(top + TILE_SIZE, height);
+			int tileColumn = 0;
+			while (tileColumn < tileColumns) {
+				if (!tiles[tileRow * tileColumns + tileColumn]) {
+					tileColumn++;
+					continue;
+				}
+				int runStart = tileColumn;
+				while (tileColumn < tileColumns && tiles[tileRow * tileColumns + tileColumn]) {
+					tileColumn++;
+				}
+				int left = runStart << TILE_SHIFT;
+				int right = Math.min(tileColumn << TILE_SHIFT, width);
+				g.drawImage(image, left, top, right, bottom, left, top, right, bottom, null);
+			}
+		}
+	}
+
+	/*
+	 * The particles as published by one update: where they are and the color they are drawn in.
+	 */
+	private static final class Frame {
+		private final float[] x;
+		private final float[] y;
+		private final int[] argb;
+		private int size;
+
+		/*
+		 * Constructs an empty frame holding up to capacity particles.
+		 */
+		private Frame(int capacity) {
+			x = new float[capacity];
+			y = new float[capacity];
+			argb = new int[capacity];
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package bricker.rendering;
+
+import danogl.collisions.GameObjectCollection;
+import danogl.util.Vector2;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Draws the game on a render thread of its own, so drawing a frame overlaps simulating the next one.
+ * At the end of every update the game captures a RenderSnapshot of its objects and hands it to the render
+ * thread through a TripleBuffer. The render thread draws the newest snapshot into an off-screen frame,
+ * and hands the finished frame back through another TripleBuffer, so when the engine renders it only
+ * draws the newest finished frame, one image. Neither side ever waits for the other: a snapshot the
+ * render thread had no time for is replaced by the next, and a slow frame is shown until a newer one is
+ * finished. The frame shown lags the game by about a frame.
+ * The renderables of the game must tolerate being drawn while the game runs: the static layer and the
+ * particles publish their changes for the render thread, and the other renderables of the game are
+ * immutable, but for the text of the lives counter, which is only ever replaced whole.
+ * Objects are drawn unrotated, unflipped and opaque, as every object of the game is.
+ * A disabled pipeline does nothing, and the engine draws the game itself.
+ *
+ * @author Ron Stein
+ * @see RenderSnapshot
+ * @see TripleBuffer
+ */
+public class RenderPipeline {
+	/**
+	 * The system property turning pipelined rendering on when true.
+	 */
+	public static final String PIPELINED_RENDERING_PROPERTY = "bricker.pipelinedRendering";
+	private final TripleBuffer<RenderSnapshot> snapshots;
+	private final TripleBuffer<BufferedImage> frames;
+	private final Thread renderer;
+
+	/*
+	 * Constructs a pipeline drawing frames of the given size, or a disabled pipeline when it is null.
+	 */
+	private RenderPipeline(Vector2 windowDimensions) {
+		if (windowDimensions == null) {
+			snapshots = null;
+			frames = null;
+			renderer = null;
+			return;
+		}
+		int width = (int) Math.ceil(windowDimensions.x());
+		int height = (int) Math.ceil(windowDimensions.y());
+		snapshots = new TripleBuffer<>(RenderSnapshot::new);
+		frames = new TripleBuffer<>(() -> new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB));
+		renderer = new Thread(this::renderFrames, "bricker-renderer");
+		renderer.setDaemon(true);
+	}
+
+	/**
+	 * Creates a pipeline and starts its render thread.
+	 *
+	 * @param windowDimensions the dimensions of the window, the size of the frames
+	 * @return an enabled pipeline
+	 */
+	public static RenderPipeline start(Vector2 windowDimensions) {
+		RenderPipeline pipeline = new RenderPipeline(windowDimensions);
+		pipeline.renderer.start();
+		return pipeline;
+	}
+
+	/**
+	 * Starts a pipeline if the PIPELINED_RENDERING_PROPERTY system property is true, or returns a disabled
+	 * pipeline otherwise.
+	 *
+	 * @param windowDimensions the dimensions of the window, the size of the frames
+	 * @return the configured pipeline
+	 */
+	public static RenderPipeline fromSystemProperty(Vector2 windowDimensions) {
+		return Boolean.getBoolean(PIPELINED_RENDERING_PROPERTY) ? start(windowDimensions) : disabled();
+	}
+
+	/**
+	 * Creates a pipeline that does nothing.
+	 *
+	 * @return a disabled pipeline
+	 */
+	public static RenderPipeline disabled() {
+		return new RenderPipeline(null);
+	}
+
+	/**
+	 * Checks whether the pipeline draws the game.
+	 *
+	 * @return true if the game is drawn by the render thread
+	 */
+	public boolean isEnabled() {
+		return renderer != null;
+	}
+
+	/**
+	 * Captures the objects of the game that have a renderable and hands them to the render thread.
+	 * Called by the game at the end of every update.
+	 *
+	 * @param gameObjects the objects of the game
+	 */
+	public void capture(GameObjectCollection gameObjects) {
+		if (renderer == null) {
+			return;
+		}
+		snapshots.getBack().capture(gameObjects);
+		snapshots.publish();
+		LockSupport.unpark(renderer);
+	}
+
+	/**
+	 * Draws the newest frame finished by the render thread. Called by the engine instead of drawing the
+	 * game objects.
+	 *
+	 * @param g the graphics of the window
+	 */
+	public void draw(Graphics2D g) {
+		if (renderer == null) {
+			return;
+		}
+		frames.take();
+		g.drawImage(frames.getFront(), 0, 0, null);
+	}
+
+	/*
+	 * The render thread: draws every new snapshot into a frame and publishes the frame, and sleeps
+	 * until the next capture when there is no new snapshot.
+	 */
+	private void renderFrames() {
+		while (true) {
+			if (!snapshots.take()) {
+				LockSupport.park(this);
+				continue;
+			}
+			BufferedImage frame = frames.getBack();
+			Graphics2D g = frame.createGraphics();
+			try {
+				g.setColor(Color.BLACK);
+				g.fillRect(0, 0, frame.getWidth(), frame.getHeight());
+				snapshots.getFront().draw(g);
+			} finally {
+				g.dispose();
+			}
+			frames.publish();
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package bricker.rendering;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.Graphics2D;
+import java.util.Arrays;
+
+/**
+ * What one frame of the game looks like: the renderable of every visible object, bottom layer first,
+ * with where and how big it is drawn. A snapshot holds only references to renderables and to the
+ * (immutable) positions and dimensions of the objects, so capturing a frame copies no pixels, and
+ * everything that changes during a frame (the positions, which bricks are left, the HUD) is taken from
+ * the objects as they were when the frame was captured.
+ * Snapshots are reused from frame to frame, so a capture allocates nothing once they have grown.
+ *
+ * @author Ron Stein
+ * @see RenderPipeline
+ */
+public class RenderSnapshot {
+	private static final int INITIAL_CAPACITY = 64;
+	private static final int[] DRAWN_LAYERS = {Layer.BACKGROUND, Layer.STATIC_OBJECTS, Layer.DEFAULT,
+			Layer.FOREGROUND, Layer.UI};
+	private Renderable[] renderables = new Renderable[INITIAL_CAPACITY];
+	private Vector2[] topLeftCorners = new Vector2[INITIAL_CAPACITY];
+	private Vector2[] dimensions = new Vector2[INITIAL_CAPACITY];
+	private int size;
+
+	/**
+	 * Constructs an empty RenderSnapshot.
+	 */
+	public RenderSnapshot() {
+	}
+
+	/**
+	 * Empties the snapshot, to capture a new frame into it.
+	 */
+	public void clear() {
+		Arrays.fill(renderables, 0, size, null);
+		Arrays.fill(topLeftCorners, 0, size, null);
+		Arrays.fill(dimensions, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * Captures a new frame: every object of the collection that has a renderable, layer by layer from the
+	 * bottom one, replacing the frame held before.
+	 *
+	 * @param gameObjects the objects of the game
+	 */
+	public void capture(GameObjectCollection gameObjects) {
+		clear();
+		for (int layer : DRAWN_LAYERS) {
+			for (GameObject gameObject : gameObjects.objectsInLayer(layer)) {
+				Renderable renderable = gameObject.renderer().getRenderable();
+				if (renderable != null) {
+					add(renderable, gameObject.getTopLeftCorner(), gameObject.getDimensions());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds an object to the frame, above everything added before it.
+	 *
+	 * @param renderable    how the object looks
+	 * @param topLeftCorner where the object is
+	 * @param dimensions    how big the object is
+	 */
+	public void add(Renderable renderable, Vector2 topLeftCorner, Vector2 dimensions) {
+		if (size == renderables.length) {
+			int capacity = size * 2;
+			renderables = Arrays.copyOf(renderables, capacity);
+			topLeftCorners = Arrays.copyOf(topLeftCorners, capacity);
+			this.dimensions = Arrays.copyOf(this.dimensions, capacity);
+		}
+		renderables[size] = renderable;
+		topLeftCorners[size] = topLeftCorner;
+		this.dimensions[size] = dimensions;
+		size++;
+	}
+
+	/**
+	 * Gets the number of objects in the frame.
+	 *
+	 * @return the number of objects
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Draws the objects of the frame, in the order they were added.
+	 *
+	 * @param g the graphics to draw on
+	 */
+	public void draw(Graphics2D g) {
+		for (int i = 0; i < size; i++) {
+			renderables[i].render(g, topLeftCorners[i], dimensions[i], 0, false, false, 1);
+		}
+	}
+}
@@ -0,0 +1,304 @@
+package bricker.rendering;
+
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.AlphaComposite;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A renderable holding the static objects of the game (background, borders and bricks) baked into one
+ * off-screen image. Baked objects lose their own renderable, so the whole static field costs a single
+ * image draw per frame, whatever the number of bricks. An evicted object gets its renderable back, so it
+ * can be baked again (e.g. a brick brought back by a rewind).
+ * When a baked object leaves the game it is evicted, and only the rectangle it covered is repainted,
+ * from the objects still baked beneath and around it, the next time the cache is rendered.
+ * The image is created on the first render, so a headless game never pays for it.
+ * Evicted slots are compacted away before the cache grows, keeping the baking order, so a cache that
+ * keeps baking new objects as old ones leave (endless mode) stays the same size.
+ * The image can be kept at a lower resolution than the window, and is then scaled up when drawn.
+ * Objects are baked and evicted by the game, and the cache is rendered by whoever draws the frame, which
+ * may be another thread (see RenderPipeline): bakes and evictions are queued, and only applied to the
+ * image when it is rendered.
+ *
+ * @author Ron Stein
+ * @see danogl.gui.rendering.Renderable
+ */
+public class StaticLayerCache implements Renderable {
+	private static final int INITIAL_CAPACITY = 64;
+	private static final int MERGE_DISTANCE = 4; // a bit more than the gap between bricks
+	private final int width;
+	private final int height;
+	private final Map<GameObject, Renderable> baked = new IdentityHashMap<>(); // with their renderables
+	private final Queue<Change> changes = new ConcurrentLinkedQueue<>();
+	private final Map<GameObject, Integer> slots = new IdentityHashMap<>();
+	private final List<Rectangle> dirtyRectangles = new ArrayList<>();
+	private GameObject[] owners = new GameObject[INITIAL_CAPACITY];
+	private Renderable[] renderables = new Renderable[INITIAL_CAPACITY];
+	private Vector2[] topLeftCorners = new Vector2[INITIAL_CAPACITY];
+	private Vector2[] dimensions = new Vector2[INITIAL_CAPACITY];
+	private Rectangle[] bounds = new Rectangle[INITIAL_CAPACITY];
+	private int size;
+	private BufferedImage image;
+	private float imageResolution;
+	private volatile float resolution = 1;
+
+	/**
+	 * Constructor for the StaticLayerCache.
+	 *
+	 * @param windowDimensions the dimensions of the window, which is the area the cache covers
+	 */
+	public StaticLayerCache(Vector2 windowDimensions) {
+		this.width = (int) Math.ceil(windowDimensions.x());
+		this.height = (int) Math.ceil(windowDimensions.y());
+	}
+
+	/**
+	 * Bakes a static object into the cache, above everything baked before it. The object keeps its
+	 * place in the game (it still collides), but is no longer drawn on its own.
+	 * Objects without a renderable (e.g. when running headless) are ignored.
+	 *
+	 * @param gameObject the static object to bake
+	 */
+	public void bake(GameObject gameObject) {
+		Renderable renderable = gameObject.renderer().getRenderable();
+		if (renderable == null) {
+			return;
+		}
+		baked.put(gameObject, renderable);
+		changes.add(new Change(gameObject, renderable, gameObject.getTopLeftCorner(),
+				gameObject.getDimensions()));
+		gameObject.renderer().setRenderable(null);
+	}
+
+	/**
+	 * Evicts an object from the cache, after it has been removed from the game. The object gets back the
+	 * renderable it had when it was baked, and the area it covered is repainted on the next render.
+	 *
+	 * @param gameObject the object to evict; objects that were never baked are ignored
+	 */
+	public void evict(GameObject gameObject) {
+		Renderable renderable = baked.remove(gameObject);
+		if (renderable != null) {
+			gameObject.renderer().setRenderable(renderable);
+			changes.add(new Change(gameObject, null, null, null));
+		}
+	}
+
+	/**
+	 * Checks whether an object is baked into the cache, i.e. baked and not evicted since.
+	 *
+	 * @param gameObject the object
+	 * @return true if the object is drawn by the cache
+	 */
+	public boolean isBaked(GameObject gameObject) {
+		return baked.containsKey(gameObject);
+	}
+
+	/**
+	 * Sets the resolution of the image relative to the window. The image is made again, and repainted
+	 * in full, on the next render.
+	 *
+	 * @param resolution the resolution, 1 for one pixel of the image per pixel of the window
+	 */
+	public void setResolution(float resolution) {
+		this.resolution = resolution;
+	}
+
+	/**
+	 * Draws the cached image, first repainting the areas that changed since the last render.
+	 *
+	 * @param g                       the graphics to draw on
+	 * @param topLeftCorner           where to draw the cache
+	 * @param dimensions              the size to draw the cache in
+	 * @param degreesCounterClockwise ignored, the static layer is never rotated
+	 * @param isFlippedHorizontally   ignored, the static layer is never flipped
+	 * @param isFlippedVertically     ignored, the static layer is never flipped
+	 * @param opaqueness              ignored, the static layer is always opaque
+	 */
+	@Override
+	public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
+					   double degreesCounterClockwise, boolean isFlippedHorizontally,
+					   boolean isFlippedVertically, double opaqueness) {
+		float resolution = this.resolution;
+		if (image == null || resolution != imageResolution) {
+			image = g.getDeviceConfiguration().createCompatibleImage((int) Math.ceil(width * resolution),
+					(int) Math.ceil(height * resolution), Transparency.TRANSLUCENT);
+			imageResolution = resolution;
+			dirtyRectangles.clear();
+			dirtyRectangles.add(new Rectangle(0, 0, width, height));
+		}
+		for (Change change = changes.poll(); change != null; change = changes.poll()) {
+			if (change.renderable != null) {
+				bakeSlot(change);
+			} else {
+				evictSlot(change.owner);
+			}
+		}
+		if (!dirtyRectangles.isEmpty()) {
+			repaintDirtyRectangles();
+		}
+		g.drawImage(image, (int) topLeftCorner.x(), (int) topLeftCorner.y(),
+				(int) dimensions.x(), (int) dimensions.y(), null);
+	}
+
+	/*
+	 * Gives a baked object the next slot, and marks the area it covers to be repainted.
+	 */
+	private void bakeSlot(Change change) {
+		if (size == renderables.length) {
+			if (slots.size() <= renderables.length / 2) {
+				compact();
+			} else {
+				grow();
+			}
+		}
+		owners[size] = change.owner;
+		renderables[size] = change.renderable;
+		topLeftCorners[size] = change.topLeftCorner;
+		dimensions[size] = change.dimensions;
+		bounds[size] = boundsOf(change.topLeftCorner, change.dimensions);
+		slots.put(change.owner, size);
+		invalidate(bounds[size]);
+		size++;
+	}
+
+	/*
+	 * Frees the slot of an evicted object, and marks the area it covered to be repainted.
+	 */
+	private void evictSlot(GameObject owner) {
+		Integer slot = slots.remove(owner);
+		if (slot == null) {
+			return;
+		}
+		owners[slot] = null;
+		renderables[slot] = null;
+		invalidate(bounds[slot]);
+	}
+
+	/*
+	 * Clears every dirty rectangle of the image and redraws, clipped to it, the baked objects that
+	 * overlap it, in the order they were baked.
+	 */
+	private void repaintDirtyRectangles() {
+		Graphics2D imageGraphics = image.createGraphics();
+		imageGraphics.scale(imageResolution, imageResolution); // dirty rectangles are in window pixels
+		try {
+			for (Rectangle dirty : dirtyRectangles) {
+				imageGraphics.setClip(dirty);
+				Composite composite = imageGraphics.getComposite();
+				imageGraphics.setComposite(AlphaComposite.Clear);
+				imageGraphics.fill(dirty);
+				imageGraphics.setComposite(composite);
+				for (int slot = 0; slot < size; slot++) {
+					if (renderables[slot] != null && bounds[slot].intersects(dirty)) {
+						renderables[slot].render(imageGraphics, topLeftCorners[slot], dimensions[slot],
+								0, false, false, 1);
+					}
+				}
+			}
+		} finally {
+			imageGraphics.dispose();
+		}
+		dirtyRectangles.clear();
+	}
+
+	/*
+	 * Marks an area of the image to be repainted. Areas close to one already marked are merged with it,
+	 * so a chain of explosions or a row of new bricks is repainted as one rectangle.
+	 */
+	private void invalidate(Rectangle area) {
+		Rectangle merged = new Rectangle(area);
+		for (int i = dirtyRectangles.size() - 1; i >= 0; i--) {
+			Rectangle dirty = dirtyRectangles.get(i);
+			Rectangle reach = new Rectangle(merged);
+			reach.grow(MERGE_DISTANCE, MERGE_DISTANCE);
+			if (dirty.intersects(reach)) {
+				merged.add(dirty);
+				dirtyRectangles.remove(i);
+			}
+		}
+		dirtyRectangles.add(merged);
+	}
+
+	/*
+	 * Moves the slots still in use to the front, keeping their order, and frees the rest.
+	 */
+	private void compact() {
+		int live = 0;
+		for (int slot = 0; slot < size; slot++) {
+			if (owners[slot] == null) {
+				continue;
+			}
+			owners[live] = owners[slot];
+			renderables[live] = renderables[slot];
+			topLeftCorners[live] = topLeftCorners[slot];
+			dimensions[live] = dimensions[slot];
+			bounds[live] = bounds[slot];
+			slots.put(owners[live], live);
+			live++;
+		}
+		Arrays.fill(owners, live, size, null);
+		Arrays.fill(renderables, live, size, null);
+		Arrays.fill(topLeftCorners, live, size, null);
+		Arrays.fill(dimensions, live, size, null);
+		Arrays.fill(bounds, live, size, null);
+		size = live;
+	}
+
+	/*
+	 * Doubles the capacity of the slot arrays.
+	 */
+	private void grow() {
+		int capacity = renderables.length * 2;
+		owners = Arrays.copyOf(owners, capacity);
+		renderables = Arrays.copyOf(renderables, capacity);
+		topLeftCorners = Arrays.copyOf(topLeftCorners, capacity);
+		dimensions = Arrays.copyOf(dimensions, capacity);
+		bounds = Arrays.copyOf(bounds, capacity);
+	}
+
+	/*
+	 * The smallest pixel rectangle containing the given area, grown by a pixel on each side to cover
+	 * antialiased edges.
+	 */
+	private static Rectangle boundsOf(Vector2 topLeftCorner, Vector2 dimensions) {
+		int left = (int) Math.floor(topLeftCorner.x()) - 1;
+		int top = (int) Math.floor(topLeftCorner.y()) - 1;
+		int right = (int) Math.ceil(topLeftCorner.x() + dimensions.x()) + 1;
+		int bottom = (int) Math.ceil(topLeftCorner.y() + dimensions.y()) + 1;
+		return new Rectangle(left, top, right - left, bottom - top);
+	}
+
+	/*
+	 * A bake of an object, or its eviction when there is no renderable, waiting for the next render.
+	 */
+	private static final class Change {
+		private final GameObject owner;
+		private final Renderable renderable;
+		private final Vector2 topLeftCorner;
+		private final Vector2 dimensions;
+
+		/*
+		 * Constructs a change.
+		 */
+		private Change(GameObject owner, Renderable renderable, Vector2 topLeftCorner, Vector2 dimensions) {
+			this.owner = owner;
+			this.renderable = renderable;
+			this.topLeftCorner = topLeftCorner;
+			this.dimensions = dimensions;
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package bricker.rendering;
+
+import danogl.GameObject;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * A self-check of the StaticLayerCache, runnable without a window: an object is baked, evicted and
+ * baked again, as a brick destroyed and brought back by a rewind, and must end up baked and drawn.
+ *
+ * @author Ron Stein
+ * @see StaticLayerCache
+ */
+public class StaticLayerCacheCheck {
+	private static final Vector2 WINDOW_DIMENSIONS = new Vector2(100, 100);
+	private static final Vector2 OBJECT_CORNER = new Vector2(20, 20);
+	private static final Vector2 OBJECT_DIMENSIONS = new Vector2(30, 10);
+	private static final int OBJECT_COLOR = Color.RED.getRGB();
+
+	/**
+	 * Constructor for the StaticLayerCacheCheck.
+	 */
+	public StaticLayerCacheCheck() {
+	}
+
+	/**
+	 * Runs the check, and prints its result.
+	 *
+	 * @param args ignored
+	 * @throws IllegalStateException if the cache does not behave as documented
+	 */
+	public static void main(String[] args) {
+		Renderable renderable = (g, topLeftCorner, dimensions, degrees, flippedHorizontally,
+								 flippedVertically, opaqueness) -> {
+			g.setColor(Color.RED);
+			g.fillRect((int) topLeftCorner.x(), (int) topLeftCorner.y(), (int) dimensions.x(),
+					(int) dimensions.y());
+		};
+		GameObject gameObject = new GameObject(OBJECT_CORNER, OBJECT_DIMENSIONS, renderable);
+		StaticLayerCache cache = new StaticLayerCache(WINDOW_DIMENSIONS);
+		BufferedImage screen = new BufferedImage((int) WINDOW_DIMENSIONS.x(), (int) WINDOW_DIMENSIONS.y(),
+				BufferedImage.TYPE_INT_ARGB);
+
+		cache.bake(gameObject);
+		check(cache.isBaked(gameObject), "a baked object is baked");
+		check(gameObject.renderer().getRenderable() == null, "a baked object is not drawn on its own");
+		check(render(cache, screen) == OBJECT_COLOR, "a baked object is drawn by the cache");
+
+		cache.evict(gameObject);
+		check(!cache.isBaked(gameObject), "an evicted object is not baked");
+		check(gameObject.renderer().getRenderable() == renderable,
+				"an evicted object gets its renderable back");
+		check(render(cache, screen) != OBJECT_COLOR, "an evicted object is no longer drawn by the cache");
+
+		cache.bake(gameObject);
+		check(cache.isBaked(gameObject), "an object baked again is baked");
+		check(gameObject.renderer().getRenderable() == null, "an object baked again is not drawn on its own");
+		check(render(cache, screen) == OBJECT_COLOR, "an object baked again is drawn by the cache");
+
+		cache.evict(gameObject);
+		cache.bake(gameObject);
+		check(render(cache, screen) == OBJECT_COLOR, "an object evicted and baked between renders is drawn");
+		System.out.println("StaticLayerCache: ok");
+	}
+
+	/*
+	 * Renders the cache on a cleared screen, and returns the color of the pixel at the object's center.
+	 */
+	private static int render(StaticLayerCache cache, BufferedImage screen) {
+		Graphics2D g = screen.createGraphics();
+		try {
+			g.setBackground(new Color(0, 0, 0, 0));
+			g.clearRect(0, 0, screen.getWidth(), screen.getHeight());
+			cache.render(g, Vector2.ZERO, WINDOW_DIMENSIONS, 0, false, false, 1);
+		} finally {
+			g.dispose();
+		}
+		Vector2 center = OBJECT_CORNER.add(OBJECT_DIMENSIONS.mult(0.5f));
+		return screen.getRGB((int) center.x(), (int) center.y());
+	}
+
+	/*
+	 * Throws if a property of the cache does not hold.
+	 */
+	private static void check(boolean holds, String property) {
+		if (!holds) {
+			throw new IllegalStateException("StaticLayerCache: " + property + " does not hold");
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package bricker.rendering;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands values from one producer thread to one consumer thread without locks or waiting. Of its three
+ * buffers, the producer owns one (the back), the consumer owns one (the front), and the third sits in the
+ * middle. Publishing swaps the back with the middle, and the consumer takes the middle in exchange for
+ * its front only if something was published since its last take, so each side always has a buffer of its
+ * own to work on, the consumer always gets the newest published value, and values the consumer was too
+ * slow to take are simply replaced.
+ * Both swaps are a single atomic exchange of the middle index, tagged with whether it is fresh.
+ *
+ * @param <T> the type of the buffers
+ * @author Ron Stein
+ * @see RenderPipeline
+ */
+public class TripleBuffer<T> {
+	private static final int FRESH = 1 << 2;
+	private static final int INDEX_MASK = FRESH - 1;
+	private final T[] buffers;
+	private final AtomicInteger middle = new AtomicInteger(1);
+	private int back;
+	private int front = 2;
+
+	/**
+	 * Constructs a TripleBuffer with three buffers made by the factory.
+	 *
+	 * @param factory makes one buffer per call
+	 */
+	@SuppressWarnings("unchecked")
+	public TripleBuffer(Supplier<T> factory) {
+		buffers = (T[]) new Object[]{factory.get(), factory.get(), factory.get()};
+	}
+
+	/**
+	 * Gets the buffer the producer fills. Called by the producer.
+	 *
+	 * @return the back buffer
+	 */
+	public T getBack() {
+		return buffers[back];
+	}
+
+	/**
+	 * Publishes the back buffer, and gives the producer a new back buffer. Called by the producer.
+	 */
+	public void publish() {
+		back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+	}
+
+	/**
+	 * Takes the newest published buffer as the front buffer, if one was published since the last take.
+	 * Called by the consumer.
+	 *
+	 * @return true if the front buffer changed
+	 */
+	public boolean take() {
+		if ((middle.get() & FRESH) == 0) {
+			return false;
+		}
+		front = middle.getAndSet(front) & INDEX_MASK;
+		return true;
+	}
+
+	/**
+	 * Gets the buffer the consumer reads. Called by the consumer.
+	 *
+	 * @return the front buffer
+	 */
+	public T getFront() {
+		return buffers[front];
+	}
+}
@@ -0,0 +1,186 @@
+package bricker.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Records a session for exact replay: the delta time and the paddle inputs of every tick, and keyframes
+ * of the full game state. Randomness needs no recording of its own, since every random draw of a game
+ * comes from the game's seed, and the seed (with the state of the random generator) is part of every
+ * keyframe.
+ * Ticks take one or two bytes when the delta time does not change and the paddles are steered by the
+ * keyboard (see ReplayFormat), so a recording can run for hours. A disabled recorder ignores everything.
+ *
+ * @author Ron Stein
+ * @see ReplayFormat
+ * @see ReplayPlayer
+ */
+public class InputRecorder {
+	/**
+	 * The system property naming the file to record to. Recording is disabled when it is not set.
+	 */
+	public static final String REPLAY_FILE_PROPERTY = "bricker.replay";
+	private final OutputStream out;
+	private final ByteArrayOutputStream tickInputs = new ByteArrayOutputStream();
+	private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+	private int numInputs;
+	private float deltaTime = Float.NaN; // the first tick always writes its delta time
+	private boolean deltaTimeChanged;
+	private boolean closed;
+
+	/*
+	 * Constructs a recorder writing to the given stream, or a disabled recorder when it is null.
+	 */
+	private InputRecorder(OutputStream out) {
+		this.out = out;
+	}
+
+	/**
+	 * Creates (or truncates) the file and starts recording to it.
+	 *
+	 * @param path the replay file
+	 * @return the recorder
+	 * @throws IOException if the file cannot be written
+	 */
+	public static InputRecorder open(Path path) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+		out.writeInt(ReplayFormat.MAGIC);
+		out.writeByte(ReplayFormat.VERSION);
+		return new InputRecorder(out);
+	}
+
+	/**
+	 * Opens the recording named by the REPLAY_FILE_PROPERTY system property, or returns a disabled
+	 * recorder if the property is not set. The recording is closed (and flushed) when the JVM shuts down.
+	 *
+	 * @return the configured recorder
+	 */
+	public static InputRecorder fromSystemProperty() {
+		String path = System.getProperty(REPLAY_FILE_PROPERTY);
+		if (path == null) {
+			return disabled();
+		}
+		try {
+			InputRecorder recorder = open(Path.of(path));
+			Runtime.getRuntime().addShutdownHook(new Thread(recorder::close));
+			return recorder;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Creates a recorder that records nothing.
+	 *
+	 * @return a disabled recorder
+	 */
+	public static InputRecorder disabled() {
+		return new InputRecorder(null);
+	}
+
+	/**
+	 * Checks whether anything is recorded, so callers can skip building keyframes.
+	 *
+	 * @return true if the recorder writes to a file
+	 */
+	public boolean isEnabled() {
+		return out != null;
+	}
+
+	/**
+	 * Starts recording a tick.
+	 *
+	 * @param deltaTime the delta time the tick is updated with
+	 */
+	public void beginTick(float deltaTime) {
+		if (out == null) {
+			return;
+		}
+		deltaTimeChanged = Float.floatToRawIntBits(deltaTime) != Float.floatToRawIntBits(this.deltaTime);
+		this.deltaTime = deltaTime;
+		tickInputs.reset();
+		numInputs = 0;
+	}
+
+	/**
+	 * Records a direction returned by the paddle controller during the current tick.
+	 *
+	 * @param direction the direction
+	 */
+	public void recordDirection(float direction) {
+		if (out == null) {
+			return;
+		}
+		ReplayFormat.writeDirection(tickInputs, direction);
+		numInputs++;
+	}
+
+	/**
+	 * Ends the current tick and writes it.
+	 */
+	public void endTick() {
+		if (out == null) {
+			return;
+		}
+		record.reset();
+		ReplayFormat.writeVarInt(record, ((numInputs << 1) | (deltaTimeChanged ? 1 : 0)) + 1);
+		if (deltaTimeChanged) {
+			ReplayFormat.writeVarInt(record, Float.floatToRawIntBits(deltaTime));
+		}
+		record.write(tickInputs.toByteArray(), 0, tickInputs.size());
+		write(record);
+	}
+
+	/**
+	 * Writes a keyframe. Keyframes stand for the state between two ticks, so they must not be written
+	 * between beginTick and endTick.
+	 *
+	 * @param keyframe the full state of the game
+	 */
+	public void writeKeyframe(byte[] keyframe) {
+		if (out == null) {
+			return;
+		}
+		record.reset();
+		ReplayFormat.writeVarInt(record, ReplayFormat.KEYFRAME);
+		ReplayFormat.writeVarInt(record, keyframe.length);
+		record.writeBytes(keyframe);
+		write(record);
+		deltaTime = Float.NaN; // a player may start here, so the next tick writes its delta time again
+	}
+
+	/**
+	 * Flushes and closes the recording.
+	 */
+	public synchronized void close() {
+		if (out == null || closed) {
+			return;
+		}
+		closed = true;
+		try {
+			out.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/*
+	 * Writes a finished record to the file.
+	 */
+	private synchronized void write(ByteArrayOutputStream finishedRecord) {
+		if (closed) {
+			return; // the JVM is shutting down
+		}
+		try {
+			finishedRecord.writeTo(out);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package bricker.replay;
+
+import bricker.paddle_controllers.PaddleController;
+import danogl.GameObject;
+
+/**
+ * A paddle controller that passes on the directions of another controller and records each of them.
+ *
+ * @author Ron Stein
+ * @see InputRecorder
+ */
+public class RecordingPaddleController implements PaddleController {
+	private final PaddleController controller;
+	private final InputRecorder recorder;
+
+	/**
+	 * Constructs a RecordingPaddleController.
+	 *
+	 * @param controller the controller actually steering the paddles
+	 * @param recorder   where the directions are recorded
+	 */
+	public RecordingPaddleController(PaddleController controller, InputRecorder recorder) {
+		this.controller = controller;
+		this.recorder = recorder;
+	}
+
+	/**
+	 * Asks the wrapped controller for a direction and records it.
+	 *
+	 * @param paddle    the paddle being controlled
+	 * @param deltaTime the time elapsed since the last update
+	 * @return the direction of the wrapped controller
+	 */
+	@Override
+	public float getMovementDirection(GameObject paddle, float deltaTime) {
+		float direction = controller.getMovementDirection(paddle, deltaTime);
+		recorder.recordDirection(direction);
+		return direction;
+	}
+}
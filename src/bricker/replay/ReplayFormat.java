@@ -0,0 +1,130 @@
+package bricker.replay;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * The format of a replay file, and the variable length integers it is written with.
+ * <pre>
+ * file:     magic "BRKR", byte version, then records until the end of the file
+ * record:   varint header
+ *           header 0: a keyframe, varint length, then the state (see BrickerGameManager#captureKeyframe)
+ *           header h &gt; 0: a tick, with (h - 1) = (number of paddle inputs &lt;&lt; 1) | delta time changed
+ *                   if the delta time changed: varint raw float bits of the new delta time
+ *                   then one varint input code per paddle input
+ * input:    0 = left (-1), 1 = none (0), 2 = right (1), 3 = any other value, followed by its raw float bits
+ * varint:   7 bits per byte, least significant first, high bit set on all but the last byte
+ * </pre>
+ * A keyframe describes the state after all the ticks before it, so a player can restore it and carry
+ * on from the next tick.
+ *
+ * @author Ron Stein
+ * @see InputRecorder
+ * @see ReplayPlayer
+ */
+public class ReplayFormat {
+	/**
+	 * The first four bytes of a replay file: "BRKR".
+	 */
+	public static final int MAGIC = 0x42524B52;
+	/**
+	 * The version of the format.
+	 */
+	public static final byte VERSION = 3;
+	/**
+	 * The header of a keyframe record.
+	 */
+	public static final int KEYFRAME = 0;
+	/**
+	 * The input code of a paddle moving left.
+	 */
+	public static final int LEFT = 0;
+	/**
+	 * The input code of a paddle standing still.
+	 */
+	public static final int NONE = 1;
+	/**
+	 * The input code of a paddle moving right.
+	 */
+	public static final int RIGHT = 2;
+	/**
+	 * The input code of any other direction, whose raw float bits follow.
+	 */
+	public static final int OTHER = 3;
+	private static final int VARINT_PAYLOAD_BITS = 7;
+	private static final int VARINT_PAYLOAD_MASK = 0x7F;
+	private static final int VARINT_CONTINUATION = 0x80;
+
+	/**
+	 * Constructs a ReplayFormat. All its methods are static.
+	 */
+	public ReplayFormat() {
+	}
+
+	/**
+	 * Writes an int as a varint. Negative values take five bytes.
+	 *
+	 * @param out   where to write
+	 * @param value the value to write
+	 */
+	public static void writeVarInt(ByteArrayOutputStream out, int value) {
+		while ((value & ~VARINT_PAYLOAD_MASK) != 0) {
+			out.write((value & VARINT_PAYLOAD_MASK) | VARINT_CONTINUATION);
+			value >>>= VARINT_PAYLOAD_BITS;
+		}
+		out.write(value);
+	}
+
+	/**
+	 * Reads a varint.
+	 *
+	 * @param in where to read from
+	 * @return the value read
+	 */
+	public static int readVarInt(ByteBuffer in) {
+		int value = 0;
+		int shift = 0;
+		int b;
+		do {
+			b = in.get();
+			value |= (b & VARINT_PAYLOAD_MASK) << shift;
+			shift += VARINT_PAYLOAD_BITS;
+		} while ((b & VARINT_CONTINUATION) != 0);
+		return value;
+	}
+
+	/**
+	 * Writes a paddle input as an input code, followed by its bits when it is not -1, 0 or 1.
+	 *
+	 * @param out       where to write
+	 * @param direction the direction a paddle controller returned
+	 */
+	public static void writeDirection(ByteArrayOutputStream out, float direction) {
+		if (direction == -1f) {
+			out.write(LEFT);
+		} else if (direction == 1f) {
+			out.write(RIGHT);
+		} else if (Float.floatToRawIntBits(direction) == 0) { // 0, but not -0
+			out.write(NONE);
+		} else {
+			out.write(OTHER);
+			writeVarInt(out, Float.floatToRawIntBits(direction));
+		}
+	}
+
+	/**
+	 * Reads a paddle input.
+	 *
+	 * @param in where to read from
+	 * @return the direction
+	 */
+	public static float readDirection(ByteBuffer in) {
+		int code = readVarInt(in);
+		return switch (code) {
+			case LEFT -> -1f;
+			case NONE -> 0f;
+			case RIGHT -> 1f;
+			default -> Float.intBitsToFloat(readVarInt(in));
+		};
+	}
+}
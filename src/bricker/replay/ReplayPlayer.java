@@ -0,0 +1,203 @@
+package bricker.replay;
+
+import bricker.main.BrickerGameManager;
+import bricker.paddle_controllers.ReplayPaddleController;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plays a recorded session back, headless and as fast as the machine allows. The recording is read into
+ * memory and indexed once by its keyframes, so seeking to any tick restores the last keyframe before it
+ * and steps forward from there, instead of replaying the whole session.
+ * A keyframe in the middle of the recording is only restored when the replayed game cannot reach it on
+ * its own: when there is no game yet, when the session is over, or when the recorded game was replaced
+ * by a game of another seed (a new game after a win or a loss, for example). Otherwise the replayed game
+ * is already in the state of the keyframe, and the keyframe is skipped.
+ *
+ * @author Ron Stein
+ * @see InputRecorder
+ * @see ReplayFormat
+ */
+public class ReplayPlayer {
+	private final ByteBuffer recording;
+	private final int firstRecord;
+	private final List<int[]> keyframes = new ArrayList<>(); // {ticks before it, offset of its record}
+	private int endOfRecords;
+	private float[] directions = new float[2];
+	private float deltaTime;
+	private BrickerGameManager game;
+	private int tick;
+
+	/**
+	 * Replays a recording, optionally seeking to a tick first, and prints the speed and the final state.
+	 *
+	 * @param args command-line arguments: replayFile [seekTick]
+	 * @throws IOException if the recording cannot be read
+	 */
+	public static void main(String[] args) throws IOException {
+		ReplayPlayer player = ReplayPlayer.open(Path.of(args[0]));
+		if (args.length >= 2) {
+			player.seek(Integer.parseInt(args[1]));
+		}
+		int firstTick = player.getTick();
+		long start = System.nanoTime();
+		while (player.step()) {
+			// replay as fast as possible
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		BrickerGameManager game = player.getGame();
+		System.out.printf("%d ticks replayed, %.1f ticks/s%n", player.getTick() - firstTick,
+				(player.getTick() - firstTick) / seconds);
+		if (game != null) {
+			System.out.println("seed=" + game.getSeed() + " frame=" + game.getFrame()
+					+ " sessionOver=" + game.isSessionOver());
+		}
+	}
+
+	/*
+	 * Constructs a player of a recording whose header was checked, positioned before the first record.
+	 */
+	private ReplayPlayer(ByteBuffer recording) {
+		this.recording = recording;
+		this.firstRecord = recording.position();
+		indexKeyframes();
+	}
+
+	/**
+	 * Reads a recording and indexes its keyframes.
+	 *
+	 * @param path the replay file
+	 * @return a player positioned before the first tick
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if the file is not a replay of this version
+	 */
+	public static ReplayPlayer open(Path path) throws IOException {
+		ByteBuffer recording = ByteBuffer.wrap(Files.readAllBytes(path));
+		if (recording.remaining() < Integer.BYTES + 1 || recording.getInt() != ReplayFormat.MAGIC) {
+			throw new IllegalArgumentException(path + " is not a replay file");
+		}
+		byte version = recording.get();
+		if (version != ReplayFormat.VERSION) {
+			throw new IllegalArgumentException("unsupported replay version " + version);
+		}
+		return new ReplayPlayer(recording);
+	}
+
+	/**
+	 * Moves to a tick: the game is restored from the last keyframe before the tick, and played forward
+	 * to it.
+	 *
+	 * @param targetTick the number of ticks to have been replayed
+	 */
+	public void seek(int targetTick) {
+		int[] start = null;
+		for (int[] keyframe : keyframes) {
+			if (keyframe[0] > targetTick) {
+				break;
+			}
+			start = keyframe;
+		}
+		if (game == null || tick > targetTick || (start != null && tick < start[0])) {
+			game = null;
+			tick = start == null ? 0 : start[0];
+			recording.position(start == null ? firstRecord : start[1]);
+		}
+		while (tick < targetTick && step()) {
+			// play forward
+		}
+	}
+
+	/**
+	 * Replays the next record: a tick is played, and a keyframe is restored if the game needs it.
+	 *
+	 * @return false at the end of the recording
+	 */
+	public boolean step() {
+		if (recording.position() >= endOfRecords) {
+			return false;
+		}
+		int header = ReplayFormat.readVarInt(recording);
+		if (header == ReplayFormat.KEYFRAME) {
+			byte[] keyframe = new byte[ReplayFormat.readVarInt(recording)];
+			recording.get(keyframe);
+			if (game == null || game.isSessionOver()
+					|| BrickerGameManager.readKeyframeSeed(keyframe) != game.getSeed()) {
+				game = BrickerGameManager.restoreKeyframe(keyframe);
+			}
+			return true;
+		}
+		int numInputs = (header - 1) >>> 1;
+		if (((header - 1) & 1) != 0) {
+			deltaTime = Float.intBitsToFloat(ReplayFormat.readVarInt(recording));
+		}
+		if (directions.length < numInputs) {
+			directions = new float[Math.max(numInputs, directions.length * 2)];
+		}
+		for (int i = 0; i < numInputs; i++) {
+			directions[i] = ReplayFormat.readDirection(recording);
+		}
+		if (game == null) {
+			throw new IllegalStateException("tick " + tick + " comes before any keyframe");
+		}
+		((ReplayPaddleController) game.getPaddleController()).setDirections(directions, numInputs);
+		game.update(deltaTime);
+		tick++;
+		return true;
+	}
+
+	/**
+	 * Gets the number of ticks replayed so far.
+	 *
+	 * @return the current tick
+	 */
+	public int getTick() {
+		return tick;
+	}
+
+	/**
+	 * Gets the replayed game.
+	 *
+	 * @return the game, or null before the first keyframe
+	 */
+	public BrickerGameManager getGame() {
+		return game;
+	}
+
+	/*
+	 * Scans the records once, noting where every keyframe is and how many ticks come before it.
+	 * A recording cut short (by a crash, for example) ends at its last complete record.
+	 */
+	private void indexKeyframes() {
+		int ticks = 0;
+		endOfRecords = recording.position();
+		try {
+			while (recording.hasRemaining()) {
+				int offset = recording.position();
+				int header = ReplayFormat.readVarInt(recording);
+				if (header == ReplayFormat.KEYFRAME) {
+					int length = ReplayFormat.readVarInt(recording);
+					recording.position(recording.position() + length); // past the limit throws too
+					keyframes.add(new int[]{ticks, offset});
+				} else {
+					if (((header - 1) & 1) != 0) {
+						ReplayFormat.readVarInt(recording);
+					}
+					for (int i = (header - 1) >>> 1; i > 0; i--) {
+						ReplayFormat.readDirection(recording);
+					}
+					ticks++;
+				}
+				endOfRecords = recording.position();
+			}
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			// the last record is incomplete
+		}
+		recording.position(firstRecord);
+	}
+}
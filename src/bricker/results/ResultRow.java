@@ -0,0 +1,71 @@
+package bricker.results;
+
+/**
+ * The values of one row of a results file, filled column by column and then appended to a writer.
+ * A row can be reused for the next game once it has been appended.
+ *
+ * @author Aron Isaacs
+ * @see ResultsWriter#append(ResultRow)
+ */
+public class ResultRow {
+	private static final ResultsColumn[] COLUMNS = ResultsColumn.values();
+	private final int[] numbers = new int[COLUMNS.length];
+	private final String[] texts = new String[COLUMNS.length];
+
+	/**
+	 * Constructs a ResultRow with every integer column 0 and every text column empty.
+	 */
+	public ResultRow() {
+		for (ResultsColumn column : COLUMNS) {
+			if (column.isText()) {
+				texts[column.ordinal()] = "";
+			}
+		}
+	}
+
+	/**
+	 * Sets the value of an integer column.
+	 *
+	 * @param column the column, which must not be a text column
+	 * @param value  the value
+	 */
+	public void set(ResultsColumn column, int value) {
+		if (column.isText()) {
+			throw new IllegalArgumentException(column.getColumnName() + " is a text column");
+		}
+		numbers[column.ordinal()] = value;
+	}
+
+	/**
+	 * Sets the value of a text column.
+	 *
+	 * @param column the column, which must be a text column
+	 * @param value  the value
+	 */
+	public void set(ResultsColumn column, String value) {
+		if (!column.isText()) {
+			throw new IllegalArgumentException(column.getColumnName() + " is an integer column");
+		}
+		texts[column.ordinal()] = value;
+	}
+
+	/**
+	 * Gets the value of an integer column.
+	 *
+	 * @param column the column
+	 * @return the value
+	 */
+	public int getNumber(ResultsColumn column) {
+		return numbers[column.ordinal()];
+	}
+
+	/**
+	 * Gets the value of a text column.
+	 *
+	 * @param column the column
+	 * @return the value
+	 */
+	public String getText(ResultsColumn column) {
+		return texts[column.ordinal()];
+	}
+}
@@ -0,0 +1,137 @@
+package bricker.results;
+
+import bricker.gameplay_events.GameplayEventType;
+
+/**
+ * The columns of a results file, one row per game. The board, the players and the strategy mix say what
+ * was played, the outcome and the counters of the game state say how it ended, and the event columns
+ * count the gameplay events of the game (the strategies triggered, the lives lost and gained).
+ * The outcome is one of WON, LOST and UNFINISHED.
+ *
+ * @author Aron Isaacs
+ * @see ResultsWriter
+ * @see ResultsQuery
+ */
+public enum ResultsColumn {
+	/**
+	 * The number of bricks per row of the board.
+	 */
+	BRICKS_PER_ROW("bricksPerRow", false, null),
+	/**
+	 * The number of rows of the board.
+	 */
+	ROWS("rows", false, null),
+	/**
+	 * Who controlled the paddles, the name of a paddle controller type.
+	 */
+	CONTROLLER("controller", true, null),
+	/**
+	 * The strategy weights of the run, as configured, or "default".
+	 */
+	STRATEGY_MIX("strategyMix", true, null),
+	/**
+	 * How the game ended.
+	 */
+	OUTCOME("outcome", true, null),
+	/**
+	 * The number of frames the game lasted.
+	 */
+	FRAMES("frames", false, null),
+	/**
+	 * The final score.
+	 */
+	SCORE("score", false, null),
+	/**
+	 * The lives left at the end.
+	 */
+	LIVES_LEFT("livesLeft", false, null),
+	/**
+	 * The bricks left at the end.
+	 */
+	BRICKS_LEFT("bricksLeft", false, null),
+	/**
+	 * The number of bricks destroyed.
+	 */
+	BRICKS_DESTROYED("bricksDestroyed", false, GameplayEventType.BRICK_DESTROYED),
+	/**
+	 * The number of exploding strategies triggered.
+	 */
+	EXPLOSIONS("explosions", false, GameplayEventType.EXPLOSION_TRIGGERED),
+	/**
+	 * The number of extra puck strategies triggered.
+	 */
+	PUCKS_SPAWNED("pucksSpawned", false, GameplayEventType.PUCKS_SPAWNED),
+	/**
+	 * The number of extra life strategies triggered.
+	 */
+	HEARTS_SPAWNED("heartsSpawned", false, GameplayEventType.HEART_SPAWNED),
+	/**
+	 * The number of extra paddle strategies triggered.
+	 */
+	SUB_PADDLES_SPAWNED("subPaddlesSpawned", false, GameplayEventType.SUB_PADDLE_SPAWNED),
+	/**
+	 * The number of lives lost.
+	 */
+	LIVES_LOST("livesLost", false, GameplayEventType.LIFE_LOST),
+	/**
+	 * The number of lives gained.
+	 */
+	LIVES_GAINED("livesGained", false, GameplayEventType.LIFE_GAINED),
+	/**
+	 * The number of paddle hits.
+	 */
+	PADDLE_HITS("paddleHits", false, GameplayEventType.PADDLE_HIT),
+	/**
+	 * The number of hearts caught.
+	 */
+	HEARTS_CAUGHT("heartsCaught", false, GameplayEventType.HEART_CAUGHT);
+
+	/**
+	 * The outcome of a game that was won.
+	 */
+	public static final String WON = "won";
+	/**
+	 * The outcome of a game that was lost.
+	 */
+	public static final String LOST = "lost";
+	/**
+	 * The outcome of a game stopped before it was won or lost.
+	 */
+	public static final String UNFINISHED = "unfinished";
+	private final String columnName;
+	private final boolean text;
+	private final GameplayEventType countedEvent;
+
+	ResultsColumn(String columnName, boolean text, GameplayEventType countedEvent) {
+		this.columnName = columnName;
+		this.text = text;
+		this.countedEvent = countedEvent;
+	}
+
+	/**
+	 * Gets the name of the column in the file, and in queries.
+	 *
+	 * @return the column name
+	 */
+	public String getColumnName() {
+		return columnName;
+	}
+
+	/**
+	 * Checks whether the column holds text rather than integers.
+	 *
+	 * @return true for a text column
+	 */
+	public boolean isText() {
+		return text;
+	}
+
+	/**
+	 * Gets the kind of gameplay event the column counts.
+	 *
+	 * @return the counted event type, or null if the column is not an event count
+	 */
+	public GameplayEventType getCountedEvent() {
+		return countedEvent;
+	}
+}
@@ -0,0 +1,161 @@
+package bricker.results;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The format of a results file, and the column encodings it is written with.
+ * <pre>
+ * file:      magic "BRKC", int version, int number of columns, then per column: text name, byte type
+ *            (0 integer, 1 text), then row groups until the end of the file
+ * row group: int number of rows, then per column: int length in bytes, then the column chunk
+ * integers:  byte encoding
+ *            CONSTANT: int value, shared by every row
+ *            PACKED:   int minimum, byte bit width, then the values minus the minimum, bit width bits
+ *                      each, packed into longs from the least significant bit
+ * texts:     int dictionary size, the texts of the dictionary, then the dictionary codes as integers
+ * text:      int length, then UTF-8 bytes
+ * </pre>
+ * Every column chunk carries its length, so a reader skips the columns it does not need without
+ * decoding them.
+ *
+ * @author Aron Isaacs
+ * @see ResultsWriter
+ * @see ResultsQuery
+ */
+public class ResultsFormat {
+	/**
+	 * The first four bytes of a results file: "BRKC".
+	 */
+	public static final int MAGIC = 0x42524B43;
+	/**
+	 * The version of the format.
+	 */
+	public static final int VERSION = 1;
+	/**
+	 * The type of an integer column.
+	 */
+	public static final byte INTEGER = 0;
+	/**
+	 * The type of a text column.
+	 */
+	public static final byte TEXT = 1;
+	/**
+	 * The encoding of an integer chunk whose rows all hold the same value.
+	 */
+	public static final byte CONSTANT = 0;
+	/**
+	 * The encoding of an integer chunk packed with a frame of reference.
+	 */
+	public static final byte PACKED = 1;
+	private static final int BITS_PER_WORD = Long.SIZE;
+	private static final int WORD_SHIFT = 6;
+
+	/**
+	 * Constructs a ResultsFormat. All its methods are static.
+	 */
+	public ResultsFormat() {
+	}
+
+	/**
+	 * Writes integers with the smallest encoding that holds them.
+	 *
+	 * @param values   the values
+	 * @param numRows  the number of values to write, from the first
+	 * @param out      where to write
+	 * @throws IOException if writing fails
+	 */
+	public static void writeIntegers(int[] values, int numRows, DataOutputStream out) throws IOException {
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE;
+		for (int i = 0; i < numRows; i++) {
+			min = Math.min(min, values[i]);
+			max = Math.max(max, values[i]);
+		}
+		if (min == max) {
+			out.writeByte(CONSTANT);
+			out.writeInt(min);
+			return;
+		}
+		int bitWidth = BITS_PER_WORD - Long.numberOfLeadingZeros((long) max - min);
+		long[] words = new long[(int) (((long) numRows * bitWidth + BITS_PER_WORD - 1) >>> WORD_SHIFT)];
+		for (int i = 0; i < numRows; i++) {
+			long value = (long) values[i] - min;
+			long bit = (long) i * bitWidth;
+			int word = (int) (bit >>> WORD_SHIFT);
+			int shift = (int) (bit & (BITS_PER_WORD - 1));
+			words[word] |= value << shift;
+			if (shift + bitWidth > BITS_PER_WORD) {
+				words[word + 1] |= value >>> (BITS_PER_WORD - shift);
+			}
+		}
+		out.writeByte(PACKED);
+		out.writeInt(min);
+		out.writeByte(bitWidth);
+		for (long word : words) {
+			out.writeLong(word);
+		}
+	}
+
+	/**
+	 * Reads integers written by writeIntegers, leaving the buffer after them.
+	 *
+	 * @param in      where to read from
+	 * @param numRows the number of values
+	 * @param into    where to put the values, at least numRows long
+	 */
+	public static void readIntegers(ByteBuffer in, int numRows, int[] into) {
+		byte encoding = in.get();
+		int min = in.getInt();
+		if (encoding == CONSTANT) {
+			for (int i = 0; i < numRows; i++) {
+				into[i] = min;
+			}
+			return;
+		}
+		if (encoding != PACKED) {
+			throw new IllegalArgumentException("unknown encoding " + encoding);
+		}
+		int bitWidth = in.get();
+		long mask = (1L << bitWidth) - 1;
+		int start = in.position();
+		for (int i = 0; i < numRows; i++) {
+			long bit = (long) i * bitWidth;
+			int word = start + (int) (bit >>> WORD_SHIFT) * Long.BYTES;
+			int shift = (int) (bit & (BITS_PER_WORD - 1));
+			long value = in.getLong(word) >>> shift;
+			if (shift + bitWidth > BITS_PER_WORD) {
+				value |= in.getLong(word + Long.BYTES) << (BITS_PER_WORD - shift);
+			}
+			into[i] = (int) (min + (value & mask));
+		}
+		in.position(start + (int) (((long) numRows * bitWidth + BITS_PER_WORD - 1) >>> WORD_SHIFT) * Long.BYTES);
+	}
+
+	/**
+	 * Writes a text as its length and UTF-8 bytes.
+	 *
+	 * @param text the text
+	 * @param out  where to write
+	 * @throws IOException if writing fails
+	 */
+	public static void writeText(String text, DataOutputStream out) throws IOException {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Reads a text written by writeText, leaving the buffer after it.
+	 *
+	 * @param in where to read from
+	 * @return the text
+	 */
+	public static String readText(ByteBuffer in) {
+		byte[] bytes = new byte[in.getInt()];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,299 @@
+package bricker.results;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Slices a results file: groups the games by some columns (e.g. the board and the strategy mix) and
+ * reports, for every group, the number of games, the win rate and the average of some integer columns
+ * (e.g. frames, pucks spawned and lives lost).
+ * The file is memory-mapped and scanned one row group at a time. Only the columns the query needs are
+ * decoded, into reused arrays, and the rows of a group are matched to the result groups through the
+ * dictionary codes and value ranges of the row group, so a scan does no per-row allocation or hashing.
+ * <pre>
+ * usage: ResultsQuery file [groupBy[,groupBy...] [metric[,metric...]]]
+ * e.g.   ResultsQuery results.bin strategyMix,bricksPerRow frames,pucksSpawned,livesLost
+ * </pre>
+ *
+ * @author Aron Isaacs
+ * @see ResultsWriter
+ * @see ResultsColumn
+ */
+public class ResultsQuery {
+	private static final String DEFAULT_METRICS = "frames,pucksSpawned,livesLost";
+	private static final int MAX_GROUPS_PER_ROW_GROUP = 1 << 20;
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+	private final ByteBuffer buffer;
+	private final String[] columnNames;
+	private final byte[] columnTypes;
+	private final int dataStart;
+
+	/*
+	 * Constructs a query over a mapped results file, reading its header.
+	 */
+	private ResultsQuery(ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		if (buffer.getInt() != ResultsFormat.MAGIC || buffer.getInt() != ResultsFormat.VERSION) {
+			throw new IOException("not a results file of version " + ResultsFormat.VERSION);
+		}
+		int numColumns = buffer.getInt();
+		columnNames = new String[numColumns];
+		columnTypes = new byte[numColumns];
+		for (int i = 0; i < numColumns; i++) {
+			columnNames[i] = ResultsFormat.readText(buffer);
+			columnTypes[i] = buffer.get();
+		}
+		dataStart = buffer.position();
+	}
+
+	/**
+	 * Runs a query and prints a line per group, followed by the number of games scanned and the time
+	 * the scan took.
+	 *
+	 * @param args command-line arguments: file [groupBy[,groupBy...] [metric[,metric...]]]
+	 * @throws IOException if the file cannot be read
+	 */
+	public static void main(String[] args) throws IOException {
+		ResultsQuery query = open(Path.of(args[0]));
+		List<String> groupBy = args.length >= 2 ? List.of(args[1].split(",")) : List.of();
+		List<String> metrics = List.of((args.length >= 3 ? args[2] : DEFAULT_METRICS).split(","));
+		long start = System.nanoTime();
+		List<Group> groups = query.aggregate(groupBy, metrics);
+		double millis = (System.nanoTime() - start) / NANOS_PER_MILLI;
+		long games = 0;
+		for (Group group : groups) {
+			StringBuilder line = new StringBuilder(group.getKey());
+			line.append(String.format(" games=%d winRate=%.3f", group.getGames(), group.getWinRate()));
+			for (int i = 0; i < metrics.size(); i++) {
+				line.append(String.format(" %s=%.2f", metrics.get(i), group.getAverage(i)));
+			}
+			System.out.println(line.toString().trim());
+			games += group.getGames();
+		}
+		System.out.printf("%d games scanned in %.1fms%n", games, millis);
+	}
+
+	/**
+	 * Opens a results file for querying.
+	 *
+	 * @param path the results file
+	 * @return the query
+	 * @throws IOException if the file cannot be read, or is not a results file
+	 */
+	public static ResultsQuery open(Path path) throws IOException {
+		try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+			return new ResultsQuery(buffer);
+		}
+	}
+
+	/**
+	 * Groups the games by the given columns and aggregates every group.
+	 *
+	 * @param groupBy the names of the columns to group by, none for a single group of all games
+	 * @param metrics the names of the integer columns to average
+	 * @return the groups, in the order they were first met
+	 * @throws IllegalArgumentException if a column does not exist, a metric is not an integer column,
+	 *                                  or the groups of a row group are too many to index
+	 */
+	public List<Group> aggregate(List<String> groupBy, List<String> metrics) {
+		int[] groupColumns = groupBy.stream().mapToInt(this::columnIndex).toArray();
+		int[] metricColumns = metrics.stream().mapToInt(this::columnIndex).toArray();
+		for (int column : metricColumns) {
+			if (columnTypes[column] != ResultsFormat.INTEGER) {
+				throw new IllegalArgumentException(columnNames[column] + " is not an integer column");
+			}
+		}
+		int outcomeColumn = columnIndex(ResultsColumn.OUTCOME.getColumnName());
+		int[][] values = new int[columnNames.length][];
+		String[][] dictionaries = new String[columnNames.length][];
+		boolean[] needed = new boolean[columnNames.length];
+		needed[outcomeColumn] = true;
+		for (int column : groupColumns) {
+			needed[column] = true;
+		}
+		for (int column : metricColumns) {
+			needed[column] = true;
+		}
+		List<Group> groups = new ArrayList<>();
+		Map<String, Group> groupsByKey = new HashMap<>();
+		ByteBuffer in = buffer.duplicate().position(dataStart);
+		while (in.remaining() >= Integer.BYTES) {
+			int numRows = in.getInt();
+			for (int column = 0; column < columnNames.length; column++) {
+				int length = in.getInt();
+				int next = in.position() + length;
+				if (needed[column]) {
+					dictionaries[column] = columnTypes[column] == ResultsFormat.TEXT ? readDictionary(in) : null;
+					if (values[column] == null || values[column].length < numRows) {
+						values[column] = new int[numRows];
+					}
+					ResultsFormat.readIntegers(in, numRows, values[column]);
+				}
+				in.position(next);
+			}
+			aggregateRowGroup(numRows, groupColumns, metricColumns, values, dictionaries,
+					outcomeColumn, groups, groupsByKey);
+		}
+		return groups;
+	}
+
+	/*
+	 * Adds the rows of one row group to their groups. Every row gets a local key from the dictionary
+	 * codes and value offsets of its group columns, which indexes the result groups directly.
+	 */
+	private void aggregateRowGroup(int numRows, int[] groupColumns, int[] metricColumns, int[][] values,
+								   String[][] dictionaries, int outcomeColumn, List<Group> groups,
+								   Map<String, Group> groupsByKey) {
+		int[] mins = new int[groupColumns.length];
+		int[] radixes = new int[groupColumns.length];
+		long numLocalKeys = 1;
+		for (int i = 0; i < groupColumns.length; i++) {
+			int column = groupColumns[i];
+			if (dictionaries[column] != null) {
+				radixes[i] = dictionaries[column].length;
+			} else {
+				int min = Integer.MAX_VALUE;
+				int max = Integer.MIN_VALUE;
+				for (int row = 0; row < numRows; row++) {
+					min = Math.min(min, values[column][row]);
+					max = Math.max(max, values[column][row]);
+				}
+				mins[i] = min;
+				radixes[i] = (int) Math.min((long) max - min + 1, MAX_GROUPS_PER_ROW_GROUP + 1);
+			}
+			numLocalKeys *= radixes[i];
+			if (numLocalKeys > MAX_GROUPS_PER_ROW_GROUP) {
+				throw new IllegalArgumentException("too many groups, group by fewer or coarser columns");
+			}
+		}
+		Group[] localGroups = new Group[(int) numLocalKeys];
+		int wonCode = Arrays.asList(dictionaries[outcomeColumn]).indexOf(ResultsColumn.WON);
+		int[] outcomes = values[outcomeColumn];
+		for (int row = 0; row < numRows; row++) {
+			int localKey = 0;
+			for (int i = 0; i < groupColumns.length; i++) {
+				localKey = localKey * radixes[i] + values[groupColumns[i]][row] - mins[i];
+			}
+			Group group = localGroups[localKey];
+			if (group == null) {
+				String key = groupKey(row, groupColumns, values, dictionaries);
+				group = groupsByKey.get(key);
+				if (group == null) {
+					group = new Group(key, metricColumns.length);
+					groupsByKey.put(key, group);
+					groups.add(group);
+				}
+				localGroups[localKey] = group;
+			}
+			group.games++;
+			if (outcomes[row] == wonCode) {
+				group.wins++;
+			}
+			for (int i = 0; i < metricColumns.length; i++) {
+				group.sums[i] += values[metricColumns[i]][row];
+			}
+		}
+	}
+
+	/*
+	 * The key of a group as shown to the user: column=value for every group column.
+	 */
+	private String groupKey(int row, int[] groupColumns, int[][] values, String[][] dictionaries) {
+		StringBuilder key = new StringBuilder();
+		for (int column : groupColumns) {
+			int value = values[column][row];
+			key.append(columnNames[column]).append('=')
+					.append(dictionaries[column] != null ? dictionaries[column][value] : String.valueOf(value))
+					.append(' ');
+		}
+		return key.toString().trim();
+	}
+
+	/*
+	 * Reads the dictionary of a text column chunk.
+	 */
+	private static String[] readDictionary(ByteBuffer in) {
+		String[] dictionary = new String[in.getInt()];
+		for (int i = 0; i < dictionary.length; i++) {
+			dictionary[i] = ResultsFormat.readText(in);
+		}
+		return dictionary;
+	}
+
+	/*
+	 * The index of a column of the file, by name.
+	 */
+	private int columnIndex(String name) {
+		for (int i = 0; i < columnNames.length; i++) {
+			if (columnNames[i].equals(name)) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("no column " + name + ", columns: " + String.join(",", columnNames));
+	}
+
+	/**
+	 * The games of one group, and their aggregates.
+	 */
+	public static class Group {
+		private final String key;
+		private final long[] sums;
+		private long games;
+		private long wins;
+
+		/*
+		 * Constructs an empty group.
+		 */
+		private Group(String key, int numMetrics) {
+			this.key = key;
+			this.sums = new long[numMetrics];
+		}
+
+		/**
+		 * Gets the values the games of the group share, as column=value pairs.
+		 *
+		 * @return the key of the group, empty when not grouping
+		 */
+		public String getKey() {
+			return key;
+		}
+
+		/**
+		 * Gets the number of games in the group.
+		 *
+		 * @return the number of games
+		 */
+		public long getGames() {
+			return games;
+		}
+
+		/**
+		 * Gets the share of the games of the group that were won.
+		 *
+		 * @return the win rate, between 0 and 1
+		 */
+		public double getWinRate() {
+			return (double) wins / games;
+		}
+
+		/**
+		 * Gets the average of a metric over the games of the group.
+		 *
+		 * @param metric the index of the metric in the query
+		 * @return the average
+		 */
+		public double getAverage(int metric) {
+			return (double) sums[metric] / games;
+		}
+	}
+}
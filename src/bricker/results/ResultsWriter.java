@@ -0,0 +1,188 @@
+package bricker.results;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the outcomes of games to a results file, one row per game, for ResultsQuery to slice later.
+ * Rows are gathered column by column into row groups of ROW_GROUP_ROWS rows, and every column of a full
+ * group is written with its own encoding: integers packed to the bits their range needs (or a single
+ * value when they are all the same), texts as a dictionary and packed codes. A results file of a
+ * million games takes a few megabytes.
+ * Games played in parallel can append to the same writer. A disabled writer ignores everything.
+ *
+ * @author Aron Isaacs
+ * @see ResultsFormat
+ * @see ResultsQuery
+ */
+public class ResultsWriter {
+	/**
+	 * The system property naming the results file. No results are written when it is not set.
+	 */
+	public static final String RESULTS_FILE_PROPERTY = "bricker.results";
+	private static final int ROW_GROUP_ROWS = 1 << 16;
+	private static final ResultsColumn[] COLUMNS = ResultsColumn.values();
+	private final DataOutputStream out;
+	private final int[][] columns;
+	private final List<Map<String, Integer>> dictionaries; // by column ordinal, null for integer columns
+	private int numRows;
+
+	/*
+	 * Constructs a writer writing to the given stream, or a disabled writer when the stream is null.
+	 */
+	private ResultsWriter(DataOutputStream out) {
+		this.out = out;
+		columns = out == null ? null : new int[COLUMNS.length][ROW_GROUP_ROWS];
+		dictionaries = out == null ? null : new ArrayList<>(COLUMNS.length);
+		if (out != null) {
+			for (ResultsColumn column : COLUMNS) {
+				dictionaries.add(column.isText() ? new HashMap<>() : null);
+			}
+		}
+	}
+
+	/**
+	 * Opens a writer writing to the given file, replacing it if it exists.
+	 *
+	 * @param path the file to write to
+	 * @return an enabled writer
+	 * @throws IOException if the file cannot be created
+	 */
+	public static ResultsWriter open(Path path) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+		out.writeInt(ResultsFormat.MAGIC);
+		out.writeInt(ResultsFormat.VERSION);
+		out.writeInt(COLUMNS.length);
+		for (ResultsColumn column : COLUMNS) {
+			ResultsFormat.writeText(column.getColumnName(), out);
+			out.writeByte(column.isText() ? ResultsFormat.TEXT : ResultsFormat.INTEGER);
+		}
+		return new ResultsWriter(out);
+	}
+
+	/**
+	 * Opens the writer named by the RESULTS_FILE_PROPERTY system property, or returns a disabled writer if
+	 * the property is not set.
+	 *
+	 * @return the configured writer
+	 */
+	public static ResultsWriter fromSystemProperty() {
+		String path = System.getProperty(RESULTS_FILE_PROPERTY);
+		if (path == null) {
+			return disabled();
+		}
+		try {
+			return open(Path.of(path));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Creates a writer that ignores all rows.
+	 *
+	 * @return a disabled writer
+	 */
+	public static ResultsWriter disabled() {
+		return new ResultsWriter(null);
+	}
+
+	/**
+	 * Checks whether the writer writes anything.
+	 *
+	 * @return true if the writer writes to a file
+	 */
+	public boolean isEnabled() {
+		return out != null;
+	}
+
+	/**
+	 * Appends a row, writing the row group once it is full.
+	 *
+	 * @param row the row, which can be reused once this returns
+	 * @throws UncheckedIOException if writing fails
+	 */
+	public synchronized void append(ResultRow row) {
+		if (out == null) {
+			return;
+		}
+		for (ResultsColumn column : COLUMNS) {
+			int ordinal = column.ordinal();
+			if (column.isText()) {
+				Map<String, Integer> dictionary = dictionaries.get(ordinal);
+				columns[ordinal][numRows] = dictionary.computeIfAbsent(row.getText(column),
+						text -> dictionary.size());
+			} else {
+				columns[ordinal][numRows] = row.getNumber(column);
+			}
+		}
+		if (++numRows == ROW_GROUP_ROWS) {
+			writeRowGroup();
+		}
+	}
+
+	/**
+	 * Writes the rows still gathered and closes the file.
+	 *
+	 * @throws UncheckedIOException if writing fails
+	 */
+	public synchronized void close() {
+		if (out == null) {
+			return;
+		}
+		try {
+			if (numRows > 0) {
+				writeRowGroup();
+			}
+			out.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/*
+	 * Writes the gathered rows as a row group, each column encoded on its own, and starts a new group.
+	 */
+	private void writeRowGroup() {
+		try {
+			out.writeInt(numRows);
+			ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+			DataOutputStream chunkOut = new DataOutputStream(chunk);
+			for (ResultsColumn column : COLUMNS) {
+				chunk.reset();
+				if (column.isText()) {
+					writeDictionary(dictionaries.get(column.ordinal()), chunkOut);
+				}
+				ResultsFormat.writeIntegers(columns[column.ordinal()], numRows, chunkOut);
+				out.writeInt(chunk.size());
+				chunk.writeTo(out);
+			}
+			numRows = 0;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/*
+	 * Writes the texts of a dictionary in code order, and empties it for the next group.
+	 */
+	private static void writeDictionary(Map<String, Integer> dictionary, DataOutputStream out)
+			throws IOException {
+		String[] texts = new String[dictionary.size()];
+		dictionary.forEach((text, code) -> texts[code] = text);
+		out.writeInt(texts.length);
+		for (String text : texts) {
+			ResultsFormat.writeText(text, out);
+		}
+		dictionary.clear();
+	}
+}
@@ -0,0 +1,616 @@
+package bricker.rewind;
+
+import danogl.util.Vector2;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The state of a game between two frames, as plain values: the frame number, the state of the random
+ * generator, the counters and the score, the bricks left (one bit per cell of the grid), the moving
+ * objects (a kind, a position and a velocity each), the contacts the ball collision pass remembers and
+ * the timed effects on the objects (a kind, an object and the frame the effect wears off in each).
+ * A snapshot is written either in full, or as a delta from the snapshot of the previous frame holding
+ * only what changed: moved objects, toggled bricks, changed counters and effects. Objects keep their
+ * indices from one frame to the next, unless objects were added or removed, in which case the delta holds
+ * all of them.
+ * What the kinds, contact targets and effect kinds mean is up to the game, see BrickerGameManager.
+ *
+ * @author Ron Stein
+ * @see RewindBuffer
+ * @see bricker.main.BrickerGameManager
+ */
+public class GameSnapshot {
+	private static final int CHANGED_RANDOM = 1;
+	private static final int CHANGED_COUNTERS = 1 << 1;
+	private static final int CHANGED_BRICKS = 1 << 2;
+	private static final int CHANGED_OBJECTS = 1 << 3;
+	private static final int MOVED_OBJECTS = 1 << 4;
+	private static final int CHANGED_CONTACTS = 1 << 5;
+	private static final int CHANGED_EFFECTS = 1 << 6;
+	private static final int EFFECT_VALUES = 3; // kind, object index, frame it wears off in
+	private static final int MOTION_VALUES = 4; // x, y, velocity x, velocity y
+	private int frame;
+	private long randomState;
+	private int lives;
+	private int bricks;
+	private int paddles;
+	private int subPaddleHits;
+	private int score;
+	private final BitSet bricksLeft = new BitSet();
+	private int numObjects;
+	private byte[] kinds = new byte[8];
+	private float[] motions = new float[8 * MOTION_VALUES];
+	private int numContacts;
+	private int[] contacts = new int[8]; // object index, target, for every contact
+	private int numEffects;
+	private int[] effects = new int[4 * EFFECT_VALUES];
+
+	/**
+	 * Constructs an empty GameSnapshot.
+	 */
+	public GameSnapshot() {
+	}
+
+	/**
+	 * Starts a new snapshot, with no bricks, objects, contacts or effects.
+	 *
+	 * @param frame         the number of the next frame
+	 * @param randomState   the state of the random generator
+	 * @param lives         the number of lives
+	 * @param bricks        the number of bricks left
+	 * @param paddles       the number of paddles
+	 * @param subPaddleHits the number of hits on the sub-paddle
+	 * @param score         the score
+	 */
+	public void reset(int frame, long randomState, int lives, int bricks, int paddles, int subPaddleHits,
+					  int score) {
+		this.frame = frame;
+		this.randomState = randomState;
+		this.lives = lives;
+		this.bricks = bricks;
+		this.paddles = paddles;
+		this.subPaddleHits = subPaddleHits;
+		this.score = score;
+		bricksLeft.clear();
+		numObjects = 0;
+		numContacts = 0;
+		numEffects = 0;
+	}
+
+	/**
+	 * Marks a cell of the grid as holding a brick.
+	 *
+	 * @param cell the cell, row * bricks per row + column
+	 */
+	public void setBrickLeft(int cell) {
+		bricksLeft.set(cell);
+	}
+
+	/**
+	 * Adds a moving object.
+	 *
+	 * @param kind          what the object is
+	 * @param topLeftCorner the top-left corner of the object
+	 * @param velocity      the velocity of the object
+	 * @return the index of the object in the snapshot
+	 */
+	public int addObject(byte kind, Vector2 topLeftCorner, Vector2 velocity) {
+		if (numObjects == kinds.length) {
+			kinds = Arrays.copyOf(kinds, numObjects * 2);
+			motions = Arrays.copyOf(motions, numObjects * 2 * MOTION_VALUES);
+		}
+		kinds[numObjects] = kind;
+		int motion = numObjects * MOTION_VALUES;
+		motions[motion] = topLeftCorner.x();
+		motions[motion + 1] = topLeftCorner.y();
+		motions[motion + 2] = velocity.x();
+		motions[motion + 3] = velocity.y();
+		return numObjects++;
+	}
+
+	/**
+	 * Adds a contact of a ball with a brick or a paddle.
+	 *
+	 * @param object the index of the ball
+	 * @param target the brick or the paddle, encoded by the game
+	 */
+	public void addContact(int object, int target) {
+		if (numContacts * 2 == contacts.length) {
+			contacts = Arrays.copyOf(contacts, contacts.length * 2);
+		}
+		contacts[numContacts * 2] = object;
+		contacts[numContacts * 2 + 1] = target;
+		numContacts++;
+	}
+
+	/**
+	 * Adds a timed effect on an object.
+	 *
+	 * @param kind        what the effect is
+	 * @param object      the index of the object
+	 * @param expiryFrame the frame the effect wears off in
+	 */
+	public void addEffect(int kind, int object, int expiryFrame) {
+		if ((numEffects + 1) * EFFECT_VALUES > effects.length) {
+			effects = Arrays.copyOf(effects, effects.length * 2);
+		}
+		int effect = numEffects * EFFECT_VALUES;
+		effects[effect] = kind;
+		effects[effect + 1] = object;
+		effects[effect + 2] = expiryFrame;
+		numEffects++;
+	}
+
+	/**
+	 * Makes this snapshot a copy of another.
+	 *
+	 * @param other the snapshot to copy
+	 */
+	public void copyFrom(GameSnapshot other) {
+		reset(other.frame, other.randomState, other.lives, other.bricks, other.paddles, other.subPaddleHits,
+				other.score);
+		bricksLeft.or(other.bricksLeft);
+		kinds = Arrays.copyOf(other.kinds, other.kinds.length);
+		motions = Arrays.copyOf(other.motions, other.motions.length);
+		numObjects = other.numObjects;
+		contacts = Arrays.copyOf(other.contacts, other.contacts.length);
+		numContacts = other.numContacts;
+		effects = Arrays.copyOf(other.effects, other.effects.length);
+		numEffects = other.numEffects;
+	}
+
+	/**
+	 * Writes the whole snapshot.
+	 *
+	 * @param out where to write
+	 * @throws IOException if writing fails
+	 */
+	public void writeTo(DataOutputStream out) throws IOException {
+		out.writeInt(frame);
+		out.writeLong(randomState);
+		writeCounters(out);
+		long[] words = bricksLeft.toLongArray();
+		out.writeInt(words.length);
+		for (long word : words) {
+			out.writeLong(word);
+		}
+		writeObjects(out);
+		writeContacts(out);
+		writeEffects(out);
+	}
+
+	/**
+	 * Reads a whole snapshot written by writeTo into this one.
+	 *
+	 * @param in where to read from
+	 * @throws IOException if reading fails
+	 */
+	public void readFrom(DataInputStream in) throws IOException {
+		reset(in.readInt(), in.readLong(), in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt());
+		long[] words = new long[in.readInt()];
+		for (int i = 0; i < words.length; i++) {
+			words[i] = in.readLong();
+		}
+		bricksLeft.or(BitSet.valueOf(words));
+		readObjects(in);
+		readContacts(in);
+		readEffects(in);
+	}
+
+	/**
+	 * Writes what changed since the snapshot of the previous frame.
+	 *
+	 * @param previous the snapshot of the previous frame
+	 * @param out      where to write
+	 * @throws IOException if writing fails
+	 */
+	public void writeDelta(GameSnapshot previous, DataOutputStream out) throws IOException {
+		BitSet toggledBricks = (BitSet) bricksLeft.clone();
+		toggledBricks.xor(previous.bricksLeft);
+		boolean sameObjects = numObjects == previous.numObjects
+				&& Arrays.equals(kinds, 0, numObjects, previous.kinds, 0, numObjects);
+		int numMoved = 0;
+		if (sameObjects) {
+			for (int i = 0; i < numObjects; i++) {
+				if (hasMoved(previous, i)) {
+					numMoved++;
+				}
+			}
+		}
+		int changes = (randomState != previous.randomState ? CHANGED_RANDOM : 0)
+				| (lives != previous.lives || bricks != previous.bricks || paddles != previous.paddles
+				|| subPaddleHits != previous.subPaddleHits || score != previous.score
+				? CHANGED_COUNTERS : 0)
+				| (toggledBricks.isEmpty() ? 0 : CHANGED_BRICKS)
+				| (sameObjects ? (numMoved > 0 ? MOVED_OBJECTS : 0) : CHANGED_OBJECTS)
+				| (numContacts != previous.numContacts || !Arrays.equals(contacts, 0, numContacts * 2,
+				previous.contacts, 0, numContacts * 2) ? CHANGED_CONTACTS : 0)
+				| (numEffects != previous.numEffects || !Arrays.equals(effects, 0, numEffects * EFFECT_VALUES,
+				previous.effects, 0, numEffects * EFFECT_VALUES) ? CHANGED_EFFECTS : 0);
+		out.writeByte(changes);
+		if ((changes & CHANGED_RANDOM) != 0) {
+			out.writeLong(randomState);
+		}
+		if ((changes & CHANGED_COUNTERS) != 0) {
+			writeCounters(out);
+		}
+		if ((changes & CHANGED_BRICKS) != 0) {
+			out.writeInt(toggledBricks.cardinality());
+			for (int cell = toggledBricks.nextSetBit(0); cell >= 0; cell = toggledBricks.nextSetBit(cell + 1)) {
+				out.writeInt(cell);
+			}
+		}
+		if ((changes & CHANGED_OBJECTS) != 0) {
+			writeObjects(out);
+		} else if ((changes & MOVED_OBJECTS) != 0) {
+			out.writeInt(numMoved);
+			for (int i = 0; i < numObjects; i++) {
+				if (hasMoved(previous, i)) {
+					out.writeInt(i);
+					writeMotion(out, i);
+				}
+			}
+		}
+		if ((changes & CHANGED_CONTACTS) != 0) {
+			writeContacts(out);
+		}
+		if ((changes & CHANGED_EFFECTS) != 0) {
+			writeEffects(out);
+		}
+	}
+
+	/**
+	 * Applies a delta written by writeDelta to this snapshot, which must hold the previous frame.
+	 *
+	 * @param in where to read from
+	 * @throws IOException if reading fails
+	 */
+	public void readDelta(DataInputStream in) throws IOException {
+		frame++;
+		int changes = in.readByte();
+		if ((changes & CHANGED_RANDOM) != 0) {
+			randomState = in.readLong();
+		}
+		if ((changes & CHANGED_COUNTERS) != 0) {
+			lives = in.readInt();
+			bricks = in.readInt();
+			paddles = in.readInt();
+			subPaddleHits = in.readInt();
+			score = in.readInt();
+		}
+		if ((changes & CHANGED_BRICKS) != 0) {
+			for (int toggled = in.readInt(); toggled > 0; toggled--) {
+				bricksLeft.flip(in.readInt());
+			}
+		}
+		if ((changes & CHANGED_OBJECTS) != 0) {
+			readObjects(in);
+		} else if ((changes & MOVED_OBJECTS) != 0) {
+			for (int moved = in.readInt(); moved > 0; moved--) {
+				readMotion(in, in.readInt());
+			}
+		}
+		if ((changes & CHANGED_CONTACTS) != 0) {
+			readContacts(in);
+		}
+		if ((changes & CHANGED_EFFECTS) != 0) {
+			readEffects(in);
+		}
+	}
+
+	/**
+	 * Gets the number of the frame that comes after this snapshot.
+	 *
+	 * @return the frame number
+	 */
+	public int getFrame() {
+		return frame;
+	}
+
+	/**
+	 * Gets the state of the random generator.
+	 *
+	 * @return the state of the random generator
+	 */
+	public long getRandomState() {
+		return randomState;
+	}
+
+	/**
+	 * Gets the number of lives.
+	 *
+	 * @return the number of lives
+	 */
+	public int getLives() {
+		return lives;
+	}
+
+	/**
+	 * Gets the number of bricks left.
+	 *
+	 * @return the number of bricks left
+	 */
+	public int getBricks() {
+		return bricks;
+	}
+
+	/**
+	 * Gets the number of paddles.
+	 *
+	 * @return the number of paddles
+	 */
+	public int getPaddles() {
+		return paddles;
+	}
+
+	/**
+	 * Gets the number of hits on the sub-paddle.
+	 *
+	 * @return the number of hits on the sub-paddle
+	 */
+	public int getSubPaddleHits() {
+		return subPaddleHits;
+	}
+
+	/**
+	 * Gets the score.
+	 *
+	 * @return the score
+	 */
+	public int getScore() {
+		return score;
+	}
+
+	/**
+	 * Checks whether a cell of the grid holds a brick.
+	 *
+	 * @param cell the cell, row * bricks per row + column
+	 * @return true if the cell holds a brick
+	 */
+	public boolean isBrickLeft(int cell) {
+		return bricksLeft.get(cell);
+	}
+
+	/**
+	 * Finds the first cell holding a brick, from a given cell on.
+	 *
+	 * @param fromCell the cell to start from
+	 * @return the cell, or -1 if no cell from fromCell on holds a brick
+	 */
+	public int nextBrickLeft(int fromCell) {
+		return bricksLeft.nextSetBit(fromCell);
+	}
+
+	/**
+	 * Counts the cells holding a brick.
+	 *
+	 * @return the number of bricks left
+	 */
+	public int countBricksLeft() {
+		return bricksLeft.cardinality();
+	}
+
+	/**
+	 * Gets the number of moving objects.
+	 *
+	 * @return the number of moving objects
+	 */
+	public int getNumObjects() {
+		return numObjects;
+	}
+
+	/**
+	 * Gets what an object is.
+	 *
+	 * @param object the index of the object
+	 * @return the kind of the object
+	 */
+	public byte getKind(int object) {
+		return kinds[object];
+	}
+
+	/**
+	 * Gets the top-left corner of an object.
+	 *
+	 * @param object the index of the object
+	 * @return the top-left corner of the object
+	 */
+	public Vector2 getTopLeftCorner(int object) {
+		return new Vector2(motions[object * MOTION_VALUES], motions[object * MOTION_VALUES + 1]);
+	}
+
+	/**
+	 * Gets the velocity of an object.
+	 *
+	 * @param object the index of the object
+	 * @return the velocity of the object
+	 */
+	public Vector2 getVelocity(int object) {
+		return new Vector2(motions[object * MOTION_VALUES + 2], motions[object * MOTION_VALUES + 3]);
+	}
+
+	/**
+	 * Gets the number of contacts.
+	 *
+	 * @return the number of contacts
+	 */
+	public int getNumContacts() {
+		return numContacts;
+	}
+
+	/**
+	 * Gets the ball of a contact.
+	 *
+	 * @param contact the index of the contact
+	 * @return the index of the ball among the objects
+	 */
+	public int getContactObject(int contact) {
+		return contacts[contact * 2];
+	}
+
+	/**
+	 * Gets the brick or paddle of a contact.
+	 *
+	 * @param contact the index of the contact
+	 * @return the target, encoded by the game
+	 */
+	public int getContactTarget(int contact) {
+		return contacts[contact * 2 + 1];
+	}
+
+	/**
+	 * Gets the number of timed effects.
+	 *
+	 * @return the number of effects
+	 */
+	public int getNumEffects() {
+		return numEffects;
+	}
+
+	/**
+	 * Gets what an effect is.
+	 *
+	 * @param effect the index of the effect
+	 * @return the kind of the effect
+	 */
+	public int getEffectKind(int effect) {
+		return effects[effect * EFFECT_VALUES];
+	}
+
+	/**
+	 * Gets the object of an effect.
+	 *
+	 * @param effect the index of the effect
+	 * @return the index of the object among the objects
+	 */
+	public int getEffectObject(int effect) {
+		return effects[effect * EFFECT_VALUES + 1];
+	}
+
+	/**
+	 * Gets the frame an effect wears off in.
+	 *
+	 * @param effect the index of the effect
+	 * @return the frame number
+	 */
+	public int getEffectExpiryFrame(int effect) {
+		return effects[effect * EFFECT_VALUES + 2];
+	}
+
+	/*
+	 * Checks whether the position or velocity of an object differs from the previous snapshot, bit by bit.
+	 */
+	private boolean hasMoved(GameSnapshot previous, int object) {
+		for (int value = object * MOTION_VALUES; value < (object + 1) * MOTION_VALUES; value++) {
+			if (Float.floatToRawIntBits(motions[value]) != Float.floatToRawIntBits(previous.motions[value])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * Writes the counters.
+	 */
+	private void writeCounters(DataOutputStream out) throws IOException {
+		out.writeInt(lives);
+		out.writeInt(bricks);
+		out.writeInt(paddles);
+		out.writeInt(subPaddleHits);
+		out.writeInt(score);
+	}
+
+	/*
+	 * Writes the kinds and motions of all the objects.
+	 */
+	private void writeObjects(DataOutputStream out) throws IOException {
+		out.writeInt(numObjects);
+		out.write(kinds, 0, numObjects);
+		for (int i = 0; i < numObjects; i++) {
+			writeMotion(out, i);
+		}
+	}
+
+	/*
+	 * Reads the objects written by writeObjects, replacing the objects of this snapshot.
+	 */
+	private void readObjects(DataInputStream in) throws IOException {
+		numObjects = in.readInt();
+		if (kinds.length < numObjects) {
+			kinds = new byte[numObjects];
+			motions = new float[numObjects * MOTION_VALUES];
+		}
+		in.readFully(kinds, 0, numObjects);
+		for (int i = 0; i < numObjects; i++) {
+			readMotion(in, i);
+		}
+	}
+
+	/*
+	 * Writes the position and velocity of an object.
+	 */
+	private void writeMotion(DataOutputStream out, int object) throws IOException {
+		for (int value = object * MOTION_VALUES; value < (object + 1) * MOTION_VALUES; value++) {
+			out.writeFloat(motions[value]);
+		}
+	}
+
+	/*
+	 * Reads the position and velocity of an object.
+	 */
+	private void readMotion(DataInputStream in, int object) throws IOException {
+		for (int value = object * MOTION_VALUES; value < (object + 1) * MOTION_VALUES; value++) {
+			motions[value] = in.readFloat();
+		}
+	}
+
+	/*
+	 * Writes all the contacts.
+	 */
+	private void writeContacts(DataOutputStream out) throws IOException {
+		out.writeInt(numContacts);
+		for (int i = 0; i < numContacts * 2; i++) {
+			out.writeInt(contacts[i]);
+		}
+	}
+
+	/*
+	 * Reads the contacts written by writeContacts, replacing the contacts of this snapshot.
+	 */
+	private void readContacts(DataInputStream in) throws IOException {
+		numContacts = in.readInt();
+		if (contacts.length < numContacts * 2) {
+			contacts = new int[numContacts * 2];
+		}
+		for (int i = 0; i < numContacts * 2; i++) {
+			contacts[i] = in.readInt();
+		}
+	}
+
+	/*
+	 * Writes all the effects.
+	 */
+	private void writeEffects(DataOutputStream out) throws IOException {
+		out.writeInt(numEffects);
+		for (int i = 0; i < numEffects * EFFECT_VALUES; i++) {
+			out.writeInt(effects[i]);
+		}
+	}
+
+	/*
+	 * Reads the effects written by writeEffects, replacing the effects of this snapshot.
+	 */
+	private void readEffects(DataInputStream in) throws IOException {
+		numEffects = in.readInt();
+		if (effects.length < numEffects * EFFECT_VALUES) {
+			effects = new int[numEffects * EFFECT_VALUES];
+		}
+		for (int i = 0; i < numEffects * EFFECT_VALUES; i++) {
+			effects[i] = in.readInt();
+		}
+	}
+}
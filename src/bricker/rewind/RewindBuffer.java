@@ -0,0 +1,230 @@
+package bricker.rewind;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Keeps the snapshots of the last frames of a game, so the game can be rewound. Every BASE_INTERVAL
+ * frames a snapshot is kept in full (a base), and in between only its delta from the frame before, so a
+ * frame costs a few dozen bytes while only the ball and the paddles move.
+ * The records live in one ring of bytes allocated up front, which is a hard cap on the memory the buffer
+ * takes: when a record does not fit, the oldest records are dropped, along with the deltas that depend
+ * on a dropped base. The number of frames kept is capped as well. Restoring a frame decodes at most one
+ * base and BASE_INTERVAL - 1 deltas, which is fast enough to do every frame while scrubbing.
+ *
+ * @author Ron Stein
+ * @see GameSnapshot
+ * @see bricker.main.BrickerGameManager#rewind(int)
+ */
+public class RewindBuffer {
+	private static final int BASE_INTERVAL = 60;
+	private final byte[] ring;
+	private final int[] recordOffsets;
+	private final int[] recordLengths;
+	private final boolean[] recordIsBase;
+	private final GameSnapshot newest = new GameSnapshot();
+	private final ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+	private int oldestRecord; // the index of the oldest record in the arrays above
+	private int numRecords;
+	private int oldestFrame;
+	private int writeOffset;
+
+	/**
+	 * Constructs an empty RewindBuffer.
+	 *
+	 * @param maxFrames the most frames to keep
+	 * @param maxBytes  the most bytes the records may take
+	 */
+	public RewindBuffer(int maxFrames, int maxBytes) {
+		ring = new byte[maxBytes];
+		recordOffsets = new int[maxFrames];
+		recordLengths = new int[maxFrames];
+		recordIsBase = new boolean[maxFrames];
+	}
+
+	/**
+	 * Adds the snapshot of the next frame. If the game was rewound, the frames from the snapshot's frame
+	 * on are dropped first, since the game took another course; a snapshot that does not follow the kept
+	 * frames at all (of a new game, for example) drops every frame.
+	 * A snapshot too big for the whole buffer is not kept, and leaves the buffer empty.
+	 *
+	 * @param snapshot the state after the last frame
+	 */
+	public void push(GameSnapshot snapshot) {
+		int frame = snapshot.getFrame();
+		if (numRecords > 0 && frame > oldestFrame && frame <= getNewestFrame()) {
+			numRecords = frame - oldestFrame;
+			writeOffset = recordOffsets[recordIndex(numRecords - 1)] + recordLengths[recordIndex(numRecords - 1)];
+			restore(frame - 1, newest);
+		} else if (numRecords > 0 && frame != getNewestFrame() + 1) {
+			clear();
+		}
+		boolean base = numRecords == 0 || framesSinceBase() + 1 >= BASE_INTERVAL;
+		encode(snapshot, base);
+		if (numRecords == recordOffsets.length) {
+			dropOldest();
+		}
+		makeRoom(encoded.size());
+		if (numRecords == 0 && !base) {
+			// the base this delta depended on was dropped to make room
+			encode(snapshot, true);
+			base = true;
+			makeRoom(encoded.size());
+		}
+		if (encoded.size() > ring.length) {
+			clear();
+			return;
+		}
+		if (writeOffset + encoded.size() > ring.length) {
+			writeOffset = 0;
+		}
+		int record = recordIndex(numRecords);
+		System.arraycopy(encoded.toByteArray(), 0, ring, writeOffset, encoded.size());
+		recordOffsets[record] = writeOffset;
+		recordLengths[record] = encoded.size();
+		recordIsBase[record] = base;
+		if (numRecords == 0) {
+			oldestFrame = frame;
+		}
+		numRecords++;
+		writeOffset += encoded.size();
+		newest.copyFrom(snapshot);
+	}
+
+	/**
+	 * Decodes the snapshot of a kept frame.
+	 *
+	 * @param frame the frame, between getOldestFrame and getNewestFrame
+	 * @param into  the snapshot to decode into
+	 */
+	public void restore(int frame, GameSnapshot into) {
+		if (numRecords == 0 || frame < oldestFrame || frame > getNewestFrame()) {
+			throw new IllegalArgumentException("frame " + frame + " is not kept");
+		}
+		int target = frame - oldestFrame;
+		int base = target;
+		while (!recordIsBase[recordIndex(base)]) {
+			base--;
+		}
+		try {
+			into.readFrom(recordStream(base));
+			for (int delta = base + 1; delta <= target; delta++) {
+				into.readDelta(recordStream(delta));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Drops every frame.
+	 */
+	public void clear() {
+		numRecords = 0;
+		oldestRecord = 0;
+		writeOffset = 0;
+	}
+
+	/**
+	 * Checks whether any frame is kept.
+	 *
+	 * @return true if no frame is kept
+	 */
+	public boolean isEmpty() {
+		return numRecords == 0;
+	}
+
+	/**
+	 * Gets the oldest frame that can be restored.
+	 *
+	 * @return the oldest kept frame
+	 */
+	public int getOldestFrame() {
+		return oldestFrame;
+	}
+
+	/**
+	 * Gets the newest frame that can be restored.
+	 *
+	 * @return the newest kept frame
+	 */
+	public int getNewestFrame() {
+		return oldestFrame + numRecords - 1;
+	}
+
+	/*
+	 * Encodes a snapshot in full or as a delta from the newest one.
+	 */
+	private void encode(GameSnapshot snapshot, boolean base) {
+		encoded.reset();
+		try (DataOutputStream out = new DataOutputStream(encoded)) {
+			if (base) {
+				snapshot.writeTo(out);
+			} else {
+				snapshot.writeDelta(newest, out);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/*
+	 * Drops the oldest records until a record of the given length can be written at the write offset, or
+	 * at the start of the ring when it does not fit before the end.
+	 */
+	private void makeRoom(int length) {
+		int start = writeOffset;
+		if (start + length > ring.length) {
+			// the end of the ring is skipped, so the records still there go first
+			while (numRecords > 0 && recordOffsets[oldestRecord] >= start) {
+				dropOldest();
+			}
+			start = 0;
+		}
+		while (numRecords > 0 && recordOffsets[oldestRecord] >= start
+				&& recordOffsets[oldestRecord] < start + length) {
+			dropOldest();
+		}
+	}
+
+	/*
+	 * Drops the oldest record, then the deltas that depended on it.
+	 */
+	private void dropOldest() {
+		do {
+			oldestRecord = recordIndex(1);
+			oldestFrame++;
+			numRecords--;
+		} while (numRecords > 0 && !recordIsBase[oldestRecord]);
+	}
+
+	/*
+	 * The number of records since the newest base.
+	 */
+	private int framesSinceBase() {
+		int record = numRecords - 1;
+		while (!recordIsBase[recordIndex(record)]) {
+			record--;
+		}
+		return numRecords - 1 - record;
+	}
+
+	/*
+	 * The index in the arrays of the record at the given position from the oldest.
+	 */
+	private int recordIndex(int position) {
+		return (oldestRecord + position) % recordOffsets.length;
+	}
+
+	/*
+	 * A stream over the bytes of the record at the given position from the oldest.
+	 */
+	private DataInputStream recordStream(int position) {
+		int record = recordIndex(position);
+		return new DataInputStream(new ByteArrayInputStream(ring, recordOffsets[record], recordLengths[record]));
+	}
+}
@@ -0,0 +1,72 @@
+package bricker.rewind;
+
+import java.util.Random;
+
+/**
+ * A java.util.Random whose whole state is one long that can be read and set, so a snapshot of a game can
+ * store its random generator every frame for the price of eight bytes. It draws exactly the numbers a
+ * java.util.Random of the same seed draws.
+ * The second gaussian that nextGaussian keeps for its next call is not part of the state, so games that
+ * are rewound should not draw gaussians from it.
+ *
+ * @author Ron Stein
+ * @see GameSnapshot
+ */
+public class RewindableRandom extends Random {
+	private static final long serialVersionUID = 1L;
+	private static final long MULTIPLIER = 0x5DEECE66DL;
+	private static final long ADDEND = 0xBL;
+	private static final long MASK = (1L << 48) - 1;
+	private static final int STATE_BITS = 48;
+	private long state; // set by setSeed, which the Random constructor calls
+
+	/**
+	 * Constructs a RewindableRandom with the given seed.
+	 *
+	 * @param seed the seed
+	 */
+	public RewindableRandom(long seed) {
+		super(seed);
+	}
+
+	/**
+	 * Sets the seed, as java.util.Random does.
+	 *
+	 * @param seed the seed
+	 */
+	@Override
+	public synchronized void setSeed(long seed) {
+		super.setSeed(seed);
+		state = (seed ^ MULTIPLIER) & MASK;
+	}
+
+	/**
+	 * Gets the state of the generator, from which setState continues the same sequence.
+	 *
+	 * @return the state
+	 */
+	public synchronized long getState() {
+		return state;
+	}
+
+	/**
+	 * Sets the state of the generator to one returned by getState.
+	 *
+	 * @param state the state
+	 */
+	public synchronized void setState(long state) {
+		this.state = state & MASK;
+	}
+
+	/**
+	 * Generates the next random bits, with the linear congruential generator of java.util.Random.
+	 *
+	 * @param bits the number of random bits
+	 * @return the random bits
+	 */
+	@Override
+	protected synchronized int next(int bits) {
+		state = (state * MULTIPLIER + ADDEND) & MASK;
+		return (int) (state >>> (STATE_BITS - bits));
+	}
+}
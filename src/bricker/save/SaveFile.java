@@ -0,0 +1,210 @@
+package bricker.save;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * The file a game in progress is saved to, so a session survives closing the window or killing the
+ * process, and resumed from on the next start.
+ * Games are saved by the game thread, which only queues them; a background writer compresses and
+ * writes them, so saving a large board does not stall a frame. A save is written to a temporary file
+ * first and then moved over the previous one, so a crash while saving leaves the previous save whole.
+ * A disabled save file never saves nor resumes anything.
+ *
+ * @author Ron Stein
+ * @see SaveFormat
+ * @see bricker.main.BrickerGameManager#resume(SavedGame)
+ */
+public class SaveFile {
+	/**
+	 * The system property naming the save file. DEFAULT_SAVE_FILE is used when it is not set.
+	 */
+	public static final String SAVE_FILE_PROPERTY = "bricker.save";
+	/**
+	 * The save file used when SAVE_FILE_PROPERTY is not set.
+	 */
+	public static final String DEFAULT_SAVE_FILE = "bricker-save.bin";
+	private static final String TEMPORARY_SUFFIX = ".tmp";
+	private static final SavedGame DELETE = new SavedGame(null, 0, 0, 0, 0, null, null, null);
+	private static final SavedGame CLOSE = new SavedGame(null, 0, 0, 0, 0, null, null, null);
+	private final Path path;
+	private final BlockingQueue<SavedGame> pending = new LinkedBlockingQueue<>();
+	private Thread writer;
+
+	/*
+	 * Constructs a save file at the given path, or a disabled one when it is null.
+	 */
+	private SaveFile(Path path) {
+		this.path = path;
+	}
+
+	/**
+	 * Opens the save file at the given path, and starts its writer. Nothing is read yet.
+	 *
+	 * @param path the file
+	 * @return an enabled save file
+	 */
+	public static SaveFile open(Path path) {
+		SaveFile saveFile = new SaveFile(path);
+		saveFile.writer = new Thread(saveFile::writeLoop, "bricker-save");
+		saveFile.writer.setDaemon(true);
+		saveFile.writer.start();
+		return saveFile;
+	}
+
+	/**
+	 * Opens the save file named by the SAVE_FILE_PROPERTY system property, or DEFAULT_SAVE_FILE if it is
+	 * not set. The save file is closed (and its pending save written) when the JVM shuts down.
+	 *
+	 * @return the opened save file
+	 */
+	public static SaveFile fromSystemProperty() {
+		SaveFile saveFile = open(Path.of(System.getProperty(SAVE_FILE_PROPERTY, DEFAULT_SAVE_FILE)));
+		Runtime.getRuntime().addShutdownHook(new Thread(saveFile::close));
+		return saveFile;
+	}
+
+	/**
+	 * Creates a save file that keeps nothing.
+	 *
+	 * @return a disabled save file
+	 */
+	public static SaveFile disabled() {
+		return new SaveFile(null);
+	}
+
+	/**
+	 * Checks whether the save file keeps anything.
+	 *
+	 * @return true if games are saved to a file
+	 */
+	public boolean isEnabled() {
+		return path != null;
+	}
+
+	/**
+	 * Reads the saved game. Meant to be called on start, before anything is saved.
+	 *
+	 * @return the saved game, or null if there is none
+	 * @throws UncheckedIOException if the file exists but cannot be read
+	 */
+	public SavedGame load() {
+		if (path == null || !Files.exists(path)) {
+			return null;
+		}
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+			return SaveFormat.read(in);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Queues a game to be saved, replacing the game saved before.
+	 *
+	 * @param game the game, which must not change afterwards
+	 */
+	public void save(SavedGame game) {
+		if (path != null) {
+			pending.add(game);
+		}
+	}
+
+	/**
+	 * Queues the removal of the saved game, once it is over.
+	 */
+	public void delete() {
+		if (path != null) {
+			pending.add(DELETE);
+		}
+	}
+
+	/**
+	 * Writes what is still queued and stops the writer.
+	 */
+	public void close() {
+		if (path == null || !writer.isAlive()) {
+			return;
+		}
+		pending.add(CLOSE);
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/*
+	 * The loop of the background writer: writes or removes the save, in the order queued, until closed.
+	 * A save followed by another save in the queue is skipped, since only the newest one is kept anyway.
+	 * A save that fails is reported, and the writer goes on with the next one.
+	 */
+	private void writeLoop() {
+		List<SavedGame> queued = new ArrayList<>();
+		try {
+			while (true) {
+				queued.add(pending.take());
+				pending.drainTo(queued);
+				for (int i = 0; i < queued.size(); i++) {
+					SavedGame game = queued.get(i);
+					if (game == CLOSE) {
+						return;
+					}
+					SavedGame next = i + 1 < queued.size() ? queued.get(i + 1) : pending.peek();
+					if (game == DELETE || !isSave(next)) {
+						store(game);
+					}
+				}
+				queued.clear();
+			}
+		} catch (InterruptedException e) {
+			// stopped, the pending save is lost
+		}
+	}
+
+	/*
+	 * Checks whether a queued item is a game to save, rather than a removal, the end of the queue or
+	 * nothing.
+	 */
+	private static boolean isSave(SavedGame game) {
+		return game != null && game != DELETE && game != CLOSE;
+	}
+
+	/*
+	 * Writes a save, or removes the saved game for DELETE, reporting a failure instead of throwing.
+	 */
+	private void store(SavedGame game) {
+		try {
+			if (game == DELETE) {
+				Files.deleteIfExists(path);
+			} else {
+				write(game);
+			}
+		} catch (IOException e) {
+			System.out.println((game == DELETE ? "saved game not deleted: " : "game not saved: ")
+					+ e.getMessage());
+		}
+	}
+
+	/*
+	 * Writes a save to the temporary file, then moves it over the previous save.
+	 */
+	private void write(SavedGame game) throws IOException {
+		Path temporary = path.resolveSibling(path.getFileName() + TEMPORARY_SUFFIX);
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+			SaveFormat.write(game, out);
+		}
+		Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+}
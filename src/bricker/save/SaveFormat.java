@@ -0,0 +1,249 @@
+package bricker.save;
+
+import bricker.rewind.GameSnapshot;
+import danogl.util.Vector2;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The format of a save file.
+ * <pre>
+ * file:       magic "BKSV", int version, then the rest compressed with deflate
+ * game:       float window width, float window height, int bricks per row, int rows, long seed,
+ *             int frames played, int number of strategies, then their names (modified UTF-8)
+ * state:      the game snapshot written in full: counters, the bricks left (one bit per cell), the
+ *             moving objects, the contacts and the power-up effects (see GameSnapshot#writeTo)
+ * strategies: int dictionary size, the strategy ids of the dictionary, byte code size (1 or 2), then
+ *             for every brick left, in cell order, the index of its strategy id in the dictionary
+ * </pre>
+ * A board holds only a few different strategy ids, so a brick takes a byte before compression, and the
+ * cells without a brick take nothing but their bit. Compression shrinks both to about their entropy.
+ *
+ * @author Ron Stein
+ * @see SaveFile
+ */
+public class SaveFormat {
+	/**
+	 * The first four bytes of a save file: "BKSV".
+	 */
+	public static final int MAGIC = 0x424B5356;
+	/**
+	 * The version of the format.
+	 */
+	public static final int VERSION = 2;
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int BYTE_CODES = 1 << Byte.SIZE;
+
+	/**
+	 * Constructs a SaveFormat. All its methods are static.
+	 */
+	public SaveFormat() {
+	}
+
+	/**
+	 * Writes a saved game.
+	 *
+	 * @param game the game
+	 * @param out  where to write, left open
+	 * @throws IOException if writing fails
+	 */
+	public static void write(SavedGame game, OutputStream out) throws IOException {
+		DataOutputStream header = new DataOutputStream(out);
+		header.writeInt(MAGIC);
+		header.writeInt(VERSION);
+		header.flush();
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		deflater.setStrategy(Deflater.HUFFMAN_ONLY); // the codes repeat little, but are few
+		try {
+			DeflaterOutputStream compressed = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+			DataOutputStream body = new DataOutputStream(new BufferedOutputStream(compressed, BUFFER_SIZE));
+			body.writeFloat(game.getWindowDimensions().x());
+			body.writeFloat(game.getWindowDimensions().y());
+			body.writeInt(game.getNumBricksPerRow());
+			body.writeInt(game.getNumRows());
+			body.writeLong(game.getSeed());
+			body.writeInt(game.getFramesPlayed());
+			body.writeInt(game.getStrategyNames().size());
+			for (String name : game.getStrategyNames()) {
+				body.writeUTF(name);
+			}
+			game.getSnapshot().writeTo(body);
+			writeStrategyIds(game.getStrategyIds(), game.getSnapshot(), body);
+			body.flush();
+			compressed.finish();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Reads a saved game written by write.
+	 *
+	 * @param in where to read from, left open
+	 * @return the game
+	 * @throws IOException if reading fails, or the file is not a save file of this version
+	 */
+	public static SavedGame read(InputStream in) throws IOException {
+		DataInputStream header = new DataInputStream(in);
+		if (header.readInt() != MAGIC || header.readInt() != VERSION) {
+			throw new IOException("not a save file of version " + VERSION);
+		}
+		Inflater inflater = new Inflater();
+		try {
+			DataInputStream body = new DataInputStream(new BufferedInputStream(
+					new InflaterInputStream(in, inflater, BUFFER_SIZE), BUFFER_SIZE));
+			Vector2 windowDimensions = new Vector2(body.readFloat(), body.readFloat());
+			int numBricksPerRow = body.readInt();
+			int numRows = body.readInt();
+			long seed = body.readLong();
+			int framesPlayed = body.readInt();
+			List<String> strategyNames = new ArrayList<>();
+			for (int i = body.readInt(); i > 0; i--) {
+				strategyNames.add(body.readUTF());
+			}
+			GameSnapshot snapshot = new GameSnapshot();
+			snapshot.readFrom(body);
+			int[] strategyIds = readStrategyIds(numBricksPerRow * numRows, snapshot, body);
+			return new SavedGame(windowDimensions, numBricksPerRow, numRows, seed, framesPlayed,
+					strategyNames, strategyIds, snapshot);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/*
+	 * Writes the strategy ids of the cells holding a brick, as indices into a dictionary of the ids.
+	 */
+	private static void writeStrategyIds(int[] strategyIds, GameSnapshot snapshot, DataOutputStream out)
+			throws IOException {
+		StrategyDictionary dictionary = new StrategyDictionary();
+		char[] codes = new char[snapshot.countBricksLeft()];
+		int numCodes = 0;
+		for (int cell = snapshot.nextBrickLeft(0); cell >= 0; cell = snapshot.nextBrickLeft(cell + 1)) {
+			codes[numCodes++] = (char) dictionary.codeOf(strategyIds[cell]);
+		}
+		out.writeInt(dictionary.size);
+		for (int code = 0; code < dictionary.size; code++) {
+			out.writeInt(dictionary.strategyIds[code]);
+		}
+		int codeBytes = dictionary.size <= BYTE_CODES ? Byte.BYTES : Short.BYTES;
+		out.writeByte(codeBytes);
+		byte[] encoded = new byte[numCodes * codeBytes];
+		int length = 0;
+		for (int i = 0; i < numCodes; i++) {
+			if (codeBytes == Short.BYTES) {
+				encoded[length++] = (byte) (codes[i] >>> Byte.SIZE);
+			}
+			encoded[length++] = (byte) codes[i];
+		}
+		out.write(encoded);
+	}
+
+	/*
+	 * Reads the strategy ids written by writeStrategyIds. Cells without a brick get id 0.
+	 */
+	private static int[] readStrategyIds(int numCells, GameSnapshot snapshot, DataInputStream in)
+			throws IOException {
+		int[] dictionary = new int[in.readInt()];
+		for (int i = 0; i < dictionary.length; i++) {
+			dictionary[i] = in.readInt();
+		}
+		int codeBytes = in.readByte();
+		byte[] encoded = new byte[snapshot.countBricksLeft() * codeBytes];
+		in.readFully(encoded);
+		int[] strategyIds = new int[numCells];
+		int position = 0;
+		for (int cell = snapshot.nextBrickLeft(0); cell >= 0; cell = snapshot.nextBrickLeft(cell + 1)) {
+			int code = encoded[position++] & 0xFF;
+			if (codeBytes == Short.BYTES) {
+				code = code << Byte.SIZE | encoded[position++] & 0xFF;
+			}
+			strategyIds[cell] = dictionary[code];
+		}
+		return strategyIds;
+	}
+
+	/*
+	 * The strategy ids met so far, each with its code (the order it was met in), in an open addressing
+	 * hash table, since a board holds many bricks but few different ids.
+	 */
+	private static final class StrategyDictionary {
+		private static final int INITIAL_CAPACITY = 256;
+		private static final int MAX_CODES = 1 << Short.SIZE;
+		private static final int EMPTY = -1; // strategy ids are never negative
+		private int[] keys = newTable(INITIAL_CAPACITY);
+		private int[] codes = new int[INITIAL_CAPACITY];
+		private int[] strategyIds = new int[INITIAL_CAPACITY];
+		private int size;
+
+		/*
+		 * The code of a strategy id, given the next code if it was never met.
+		 */
+		private int codeOf(int strategyId) {
+			int mask = keys.length - 1;
+			int slot = Integer.hashCode(strategyId * 0x9E3779B9) & mask;
+			while (keys[slot] != EMPTY) {
+				if (keys[slot] == strategyId) {
+					return codes[slot];
+				}
+				slot = (slot + 1) & mask;
+			}
+			if (size == MAX_CODES) {
+				throw new IllegalStateException("too many different strategies to save");
+			}
+			if (size == strategyIds.length) {
+				strategyIds = Arrays.copyOf(strategyIds, size * 2);
+			}
+			strategyIds[size] = strategyId;
+			keys[slot] = strategyId;
+			codes[slot] = size++;
+			if (size * 2 > keys.length) {
+				rehash();
+			}
+			return size - 1;
+		}
+
+		/*
+		 * Doubles the table.
+		 */
+		private void rehash() {
+			int[] oldKeys = keys;
+			int[] oldCodes = codes;
+			keys = newTable(oldKeys.length * 2);
+			codes = new int[oldKeys.length * 2];
+			int mask = keys.length - 1;
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldKeys[i] != EMPTY) {
+					int slot = Integer.hashCode(oldKeys[i] * 0x9E3779B9) & mask;
+					while (keys[slot] != EMPTY) {
+						slot = (slot + 1) & mask;
+					}
+					keys[slot] = oldKeys[i];
+					codes[slot] = oldCodes[i];
+				}
+			}
+		}
+
+		/*
+		 * An empty table of the given capacity.
+		 */
+		private static int[] newTable(int capacity) {
+			int[] table = new int[capacity];
+			Arrays.fill(table, EMPTY);
+			return table;
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package bricker.save;
+
+import bricker.rewind.GameSnapshot;
+import danogl.util.Vector2;
+
+import java.util.List;
+
+/**
+ * A game as saved to resume later: the shape of the board and the seed of the game, the collision
+ * strategy of every cell as a strategy id, and the state of the game between two frames as a
+ * GameSnapshot (the bricks left, the moving objects and the counters).
+ *
+ * @author Ron Stein
+ * @see SaveFile
+ * @see SaveFormat
+ */
+public class SavedGame {
+	private final Vector2 windowDimensions;
+	private final int numBricksPerRow;
+	private final int numRows;
+	private final long seed;
+	private final int framesPlayed;
+	private final List<String> strategyNames;
+	private final int[] strategyIds;
+	private final GameSnapshot snapshot;
+
+	/**
+	 * Constructor for SavedGame. The arrays and the snapshot are kept, not copied.
+	 *
+	 * @param windowDimensions the dimensions of the window the game was played in
+	 * @param numBricksPerRow  the number of bricks per row
+	 * @param numRows          the number of rows of bricks
+	 * @param seed             the seed of the game
+	 * @param framesPlayed     the number of frames the game lasted so far
+	 * @param strategyNames    the names of the strategies the strategy ids refer to, in index order
+	 * @param strategyIds      the strategy id of every cell, meaningful for the cells holding a brick
+	 * @param snapshot         the state of the game
+	 * @see bricker.brick_strategies.CollisionStrategyFactory#getStrategyNames()
+	 */
+	public SavedGame(Vector2 windowDimensions, int numBricksPerRow, int numRows, long seed, int framesPlayed,
+					 List<String> strategyNames, int[] strategyIds, GameSnapshot snapshot) {
+		this.windowDimensions = windowDimensions;
+		this.numBricksPerRow = numBricksPerRow;
+		this.numRows = numRows;
+		this.seed = seed;
+		this.framesPlayed = framesPlayed;
+		this.strategyNames = strategyNames;
+		this.strategyIds = strategyIds;
+		this.snapshot = snapshot;
+	}
+
+	/**
+	 * Gets the dimensions of the window the game was played in.
+	 *
+	 * @return the window dimensions
+	 */
+	public Vector2 getWindowDimensions() {
+		return windowDimensions;
+	}
+
+	/**
+	 * Gets the number of bricks per row.
+	 *
+	 * @return the number of bricks per row
+	 */
+	public int getNumBricksPerRow() {
+		return numBricksPerRow;
+	}
+
+	/**
+	 * Gets the number of rows of bricks.
+	 *
+	 * @return the number of rows
+	 */
+	public int getNumRows() {
+		return numRows;
+	}
+
+	/**
+	 * Gets the seed of the game.
+	 *
+	 * @return the seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Gets the number of frames the game lasted when it was saved.
+	 *
+	 * @return the number of frames played
+	 */
+	public int getFramesPlayed() {
+		return framesPlayed;
+	}
+
+	/**
+	 * Gets the names of the strategies the strategy ids refer to.
+	 *
+	 * @return the strategy names, in index order
+	 */
+	public List<String> getStrategyNames() {
+		return strategyNames;
+	}
+
+	/**
+	 * Gets the strategy id of every cell.
+	 *
+	 * @return the strategy ids, indexed by row * bricks per row + column
+	 */
+	public int[] getStrategyIds() {
+		return strategyIds;
+	}
+
+	/**
+	 * Gets the state of the game.
+	 *
+	 * @return the snapshot of the game
+	 */
+	public GameSnapshot getSnapshot() {
+		return snapshot;
+	}
+}
@@ -0,0 +1,405 @@
+package bricker.scores;
+
+import bricker.paddle_controllers.PaddleControllerType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.CRC32C;
+
+/**
+ * Keeps the outcome of every game, and the high scores among them, in a file that survives crashes.
+ * The file is an append-only log of fixed-size records, each with a checksum, accessed through a
+ * memory-mapped buffer. Its header holds a small index of the TOP_SCORES best ranked records, in two
+ * slots written in turn, each with a sequence number and a checksum, so one of them is always whole.
+ * Opening the file reads the newer whole index and the few records it points to, whatever the length
+ * of the history; only the records appended after the index was last written (normally none) are read
+ * to find the end of the log. A record or index torn by a crash fails its checksum: a torn record ends
+ * the log and is overwritten by the next game, and a torn index slot leaves the other one in use. If
+ * neither slot is whole, the index is rebuilt from the records.
+ * Games are submitted by the game thread, which only queues them; a background writer appends them and
+ * updates the index, so the frame never waits for the disk.
+ *
+ * <pre>
+ * file:   int magic "BKHS", int version, index slot 0, index slot 1, then records from RECORDS_OFFSET
+ * index:  long sequence, int number of records covered, int number of top scores,
+ *         TOP_SCORES * (int score, int record number), int checksum of the slot
+ * record: int checksum of the rest, long end time, long seed, int score, int frames,
+ *         short bricks per row, short rows, byte controller type, byte victory, 6 bytes reserved
+ * </pre>
+ *
+ * @author Aron Isaacs
+ * @see SessionRecord
+ */
+public class HighScoreStore {
+	/**
+	 * The system property naming the file the scores are kept in.
+	 */
+	public static final String SCORES_FILE_PROPERTY = "bricker.scores";
+	/**
+	 * The number of high scores kept.
+	 */
+	public static final int TOP_SCORES = 10;
+	private static final String DEFAULT_SCORES_FILE = "bricker-scores.bin";
+	private static final int MAGIC = 0x424B4853; // "BKHS"
+	private static final int VERSION = 1;
+	private static final int INDEX_OFFSET = 2 * Integer.BYTES;
+	private static final int INDEX_SLOT_SIZE = Long.BYTES + (3 + 2 * TOP_SCORES) * Integer.BYTES;
+	private static final int RECORDS_OFFSET = 256;
+	private static final int RECORD_SIZE = 40;
+	private static final int INITIAL_RECORD_CAPACITY = 1024;
+	private static final PaddleControllerType[] CONTROLLER_TYPES = PaddleControllerType.values();
+	private static final SessionRecord CLOSE = new SessionRecord(0, 0, 0, 0, 0, 0, null, false);
+	private final FileChannel file;
+	private final BlockingQueue<SessionRecord> pending = new LinkedBlockingQueue<>();
+	private Thread writer;
+	private final List<SessionRecord> topScores = new ArrayList<>(); // the game thread's copy
+	private final CRC32C crc = new CRC32C();
+	private MappedByteBuffer buffer;
+	private int recordCapacity;
+	private int numRecords;
+	private long indexSequence;
+	private final int[] indexScores = new int[TOP_SCORES];
+	private final int[] indexRecords = new int[TOP_SCORES];
+	private int numIndexed;
+
+	/*
+	 * Constructs a store over an opened file, or a disabled store when the file is null.
+	 */
+	private HighScoreStore(FileChannel file) {
+		this.file = file;
+	}
+
+	/*
+	 * Maps the file, writing the header of a new file, and reads the index and the high scores.
+	 */
+	private void load() throws IOException {
+		recordCapacity = (int) Math.max(INITIAL_RECORD_CAPACITY,
+				(file.size() - RECORDS_OFFSET + RECORD_SIZE - 1) / RECORD_SIZE);
+		buffer = file.map(FileChannel.MapMode.READ_WRITE, 0,
+				RECORDS_OFFSET + (long) recordCapacity * RECORD_SIZE);
+		if (buffer.getInt(0) == 0) {
+			buffer.putInt(0, MAGIC).putInt(Integer.BYTES, VERSION);
+			buffer.force();
+		} else if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+			throw new IOException("not a high score file of version " + VERSION);
+		}
+		if (!readIndex()) {
+			rebuildIndex();
+		}
+		// the records appended after the index was last written
+		for (SessionRecord session = readNextRecord(); session != null; session = readNextRecord()) {
+			rank(session, numRecords);
+			numRecords++;
+		}
+		for (int i = 0; i < numIndexed; i++) {
+			SessionRecord session = readRecord(indexRecords[i]);
+			if (session != null) {
+				topScores.add(session);
+			}
+		}
+	}
+
+	/**
+	 * Opens the store kept in the given file, creating the file if it does not exist.
+	 *
+	 * @param path the file the scores are kept in
+	 * @return an enabled store
+	 * @throws IOException if the file cannot be opened, or is not a high score file
+	 */
+	public static HighScoreStore open(Path path) throws IOException {
+		FileChannel file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		HighScoreStore store = new HighScoreStore(file);
+		try {
+			store.load();
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		}
+		store.writer = new Thread(store::writeLoop, "bricker-high-scores");
+		store.writer.setDaemon(true);
+		store.writer.start();
+		return store;
+	}
+
+	/**
+	 * Opens the store in the file named by the SCORES_FILE_PROPERTY system property, or in
+	 * DEFAULT_SCORES_FILE if it is not set. The store is closed (and its pending games written) when the
+	 * JVM shuts down.
+	 *
+	 * @return the opened store
+	 */
+	public static HighScoreStore fromSystemProperty() {
+		String path = System.getProperty(SCORES_FILE_PROPERTY, DEFAULT_SCORES_FILE);
+		try {
+			HighScoreStore store = open(Path.of(path));
+			Runtime.getRuntime().addShutdownHook(new Thread(store::close));
+			return store;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Creates a store that keeps nothing.
+	 *
+	 * @return a disabled store
+	 */
+	public static HighScoreStore disabled() {
+		return new HighScoreStore(null);
+	}
+
+	/**
+	 * Checks whether the store keeps anything.
+	 *
+	 * @return true if the store is backed by a file
+	 */
+	public boolean isEnabled() {
+		return file != null;
+	}
+
+	/**
+	 * Submits the outcome of a game. Never blocks: the game is written by the background writer.
+	 * Called by the game thread.
+	 *
+	 * @param session the outcome of the game
+	 */
+	public void submit(SessionRecord session) {
+		if (file == null) {
+			return;
+		}
+		if (session.isRanked()) {
+			int position = 0;
+			int score = session.getScore();
+			while (position < topScores.size() && topScores.get(position).getScore() >= score) {
+				position++;
+			}
+			if (position < TOP_SCORES) {
+				topScores.add(position, session);
+				if (topScores.size() > TOP_SCORES) {
+					topScores.remove(TOP_SCORES);
+				}
+			}
+		}
+		pending.add(session);
+	}
+
+	/**
+	 * Gets the high scores, best first, including the games submitted but not written yet.
+	 * Called by the game thread.
+	 *
+	 * @return the best ranked games, at most TOP_SCORES of them
+	 */
+	public List<SessionRecord> getTopScores() {
+		return Collections.unmodifiableList(topScores);
+	}
+
+	/**
+	 * Gets the best score. Called by the game thread.
+	 *
+	 * @return the best ranked score, or 0 if no ranked game was played
+	 */
+	public int getBestScore() {
+		return topScores.isEmpty() ? 0 : topScores.get(0).getScore();
+	}
+
+	/**
+	 * Builds a summary of the high scores, one line per score.
+	 *
+	 * @return a human readable report
+	 */
+	public String report() {
+		StringBuilder report = new StringBuilder("high scores:");
+		for (int i = 0; i < topScores.size(); i++) {
+			SessionRecord session = topScores.get(i);
+			report.append(String.format("%n%2d. %6d %s %dx%d seed=%d", i + 1, session.getScore(),
+					session.isVictory() ? "won " : "lost", session.getBricksPerRow(), session.getRows(),
+					session.getSeed()));
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Writes the games still pending and closes the file.
+	 */
+	public void close() {
+		if (file == null || !writer.isAlive()) {
+			return;
+		}
+		pending.add(CLOSE);
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/*
+	 * The loop of the background writer: appends the pending games one at a time until closed.
+	 */
+	private void writeLoop() {
+		try {
+			for (SessionRecord session = pending.take(); session != CLOSE; session = pending.take()) {
+				append(session);
+			}
+			file.close();
+		} catch (InterruptedException e) {
+			// stopped, the games still pending are lost
+		} catch (IOException e) {
+			System.out.println("high scores not saved: " + e.getMessage());
+		}
+	}
+
+	/*
+	 * Appends a record and makes it durable, then ranks it and writes the index.
+	 */
+	private void append(SessionRecord session) throws IOException {
+		if (numRecords == recordCapacity) {
+			recordCapacity *= 2;
+			buffer = file.map(FileChannel.MapMode.READ_WRITE, 0,
+					RECORDS_OFFSET + (long) recordCapacity * RECORD_SIZE);
+		}
+		int offset = recordOffset(numRecords);
+		buffer.putLong(offset + Integer.BYTES, session.getEndTimeMillis())
+				.putLong(offset + 12, session.getSeed())
+				.putInt(offset + 20, session.getScore())
+				.putInt(offset + 24, session.getFrames())
+				.putShort(offset + 28, (short) session.getBricksPerRow())
+				.putShort(offset + 30, (short) session.getRows())
+				.put(offset + 32, (byte) session.getControllerType().ordinal())
+				.put(offset + 33, (byte) (session.isVictory() ? 1 : 0));
+		buffer.putInt(offset, checksum(offset + Integer.BYTES, RECORD_SIZE - Integer.BYTES));
+		buffer.force(offset, RECORD_SIZE);
+		rank(session, numRecords);
+		numRecords++;
+		writeIndex();
+	}
+
+	/*
+	 * Reads a record, or returns null if its checksum does not match (a torn or never written record).
+	 */
+	private SessionRecord readRecord(int record) {
+		int offset = recordOffset(record);
+		if (buffer.getInt(offset) != checksum(offset + Integer.BYTES, RECORD_SIZE - Integer.BYTES)) {
+			return null;
+		}
+		int controller = buffer.get(offset + 32);
+		if (controller < 0 || controller >= CONTROLLER_TYPES.length) {
+			return null;
+		}
+		return new SessionRecord(buffer.getLong(offset + Integer.BYTES), buffer.getLong(offset + 12),
+				buffer.getInt(offset + 20), buffer.getInt(offset + 24), buffer.getShort(offset + 28),
+				buffer.getShort(offset + 30), CONTROLLER_TYPES[controller], buffer.get(offset + 33) != 0);
+	}
+
+	/*
+	 * Puts a ranked record into the index if it is among the best, after the records with the same score.
+	 */
+	private void rank(SessionRecord session, int record) {
+		if (!session.isRanked()) {
+			return;
+		}
+		int position = numIndexed;
+		while (position > 0 && indexScores[position - 1] < session.getScore()) {
+			position--;
+		}
+		if (position == TOP_SCORES) {
+			return;
+		}
+		int moved = Math.min(numIndexed, TOP_SCORES - 1) - position;
+		System.arraycopy(indexScores, position, indexScores, position + 1, moved);
+		System.arraycopy(indexRecords, position, indexRecords, position + 1, moved);
+		indexScores[position] = session.getScore();
+		indexRecords[position] = record;
+		numIndexed = Math.min(numIndexed + 1, TOP_SCORES);
+	}
+
+	/*
+	 * Reads the newer of the whole index slots. Returns false if neither slot is whole.
+	 */
+	private boolean readIndex() {
+		int newest = -1;
+		for (int slot = 0; slot < 2; slot++) {
+			int offset = INDEX_OFFSET + slot * INDEX_SLOT_SIZE;
+			int checksumOffset = offset + INDEX_SLOT_SIZE - Integer.BYTES;
+			boolean whole = buffer.getLong(offset) > 0
+					&& buffer.getInt(checksumOffset) == checksum(offset, INDEX_SLOT_SIZE - Integer.BYTES);
+			if (whole && (newest < 0 || buffer.getLong(offset) > indexSequence)) {
+				newest = slot;
+				indexSequence = buffer.getLong(offset);
+			}
+		}
+		if (newest < 0) {
+			return false;
+		}
+		int offset = INDEX_OFFSET + newest * INDEX_SLOT_SIZE;
+		numRecords = Math.min(buffer.getInt(offset + Long.BYTES), recordCapacity);
+		numIndexed = Math.min(buffer.getInt(offset + Long.BYTES + Integer.BYTES), TOP_SCORES);
+		for (int i = 0; i < numIndexed; i++) {
+			int entry = offset + Long.BYTES + 2 * Integer.BYTES + i * 2 * Integer.BYTES;
+			indexScores[i] = buffer.getInt(entry);
+			indexRecords[i] = buffer.getInt(entry + Integer.BYTES);
+		}
+		return true;
+	}
+
+	/*
+	 * Forgets the index when no slot is whole, so every record of the log is ranked again from the start.
+	 * The index is written again with the next game.
+	 */
+	private void rebuildIndex() {
+		numRecords = 0;
+		numIndexed = 0;
+	}
+
+	/*
+	 * Reads the record after the last one known, or returns null at the end of the log.
+	 */
+	private SessionRecord readNextRecord() {
+		return numRecords < recordCapacity ? readRecord(numRecords) : null;
+	}
+
+	/*
+	 * Writes the index into the older slot, and makes it durable.
+	 */
+	private void writeIndex() {
+		indexSequence++;
+		int offset = INDEX_OFFSET + (int) (indexSequence % 2) * INDEX_SLOT_SIZE;
+		buffer.putLong(offset, indexSequence)
+				.putInt(offset + Long.BYTES, numRecords)
+				.putInt(offset + Long.BYTES + Integer.BYTES, numIndexed);
+		for (int i = 0; i < TOP_SCORES; i++) {
+			int entry = offset + Long.BYTES + 2 * Integer.BYTES + i * 2 * Integer.BYTES;
+			buffer.putInt(entry, i < numIndexed ? indexScores[i] : 0)
+					.putInt(entry + Integer.BYTES, i < numIndexed ? indexRecords[i] : 0);
+		}
+		int checksumOffset = offset + INDEX_SLOT_SIZE - Integer.BYTES;
+		buffer.putInt(checksumOffset, checksum(offset, INDEX_SLOT_SIZE - Integer.BYTES));
+		buffer.force(offset, INDEX_SLOT_SIZE);
+	}
+
+	/*
+	 * The CRC-32C of a range of the file.
+	 */
+	private int checksum(int offset, int length) {
+		crc.reset();
+		crc.update(buffer.slice(offset, length));
+		return (int) crc.getValue();
+	}
+
+	/*
+	 * The offset of a record in the file.
+	 */
+	private static int recordOffset(int record) {
+		return RECORDS_OFFSET + record * RECORD_SIZE;
+	}
+}
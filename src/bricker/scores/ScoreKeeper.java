@@ -0,0 +1,62 @@
+package bricker.scores;
+
+import bricker.gameplay_events.GameplayEvent;
+import bricker.gameplay_events.GameplayEventListener;
+import bricker.gameplay_events.GameplayEventType;
+import bricker.main.GameState;
+import danogl.GameObject;
+
+/**
+ * Scores a game from its gameplay events. Every brick destroyed is worth BRICK_POINTS, and PUCK_BONUS
+ * more when a puck destroyed it. Explosions are worth more the longer the chain they are part of: the
+ * n-th explosion of a chain is worth n * EXPLOSION_POINTS. A chain is all the explosions set off by one
+ * another, which the bus delivers in a single batch.
+ * The score is kept in the game state, so it is captured and restored with the rest of the game.
+ *
+ * @author Aron Isaacs
+ * @see GameState#addScore(int)
+ */
+public class ScoreKeeper implements GameplayEventListener {
+	private static final int BRICK_POINTS = 10;
+	private static final int PUCK_BONUS = 15;
+	private static final int EXPLOSION_POINTS = 25;
+	private final GameState gameState;
+	private final String puckTag;
+	private int chainLength;
+
+	/**
+	 * Constructor for the ScoreKeeper.
+	 *
+	 * @param gameState the game state the score is added to
+	 * @param puckTag   the tag of the pucks
+	 */
+	public ScoreKeeper(GameState gameState, String puckTag) {
+		this.gameState = gameState;
+		this.puckTag = puckTag;
+	}
+
+	/**
+	 * Adds the points of a destroyed brick or of an explosion.
+	 *
+	 * @param event the event that happened
+	 */
+	@Override
+	public void onEvent(GameplayEvent event) {
+		if (event.getType() == GameplayEventType.BRICK_DESTROYED) {
+			GameObject other = event.getOther();
+			boolean byPuck = other != null && puckTag.equals(other.getTag());
+			gameState.addScore(byPuck ? BRICK_POINTS + PUCK_BONUS : BRICK_POINTS);
+		} else if (event.getType() == GameplayEventType.EXPLOSION_TRIGGERED) {
+			chainLength++;
+			gameState.addScore(chainLength * EXPLOSION_POINTS);
+		}
+	}
+
+	/**
+	 * Ends the current chain of explosions.
+	 */
+	@Override
+	public void onBatchEnd() {
+		chainLength = 0;
+	}
+}
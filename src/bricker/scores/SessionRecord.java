@@ -0,0 +1,127 @@
+package bricker.scores;
+
+import bricker.paddle_controllers.PaddleControllerType;
+
+/**
+ * The outcome of one game, as kept in the high score store: when it ended, its seed and board, who
+ * played it, its score, how many frames it lasted and whether it was won.
+ * Only games played from the keyboard are ranked among the high scores; the others are kept as history.
+ *
+ * @author Aron Isaacs
+ * @see HighScoreStore
+ */
+public class SessionRecord {
+	private final long endTimeMillis;
+	private final long seed;
+	private final int score;
+	private final int frames;
+	private final int bricksPerRow;
+	private final int rows;
+	private final PaddleControllerType controllerType;
+	private final boolean victory;
+
+	/**
+	 * Constructs a SessionRecord.
+	 *
+	 * @param endTimeMillis  when the game ended, in milliseconds since the epoch
+	 * @param seed           the seed of the game
+	 * @param score          the final score
+	 * @param frames         the number of frames the game lasted
+	 * @param bricksPerRow   the number of bricks per row of the board
+	 * @param rows           the number of rows of the board
+	 * @param controllerType who controlled the paddles
+	 * @param victory        true if the game was won
+	 */
+	public SessionRecord(long endTimeMillis, long seed, int score, int frames, int bricksPerRow, int rows,
+						 PaddleControllerType controllerType, boolean victory) {
+		this.endTimeMillis = endTimeMillis;
+		this.seed = seed;
+		this.score = score;
+		this.frames = frames;
+		this.bricksPerRow = bricksPerRow;
+		this.rows = rows;
+		this.controllerType = controllerType;
+		this.victory = victory;
+	}
+
+	/**
+	 * Gets when the game ended.
+	 *
+	 * @return the end time in milliseconds since the epoch
+	 */
+	public long getEndTimeMillis() {
+		return endTimeMillis;
+	}
+
+	/**
+	 * Gets the seed of the game.
+	 *
+	 * @return the seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Gets the final score.
+	 *
+	 * @return the score
+	 */
+	public int getScore() {
+		return score;
+	}
+
+	/**
+	 * Gets the number of frames the game lasted.
+	 *
+	 * @return the number of frames
+	 */
+	public int getFrames() {
+		return frames;
+	}
+
+	/**
+	 * Gets the number of bricks per row of the board.
+	 *
+	 * @return the number of bricks per row
+	 */
+	public int getBricksPerRow() {
+		return bricksPerRow;
+	}
+
+	/**
+	 * Gets the number of rows of the board.
+	 *
+	 * @return the number of rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Gets who controlled the paddles.
+	 *
+	 * @return the paddle controller type
+	 */
+	public PaddleControllerType getControllerType() {
+		return controllerType;
+	}
+
+	/**
+	 * Checks whether the game was won.
+	 *
+	 * @return true if the game was won
+	 */
+	public boolean isVictory() {
+		return victory;
+	}
+
+	/**
+	 * Checks whether the game competes for the high scores, which only games played from the keyboard do.
+	 *
+	 * @return true if the game is ranked
+	 */
+	public boolean isRanked() {
+		return controllerType == PaddleControllerType.KEYBOARD;
+	}
+}
@@ -0,0 +1,39 @@
+package bricker.timing;
+
+/**
+ * Something that happens once a number of ticks has passed, scheduled on a TimingWheel. The links of
+ * the task in the wheel are kept in the task itself, so scheduling and cancelling never allocate and
+ * a task is cancelled in constant time. A task is scheduled on one wheel at a time, and can be
+ * scheduled again once it expired or was cancelled.
+ *
+ * @author Ron Stein
+ * @see TimingWheel
+ */
+public abstract class TimedTask {
+	TimingWheel wheel; // the wheel the task is scheduled on, null when it is not scheduled
+	TimedTask previous;
+	TimedTask next;
+	long deadline;
+	int slot;
+
+	/**
+	 * Constructs an unscheduled TimedTask.
+	 */
+	public TimedTask() {
+	}
+
+	/**
+	 * Checks whether the task is waiting to expire.
+	 *
+	 * @return true if the task is scheduled on a wheel
+	 */
+	public boolean isScheduled() {
+		return wheel != null;
+	}
+
+	/**
+	 * Called by the wheel in the tick the task expires in, once it is no longer scheduled. May schedule
+	 * and cancel tasks, this one included.
+	 */
+	protected abstract void expire();
+}
@@ -0,0 +1,160 @@
+package bricker.timing;
+
+/**
+ * A hierarchical timing wheel: tasks expiring after a number of ticks, in constant time per tick however
+ * many tasks are waiting, instead of every waiting object counting down in its own update.
+ * The wheel has LEVELS levels of SLOTS slots each. A slot of level 0 holds the tasks expiring in one
+ * tick, a slot of level 1 the tasks expiring in SLOTS ticks, and so on, each level SLOTS times coarser
+ * than the one below. A task goes to the finest level that reaches its deadline. Every tick expires the
+ * tasks of the current slot of level 0, and whenever a level wraps around, the current slot of the next
+ * level is cascaded: its tasks are spread over the finer levels. A task is cascaded at most once per
+ * level, so scheduling, cancelling and ticking are all O(1) (ticking amortized), and nothing is scanned.
+ * <pre>
+ * level 0: ticks       0 .. 63         one tick per slot
+ * level 1: ticks      64 .. 4095       64 ticks per slot
+ * level 2: ticks    4096 .. 262143     4096 ticks per slot
+ * level 3: ticks  262144 .. MAX_DELAY  262144 ticks per slot
+ * </pre>
+ * Tasks expiring in the same tick expire in no particular, but reproducible, order.
+ *
+ * @author Ron Stein
+ * @see TimedTask
+ */
+public class TimingWheel {
+	private static final int SLOT_BITS = 6;
+	private static final int SLOTS = 1 << SLOT_BITS;
+	private static final int SLOT_MASK = SLOTS - 1;
+	private static final int LEVELS = 4;
+	/**
+	 * The longest delay a task can be scheduled with, about 77 hours at 60 ticks per second. Longer
+	 * delays are cut to it.
+	 */
+	public static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+	private final TimedTask[] slots = new TimedTask[LEVELS * SLOTS]; // the first task of every slot
+	private long now;
+	private int size;
+
+	/**
+	 * Constructs an empty TimingWheel at tick 0.
+	 */
+	public TimingWheel() {
+	}
+
+	/**
+	 * Schedules a task to expire after the given number of ticks.
+	 *
+	 * @param task  the task, not scheduled yet
+	 * @param delay the number of ticks, at least 1 (a task never expires in the tick it is scheduled in)
+	 * @throws IllegalStateException if the task is already scheduled
+	 */
+	public void schedule(TimedTask task, long delay) {
+		if (task.wheel != null) {
+			throw new IllegalStateException("the task is already scheduled");
+		}
+		task.wheel = this;
+		task.deadline = now + Math.max(1, Math.min(delay, MAX_DELAY));
+		insert(task);
+		size++;
+	}
+
+	/**
+	 * Cancels a task, so it never expires. Does nothing if the task is not scheduled on this wheel.
+	 *
+	 * @param task the task
+	 */
+	public void cancel(TimedTask task) {
+		if (task.wheel != this) {
+			return;
+		}
+		unlink(task);
+		task.wheel = null;
+		size--;
+	}
+
+	/**
+	 * Moves to the next tick and expires the tasks whose deadline it is.
+	 */
+	public void advance() {
+		now++;
+		int index = (int) (now & SLOT_MASK);
+		for (int level = 1; level < LEVELS && index == 0; level++) {
+			index = (int) (now >>> (level * SLOT_BITS) & SLOT_MASK);
+			cascade(level * SLOTS + index);
+		}
+		int slot = (int) (now & SLOT_MASK);
+		while (slots[slot] != null) {
+			TimedTask task = slots[slot];
+			unlink(task);
+			task.wheel = null;
+			size--;
+			task.expire();
+		}
+	}
+
+	/**
+	 * Gets the number of ticks until a task expires.
+	 *
+	 * @param task a task scheduled on this wheel
+	 * @return the number of ticks left, at least 1
+	 */
+	public long getTicksLeft(TimedTask task) {
+		return task.deadline - now;
+	}
+
+	/**
+	 * Gets the number of tasks waiting to expire.
+	 *
+	 * @return the number of scheduled tasks
+	 */
+	public int size() {
+		return size;
+	}
+
+	/*
+	 * Moves the tasks of a slot of a coarse level to the finer levels, now that their deadline is close.
+	 */
+	private void cascade(int slot) {
+		TimedTask task = slots[slot];
+		slots[slot] = null;
+		while (task != null) {
+			TimedTask next = task.next;
+			insert(task);
+			task = next;
+		}
+	}
+
+	/*
+	 * Adds a task to the slot of the finest level reaching its deadline.
+	 */
+	private void insert(TimedTask task) {
+		long delay = task.deadline - now;
+		int level = 0;
+		while (level < LEVELS - 1 && delay >= 1L << ((level + 1) * SLOT_BITS)) {
+			level++;
+		}
+		int slot = level * SLOTS + (int) (task.deadline >>> (level * SLOT_BITS) & SLOT_MASK);
+		task.slot = slot;
+		task.previous = null;
+		task.next = slots[slot];
+		if (task.next != null) {
+			task.next.previous = task;
+		}
+		slots[slot] = task;
+	}
+
+	/*
+	 * Removes a task from its slot.
+	 */
+	private void unlink(TimedTask task) {
+		if (task.previous != null) {
+			task.previous.next = task.next;
+		} else {
+			slots[task.slot] = task.next;
+		}
+		if (task.next != null) {
+			task.next.previous = task.previous;
+		}
+		task.previous = null;
+		task.next = null;
+	}
+}
@@ -0,0 +1,312 @@
+package bricker.training;
+
+import bricker.gameobjects.Ball;
+import bricker.gameobjects.Brick;
+import bricker.gameobjects.Paddle;
+import bricker.gameobjects.SubPaddle;
+import bricker.gameplay_events.GameplayEvent;
+import bricker.gameplay_events.GameplayEventType;
+import bricker.gameplay_log.GameplayEventLog;
+import bricker.main.BrickerGameManager;
+import bricker.main.GameState;
+import bricker.main.SoakStatistics;
+import bricker.paddle_controllers.PaddleControllerType;
+import bricker.paddle_controllers.RemotePaddleController;
+import danogl.GameObject;
+import danogl.collisions.Layer;
+import danogl.util.Vector2;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A Bricker game wrapped as an environment to train paddle controlling agents against: reset starts a
+ * game from a seed, and step moves the paddles for one frame and plays it. The game is the real game,
+ * played headless with a remote paddle controller that the action of every step is handed to.
+ * The observation of the game is written in place, after reset and after every step, into one direct
+ * buffer in the native byte order, which an agent (or native code, or another process) can read without
+ * copying. No observation is allocated per step, and the board is not rewritten either: the bricks left
+ * are kept as a bitset in the buffer, and only the bits of the bricks destroyed during a step are cleared.
+ * <pre>
+ * header: int frames played, int score, int lives, int bricks left, int episode state, float reward
+ *         (the score gained by the last step)                                                (24 bytes)
+ * ball:   float center x, float center y, float velocity x, float velocity y                 (16 bytes)
+ * paddle: float main paddle center x, y, int 1 if there is a sub paddle, float its center x, y (20 bytes)
+ * pucks:  int number of pucks (at most MAX_PUCKS), then MAX_PUCKS times center x, y and velocity x, y
+ *         (4 + 256 bytes, the pucks past the number of pucks are stale)
+ * bricks: one bit per cell, set while the cell holds a brick, cell row * bricks per row + column is bit
+ *         cell % 64 of long cell / 64                                                    (8 byte aligned)
+ * </pre>
+ * An environment is used by a single thread at a time; independent environments share no mutable
+ * state and run in parallel, see EnvironmentBatch.
+ *
+ * @author Aron Isaacs
+ * @see EnvironmentBatch
+ * @see RemotePaddleController
+ */
+public class BrickerEnvironment {
+	/**
+	 * The episode state of a game in progress.
+	 */
+	public static final int RUNNING = 0;
+	/**
+	 * The episode state of a game that was won or lost.
+	 */
+	public static final int TERMINATED = 1;
+	/**
+	 * The episode state of a game stopped after the maximal number of steps.
+	 */
+	public static final int TRUNCATED = 2;
+	/**
+	 * The most pucks an observation holds. Pucks past it are left out.
+	 */
+	public static final int MAX_PUCKS = 16;
+	/**
+	 * The offset of the frames played in the observation.
+	 */
+	public static final int FRAMES_OFFSET = 0;
+	/**
+	 * The offset of the score in the observation.
+	 */
+	public static final int SCORE_OFFSET = 4;
+	/**
+	 * The offset of the lives left in the observation.
+	 */
+	public static final int LIVES_OFFSET = 8;
+	/**
+	 * The offset of the number of bricks left in the observation.
+	 */
+	public static final int BRICKS_LEFT_OFFSET = 12;
+	/**
+	 * The offset of the episode state (RUNNING, TERMINATED or TRUNCATED) in the observation.
+	 */
+	public static final int STATE_OFFSET = 16;
+	/**
+	 * The offset of the reward of the last step in the observation.
+	 */
+	public static final int REWARD_OFFSET = 20;
+	/**
+	 * The offset of the ball in the observation.
+	 */
+	public static final int BALL_OFFSET = 24;
+	/**
+	 * The offset of the paddles in the observation.
+	 */
+	public static final int PADDLES_OFFSET = 40;
+	/**
+	 * The offset of the number of pucks in the observation, followed by the pucks.
+	 */
+	public static final int PUCKS_OFFSET = 60;
+	/**
+	 * The offset of the bitset of the bricks left in the observation.
+	 */
+	public static final int BRICKS_OFFSET = 320;
+	private static final int MOTION_SIZE = 4 * Float.BYTES;
+	private static final float STEP_TIME = 1 / 60f;
+	private static final Vector2 WINDOW_DIMENSIONS = new Vector2(800, 600);
+	private static final String WINDOW_TITLE = "Bricker (training)";
+	private static final float HALF = 0.5f;
+	private final int numBricksPerRow;
+	private final int numRows;
+	private final int maxSteps;
+	private final ByteBuffer observation;
+	private final SoakStatistics statistics = new SoakStatistics();
+	private BrickerGameManager game;
+	private RemotePaddleController controller;
+	private int steps;
+	private int lastScore;
+	private int state = TERMINATED;
+
+	/**
+	 * Constructs an environment with an observation buffer of its own. Call reset before stepping.
+	 *
+	 * @param numBricksPerRow the number of bricks per row
+	 * @param numRows         the number of rows of bricks
+	 * @param maxSteps        the number of steps after which an episode is truncated
+	 */
+	public BrickerEnvironment(int numBricksPerRow, int numRows, int maxSteps) {
+		this(numBricksPerRow, numRows, maxSteps,
+				ByteBuffer.allocateDirect(observationSize(numBricksPerRow, numRows)));
+	}
+
+	/**
+	 * Constructs an environment writing its observations into the given buffer, e.g. a slice of a buffer
+	 * holding the observations of many environments. Call reset before stepping.
+	 *
+	 * @param numBricksPerRow the number of bricks per row
+	 * @param numRows         the number of rows of bricks
+	 * @param maxSteps        the number of steps after which an episode is truncated
+	 * @param observation     the buffer, at least observationSize bytes from its position 0
+	 */
+	public BrickerEnvironment(int numBricksPerRow, int numRows, int maxSteps, ByteBuffer observation) {
+		if (observation.capacity() < observationSize(numBricksPerRow, numRows)) {
+			throw new IllegalArgumentException("the observation buffer holds " + observation.capacity() +
+					" bytes, " + observationSize(numBricksPerRow, numRows) + " are needed");
+		}
+		this.numBricksPerRow = numBricksPerRow;
+		this.numRows = numRows;
+		this.maxSteps = maxSteps;
+		this.observation = observation.order(ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * Gets the size of an observation of a board.
+	 *
+	 * @param numBricksPerRow the number of bricks per row
+	 * @param numRows         the number of rows of bricks
+	 * @return the size of an observation in bytes
+	 */
+	public static int observationSize(int numBricksPerRow, int numRows) {
+		int words = (numBricksPerRow * numRows + Long.SIZE - 1) / Long.SIZE;
+		return BRICKS_OFFSET + words * Long.BYTES;
+	}
+
+	/**
+	 * Gets the buffer the observations are written to. The same buffer is rewritten by every reset and
+	 * step, read it (with absolute gets) between them.
+	 *
+	 * @return the observation buffer, in the native byte order
+	 */
+	public ByteBuffer getObservation() {
+		return observation;
+	}
+
+	/**
+	 * Starts a new episode: a new game, whose board and random draws are decided by the seed, and writes
+	 * its first observation.
+	 *
+	 * @param seed the seed of the game
+	 */
+	public void reset(long seed) {
+		game = new BrickerGameManager(WINDOW_TITLE, WINDOW_DIMENSIONS, numBricksPerRow, numRows,
+				PaddleControllerType.REMOTE, statistics, GameplayEventLog.disabled());
+		game.setSeed(seed);
+		game.initializeHeadlessGame();
+		controller = (RemotePaddleController) game.getPaddleController();
+		game.getEventBus().subscribe(GameplayEventType.BRICK_DESTROYED, this::clearBrick);
+		int numCells = numBricksPerRow * numRows;
+		for (int cell = 0; cell < numCells; cell += Long.SIZE) {
+			int bricksInWord = Math.min(Long.SIZE, numCells - cell);
+			long word = -1L >>> (Long.SIZE - bricksInWord);
+			observation.putLong(BRICKS_OFFSET + cell / Long.SIZE * Long.BYTES, word);
+		}
+		steps = 0;
+		lastScore = 0;
+		state = RUNNING;
+		writeObservation(0);
+	}
+
+	/**
+	 * Moves the paddles in the given direction for one frame, plays the frame and writes the observation.
+	 *
+	 * @param action the direction of the paddles: -1 to move left, 1 to move right, 0 to stand still
+	 *               (values in between scale the speed, values outside are clamped)
+	 * @return the reward of the step, the score gained by it
+	 * @throws IllegalStateException if the episode is over, reset first
+	 */
+	public float step(float action) {
+		if (state != RUNNING) {
+			throw new IllegalStateException("the episode is over, reset the environment first");
+		}
+		controller.setDirection(Math.max(-1, Math.min(1, action)));
+		game.update(STEP_TIME);
+		steps++;
+		if (game.isSessionOver()) {
+			state = TERMINATED;
+		} else if (steps >= maxSteps) {
+			state = TRUNCATED;
+		}
+		int score = game.getGameState().getScore();
+		float reward = score - lastScore;
+		lastScore = score;
+		writeObservation(reward);
+		return reward;
+	}
+
+	/**
+	 * Gets the state of the episode, also written to the observation.
+	 *
+	 * @return RUNNING, TERMINATED or TRUNCATED
+	 */
+	public int getState() {
+		return state;
+	}
+
+	/**
+	 * Checks whether the episode is over, won, lost or truncated.
+	 *
+	 * @return true if the environment must be reset before stepping again
+	 */
+	public boolean isDone() {
+		return state != RUNNING;
+	}
+
+	/**
+	 * Gets the game of the current episode.
+	 *
+	 * @return the game, or null before the first reset
+	 */
+	public BrickerGameManager getGame() {
+		return game;
+	}
+
+	/*
+	 * Writes everything but the bricks, which are kept up to date as they are destroyed.
+	 */
+	private void writeObservation(float reward) {
+		GameState gameState = game.getGameState();
+		observation.putInt(FRAMES_OFFSET, game.getFramesPlayed());
+		observation.putInt(SCORE_OFFSET, gameState.getScore());
+		observation.putInt(LIVES_OFFSET, gameState.getLivesCounter());
+		observation.putInt(BRICKS_LEFT_OFFSET, gameState.getBricksCounter());
+		observation.putInt(STATE_OFFSET, state);
+		observation.putFloat(REWARD_OFFSET, reward);
+		Ball ball = game.getBall();
+		writeMotion(BALL_OFFSET, ball);
+		int numPucks = 0;
+		boolean subPaddle = false;
+		for (GameObject object : game.gameObjects().objectsInLayer(Layer.DEFAULT)) {
+			if (object instanceof SubPaddle) {
+				subPaddle = true;
+				writeCenter(PADDLES_OFFSET + 3 * Float.BYTES, object);
+			} else if (object instanceof Paddle) {
+				writeCenter(PADDLES_OFFSET, object);
+			} else if (object instanceof Ball && object != ball && numPucks < MAX_PUCKS) {
+				writeMotion(PUCKS_OFFSET + Integer.BYTES + numPucks * MOTION_SIZE, object);
+				numPucks++;
+			}
+		}
+		observation.putInt(PADDLES_OFFSET + 2 * Float.BYTES, subPaddle ? 1 : 0);
+		observation.putInt(PUCKS_OFFSET, numPucks);
+	}
+
+	/*
+	 * Writes the center and the velocity of a moving object.
+	 */
+	private void writeMotion(int offset, GameObject object) {
+		writeCenter(offset, object);
+		Vector2 velocity = object.getVelocity();
+		observation.putFloat(offset + 2 * Float.BYTES, velocity.x());
+		observation.putFloat(offset + 3 * Float.BYTES, velocity.y());
+	}
+
+	/*
+	 * Writes the center of an object, computed without making a vector.
+	 */
+	private void writeCenter(int offset, GameObject object) {
+		Vector2 topLeft = object.getTopLeftCorner();
+		Vector2 dimensions = object.getDimensions();
+		observation.putFloat(offset, topLeft.x() + dimensions.x() * HALF);
+		observation.putFloat(offset + Float.BYTES, topLeft.y() + dimensions.y() * HALF);
+	}
+
+	/*
+	 * Clears the bit of a destroyed brick.
+	 */
+	private void clearBrick(GameplayEvent event) {
+		Brick brick = (Brick) event.getSource();
+		int cell = brick.getRow() * numBricksPerRow + brick.getCol();
+		int offset = BRICKS_OFFSET + cell / Long.SIZE * Long.BYTES;
+		observation.putLong(offset, observation.getLong(offset) & ~(1L << cell));
+	}
+}
@@ -0,0 +1,229 @@
+package bricker.training;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Many BrickerEnvironments stepped together, as a vectorized environment. The observations of all the
+ * environments are written into one direct buffer, environment after environment, each
+ * observationSize bytes, and the actions are read from another, one float per environment, so an agent
+ * exchanges a whole batch without copying. Environments share no mutable state, so every step the batch
+ * is split into one contiguous range per worker of a fixed thread pool, and the workers step their
+ * ranges at the same time.
+ * An environment whose episode ended is reset by the next step instead of stepped, with the next seed of
+ * its own seed sequence, so its observation after that step is the first of a new episode, with a
+ * reward of 0. The seed sequences come from the seed of reset, which makes a batch reproducible
+ * whatever the number of workers.
+ *
+ * @author Aron Isaacs
+ * @see BrickerEnvironment
+ */
+public class EnvironmentBatch {
+	private static final int DEFAULT_NUM_ENVIRONMENTS = 256;
+	private static final int DEFAULT_NUM_BRICKS_PER_ROW = 8;
+	private static final int DEFAULT_NUM_ROWS = 6;
+	private static final int MAX_STEPS_PER_EPISODE = 60 * 60 * 10; // ten minutes of game time
+	private static final int BENCHMARK_BATCHES = 10_000;
+	private final BrickerEnvironment[] environments;
+	private final SplittableRandom[] seeds;
+	private final ByteBuffer observations;
+	private final ByteBuffer actions;
+	private final int observationSize;
+	private final List<Callable<Void>> resets = new ArrayList<>();
+	private final List<Callable<Void>> steps = new ArrayList<>();
+	private final ExecutorService workers;
+
+	/**
+	 * Steps a batch of environments with random actions as fast as possible, and prints the throughput.
+	 *
+	 * @param args command-line arguments: [numEnvironments [numThreads [numBricksPerRow numRows]]]
+	 */
+	public static void main(String[] args) {
+		int numEnvironments = DEFAULT_NUM_ENVIRONMENTS;
+		int numThreads = Runtime.getRuntime().availableProcessors();
+		int numBricksPerRow = DEFAULT_NUM_BRICKS_PER_ROW;
+		int numRows = DEFAULT_NUM_ROWS;
+		if (args.length >= 1) {
+			numEnvironments = Integer.parseInt(args[0]);
+		}
+		if (args.length >= 2) {
+			numThreads = Integer.parseInt(args[1]);
+		}
+		if (args.length == 4) {
+			numBricksPerRow = Integer.parseInt(args[2]);
+			numRows = Integer.parseInt(args[3]);
+		}
+		EnvironmentBatch batch = new EnvironmentBatch(numEnvironments, numThreads, numBricksPerRow, numRows,
+				MAX_STEPS_PER_EPISODE);
+		SplittableRandom random = new SplittableRandom(0);
+		batch.reset(random.nextLong());
+		long start = System.nanoTime();
+		for (int i = 0; i < BENCHMARK_BATCHES; i++) {
+			for (int environment = 0; environment < numEnvironments; environment++) {
+				batch.getActions().putFloat(environment * Float.BYTES, random.nextInt(3) - 1);
+			}
+			batch.step();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		batch.close();
+		double stepsPerSecond = (double) BENCHMARK_BATCHES * numEnvironments / seconds;
+		System.out.printf("%.0f steps/s, %.0f steps/s per thread (environments=%d threads=%d)%n",
+				stepsPerSecond, stepsPerSecond / numThreads, numEnvironments, numThreads);
+	}
+
+	/**
+	 * Constructs a batch of environments and starts its workers. Call reset before stepping.
+	 *
+	 * @param numEnvironments the number of environments
+	 * @param numThreads      the number of workers stepping the environments
+	 * @param numBricksPerRow the number of bricks per row of every board
+	 * @param numRows         the number of rows of bricks of every board
+	 * @param maxSteps        the number of steps after which an episode is truncated
+	 */
+	public EnvironmentBatch(int numEnvironments, int numThreads, int numBricksPerRow, int numRows,
+							int maxSteps) {
+		observationSize = BrickerEnvironment.observationSize(numBricksPerRow, numRows);
+		observations = ByteBuffer.allocateDirect(numEnvironments * observationSize)
+				.order(ByteOrder.nativeOrder());
+		actions = ByteBuffer.allocateDirect(numEnvironments * Float.BYTES).order(ByteOrder.nativeOrder());
+		environments = new BrickerEnvironment[numEnvironments];
+		seeds = new SplittableRandom[numEnvironments];
+		for (int i = 0; i < numEnvironments; i++) {
+			environments[i] = new BrickerEnvironment(numBricksPerRow, numRows, maxSteps,
+					observations.slice(i * observationSize, observationSize));
+		}
+		int numWorkers = Math.max(1, Math.min(numThreads, numEnvironments));
+		for (int worker = 0; worker < numWorkers; worker++) {
+			int from = worker * numEnvironments / numWorkers;
+			int to = (worker + 1) * numEnvironments / numWorkers;
+			resets.add(() -> {
+				resetRange(from, to);
+				return null;
+			});
+			steps.add(() -> {
+				stepRange(from, to);
+				return null;
+			});
+		}
+		AtomicInteger workerCount = new AtomicInteger();
+		workers = Executors.newFixedThreadPool(numWorkers, runnable -> {
+			Thread worker = new Thread(runnable, "bricker-environment-" + workerCount.incrementAndGet());
+			worker.setDaemon(true);
+			return worker;
+		});
+	}
+
+	/**
+	 * Gets the buffer the observations are written to, environment i at i * getObservationSize().
+	 *
+	 * @return the observation buffer, in the native byte order
+	 * @see BrickerEnvironment
+	 */
+	public ByteBuffer getObservations() {
+		return observations;
+	}
+
+	/**
+	 * Gets the buffer the actions are read from, the action of environment i as the float at
+	 * i * Float.BYTES. Write the actions before every step.
+	 *
+	 * @return the action buffer, in the native byte order
+	 */
+	public ByteBuffer getActions() {
+		return actions;
+	}
+
+	/**
+	 * Gets the size of the observation of one environment.
+	 *
+	 * @return the size in bytes
+	 */
+	public int getObservationSize() {
+		return observationSize;
+	}
+
+	/**
+	 * Gets the number of environments.
+	 *
+	 * @return the number of environments
+	 */
+	public int size() {
+		return environments.length;
+	}
+
+	/**
+	 * Starts a new episode in every environment, each with a seed sequence of its own drawn from the
+	 * given seed, and writes their first observations.
+	 *
+	 * @param seed the seed of the batch
+	 */
+	public void reset(long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		for (int i = 0; i < environments.length; i++) {
+			seeds[i] = random.split();
+		}
+		run(resets);
+	}
+
+	/**
+	 * Steps every environment with its action, or resets it if its episode ended, and waits for all of
+	 * them.
+	 */
+	public void step() {
+		run(steps);
+	}
+
+	/**
+	 * Stops the workers. The batch cannot be used afterwards.
+	 */
+	public void close() {
+		workers.shutdownNow();
+	}
+
+	/*
+	 * Resets the environments of a range.
+	 */
+	private void resetRange(int from, int to) {
+		for (int i = from; i < to; i++) {
+			environments[i].reset(seeds[i].nextLong());
+		}
+	}
+
+	/*
+	 * Steps the environments of a range, and resets the ones whose episode ended.
+	 */
+	private void stepRange(int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (environments[i].isDone()) {
+				environments[i].reset(seeds[i].nextLong());
+			} else {
+				environments[i].step(actions.getFloat(i * Float.BYTES));
+			}
+		}
+	}
+
+	/*
+	 * Runs one task per worker and waits for them.
+	 */
+	private void run(List<Callable<Void>> tasks) {
+		try {
+			for (Future<Void> task : workers.invokeAll(tasks)) {
+				task.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while stepping the environments", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("an environment failed", e.getCause());
+		}
+	}
+}